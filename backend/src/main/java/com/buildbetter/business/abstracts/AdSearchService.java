@@ -0,0 +1,19 @@
+package com.buildbetter.business.abstracts;
+
+import com.buildbetter.business.responses.GetSearchResultResponse;
+
+import java.util.List;
+import java.util.Map;
+
+public interface AdSearchService {
+
+    List<GetSearchResultResponse> search(String query, String type, int limit);
+
+    void reindexAd(String adId);
+
+    void removeAd(String adId);
+
+    void rebuild();
+
+    Map<String, Object> getStats();
+}
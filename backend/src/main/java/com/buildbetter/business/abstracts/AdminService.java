@@ -1,5 +1,7 @@
 package com.buildbetter.business.abstracts;
 
+import com.buildbetter.business.concretes.StorageMigrator;
+import com.buildbetter.business.requests.StartStorageMigrationRequest;
 import com.buildbetter.business.responses.admin.DashboardStatsResponse;
 import com.stripe.exception.StripeException;
 import org.springframework.http.ResponseEntity;
@@ -33,4 +35,8 @@ public interface AdminService {
     ResponseEntity<?> downloadStorage(String fileName);
 
     ResponseEntity<?> viewStorage(String fileName);
+
+    StorageMigrator.MigrationStatus startStorageMigration(StartStorageMigrationRequest request);
+
+    StorageMigrator.MigrationStatus getStorageMigrationStatus();
 }
\ No newline at end of file
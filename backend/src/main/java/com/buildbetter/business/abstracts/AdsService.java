@@ -1,8 +1,11 @@
 package com.buildbetter.business.abstracts;
 
+import com.buildbetter.business.requests.AttachDirectUploadsRequest;
 import com.buildbetter.business.requests.CreateAdsRequest;
+import com.buildbetter.business.requests.GetAdCatalogRequest;
 import com.buildbetter.business.requests.UpdateAdsRequest;
 import com.buildbetter.business.responses.GetAllAdsResponse;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,6 +16,8 @@ public interface AdsService {
 
     List<GetAllAdsResponse> getAll();
 
+    Page<GetAllAdsResponse> getCatalog(GetAdCatalogRequest request);
+
     List<GetAllAdsResponse> getUserAdById(String userId);
 
 
@@ -24,6 +29,8 @@ public interface AdsService {
 
     List<String> uploadAdImage(String id, List<MultipartFile> files) throws IOException;
 
+    List<String> attachDirectUploads(String id, AttachDirectUploadsRequest request, String userEmail) throws IOException;
+
     ResponseEntity<?> getAdImages(String id);
 
     ResponseEntity<?> deleteAdImage(String id);
@@ -4,6 +4,7 @@ import com.buildbetter.entities.concretes.*;
 import com.stripe.exception.StripeException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -12,6 +13,8 @@ public interface ChatService {
 
     Page<ChatMessage> getChatMessages(String chatRoomId, String userEmail, Pageable pageable);
 
+    Slice<ChatMessage> getChatHistory(String chatRoomId, String userEmail, String beforeId, String afterId, int size);
+
     ChatMessage sendMessage(String senderId, String chatRoomId, String content, boolean isContactInfo)
             throws StripeException;
 
@@ -0,0 +1,14 @@
+package com.buildbetter.business.abstracts;
+
+import com.buildbetter.business.responses.OrganizationEntitlements;
+
+import java.util.Map;
+
+public interface EntitlementService {
+    OrganizationEntitlements getEntitlements(String organizationId);
+
+    void invalidateOrganization(String organizationId);
+    void invalidatePlan(String planId);
+
+    Map<String, Long> getCacheStats();
+}
@@ -1,8 +1,8 @@
 package com.buildbetter.business.abstracts;
 
+import com.buildbetter.business.responses.GetInvoiceJobResponse;
 import com.buildbetter.entities.concretes.Invoice;
 import com.buildbetter.enums.PaymentType;
-import com.stripe.exception.StripeException;
 
 import java.io.IOException;
 import java.util.List;
@@ -22,12 +22,13 @@ public interface InvoiceService {
 
   void save(Invoice invoice);
 
-  Invoice generateInvoiceForUser(String userId, double amount, String paymentIntentId)
-      throws IOException, StripeException;
+  // Saves the invoice and queues its PDF; the returned invoice's file may not exist yet
+  Invoice generateInvoiceForUser(String userId, double amount, String paymentIntentId);
 
-  Invoice generateInvoiceForExpert(String expertId, double amount, String paymentIntentId, PaymentType paymentType)
-      throws IOException, StripeException;
+  Invoice generateInvoiceForExpert(String expertId, double amount, String paymentIntentId, PaymentType paymentType);
 
   byte[] getInvoicePDF(String invoiceId) throws IOException;
 
+  GetInvoiceJobResponse getRenderStatus(String invoiceId);
+
 }
@@ -1,19 +1,29 @@
 package com.buildbetter.business.abstracts;
 
+import com.buildbetter.business.requests.CreateDirectUploadRequest;
+import com.buildbetter.business.responses.DirectDownloadResponse;
+import com.buildbetter.business.responses.DirectUploadResponse;
 import com.buildbetter.business.responses.GetAllImagesResponse;
 import com.buildbetter.entities.concretes.Ads;
 import com.buildbetter.entities.concretes.Storage;
 import com.buildbetter.entities.concretes.User;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.io.Resource;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.util.List;
 
 public interface StorageService {
 
+    // Depolamaya yazılmış ancak henüz metadata'sı kaydedilmemiş dosya
+    record StagedFile(String name, String contentType, long size, String blobKey) {
+    }
+
     List<GetAllImagesResponse> getAll();
     String storeFile(MultipartFile file) throws IOException;
 
@@ -21,12 +31,28 @@ public interface StorageService {
 
     List<Storage> uploadImages(List<MultipartFile> files, User user, Ads ads) throws IOException;
 
+    List<StagedFile> stageFiles(List<MultipartFile> files) throws IOException;
+
+    List<Storage> saveStagedImages(List<StagedFile> stagedFiles, User user, Ads ads);
+
+    void discardStagedFiles(List<StagedFile> stagedFiles);
+
     // loadAsResource (StorageService'den @Override eklenmeli)
     Resource loadAsResource(String filename) throws MalformedURLException;
 
     byte[] downloadImage(String fileName) throws IOException;
 
+    InputStream openImage(String fileName) throws IOException;
+
     void deleteImage(String fileName) throws IOException;
 
     ResponseEntity<?> serveImage(String fileName);
+
+    void serveImage(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+    DirectDownloadResponse getDownloadUrl(String fileName) throws IOException;
+
+    DirectUploadResponse createDirectUpload(CreateDirectUploadRequest request, String userEmail) throws IOException;
+
+    List<StagedFile> claimDirectUploads(List<String> blobKeys, String userEmail) throws IOException;
 }
@@ -5,8 +5,11 @@ import com.buildbetter.entities.concretes.Expert;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.SetupIntent;
+import com.stripe.net.RequestOptions;
 
 import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
 
 public interface StripeService {
         PaymentIntent createSepaPaymentIntent(String customerId, String paymentMethodId, double amount)
@@ -30,5 +33,14 @@ public interface StripeService {
         String createAndConfirmPayment(String customerId, BigDecimal amount, String currency, String description)
                         throws StripeException;
 
+        String createAndConfirmPayment(String customerId, BigDecimal amount, String currency, String description,
+                        Map<String, String> metadata, RequestOptions requestOptions) throws StripeException;
+
+        Optional<PaymentIntent> findPaymentIntentByMetadata(String customerId, String key, String value,
+                        long createdAfterEpochSecond, RequestOptions requestOptions) throws StripeException;
+
         PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException;
+
+        PaymentIntent retrievePaymentIntent(String paymentIntentId, RequestOptions requestOptions)
+                        throws StripeException;
 }
\ No newline at end of file
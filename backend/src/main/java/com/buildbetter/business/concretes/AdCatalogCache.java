@@ -0,0 +1,87 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.requests.GetAdCatalogRequest;
+import com.buildbetter.business.responses.GetAllAdsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache for the first pages of the public ad catalog, keyed by the full filter.
+ * Every ad change clears it; a page loaded while an invalidation happens is not stored.
+ */
+@Component
+public class AdCatalogCache {
+
+    @Value("${saas.ad-catalog.cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${saas.ad-catalog.cached-pages:3}")
+    private int cachedPages;
+
+    @Value("${saas.ad-catalog.max-entries:2000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<CatalogKey, CachedPage> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record CatalogKey(String categoryId, String serviceId, Boolean active, String releasedFrom,
+                              String releasedTo, int page, int size, String sort) {
+    }
+
+    private record CachedPage(Page<GetAllAdsResponse> page, long expiresAtMillis) {
+    }
+
+    public Page<GetAllAdsResponse> get(GetAdCatalogRequest request, String sort,
+                                       Supplier<Page<GetAllAdsResponse>> loader) {
+        if (request.getPage() >= cachedPages) {
+            return loader.get();
+        }
+
+        CatalogKey key = new CatalogKey(request.getCategoryId(), request.getServiceId(), request.getActive(),
+                String.valueOf(request.getReleasedFrom()), String.valueOf(request.getReleasedTo()),
+                request.getPage(), request.getSize(), sort);
+        long now = System.currentTimeMillis();
+        CachedPage cached = cache.get(key);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.page();
+        }
+
+        misses.increment();
+        long loadedAtGeneration = generation.get();
+        Page<GetAllAdsResponse> page = loader.get();
+        if (cache.size() >= maxEntries) {
+            cache.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+        }
+        if (cache.size() < maxEntries && generation.get() == loadedAtGeneration) {
+            cache.put(key, new CachedPage(page, now + ttlMillis));
+        }
+        return page;
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.clear();
+        invalidations.increment();
+    }
+
+    public Map<String, Long> getCacheStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) cache.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,282 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.abstracts.AdSearchService;
+import com.buildbetter.business.responses.GetSearchResultResponse;
+import com.buildbetter.core.search.InvertedIndex;
+import com.buildbetter.core.search.TextAnalyzer;
+import com.buildbetter.dataAccess.abstracts.AdsRepository;
+import com.buildbetter.dataAccess.abstracts.CategoryRepository;
+import com.buildbetter.dataAccess.abstracts.ServiceRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Full-text search over active ads, categories and services, served from an in-process
+ * inverted index. The index is built once the application is ready and then kept current from
+ * ad and taxonomy change events. All writes run on one background thread, so a rebuild and
+ * incremental updates never interleave. Ad hits are checked against the database in one query
+ * per page of hits, so an ad whose change event was missed is never shown once it is inactive or
+ * gone; the next hits take its place.
+ */
+@Service
+@Slf4j
+public class AdSearchManager implements AdSearchService {
+
+    private static final String AD = "AD";
+    private static final String CATEGORY = "CATEGORY";
+    private static final String SERVICE = "SERVICE";
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAXONOMY_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    // Each round costs one active-id query; a page full of missed deactivations is the worst case
+    private static final int MAX_SEARCH_ROUNDS = 4;
+
+    @Value("${saas.search.recency-half-life-days:30}")
+    private long recencyHalfLifeDays;
+
+    @Value("${saas.search.max-results:50}")
+    private int maxResults;
+
+    private final AdsRepository adsRepository;
+    private final CategoryRepository categoryRepository;
+    private final ServiceRepository serviceRepository;
+
+    private final ExecutorService indexer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ad-search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final LongAdder searches = new LongAdder();
+    private final LongAdder incrementalUpdates = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+
+    private volatile Snapshot snapshot = new Snapshot(new InvertedIndex(), new ConcurrentHashMap<>());
+    private volatile boolean ready;
+    private volatile LocalDateTime lastRebuildAt;
+
+    // The index and the display data of each indexed document, swapped together on rebuild
+    private record Snapshot(InvertedIndex index, Map<String, GetSearchResultResponse> entries) {
+    }
+
+    public AdSearchManager(AdsRepository adsRepository, CategoryRepository categoryRepository,
+                           ServiceRepository serviceRepository) {
+        this.adsRepository = adsRepository;
+        this.categoryRepository = categoryRepository;
+        this.serviceRepository = serviceRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void stop() {
+        indexer.shutdownNow();
+    }
+
+    @Override
+    public List<GetSearchResultResponse> search(String query, String type, int limit) {
+        searches.increment();
+        List<String> terms = TextAnalyzer.analyze(query);
+        int size = Math.min(Math.max(limit, 1), maxResults);
+        String keyPrefix = type == null || type.isBlank() ? null : type.trim().toUpperCase() + ":";
+
+        Snapshot current = snapshot;
+        long nowMillis = System.currentTimeMillis();
+        long halfLifeMillis = TimeUnit.DAYS.toMillis(Math.max(recencyHalfLifeDays, 1));
+        List<GetSearchResultResponse> results = new ArrayList<>(size);
+        Set<String> seen = new HashSet<>();
+
+        // Stale ads are only found after the index has ranked them, so refill from below the hits
+        // already looked at until the page is full or the index has nothing more to offer
+        for (int round = 0; round < MAX_SEARCH_ROUNDS && results.size() < size; round++) {
+            int wanted = (size - results.size()) * 2;
+            List<InvertedIndex.Hit> hits = current.index().search(terms,
+                    key -> !seen.contains(key) && (keyPrefix == null || key.startsWith(keyPrefix)), wanted,
+                    nowMillis, halfLifeMillis);
+
+            Set<String> activeAdIds = activeAdIds(current, hits);
+            for (InvertedIndex.Hit hit : hits) {
+                if (results.size() == size) {
+                    break;
+                }
+                seen.add(hit.key());
+                GetSearchResultResponse entry = current.entries().get(hit.key());
+                if (entry == null) {
+                    continue;
+                }
+                if (AD.equals(entry.getType()) && !activeAdIds.contains(entry.getId())) {
+                    // The index missed a change; drop the ad from it as well
+                    staleHits.increment();
+                    removeAd(entry.getId());
+                    continue;
+                }
+                results.add(entry.toBuilder().score(Math.round(hit.score() * 1000) / 1000.0).build());
+            }
+            if (hits.size() < wanted) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    private Set<String> activeAdIds(Snapshot current, List<InvertedIndex.Hit> hits) {
+        List<String> adIds = new ArrayList<>();
+        for (InvertedIndex.Hit hit : hits) {
+            GetSearchResultResponse entry = current.entries().get(hit.key());
+            if (entry != null && AD.equals(entry.getType())) {
+                adIds.add(entry.getId());
+            }
+        }
+        return adIds.isEmpty() ? Set.of() : new HashSet<>(adsRepository.findActiveIds(adIds));
+    }
+
+    @Override
+    public void reindexAd(String adId) {
+        indexer.execute(() -> {
+            try {
+                adsRepository.findActiveSearchViewById(adId).ifPresentOrElse(
+                        ad -> indexAd(snapshot, ad),
+                        () -> removeDocument(snapshot, key(AD, adId)));
+                incrementalUpdates.increment();
+            } catch (Exception e) {
+                log.warn("Could not reindex ad {}: {}", adId, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void removeAd(String adId) {
+        indexer.execute(() -> {
+            removeDocument(snapshot, key(AD, adId));
+            incrementalUpdates.increment();
+        });
+    }
+
+    @Override
+    public void rebuild() {
+        // Several taxonomy edits in a row collapse into one rebuild
+        if (!rebuildPending.compareAndSet(false, true)) {
+            return;
+        }
+        indexer.execute(() -> {
+            rebuildPending.set(false);
+            try {
+                long started = System.nanoTime();
+                Snapshot fresh = new Snapshot(new InvertedIndex(), new ConcurrentHashMap<>());
+                adsRepository.findActiveSearchViews().forEach(ad -> indexAd(fresh, ad));
+                categoryRepository.findAllNames().forEach(category -> indexCategory(fresh, category));
+                serviceRepository.findAllNames().forEach(service -> indexService(fresh, service));
+                snapshot = fresh;
+                ready = true;
+                lastRebuildAt = LocalDateTime.now();
+                log.info("Search index rebuilt with {} documents and {} terms in {} ms", fresh.index().size(),
+                        fresh.index().termCount(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+            } catch (Exception e) {
+                log.error("Search index rebuild failed", e);
+            }
+        });
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("documents", snapshot.index().size());
+        stats.put("terms", snapshot.index().termCount());
+        stats.put("searches", searches.sum());
+        stats.put("incrementalUpdates", incrementalUpdates.sum());
+        stats.put("staleHits", staleHits.sum());
+        stats.put("lastRebuildAt", lastRebuildAt);
+        return stats;
+    }
+
+    private void indexAd(Snapshot target, AdsRepository.AdSearchView ad) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addTerms(weights, ad.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, ad.getCategoryName(), TAXONOMY_WEIGHT);
+        addTerms(weights, ad.getServiceName(), TAXONOMY_WEIGHT);
+        addTerms(weights, ad.getDescriptions(), DESCRIPTION_WEIGHT);
+
+        long timestamp = ad.getAdReleaseDate() != null
+                ? ad.getAdReleaseDate().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+        String key = key(AD, ad.getId());
+        target.index().put(new InvertedIndex.Document(key, weights, timestamp));
+        target.entries().put(key, GetSearchResultResponse.builder()
+                .type(AD)
+                .id(ad.getId())
+                .title(ad.getTitle())
+                .categoryName(ad.getCategoryName())
+                .serviceName(ad.getServiceName())
+                .adReleaseDate(ad.getAdReleaseDate() != null
+                        ? ad.getAdReleaseDate().format(DateTimeFormatter.ISO_DATE_TIME) : null)
+                .build());
+    }
+
+    // Categories and services do not age
+    private void indexCategory(Snapshot target, CategoryRepository.CategoryNameView category) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addTerms(weights, category.getName(), TITLE_WEIGHT);
+        String key = key(CATEGORY, category.getId());
+        target.index().put(new InvertedIndex.Document(key, weights, Long.MAX_VALUE));
+        target.entries().put(key, GetSearchResultResponse.builder()
+                .type(CATEGORY)
+                .id(category.getId())
+                .title(category.getName())
+                .categoryName(category.getName())
+                .build());
+    }
+
+    private void indexService(Snapshot target, ServiceRepository.ServiceNameView service) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        addTerms(weights, service.getName(), TITLE_WEIGHT);
+        addTerms(weights, service.getCategoryName(), TAXONOMY_WEIGHT);
+        String key = key(SERVICE, service.getId());
+        target.index().put(new InvertedIndex.Document(key, weights, Long.MAX_VALUE));
+        target.entries().put(key, GetSearchResultResponse.builder()
+                .type(SERVICE)
+                .id(service.getId())
+                .title(service.getName())
+                .categoryName(service.getCategoryName())
+                .serviceName(service.getName())
+                .build());
+    }
+
+    private void removeDocument(Snapshot target, String key) {
+        target.index().remove(key);
+        target.entries().remove(key);
+    }
+
+    private static void addTerms(Map<String, Float> weights, String text, float weight) {
+        for (String term : TextAnalyzer.analyze(text)) {
+            weights.merge(term, weight, Math::max);
+        }
+    }
+
+    private static String key(String type, String id) {
+        return type + ":" + id;
+    }
+}
@@ -3,10 +3,13 @@ package com.buildbetter.business.concretes;
 import com.buildbetter.business.abstracts.AdminService;
 import com.buildbetter.business.abstracts.AdsService;
 import com.buildbetter.business.abstracts.UserService;
+import com.buildbetter.business.requests.StartStorageMigrationRequest;
 import com.buildbetter.business.responses.GetAllAdsResponse;
 import com.buildbetter.business.responses.GetAllImagesResponse;
 import com.buildbetter.business.responses.GetUsersResponse;
 import com.buildbetter.business.responses.admin.DashboardStatsResponse;
+import com.buildbetter.core.utilities.events.AdChangedEvent;
+import com.buildbetter.core.utilities.events.PrincipalChangedEvent;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.*;
@@ -21,6 +24,7 @@ import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -52,6 +56,8 @@ public class AdminManager implements AdminService {
     private final StorageManager storageManager; // Use StorageService interface if preferred
     private final UserService userService; // Inject UserService
     private final AdsService adsService;   // Inject AdsService
+    private final StorageMigrator storageMigrator;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public AdminManager(
@@ -62,7 +68,9 @@ public class AdminManager implements AdminService {
             ModelMapperService modelMapperService,
             StorageManager storageManager,
             UserService userService, // Inject
-            AdsService adsService    // Inject
+            AdsService adsService,   // Inject
+            StorageMigrator storageMigrator,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.userRepository = userRepository;
         this.expertRepository = expertRepository;
@@ -75,6 +83,8 @@ public class AdminManager implements AdminService {
         this.storageManager = storageManager;
         this.userService = userService; // Assign
         this.adsService = adsService;   // Assign
+        this.storageMigrator = storageMigrator;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -155,9 +165,13 @@ public class AdminManager implements AdminService {
             List<Token> tokens = new ArrayList<>(expert.getToken());
             tokenRepository.deleteAll(tokens); // Manuel sil (varsayım)
 
-            // 5. Uzmanı Sil
+            // 5. Uzmanı Sil; ilanları User.ads cascade'i ile silinir
+            List<String> adIds = adsRepository.findIdsByUserId(expertId);
             logger.info("Deleting expert record for ID: {}", expertId);
             expertRepository.delete(expert);
+            eventPublisher.publishEvent(new PrincipalChangedEvent(this, expert.getEmail()));
+            adIds.forEach(adId -> eventPublisher.publishEvent(
+                    new AdChangedEvent(this, adId, AdChangedEvent.ChangeType.DELETED)));
 
             logger.info("Successfully deleted expert {} and associated data.", expertId);
             return ResponseEntity.ok("Expert and associated data deleted successfully.");
@@ -211,9 +225,14 @@ public class AdminManager implements AdminService {
             // 4. İlişkili Diğer Entity'leri Sil (örn: Invoice, Request - Cascade yoksa)
             // ... (Benzer silme mantığı)
 
-            // 5. Kullanıcıyı Sil
+            // 5. Kullanıcıyı Sil; ilanları User.ads cascade'i ile silinir, katalog ve arama indeksi
+            // commit sonrası haberdar edilir
+            List<String> adIds = adsRepository.findIdsByUserId(id);
             logger.info("Deleting user record for ID: {}", id);
             userRepository.delete(user);
+            eventPublisher.publishEvent(new PrincipalChangedEvent(this, user.getEmail()));
+            adIds.forEach(adId -> eventPublisher.publishEvent(
+                    new AdChangedEvent(this, adId, AdChangedEvent.ChangeType.DELETED)));
 
             logger.info("Successfully deleted user {} and associated data.", id);
             return ResponseEntity.ok("User and associated data deleted successfully.");
@@ -255,6 +274,7 @@ public class AdminManager implements AdminService {
                 .orElseThrow(() -> new EntityNotFoundException("Ad not found with ID: " + adId));
         ad.setActive(isActive);
         adsRepository.save(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(this, adId, AdChangedEvent.ChangeType.UPDATED));
         logger.info("Successfully updated status for ad {}", adId);
     }
 
@@ -303,6 +323,9 @@ public class AdminManager implements AdminService {
         // Delete DB record
         try {
             storageRepository.delete(storage);
+            if (storage.getAds() != null) {
+                eventPublisher.publishEvent(new AdChangedEvent(this, storage.getAds().getId(), AdChangedEvent.ChangeType.UPDATED));
+            }
             logger.info("Admin successfully deleted storage file {} and record {}", storage.getName(), storageId);
         } catch (Exception e) {
             logger.error("Failed to delete storage record {} after deleting file: {}", storageId, e.getMessage());
@@ -344,6 +367,17 @@ public class AdminManager implements AdminService {
         return storageManager.serveImage(fileName);
     }
 
+    @Override
+    public StorageMigrator.MigrationStatus startStorageMigration(StartStorageMigrationRequest request) {
+        logger.info("Admin request to migrate storage from {} to {}", request.getSource(), request.getTarget());
+        return storageMigrator.start(request.getSource(), request.getTarget(), request.getThreads(), request.isDeleteSource());
+    }
+
+    @Override
+    public StorageMigrator.MigrationStatus getStorageMigrationStatus() {
+        return storageMigrator.getStatus();
+    }
+
     // determineContentType - unchanged
     private String determineContentType(String fileName) {
         // ... (same as before)
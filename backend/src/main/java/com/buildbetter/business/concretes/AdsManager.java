@@ -1,21 +1,33 @@
 package com.buildbetter.business.concretes;
 
 import com.buildbetter.business.abstracts.AdsService;
+import com.buildbetter.business.abstracts.StorageService;
+import com.buildbetter.business.requests.AttachDirectUploadsRequest;
 import com.buildbetter.business.requests.CreateAdsRequest;
+import com.buildbetter.business.requests.GetAdCatalogRequest;
 import com.buildbetter.business.requests.UpdateAdsRequest;
 import com.buildbetter.business.responses.GetAllAdsResponse;
 import com.buildbetter.business.responses.GetAllImagesResponse; // Bu importu ekleyin
 import com.buildbetter.business.rules.AdsBusinessRules;
+import com.buildbetter.core.utilities.exceptions.BusinessException;
+import com.buildbetter.core.utilities.events.AdChangedEvent;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.*;
 import com.buildbetter.entities.concretes.*;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -24,6 +36,8 @@ import java.time.format.DateTimeFormatter; // Tarih formatlama için
 import java.util.ArrayList;
 import java.util.Collections; // Boş liste için
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -39,6 +53,13 @@ public class AdsManager implements AdsService {
     private final UserRepository userRepository;
     private final StorageManager storageManager;
     private final StorageRepository storageRepository;
+    private final AdCatalogCache adCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final int MAX_CATALOG_PAGE_SIZE = 100;
+    private static final Set<String> CATALOG_SORT_PROPERTIES = Set.of("adReleaseDate", "updatedAt", "title");
+    private static final Sort DEFAULT_CATALOG_SORT = Sort.by(Sort.Direction.DESC, "adReleaseDate");
 
     private final static Logger logger = LoggerFactory.getLogger(AdsManager.class);
 
@@ -46,7 +67,8 @@ public class AdsManager implements AdsService {
     public AdsManager(ModelMapperService modelMapperService, AdsRepository adsRepository,
                       AdsBusinessRules adsBusinessRules, CategoryRepository categoryRepository,
                       ServiceRepository serviceRepository, UserRepository userRepository, StorageManager storageManager,
-                      StorageRepository storageRepository) {
+                      StorageRepository storageRepository, AdCatalogCache adCatalogCache,
+                      ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate) {
         this.modelMapperService = modelMapperService;
         this.adsRepository = adsRepository;
         this.adsBusinessRules = adsBusinessRules;
@@ -55,6 +77,9 @@ public class AdsManager implements AdsService {
         this.userRepository = userRepository;
         this.storageManager = storageManager;
         this.storageRepository = storageRepository;
+        this.adCatalogCache = adCatalogCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Override
@@ -65,6 +90,69 @@ public class AdsManager implements AdsService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Page<GetAllAdsResponse> getCatalog(GetAdCatalogRequest request) {
+        request.setPage(Math.max(request.getPage(), 0));
+        request.setSize(Math.min(Math.max(request.getSize(), 1), MAX_CATALOG_PAGE_SIZE));
+        Sort sort = parseCatalogSort(request.getSort());
+        return adCatalogCache.get(request, sort.toString(), () -> loadCatalogPage(request, sort));
+    }
+
+    // One query for the page (plus its count) and one for the images of every ad on it
+    private Page<GetAllAdsResponse> loadCatalogPage(GetAdCatalogRequest request, Sort sort) {
+        Pageable pageable = PageRequest.of(request.getPage(), request.getSize(), sort.and(Sort.by("id")));
+        Page<AdsRepository.AdCatalogView> ads = adsRepository.findCatalog(request.getCategoryId(),
+                request.getServiceId(), request.getActive(), request.getReleasedFrom(), request.getReleasedTo(),
+                pageable);
+        if (ads.isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, ads.getTotalElements());
+        }
+
+        List<String> adIds = ads.getContent().stream().map(AdsRepository.AdCatalogView::getId).toList();
+        Map<String, List<GetAllImagesResponse>> images = storageRepository.findSummariesByAdIds(adIds).stream()
+                .collect(Collectors.groupingBy(StorageRepository.StorageSummaryView::getAdId,
+                        Collectors.mapping(storage -> new GetAllImagesResponse(storage.getId(), storage.getName(),
+                                storage.getType(), storage.getUrl()), Collectors.toList())));
+
+        return ads.map(ad -> mapCatalogViewToGetAllAdsResponse(ad,
+                images.getOrDefault(ad.getId(), Collections.emptyList())));
+    }
+
+    // Same shape as mapAdsToGetAllAdsResponse, built from the projection
+    private GetAllAdsResponse mapCatalogViewToGetAllAdsResponse(AdsRepository.AdCatalogView ad,
+                                                                List<GetAllImagesResponse> storages) {
+        GetAllAdsResponse dto = new GetAllAdsResponse();
+        dto.setId(ad.getId());
+        dto.setTitle(ad.getTitle() == null || ad.getTitle().isEmpty() ? "Başlıksız İlan" : ad.getTitle());
+        dto.setDescriptions(ad.getDescriptions());
+        dto.setAdReleaseDate(ad.getAdReleaseDate() != null
+                ? ad.getAdReleaseDate().format(DateTimeFormatter.ISO_DATE_TIME) : null);
+        dto.setCategoryId(ad.getCategoryId());
+        dto.setCategoryName(ad.getCategoryId() != null ? ad.getCategoryName() : "N/A");
+        dto.setServiceId(ad.getServiceId());
+        dto.setServiceName(ad.getServiceId() != null ? ad.getServiceName() : "N/A");
+        dto.setUserId(ad.getUserId());
+        dto.setUserName(ad.getUserId() != null ? ad.getUserName() + " " + ad.getUserSurname() : "N/A");
+        dto.setStorages(storages);
+        dto.setImageUrl(storages.isEmpty() ? null : storages.get(0).getUrl());
+        dto.setThumbnailUrl(storages.isEmpty() ? null : storages.get(0).getThumbnailUrl());
+        return dto;
+    }
+
+    private Sort parseCatalogSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return DEFAULT_CATALOG_SORT;
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!CATALOG_SORT_PROPERTIES.contains(property)) {
+            throw new BusinessException("Unsupported sort property: " + property);
+        }
+        Sort.Direction direction = parts.length > 1 && "asc".equalsIgnoreCase(parts[1].trim())
+                ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, property);
+    }
+
     @Override
     public List<GetAllAdsResponse> getUserAdById(String userId) {
         List<Ads> ads = this.adsRepository.findByUserId(userId);
@@ -105,9 +193,11 @@ public class AdsManager implements AdsService {
                     .collect(Collectors.toList()));
             // Ana resmi ayarla
             dto.setImageUrl(ad.getStorages().get(0).getUrl()); // Storage'dan URL al
+            dto.setThumbnailUrl(dto.getStorages().get(0).getThumbnailUrl()); // Liste görünümü için küçük boyut
         } else {
             dto.setStorages(Collections.emptyList());
             dto.setImageUrl(null); // Veya varsayılan URL
+            dto.setThumbnailUrl(null);
         }
         // Tarih formatlama (DTO string ise)
         if (ad.getAdReleaseDate() != null) dto.setAdReleaseDate(ad.getAdReleaseDate().format(DateTimeFormatter.ISO_DATE_TIME));
@@ -159,7 +249,6 @@ public class AdsManager implements AdsService {
 
 
     @Override
-    @Transactional
     public ResponseEntity<?> add(CreateAdsRequest createAdsRequest) {
         System.out.println("Received create ad request: " + createAdsRequest); // Logging
         System.out.println("UserId: " + createAdsRequest.getUserId());
@@ -168,6 +257,24 @@ public class AdsManager implements AdsService {
         // ... (kontroller ve entity bulma işlemleri aynı)
         if (adsBusinessRules.checkIfAdsNameExists(createAdsRequest.getTitle())) { /* ... */ }
         if (createAdsRequest.getDescriptions() == null || createAdsRequest.getDescriptions().trim().isEmpty()) { /* ... */ }
+
+        // Resimler transaction açılmadan önce diske yazılır; DB bağlantısı sadece metadata için tutulur
+        List<StorageService.StagedFile> stagedFiles;
+        try {
+            stagedFiles = storageManager.stageFiles(createAdsRequest.getStorages());
+        } catch (IOException e) {
+            logger.error("Failed to upload ad images during creation.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to upload ad images.");
+        }
+        try {
+            return transactionTemplate.execute(status -> createAd(createAdsRequest, stagedFiles));
+        } catch (RuntimeException e) {
+            storageManager.discardStagedFiles(stagedFiles);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> createAd(CreateAdsRequest createAdsRequest, List<StorageService.StagedFile> stagedFiles) {
         Category category = categoryRepository.findById(createAdsRequest.getCategoryId())
                 .orElseThrow(() -> new EntityNotFoundException("Category not found!"));
         ServiceEntity service = serviceRepository.findById(createAdsRequest.getServiceId())
@@ -183,33 +290,40 @@ public class AdsManager implements AdsService {
         ads.setAdReleaseDate(LocalDateTime.now());
         ads.setStorages(new ArrayList<>()); // Başlangıçta boş liste ata
 
-        // Resimleri YÜKLE VE KAYDET (uploadImages artık List<Storage> döndürüyor)
-        List<Storage> savedStorages = Collections.emptyList();
-        try {
-            if (createAdsRequest.getStorages() != null && !createAdsRequest.getStorages().isEmpty()) {
-                // uploadImages Storage listesi döndürür ve DB'ye kaydeder
-                savedStorages = storageManager.uploadImages(createAdsRequest.getStorages(), user, ads);
-                if (!savedStorages.isEmpty()) {
-                    ads.setStorages(savedStorages); // Kaydedilen Storage listesini Ads entity'sine ata
-                    ads.setImageUrl(savedStorages.get(0).getUrl()); // Ana resmi ayarla (Storage URL'si)
-                }
-            }
-        } catch (IOException e) {
-            logger.error("Failed to upload ad images during creation.", e);
-            // Transaction rollback olmalı
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to upload ad images.");
+        // Diske yazılmış resimlerin metadata'sını tek batch olarak kaydet
+        List<Storage> savedStorages = storageManager.saveStagedImages(stagedFiles, user, ads);
+        if (!savedStorages.isEmpty()) {
+            ads.setStorages(savedStorages); // Kaydedilen Storage listesini Ads entity'sine ata
+            ads.setImageUrl(savedStorages.get(0).getUrl()); // Ana resmi ayarla (Storage URL'si)
         }
 
         // İlanı DB'ye kaydet (Resimler StorageManager tarafından zaten kaydedildi)
         Ads savedAd = this.adsRepository.save(ads);
+        eventPublisher.publishEvent(new AdChangedEvent(this, savedAd.getId(), AdChangedEvent.ChangeType.CREATED));
 
         // Başarılı yanıtı DTO ile döndür
         return ResponseEntity.status(HttpStatus.CREATED).body(mapAdsToGetAllAdsResponse(savedAd));
     }
 
     @Override
-    @Transactional
     public ResponseEntity<?> update(UpdateAdsRequest updateAdsRequest) {
+        // Yeni resimler transaction dışında diske yazılır
+        List<StorageService.StagedFile> stagedFiles;
+        try {
+            stagedFiles = storageManager.stageFiles(updateAdsRequest.getStorages());
+        } catch (IOException ex) {
+            logger.error("Failed to update ad images for ad {}", updateAdsRequest.getId(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update ad images.");
+        }
+        try {
+            return transactionTemplate.execute(status -> updateAd(updateAdsRequest, stagedFiles));
+        } catch (RuntimeException e) {
+            storageManager.discardStagedFiles(stagedFiles);
+            throw e;
+        }
+    }
+
+    private ResponseEntity<?> updateAd(UpdateAdsRequest updateAdsRequest, List<StorageService.StagedFile> stagedFiles) {
         // Mevcut ilanı bul
         this.adsBusinessRules.checkIfAdsExists(updateAdsRequest.getId(), updateAdsRequest.getTitle());
         Ads existingAd = this.adsRepository.findById(updateAdsRequest.getId())
@@ -232,7 +346,7 @@ public class AdsManager implements AdsService {
         }
 
         // Resim Güncellemesi
-        if (updateAdsRequest.getStorages() != null && !updateAdsRequest.getStorages().isEmpty()) {
+        if (!stagedFiles.isEmpty()) {
             // Yeni resimler varsa:
             try {
                 // 1. Mevcut resim dosyalarını ve DB kayıtlarını sil
@@ -265,9 +379,9 @@ public class AdsManager implements AdsService {
                     existingAd.setImageUrl(null); // Ana resmi de temizle
                 }
 
-                // 2. Yeni resimleri yükle (Bu işlem Storage kaydını da yapar)
-                logger.info("Uploading {} new images for ad {}", updateAdsRequest.getStorages().size(), existingAd.getId());
-                List<Storage> newStorages = storageManager.uploadImages(updateAdsRequest.getStorages(), existingAd.getUser(), existingAd);
+                // 2. Diske yazılmış yeni resimlerin kayıtlarını oluştur
+                logger.info("Saving {} new images for ad {}", stagedFiles.size(), existingAd.getId());
+                List<Storage> newStorages = storageManager.saveStagedImages(stagedFiles, existingAd.getUser(), existingAd);
 
                 // 3. Yeni resimleri ilana bağla
                 if (!newStorages.isEmpty()) {
@@ -280,10 +394,9 @@ public class AdsManager implements AdsService {
                     existingAd.setImageUrl(null); // Ana resmi null yap
                 }
 
-            } catch (IOException ex) {
+            } catch (RuntimeException ex) {
                 logger.error("Failed to update ad images for ad {}", existingAd.getId(), ex);
-                // Hata mesajı veya transaction rollback
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Failed to update ad images.");
+                throw ex;
             }
         } else {
             // Yeni resim listesi boş veya null ise: Mevcut resimler silinsin mi?
@@ -294,15 +407,38 @@ public class AdsManager implements AdsService {
 
         // Güncellenmiş ilanı kaydet
         Ads updatedAd = this.adsRepository.save(existingAd);
+        eventPublisher.publishEvent(new AdChangedEvent(this, updatedAd.getId(), AdChangedEvent.ChangeType.UPDATED));
         return ResponseEntity.ok(mapAdsToGetAllAdsResponse(updatedAd));
     }
 
-    @Transactional
+    @Override
     public List<String> uploadAdImage(String id, List<MultipartFile> files) throws IOException {
+        // Dosyalar önce diske yazılır, ardından kısa bir transaction içinde ilana bağlanır
+        List<StorageService.StagedFile> stagedFiles = storageManager.stageFiles(files);
+        try {
+            return transactionTemplate.execute(status -> attachAdImages(id, stagedFiles));
+        } catch (RuntimeException e) {
+            storageManager.discardStagedFiles(stagedFiles);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> attachDirectUploads(String id, AttachDirectUploadsRequest request, String userEmail) throws IOException {
+        // Dosyalar istemci tarafından doğrudan depolamaya yüklendi; burada sadece ilana bağlanır
+        List<StorageService.StagedFile> stagedFiles = storageManager.claimDirectUploads(request.getBlobKeys(), userEmail);
+        try {
+            return transactionTemplate.execute(status -> attachAdImages(id, stagedFiles));
+        } catch (RuntimeException e) {
+            storageManager.discardStagedFiles(stagedFiles);
+            throw e;
+        }
+    }
+
+    private List<String> attachAdImages(String id, List<StorageService.StagedFile> stagedFiles) {
         Ads ads = adsRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Ad not found"));
         User user = ads.getUser();
-        // StorageManager.uploadImages List<Storage> döndürüyor, List<String> değil.
-        List<Storage> savedStorages = storageManager.uploadImages(files, user, ads);
+        List<Storage> savedStorages = storageManager.saveStagedImages(stagedFiles, user, ads);
 
         if (!savedStorages.isEmpty()) {
             // Bu metot sadece ekleme yapıyor, mevcutları silmiyor.
@@ -316,6 +452,7 @@ public class AdsManager implements AdsService {
                 ads.setImageUrl(savedStorages.get(0).getUrl());
             }
             adsRepository.save(ads);
+            eventPublisher.publishEvent(new AdChangedEvent(this, ads.getId(), AdChangedEvent.ChangeType.UPDATED));
         }
         // Dosya isimlerini döndür
         return savedStorages.stream().map(Storage::getName).collect(Collectors.toList());
@@ -352,6 +489,7 @@ public class AdsManager implements AdsService {
                     logger.info("Updated main image URL for ad {}", ads.getId());
                 }
                 adsRepository.save(ads); // İlişki değişikliğini kaydet
+                eventPublisher.publishEvent(new AdChangedEvent(this, ads.getId(), AdChangedEvent.ChangeType.UPDATED));
             } else {
                 logger.warn("Image {} was not found in the storage list of ad {}", imageId, ads.getId());
             }
@@ -418,6 +556,7 @@ public class AdsManager implements AdsService {
 
         // Son olarak ilanı sil
         this.adsRepository.delete(ad);
+        eventPublisher.publishEvent(new AdChangedEvent(this, id, AdChangedEvent.ChangeType.DELETED));
         logger.info("Successfully deleted ad with ID: {}", id);
     }
     // AdsManager sınıfının sonu
@@ -0,0 +1,317 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.DailyRevenueRollupRepository;
+import com.buildbetter.dataAccess.abstracts.DailyUsageRollupRepository;
+import com.buildbetter.dataAccess.abstracts.InvoiceRepository;
+import com.buildbetter.dataAccess.abstracts.SubscriptionRepository;
+import com.buildbetter.dataAccess.abstracts.SubscriptionRollupRepository;
+import com.buildbetter.dataAccess.abstracts.UsageTrackingRepository;
+import com.buildbetter.entities.concretes.DailyRevenueRollup;
+import com.buildbetter.entities.concretes.DailyUsageRollup;
+import com.buildbetter.entities.concretes.SubscriptionRollup;
+import com.buildbetter.entities.concretes.UsageTracking;
+import com.buildbetter.enums.SubscriptionStatus;
+import com.buildbetter.enums.UsageMetricType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the aggregate tables behind the SaaS admin dashboard, so its reads do not scale with
+ * the number of invoices, subscriptions or usage rows:
+ * <ul>
+ * <li>{@code daily_usage_rollups} is incremented in the transaction that writes usage rows,</li>
+ * <li>{@code daily_revenue_rollups} days and {@code subscription_rollups} are marked dirty after
+ * a write commits and rebuilt from their source rows on the next refresh tick,</li>
+ * <li>a reconciler periodically rebuilds everything, which also fills the tables on first start
+ * and repairs anything written around this class.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class AnalyticsRollupManager {
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Value("${saas.analytics.refresh-interval-ms:5000}")
+    private long refreshIntervalMillis;
+
+    @Value("${saas.analytics.reconcile-interval-minutes:60}")
+    private long reconcileIntervalMinutes;
+
+    // Closed usage days older than this are never rebuilt; the increments are exact
+    @Value("${saas.analytics.usage-reconcile-days:35}")
+    private int usageReconcileDays;
+
+    private final DailyRevenueRollupRepository dailyRevenueRollupRepository;
+    private final DailyUsageRollupRepository dailyUsageRollupRepository;
+    private final SubscriptionRollupRepository subscriptionRollupRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final SubscriptionRepository subscriptionRepository;
+    private final UsageTrackingRepository usageTrackingRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private ScheduledExecutorService scheduler;
+    private final Set<LocalDate> dirtyRevenueDays = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean subscriptionsDirty = new AtomicBoolean();
+    private final LongAdder revenueDayRefreshes = new LongAdder();
+    private final LongAdder subscriptionRefreshes = new LongAdder();
+    private final LongAdder reconciles = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile LocalDateTime lastReconciledAt;
+
+    private record UsageKey(LocalDate day, UsageMetricType metricType) {
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class RollupStats {
+        private int dirtyRevenueDays;
+        private boolean subscriptionsDirty;
+        private long revenueDayRefreshes;
+        private long subscriptionRefreshes;
+        private long reconciles;
+        private long failures;
+        private LocalDateTime lastReconciledAt;
+    }
+
+    public AnalyticsRollupManager(DailyRevenueRollupRepository dailyRevenueRollupRepository,
+                                  DailyUsageRollupRepository dailyUsageRollupRepository,
+                                  SubscriptionRollupRepository subscriptionRollupRepository,
+                                  InvoiceRepository invoiceRepository,
+                                  SubscriptionRepository subscriptionRepository,
+                                  UsageTrackingRepository usageTrackingRepository,
+                                  TransactionTemplate transactionTemplate) {
+        this.dailyRevenueRollupRepository = dailyRevenueRollupRepository;
+        this.dailyUsageRollupRepository = dailyUsageRollupRepository;
+        this.subscriptionRollupRepository = subscriptionRollupRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.subscriptionRepository = subscriptionRepository;
+        this.usageTrackingRepository = usageTrackingRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-rollups");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::refreshSafely, refreshIntervalMillis, refreshIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleReconcile() {
+        scheduler.scheduleWithFixedDelay(this::reconcileSafely, 0, reconcileIntervalMinutes, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Adds freshly written usage rows to the daily totals. Must run in the transaction that
+     * writes the rows, so a rolled back or retried write is not counted twice.
+     */
+    public void addUsage(Collection<UsageTracking> rows) {
+        Map<UsageKey, Long> deltas = new HashMap<>();
+        for (UsageTracking row : rows) {
+            deltas.merge(new UsageKey(row.getTimestamp().toLocalDate(), row.getMetricType()), row.getValue(), Long::sum);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        deltas.forEach((key, delta) -> dailyUsageRollupRepository.addToTotal(
+                DailyUsageRollup.idOf(key.day(), key.metricType()), key.day(), key.metricType().name(), delta, now));
+    }
+
+    public void markRevenueDirty(Collection<LocalDate> days) {
+        dirtyRevenueDays.addAll(days);
+    }
+
+    public void markSubscriptionsDirty() {
+        subscriptionsDirty.set(true);
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return dailyRevenueRollupRepository.sumPaidAmount();
+    }
+
+    /**
+     * Subscription count per status, including statuses without subscriptions.
+     */
+    public Map<SubscriptionStatus, Long> getSubscriptionsByStatus() {
+        Map<SubscriptionStatus, Long> counts = new EnumMap<>(SubscriptionStatus.class);
+        for (SubscriptionStatus status : SubscriptionStatus.values()) {
+            counts.put(status, 0L);
+        }
+        subscriptionRollupRepository.findAll()
+                .forEach(rollup -> counts.merge(rollup.getStatus(), rollup.getSubscriptionCount(), Long::sum));
+        return counts;
+    }
+
+    public Map<String, Long> getSubscriptionsByPlan() {
+        Map<String, Long> distribution = new HashMap<>();
+        subscriptionRollupRepository.findAll().forEach(rollup -> {
+            String planName = rollup.getPlanName() != null ? rollup.getPlanName() : "No Plan";
+            distribution.merge(planName, rollup.getSubscriptionCount(), Long::sum);
+        });
+        return distribution;
+    }
+
+    // Sum of the amounts of active subscriptions
+    public BigDecimal getMonthlyRecurringRevenue() {
+        return subscriptionRollupRepository.findAll().stream()
+                .filter(rollup -> rollup.getStatus() == SubscriptionStatus.ACTIVE)
+                .map(SubscriptionRollup::getAmountTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Usage per metric since the start of the given day, with every metric present.
+     */
+    public Map<String, Long> getUsageSince(LocalDate since) {
+        Map<String, Long> metrics = new HashMap<>();
+        for (UsageMetricType metricType : UsageMetricType.values()) {
+            metrics.put(metricType.name(), 0L);
+        }
+        dailyUsageRollupRepository.sumByMetricSince(since)
+                .forEach(total -> metrics.put(total.getMetricType().name(), total.getTotal()));
+        return metrics;
+    }
+
+    public RollupStats getStats() {
+        return RollupStats.builder()
+                .dirtyRevenueDays(dirtyRevenueDays.size())
+                .subscriptionsDirty(subscriptionsDirty.get())
+                .revenueDayRefreshes(revenueDayRefreshes.sum())
+                .subscriptionRefreshes(subscriptionRefreshes.sum())
+                .reconciles(reconciles.sum())
+                .failures(failures.sum())
+                .lastReconciledAt(lastReconciledAt)
+                .build();
+    }
+
+    private void refreshSafely() {
+        for (LocalDate day : new ArrayList<>(dirtyRevenueDays)) {
+            dirtyRevenueDays.remove(day);
+            try {
+                rebuildRevenue(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+                revenueDayRefreshes.increment();
+            } catch (Exception e) {
+                // Retried on the next tick
+                dirtyRevenueDays.add(day);
+                failures.increment();
+                log.warn("Could not refresh revenue rollup of {}: {}", day, e.getMessage());
+            }
+        }
+        if (subscriptionsDirty.getAndSet(false)) {
+            try {
+                rebuildSubscriptions();
+                subscriptionRefreshes.increment();
+            } catch (Exception e) {
+                subscriptionsDirty.set(true);
+                failures.increment();
+                log.warn("Could not refresh subscription rollups: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void reconcileSafely() {
+        try {
+            LocalDate today = LocalDate.now();
+            rebuildRevenue(EPOCH, today.plusDays(2).atStartOfDay());
+            rebuildSubscriptions();
+            // Today keeps receiving increments; it is only rebuilt while the table is still empty
+            boolean backfill = dailyUsageRollupRepository.count() == 0;
+            LocalDateTime usageFrom = backfill ? EPOCH : today.minusDays(usageReconcileDays).atStartOfDay();
+            LocalDateTime usageTo = backfill ? today.plusDays(1).atStartOfDay() : today.atStartOfDay();
+            rebuildUsage(usageFrom, usageTo);
+            reconciles.increment();
+            lastReconciledAt = LocalDateTime.now();
+        } catch (Exception e) {
+            failures.increment();
+            log.error("Analytics rollup reconcile failed", e);
+        }
+    }
+
+    private void rebuildRevenue(LocalDateTime start, LocalDateTime end) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<InvoiceRepository.DailyRevenueView> days = invoiceRepository.sumRevenueByDay(start, end);
+            dailyRevenueRollupRepository.deleteDays(start.toLocalDate(), end.toLocalDate());
+            dailyRevenueRollupRepository.flush();
+            LocalDateTime now = LocalDateTime.now();
+            dailyRevenueRollupRepository.saveAll(days.stream()
+                    .map(day -> DailyRevenueRollup.builder()
+                            .day(day.getDay())
+                            .invoiceCount(day.getInvoiceCount())
+                            .paidCount(day.getPaidCount())
+                            .paidAmount(day.getPaidAmount())
+                            .refreshedAt(now)
+                            .build())
+                    .toList());
+        });
+    }
+
+    private void rebuildSubscriptions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<SubscriptionRepository.StatusPlanSummaryView> summary = subscriptionRepository.summarizeByStatusAndPlan();
+            subscriptionRollupRepository.deleteAllInBatch();
+            LocalDateTime now = LocalDateTime.now();
+            subscriptionRollupRepository.saveAll(summary.stream()
+                    .map(row -> SubscriptionRollup.builder()
+                            .status(row.getStatus())
+                            .planName(row.getPlanName())
+                            .subscriptionCount(row.getSubscriptionCount())
+                            .amountTotal(row.getAmountTotal())
+                            .refreshedAt(now)
+                            .build())
+                    .toList());
+        });
+    }
+
+    private void rebuildUsage(LocalDateTime start, LocalDateTime end) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<UsageTrackingRepository.DailyUsageView> days = usageTrackingRepository.sumUsageByDay(start, end);
+            dailyUsageRollupRepository.deleteDays(start.toLocalDate(), end.toLocalDate());
+            dailyUsageRollupRepository.flush();
+            LocalDateTime now = LocalDateTime.now();
+            dailyUsageRollupRepository.saveAll(days.stream()
+                    .map(day -> DailyUsageRollup.builder()
+                            .id(DailyUsageRollup.idOf(day.getDay(), day.getMetricType()))
+                            .day(day.getDay())
+                            .metricType(day.getMetricType())
+                            .total(day.getTotal())
+                            .updatedAt(now)
+                            .build())
+                    .toList());
+        });
+    }
+}
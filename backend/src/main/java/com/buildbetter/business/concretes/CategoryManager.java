@@ -7,12 +7,14 @@ import com.buildbetter.business.responses.GetAllCategoriesResponse;
 import com.buildbetter.business.responses.GetAllJobTitlesResponse;
 import com.buildbetter.business.responses.GetCategoriesByIdResponse;
 import com.buildbetter.business.rules.CategoryBusinessRules;
+import com.buildbetter.core.utilities.events.CatalogTaxonomyChangedEvent;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.CategoryRepository;
 import com.buildbetter.entities.concretes.Category;
 import com.buildbetter.entities.concretes.JobTitle;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.AllArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
@@ -27,6 +29,7 @@ public class CategoryManager implements CategoryService {
     private ModelMapperService modelMapperService;
     private CategoryRepository categoryRepository;
     private CategoryBusinessRules categoryBusinessRules;
+    private ApplicationEventPublisher eventPublisher;
     @Override
     public List<GetAllCategoriesResponse> getAll() {
         List<Category> categories = categoryRepository.findAll();
@@ -56,18 +59,21 @@ public class CategoryManager implements CategoryService {
 
         Category category = this.modelMapperService.forRequest().map(createCategoryRequest, Category.class);
         this.categoryRepository.save(category);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
     }
 
     @Override
     public void update(UpdateCategoryRequest updateCategoryRequest) {
         Category category = this.modelMapperService.forRequest().map(updateCategoryRequest, Category.class);
         this.categoryRepository.save(category);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
 
     }
 
     @Override
     public void delete(String id) {
         this.categoryRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
 
     }
 
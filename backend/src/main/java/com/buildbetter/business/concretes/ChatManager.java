@@ -1,57 +1,99 @@
 package com.buildbetter.business.concretes;
 
 import com.buildbetter.business.abstracts.ChatService;
+import com.buildbetter.business.requests.CreateChatMessageRequest;
+import com.buildbetter.business.responses.GetChatMessageResponse;
+import com.buildbetter.business.responses.GetChatRoomResponse;
 import com.buildbetter.core.utilities.detector.ContactInfoDetector;
+import com.buildbetter.core.utilities.events.ChatRoomChangedEvent;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
 import com.buildbetter.dataAccess.abstracts.*;
 import com.buildbetter.entities.concretes.*;
 import com.buildbetter.enums.ChatRoomStatus;
 import com.buildbetter.enums.MessageType;
 import com.stripe.exception.StripeException;
-import com.stripe.model.PaymentIntent;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 @Slf4j
 @Transactional
 public class ChatManager implements ChatService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+    private static final int RECENT_MESSAGES_PER_ROOM = 10;
+    private static final int LATENCY_SAMPLES = 1024;
+
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final ContactSharingRecordRepository contactSharingRecordRepository;
+    private final ChatReadCursorRepository chatReadCursorRepository;
     private final UserRepository userRepository;
     private final ExpertRepository expertRepository;
     private final NotificationManager notificationManager;
-    private final StripeManager stripeManager;
+    private final ChatPaymentSaga chatPaymentSaga;
     private final InvoiceManager invoiceManager;
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+    private final ChatValidationManager chatValidationManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final LongAdder ingestedMessages = new LongAdder();
+    private final LongAdder rejectedMessages = new LongAdder();
+    // Ingest latencies of the most recent messages, for the health endpoint percentiles
+    private final AtomicLongArray ingestLatencyNanos = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicLong ingestLatencyCursor = new AtomicLong();
+
+    /**
+     * A stored message and who it has to be pushed to.
+     */
+    public record SentChatMessage(GetChatMessageResponse response, String recipientId) {
+    }
 
     @Autowired
     public ChatManager(ChatRoomRepository chatRoomRepository, ChatMessageRepository chatMessageRepository,
-            ContactSharingRecordRepository contactSharingRecordRepository, UserRepository userRepository,
+            ContactSharingRecordRepository contactSharingRecordRepository,
+            ChatReadCursorRepository chatReadCursorRepository, UserRepository userRepository,
             ExpertRepository expertRepository, NotificationManager notificationManager,
-            @Lazy StripeManager stripeManager, @Lazy InvoiceManager invoiceManager) {
+            ChatPaymentSaga chatPaymentSaga, @Lazy InvoiceManager invoiceManager,
+            ChatRoomMembershipCache chatRoomMembershipCache, ChatValidationManager chatValidationManager,
+            ApplicationEventPublisher eventPublisher) {
         this.chatRoomRepository = chatRoomRepository;
         this.chatMessageRepository = chatMessageRepository;
         this.contactSharingRecordRepository = contactSharingRecordRepository;
+        this.chatReadCursorRepository = chatReadCursorRepository;
         this.userRepository = userRepository;
         this.expertRepository = expertRepository;
         this.notificationManager = notificationManager;
-        this.stripeManager = stripeManager;
+        this.chatPaymentSaga = chatPaymentSaga;
         this.invoiceManager = invoiceManager;
+        this.chatRoomMembershipCache = chatRoomMembershipCache;
+        this.chatValidationManager = chatValidationManager;
+        this.eventPublisher = eventPublisher;
     }
 
     public ChatRoom getChatRoomWithValidation(String chatRoomId, String userEmail) {
@@ -76,6 +118,7 @@ public class ChatManager implements ChatService {
             chatRoom.setStatus(ChatRoomStatus.COMPLETED);
             chatRoom.setCompletionPaymentProcessed(true);
             chatRoomRepository.save(chatRoom);
+            eventPublisher.publishEvent(new ChatRoomChangedEvent(this, chatRoom.getId()));
         }
 
         return chatRoom;
@@ -87,6 +130,127 @@ public class ChatManager implements ChatService {
         return chatMessageRepository.findByChatRoomId(chatRoomId, pageable);
     }
 
+    @Override
+    public Slice<ChatMessage> getChatHistory(String chatRoomId, String userEmail, String beforeId, String afterId,
+            int size) {
+        getChatRoomWithValidation(chatRoomId, userEmail);
+        if (beforeId != null && afterId != null) {
+            throw new BusinessException("Only one of before or after can be specified");
+        }
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        // One extra row tells whether another page exists without a COUNT query
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<ChatMessage> messages;
+        if (beforeId != null) {
+            LocalDateTime cursor = resolveCursor(chatRoomId, beforeId);
+            messages = chatMessageRepository.findInRoomBefore(chatRoomId, cursor, beforeId, limit);
+        } else if (afterId != null) {
+            LocalDateTime cursor = resolveCursor(chatRoomId, afterId);
+            messages = chatMessageRepository.findInRoomAfter(chatRoomId, cursor, afterId, limit);
+        } else {
+            messages = chatMessageRepository.findLatestInRoom(chatRoomId, limit);
+        }
+
+        boolean hasMore = messages.size() > pageSize;
+        List<ChatMessage> content = new ArrayList<>(hasMore ? messages.subList(0, pageSize) : messages);
+        if (afterId != null) {
+            // Newer pages are read oldest first; always hand them out newest first
+            Collections.reverse(content);
+        }
+        return new SliceImpl<>(content, PageRequest.of(0, pageSize), hasMore);
+    }
+
+    private LocalDateTime resolveCursor(String chatRoomId, String messageId) {
+        return chatMessageRepository.findTimestampInRoom(messageId, chatRoomId)
+                .orElseThrow(() -> new EntityNotFoundException("Message not found in chat room: " + messageId));
+    }
+
+    /**
+     * Stores an inbound chat message. Room, participants and permissions come from
+     * ChatRoomMembershipCache, the message is saved against entity references and the room only
+     * gets its last activity bumped, so a message costs an INSERT and an UPDATE when the room is
+     * cached. Only messages sharing contact information load the room for the full checks.
+     *
+     * @param senderEmail the authenticated principal, which must be the sender
+     */
+    public SentChatMessage ingestMessage(CreateChatMessageRequest request, String senderEmail) throws StripeException {
+        long startedAt = System.nanoTime();
+        try {
+            ChatRoomMembershipCache.RoomMembership membership = chatRoomMembershipCache.get(request.getChatRoomId());
+            ChatRoomMembershipCache.Participant sender = membership.participant(request.getSenderId());
+            if (sender == null || senderEmail == null || !senderEmail.equalsIgnoreCase(sender.email())) {
+                throw new AccessDeniedException("Unauthorized message sender");
+            }
+            chatValidationManager.validateChatMessageRequest(request, membership);
+
+            boolean senderIsExpert = membership.isExpert(sender.id());
+            boolean containsContactInfo = !senderIsExpert && request.isContactInfo();
+            if (containsContactInfo) {
+                ChatRoom chatRoom = chatRoomRepository.findById(membership.chatRoomId())
+                        .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
+                chatValidationManager.validateContactSharing(chatRoom, chatRoom.getUser(), chatRoom.getExpert());
+                handleContactInformationSharing(chatRoom.getExpert(), chatRoom.getUser(), chatRoom, true);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            ChatMessage message = chatMessageRepository.save(ChatMessage.builder()
+                    .chatRoom(chatRoomRepository.getReferenceById(membership.chatRoomId()))
+                    .sender(userRepository.getReferenceById(sender.id()))
+                    .content(request.getContent())
+                    .messageType(determineMessageType(request.getContent(), containsContactInfo, sender.id()))
+                    .timestamp(now)
+                    .isRead(false)
+                    .contactInfo(containsContactInfo)
+                    .build());
+            chatRoomRepository.touchLastActivity(membership.chatRoomId(), now);
+
+            ChatRoomMembershipCache.Participant recipient = membership.recipientOf(sender.id());
+            notificationManager.notifyNewMessage(recipient.id(), sender.name(), membership.chatRoomId(),
+                    membership.adTitle());
+
+            GetChatMessageResponse response = GetChatMessageResponse.builder()
+                    .id(message.getId())
+                    .chatRoomId(membership.chatId())
+                    .content(message.getContent())
+                    .senderId(sender.id())
+                    .senderName(sender.name())
+                    .senderRole(senderIsExpert ? "EXPERT" : "USER")
+                    .senderProfileImage(sender.profileImage())
+                    .messageType(message.getMessageType())
+                    .timestamp(message.getTimestamp())
+                    .isRead(false)
+                    .contactInfo(containsContactInfo)
+                    .build();
+            ingestedMessages.increment();
+            return new SentChatMessage(response, recipient.id());
+        } catch (RuntimeException | StripeException e) {
+            rejectedMessages.increment();
+            throw e;
+        } finally {
+            long slot = ingestLatencyCursor.getAndIncrement() % LATENCY_SAMPLES;
+            ingestLatencyNanos.set((int) slot, System.nanoTime() - startedAt);
+        }
+    }
+
+    @Transactional(Transactional.TxType.SUPPORTS)
+    public Map<String, Object> getIngestStats() {
+        int samples = (int) Math.min(ingestLatencyCursor.get(), LATENCY_SAMPLES);
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            latencies[i] = ingestLatencyNanos.get(i);
+        }
+        Arrays.sort(latencies);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ingested", ingestedMessages.sum());
+        stats.put("rejected", rejectedMessages.sum());
+        stats.put("latencySamples", samples);
+        stats.put("p50Millis", samples == 0 ? 0.0 : latencies[(samples - 1) / 2] / 1_000_000.0);
+        stats.put("p99Millis", samples == 0 ? 0.0 : latencies[(int) Math.ceil(samples * 0.99) - 1] / 1_000_000.0);
+        stats.put("membershipCache", chatRoomMembershipCache.getCacheStats());
+        return stats;
+    }
+
     @Override
     @Transactional
     public ChatMessage sendMessage(String senderId, String chatRoomId, String content, boolean isContactInfo)
@@ -131,7 +295,7 @@ public class ChatManager implements ChatService {
 
         // Notify recipient
         String recipientId = determineRecipientId(sender, chatRoom);
-        notificationManager.notifyNewMessage(recipientId, sender.getId(), chatRoom.getId(), content);
+        notificationManager.notifyNewMessage(recipientId, sender.getName(), chatRoom.getId(), chatRoom.getAd().getTitle());
 
         return savedMessage;
     }
@@ -164,44 +328,15 @@ public class ChatManager implements ChatService {
         }
 
         try {
-            // Handle payment if not pending
+            // Handle payment if not pending; Stripe is charged after this transaction commits
             if (!isPendingPayment) {
-                BigDecimal contactInfoCharge = new BigDecimal("1.00");
-
-                // Process Stripe payment
-                String paymentIntentId = stripeManager.createAndConfirmPayment(
-                        expert.getStripeCustomerId(),
-                        contactInfoCharge,
+                chatPaymentSaga.beginContactSharing(
+                        chatRoom,
+                        user,
+                        expert,
+                        new BigDecimal("1.00"),
                         "EUR",
                         "Contact information sharing fee for ad: " + chatRoom.getAd().getTitle());
-
-                // Record the sharing
-                ContactSharingRecord sharingRecord = ContactSharingRecord.builder()
-                        .user(user)
-                        .expert(expert)
-                        .chatRoom(chatRoom)
-                        .ad(chatRoom.getAd())
-                        .paymentProcessed(true)
-                        .stripePaymentIntentId(paymentIntentId)
-                        .sharedAt(LocalDateTime.now())
-                        .build();
-
-                contactSharingRecordRepository.save(sharingRecord);
-
-                // Update chat room status
-                chatRoom.setContactShared(true);
-                chatRoom.setContactSharedAt(LocalDateTime.now());
-                chatRoomRepository.save(chatRoom);
-
-                // Create system message for contact sharing
-                ChatMessage systemMessage = ChatMessage.builder()
-                        .chatRoom(chatRoom)
-                        .content("Contact information has been shared. Expert has been charged €1.")
-                        .messageType(MessageType.SYSTEM)
-                        .timestamp(LocalDateTime.now())
-                        .isRead(true)
-                        .build();
-                chatMessageRepository.save(systemMessage);
             }
         } catch (Exception e) {
             log.error("Error processing contact information sharing", e);
@@ -209,83 +344,11 @@ public class ChatManager implements ChatService {
         }
     }
 
+    // Runs without a transaction so no connection is held while Stripe verifies the payment
     @Override
-    @Transactional
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public void markJobAsComplete(String chatRoomId, String expertId) throws StripeException {
-        ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
-
-        Expert expert = expertRepository.findById(expertId)
-                .orElseThrow(() -> new EntityNotFoundException("Expert not found"));
-
-        // Validate expert
-        if (!chatRoom.getExpert().getId().equals(expertId)) {
-            throw new AccessDeniedException("Only the assigned expert can complete this job");
-        }
-
-        // Validate chat room status
-        if (chatRoom.getStatus() != ChatRoomStatus.ACTIVE) {
-            throw new BusinessException("This chat room is " + chatRoom.getStatus() + " and cannot be completed");
-        }
-
-        if (chatRoom.isCompleted()) {
-            throw new BusinessException("This job has already been completed");
-        }
-
-        // Check if payment has already been processed
-        if (chatRoom.getStripePaymentIntentId() != null) {
-            try {
-                // Verify the payment status
-                PaymentIntent paymentIntent = stripeManager.retrievePaymentIntent(chatRoom.getStripePaymentIntentId());
-                if ("succeeded".equals(paymentIntent.getStatus())) {
-                    // Payment already processed, just update the status
-                    updateChatRoomStatus(chatRoom, expert, chatRoom.getStripePaymentIntentId());
-                    return;
-                }
-            } catch (StripeException e) {
-                log.error("Error verifying existing payment", e);
-            }
-        }
-
-        // Update chat room status
-        updateChatRoomStatus(chatRoom, expert, chatRoom.getStripePaymentIntentId());
-    }
-
-    private void updateChatRoomStatus(ChatRoom chatRoom, Expert expert, String paymentIntentId) {
-        try {
-            // Update chat room status
-            chatRoom.setStatus(ChatRoomStatus.COMPLETED);
-            chatRoom.setCompletedAt(LocalDateTime.now());
-            chatRoom.setCompletionPaymentProcessed(true);
-            if (paymentIntentId != null) {
-                chatRoom.setStripePaymentIntentId(paymentIntentId);
-            }
-            chatRoom.setCompleted(true);
-            chatRoom.setActive(false);
-            chatRoomRepository.save(chatRoom);
-
-            // Create system message for completion
-            ChatMessage completionMessage = ChatMessage.builder()
-                    .chatRoom(chatRoom)
-                    .content("Job marked as completed by expert. Chat room is now closed.")
-                    .messageType(MessageType.SYSTEM)
-                    .timestamp(LocalDateTime.now())
-                    .isRead(true)
-                    .sender(expert)
-                    .build();
-            chatMessageRepository.save(completionMessage);
-
-            // Notify participants
-            notificationManager.notifyJobCompleted(
-                    chatRoom.getUser().getId(),
-                    chatRoom.getExpert().getId(),
-                    chatRoom.getAd().getTitle(),
-                    chatRoom.getId());
-
-        } catch (Exception e) {
-            log.error("Error updating chat room status", e);
-            throw new BusinessException("Failed to update chat room status: " + e.getMessage());
-        }
+        chatPaymentSaga.completeJob(chatRoomId, expertId);
     }
 
     // Chat Room Management
@@ -354,25 +417,77 @@ public class ChatManager implements ChatService {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        List<ChatMessage> unreadMessages = chatMessageRepository
-                .findByChatRoomAndSenderIdAndIsReadFalse(chatRoom, user.getId());
+        // High-water mark: everything the other participants sent up to the latest message
+        Optional<ChatMessage> latest = chatMessageRepository.findFirstByChatRoomIdOrderByTimestampDescIdDesc(chatRoomId);
+        if (latest.isEmpty()) {
+            return;
+        }
+        LocalDateTime readUpTo = latest.get().getTimestamp();
+        String lastMessageId = latest.get().getId();
+
+        chatMessageRepository.markReadUpTo(chatRoomId, user.getId(), readUpTo);
 
-        unreadMessages.forEach(message -> message.setRead(true));
-        chatMessageRepository.saveAll(unreadMessages);
+        chatReadCursorRepository.advance(UUID.randomUUID().toString(), chatRoom.getId(), user.getId(),
+                readUpTo, lastMessageId);
     }
 
     public long getUnreadMessageCount(String userEmail, String chatRoomId) {
-        ChatRoom chatRoom = getChatRoomWithValidation(chatRoomId, userEmail);
+        getChatRoomWithValidation(chatRoomId, userEmail);
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
-        return chatMessageRepository.countByChatRoomAndSenderIdAndIsReadFalse(chatRoom, user.getId());
+        // Indexed range count past the reader's cursor; rooms never opened fall back to the read flags
+        return chatReadCursorRepository.findByChatRoomIdAndUserId(chatRoomId, user.getId())
+                .map(cursor -> chatMessageRepository.countReceivedAfter(chatRoomId, user.getId(), cursor.getLastReadAt()))
+                .orElseGet(() -> chatMessageRepository.countUnreadReceived(chatRoomId, user.getId()));
     }
 
     public List<ChatRoom> getUserChatRooms(String userId) {
         return chatRoomRepository.findByUserIdOrderByLastActivityDesc(userId);
     }
 
+    /**
+     * Room list for the chat sidebar in a fixed number of statements: the room projection,
+     * the ids of the latest messages per room, those messages, and the grouped unread counts.
+     */
+    public List<GetChatRoomResponse> getChatRoomSummaries(User participant) {
+        List<ChatRoomRepository.ChatRoomListView> rooms;
+        if (participant instanceof Expert expert) {
+            if (expert.isAccountBlocked()) {
+                return Collections.emptyList();
+            }
+            rooms = chatRoomRepository.findListViewsByExpertId(expert.getId());
+        } else {
+            rooms = chatRoomRepository.findListViewsByUserId(participant.getId());
+        }
+        if (rooms.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> roomIds = rooms.stream().map(ChatRoomRepository.ChatRoomListView::getId).toList();
+
+        Map<String, List<GetChatMessageResponse>> recentMessages = new HashMap<>();
+        List<String> recentIds = chatMessageRepository.findRecentIdsPerRoom(roomIds, RECENT_MESSAGES_PER_ROOM);
+        if (!recentIds.isEmpty()) {
+            for (ChatMessageRepository.RecentMessageView view : chatMessageRepository.findRecentMessageViews(recentIds)) {
+                recentMessages.computeIfAbsent(view.getChatRoomId(), id -> new ArrayList<>())
+                        .add(GetChatMessageResponse.fromView(view));
+            }
+        }
+
+        Map<String, Long> unreadCounts = new HashMap<>();
+        for (ChatMessageRepository.RoomCount count : chatMessageRepository.countUnreadReceivedPerRoom(roomIds,
+                participant.getId())) {
+            unreadCounts.put(count.getChatRoomId(), count.getCount());
+        }
+
+        return rooms.stream()
+                .map(room -> GetChatRoomResponse.fromView(room,
+                        recentMessages.getOrDefault(room.getId(), Collections.emptyList()),
+                        unreadCounts.getOrDefault(room.getId(), 0L)))
+                .toList();
+    }
+
     public List<ChatRoom> getExpertChatRooms(String expertId) {
         Expert expert = expertRepository.findById(expertId)
                 .orElseThrow(() -> new EntityNotFoundException("Expert not found"));
@@ -0,0 +1,514 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.core.utilities.events.ChatRoomChangedEvent;
+import com.buildbetter.core.utilities.events.PaymentOperationCreatedEvent;
+import com.buildbetter.core.utilities.exceptions.BusinessException;
+import com.buildbetter.dataAccess.abstracts.ChatMessageRepository;
+import com.buildbetter.dataAccess.abstracts.ChatRoomRepository;
+import com.buildbetter.dataAccess.abstracts.ContactSharingRecordRepository;
+import com.buildbetter.dataAccess.abstracts.ExpertRepository;
+import com.buildbetter.dataAccess.abstracts.PaymentOperationRepository;
+import com.buildbetter.entities.concretes.ChatMessage;
+import com.buildbetter.entities.concretes.ChatRoom;
+import com.buildbetter.entities.concretes.ContactSharingRecord;
+import com.buildbetter.entities.concretes.Expert;
+import com.buildbetter.entities.concretes.PaymentOperation;
+import com.buildbetter.entities.concretes.User;
+import com.buildbetter.enums.ChatRoomStatus;
+import com.buildbetter.enums.MessageType;
+import com.buildbetter.enums.OperationStatus;
+import com.buildbetter.enums.OperationType;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.net.RequestOptions;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs the chat payment steps, contact-sharing charges and job completion, as a saga so that no
+ * database transaction or pooled connection is held while Stripe is called:
+ * <ol>
+ * <li>the request is validated and a {@link PaymentOperation} is stored; the transaction commits,</li>
+ * <li>Stripe is called from a bounded thread pool with connect and read timeouts, using the
+ * operation's idempotency key,</li>
+ * <li>the result is applied to the chat room in a second short transaction.</li>
+ * </ol>
+ * Network, rate-limit and database failures are retried with backoff under the same idempotency
+ * key, which makes a repeated charge request return the original PaymentIntent. Stripe replays a
+ * stored server error for that key, so after one the retry first looks up the PaymentIntent by
+ * the operation id in its metadata and only charges again, under a new key, if none exists.
+ * Operations left behind by a restart or a full pool are picked up by a poller.
+ */
+@Service
+@Slf4j
+public class ChatPaymentSaga {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final String OPERATION_METADATA_KEY = "payment_operation_id";
+    // Allows for clock skew between this server and Stripe when listing by creation time
+    private static final long CREATED_SKEW_SECONDS = 300;
+
+    @Value("${saas.payments.saga-threads:4}")
+    private int threads;
+
+    @Value("${saas.payments.saga-queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${saas.payments.stripe-connect-timeout-ms:5000}")
+    private int stripeConnectTimeoutMillis;
+
+    @Value("${saas.payments.stripe-read-timeout-ms:20000}")
+    private int stripeReadTimeoutMillis;
+
+    // How long a request waits for its operation before answering without the result
+    @Value("${saas.payments.await-ms:30000}")
+    private long awaitMillis;
+
+    @Value("${saas.payments.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${saas.payments.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${saas.payments.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    @Value("${saas.payments.poll-interval-ms:30000}")
+    private long pollIntervalMillis;
+
+    private final PaymentOperationRepository paymentOperationRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final ContactSharingRecordRepository contactSharingRecordRepository;
+    private final ExpertRepository expertRepository;
+    private final NotificationManager notificationManager;
+    private final StripeManager stripeManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private ThreadPoolExecutor stripeCallers;
+    private ScheduledExecutorService poller;
+    private final ConcurrentHashMap<String, CompletableFuture<OperationStatus>> waiters = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // What the Stripe step needs, read in a short transaction before the call
+    private record OperationSnapshot(String id, OperationType type, String customerId, BigDecimal amount,
+                                     String currency, String description, String idempotencyKey,
+                                     String roomPaymentIntentId, int attempts, LocalDateTime createdAt) {
+    }
+
+    public ChatPaymentSaga(PaymentOperationRepository paymentOperationRepository,
+                           ChatRoomRepository chatRoomRepository, ChatMessageRepository chatMessageRepository,
+                           ContactSharingRecordRepository contactSharingRecordRepository,
+                           ExpertRepository expertRepository, NotificationManager notificationManager,
+                           @Lazy StripeManager stripeManager, TransactionTemplate transactionTemplate,
+                           ApplicationEventPublisher eventPublisher) {
+        this.paymentOperationRepository = paymentOperationRepository;
+        this.chatRoomRepository = chatRoomRepository;
+        this.chatMessageRepository = chatMessageRepository;
+        this.contactSharingRecordRepository = contactSharingRecordRepository;
+        this.expertRepository = expertRepository;
+        this.notificationManager = notificationManager;
+        this.stripeManager = stripeManager;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        int poolSize = Math.max(1, threads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        stripeCallers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "payment-saga-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "payment-saga-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        // Interrupted operations keep their lease and are picked up again after it expires
+        stripeCallers.shutdownNow();
+    }
+
+    /**
+     * Records a contact-sharing charge in the caller's transaction. Stripe is called after it
+     * commits and the sharing is recorded once the charge succeeds. An operation already
+     * running for the room is returned instead of starting a second charge.
+     */
+    public PaymentOperation beginContactSharing(ChatRoom chatRoom, User user, Expert expert, BigDecimal amount,
+                                                String currency, String description) {
+        List<PaymentOperation> active = paymentOperationRepository.findActive(chatRoom.getId(),
+                OperationType.INFORMATION_SHARING);
+        if (!active.isEmpty()) {
+            return active.get(0);
+        }
+        PaymentOperation operation = paymentOperationRepository.save(PaymentOperation.builder()
+                .operationType(OperationType.INFORMATION_SHARING)
+                .status(OperationStatus.PENDING)
+                .chatRoom(chatRoom)
+                .user(user)
+                .expert(expert)
+                .amount(amount)
+                .currency(currency)
+                .description(description)
+                .idempotencyKey(UUID.randomUUID().toString())
+                .build());
+        eventPublisher.publishEvent(new PaymentOperationCreatedEvent(this, operation.getId()));
+        return operation;
+    }
+
+    /**
+     * Completes the job of a chat room. Must not be called inside a transaction: validation and
+     * the operation record are committed first, then the existing payment is verified with
+     * Stripe and the room is completed in a second transaction. Waits for the result up to
+     * {@code saas.payments.await-ms}; after that the operation finishes in the background.
+     *
+     * @throws BusinessException if the operation failed
+     */
+    public void completeJob(String chatRoomId, String expertId) {
+        String operationId = transactionTemplate.execute(status -> {
+            ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
+                    .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
+            Expert expert = expertRepository.findById(expertId)
+                    .orElseThrow(() -> new EntityNotFoundException("Expert not found"));
+
+            if (!chatRoom.getExpert().getId().equals(expertId)) {
+                throw new AccessDeniedException("Only the assigned expert can complete this job");
+            }
+            if (chatRoom.getStatus() != ChatRoomStatus.ACTIVE) {
+                throw new BusinessException("This chat room is " + chatRoom.getStatus() + " and cannot be completed");
+            }
+            if (chatRoom.isCompleted()) {
+                throw new BusinessException("This job has already been completed");
+            }
+
+            List<PaymentOperation> active = paymentOperationRepository.findActive(chatRoomId,
+                    OperationType.JOB_COMPLETION);
+            if (!active.isEmpty()) {
+                String id = active.get(0).getId();
+                waiters.computeIfAbsent(id, key -> new CompletableFuture<>());
+                return id;
+            }
+            PaymentOperation operation = paymentOperationRepository.save(PaymentOperation.builder()
+                    .operationType(OperationType.JOB_COMPLETION)
+                    .status(OperationStatus.PENDING)
+                    .chatRoom(chatRoom)
+                    .expert(expert)
+                    .idempotencyKey(UUID.randomUUID().toString())
+                    .build());
+            // Registered before commit, so a fast worker cannot finish before anyone waits
+            waiters.computeIfAbsent(operation.getId(), key -> new CompletableFuture<>());
+            eventPublisher.publishEvent(new PaymentOperationCreatedEvent(this, operation.getId()));
+            return operation.getId();
+        });
+        await(operationId);
+    }
+
+    /**
+     * Hands an operation to the Stripe thread pool. If the pool is full the operation stays
+     * pending and the poller retries it.
+     */
+    public void submit(String operationId) {
+        try {
+            stripeCallers.execute(() -> runIfClaimed(operationId));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Payment saga pool is full, operation {} waits for the next poll", operationId);
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("active", paymentOperationRepository.countActive());
+        stats.put("running", (long) stripeCallers.getActiveCount());
+        stats.put("queued", (long) stripeCallers.getQueue().size());
+        stats.put("completed", completed.sum());
+        stats.put("failed", failed.sum());
+        stats.put("retried", retried.sum());
+        stats.put("rejected", rejected.sum());
+        return stats;
+    }
+
+    private void await(String operationId) {
+        CompletableFuture<OperationStatus> waiter = waiters.get(operationId);
+        if (waiter == null) {
+            return;
+        }
+        try {
+            OperationStatus status = waiter.get(awaitMillis, TimeUnit.MILLISECONDS);
+            if (status == OperationStatus.FAILED) {
+                String error = paymentOperationRepository.findById(operationId)
+                        .map(PaymentOperation::getErrorMessage)
+                        .orElse(null);
+                throw new BusinessException("Payment operation failed: " + error);
+            }
+        } catch (TimeoutException e) {
+            log.info("Payment operation {} is still running, it completes in the background", operationId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Waiting for payment operation {} failed: {}", operationId, e.getMessage());
+        } finally {
+            waiters.remove(operationId);
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            int free = stripeCallers.getQueue().remainingCapacity();
+            if (free <= 0) {
+                return;
+            }
+            for (String operationId : paymentOperationRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, free))) {
+                submit(operationId);
+            }
+        } catch (Exception e) {
+            log.error("Payment saga poll failed", e);
+        }
+    }
+
+    private void runIfClaimed(String operationId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (paymentOperationRepository.claim(operationId, now, now.plusSeconds(leaseSeconds)) != 1) {
+            return; // Already done, not yet due, or claimed by another worker
+        }
+        OperationStatus outcome;
+        try {
+            outcome = process(operationId);
+        } catch (Exception e) {
+            log.error("Payment operation {} could not be processed", operationId, e);
+            outcome = null;
+        }
+        CompletableFuture<OperationStatus> waiter = waiters.get(operationId);
+        if (waiter != null && outcome != null && outcome != OperationStatus.PENDING) {
+            waiter.complete(outcome);
+        }
+    }
+
+    private OperationStatus process(String operationId) {
+        OperationSnapshot snapshot = transactionTemplate.execute(status -> {
+            PaymentOperation operation = paymentOperationRepository.findById(operationId).orElseThrow();
+            return new OperationSnapshot(operation.getId(), operation.getOperationType(),
+                    operation.getExpert().getStripeCustomerId(), operation.getAmount(), operation.getCurrency(),
+                    operation.getDescription(), operation.getIdempotencyKey(),
+                    operation.getChatRoom().getStripePaymentIntentId(), operation.getAttempts(),
+                    operation.getCreatedAt());
+        });
+        try {
+            // No transaction is open here
+            String paymentIntentId = callStripe(snapshot);
+            transactionTemplate.executeWithoutResult(status -> apply(operationId, paymentIntentId));
+            completed.increment();
+            return OperationStatus.COMPLETED;
+        } catch (Exception e) {
+            return recordFailure(operationId, e);
+        }
+    }
+
+    private String callStripe(OperationSnapshot snapshot) throws StripeException {
+        if (snapshot.type() == OperationType.INFORMATION_SHARING) {
+            // A retry may follow a request that reached Stripe; its outcome decides the operation
+            if (snapshot.attempts() > 1) {
+                long createdAfter = snapshot.createdAt().atZone(ZoneId.systemDefault()).toEpochSecond()
+                        - CREATED_SKEW_SECONDS;
+                Optional<PaymentIntent> existing = stripeManager.findPaymentIntentByMetadata(snapshot.customerId(),
+                        OPERATION_METADATA_KEY, snapshot.id(), createdAfter, requestOptions(null));
+                if (existing.isPresent()) {
+                    return settledPaymentIntentId(existing.get());
+                }
+            }
+            return stripeManager.createAndConfirmPayment(snapshot.customerId(), snapshot.amount(),
+                    snapshot.currency(), snapshot.description(), Map.of(OPERATION_METADATA_KEY, snapshot.id()),
+                    requestOptions(snapshot.idempotencyKey()));
+        }
+        // Job completion only verifies an existing payment; the room is completed either way
+        if (snapshot.roomPaymentIntentId() != null) {
+            try {
+                PaymentIntent paymentIntent = stripeManager.retrievePaymentIntent(snapshot.roomPaymentIntentId(),
+                        requestOptions(null));
+                log.info("Payment {} of completed job has status {}", paymentIntent.getId(), paymentIntent.getStatus());
+            } catch (StripeException e) {
+                log.error("Error verifying existing payment", e);
+            }
+        }
+        return snapshot.roomPaymentIntentId();
+    }
+
+    // Processing SEPA debits count as charged, like a fresh create that returns them
+    private static String settledPaymentIntentId(PaymentIntent paymentIntent) {
+        String status = paymentIntent.getStatus();
+        if ("succeeded".equals(status) || "processing".equals(status) || "requires_capture".equals(status)) {
+            return paymentIntent.getId();
+        }
+        throw new BusinessException("Payment " + paymentIntent.getId() + " ended with status " + status);
+    }
+
+    private RequestOptions requestOptions(String idempotencyKey) {
+        RequestOptions.RequestOptionsBuilder builder = RequestOptions.builder()
+                .setConnectTimeout(stripeConnectTimeoutMillis)
+                .setReadTimeout(stripeReadTimeoutMillis);
+        if (idempotencyKey != null) {
+            builder.setIdempotencyKey(idempotencyKey);
+        }
+        return builder.build();
+    }
+
+    private void apply(String operationId, String paymentIntentId) {
+        PaymentOperation operation = paymentOperationRepository.findById(operationId).orElseThrow();
+        if (operation.getStatus() != OperationStatus.PROCESSING) {
+            return;
+        }
+        ChatRoom chatRoom = operation.getChatRoom();
+        if (operation.getOperationType() == OperationType.INFORMATION_SHARING) {
+            applyContactSharing(operation, chatRoom, paymentIntentId);
+        } else if (!chatRoom.isCompleted()) {
+            applyJobCompletion(chatRoom, operation.getExpert(), paymentIntentId);
+        }
+        operation.setStatus(OperationStatus.COMPLETED);
+        operation.setStripePaymentIntentId(paymentIntentId);
+        operation.setCompletedAt(LocalDateTime.now());
+        operation.setErrorMessage(null);
+        paymentOperationRepository.save(operation);
+        eventPublisher.publishEvent(new ChatRoomChangedEvent(this, chatRoom.getId()));
+    }
+
+    private void applyContactSharing(PaymentOperation operation, ChatRoom chatRoom, String paymentIntentId) {
+        // Record the sharing
+        ContactSharingRecord sharingRecord = ContactSharingRecord.builder()
+                .user(operation.getUser())
+                .expert(operation.getExpert())
+                .chatRoom(chatRoom)
+                .ad(chatRoom.getAd())
+                .paymentProcessed(true)
+                .stripePaymentIntentId(paymentIntentId)
+                .sharedAt(LocalDateTime.now())
+                .build();
+        contactSharingRecordRepository.save(sharingRecord);
+
+        // Update chat room status
+        chatRoom.setContactShared(true);
+        chatRoom.setContactSharedAt(LocalDateTime.now());
+        chatRoomRepository.save(chatRoom);
+
+        // Create system message for contact sharing
+        ChatMessage systemMessage = ChatMessage.builder()
+                .chatRoom(chatRoom)
+                .content("Contact information has been shared. Expert has been charged €"
+                        + operation.getAmount().stripTrailingZeros().toPlainString() + ".")
+                .messageType(MessageType.SYSTEM)
+                .timestamp(LocalDateTime.now())
+                .isRead(true)
+                .build();
+        chatMessageRepository.save(systemMessage);
+    }
+
+    private void applyJobCompletion(ChatRoom chatRoom, Expert expert, String paymentIntentId) {
+        // Update chat room status
+        chatRoom.setStatus(ChatRoomStatus.COMPLETED);
+        chatRoom.setCompletedAt(LocalDateTime.now());
+        chatRoom.setCompletionPaymentProcessed(true);
+        if (paymentIntentId != null) {
+            chatRoom.setStripePaymentIntentId(paymentIntentId);
+        }
+        chatRoom.setCompleted(true);
+        chatRoom.setActive(false);
+        chatRoomRepository.save(chatRoom);
+
+        // Create system message for completion
+        ChatMessage completionMessage = ChatMessage.builder()
+                .chatRoom(chatRoom)
+                .content("Job marked as completed by expert. Chat room is now closed.")
+                .messageType(MessageType.SYSTEM)
+                .timestamp(LocalDateTime.now())
+                .isRead(true)
+                .sender(expert)
+                .build();
+        chatMessageRepository.save(completionMessage);
+
+        // Notify participants
+        notificationManager.notifyJobCompleted(
+                chatRoom.getUser().getId(),
+                chatRoom.getExpert().getId(),
+                chatRoom.getAd().getTitle(),
+                chatRoom.getId());
+    }
+
+    // Declined cards and invalid requests fail at once. Network and rate-limit errors retry with the
+    // same key; a server error retries with a new key, after the next attempt has checked Stripe.
+    private OperationStatus recordFailure(String operationId, Exception failure) {
+        boolean serverError = failure instanceof ApiException;
+        boolean transientFailure = !(failure instanceof StripeException || failure instanceof BusinessException)
+                || failure instanceof ApiConnectionException
+                || failure instanceof RateLimitException
+                || serverError;
+        String error = failure.getMessage() == null ? failure.getClass().getSimpleName() : failure.getMessage();
+        String message = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+        return transactionTemplate.execute(status -> {
+            PaymentOperation operation = paymentOperationRepository.findById(operationId).orElseThrow();
+            operation.setErrorMessage(message);
+            if (transientFailure && operation.getAttempts() < maxAttempts) {
+                long delay = retryBaseSeconds << Math.min(operation.getAttempts() - 1, 10);
+                operation.setStatus(OperationStatus.PENDING);
+                operation.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+                if (serverError) {
+                    operation.setIdempotencyKey(UUID.randomUUID().toString());
+                }
+                retried.increment();
+                log.warn("Payment operation {} attempt {} failed, retrying in {}s: {}",
+                        operationId, operation.getAttempts(), delay, message);
+            } else {
+                operation.setStatus(OperationStatus.FAILED);
+                failed.increment();
+                log.error("Payment operation {} failed after {} attempts: {}",
+                        operationId, operation.getAttempts(), message);
+            }
+            paymentOperationRepository.save(operation);
+            return operation.getStatus();
+        });
+    }
+}
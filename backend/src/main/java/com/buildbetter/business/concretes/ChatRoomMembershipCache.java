@@ -0,0 +1,131 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.ChatRoomRepository;
+import com.buildbetter.enums.ChatRoomStatus;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived cache of chat room participants and posting state, so an inbound chat message is
+ * checked without loading the room, its users and its ad. Rooms changed through ChatManager are
+ * evicted after commit; the TTL bounds staleness for anything else.
+ */
+@Component
+public class ChatRoomMembershipCache {
+
+    @Value("${saas.chat.membership-cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${saas.chat.membership-cache-max-entries:10000}")
+    private int maxEntries;
+
+    private final ChatRoomRepository chatRoomRepository;
+    private final ConcurrentHashMap<String, CachedMembership> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public record RoomMembership(String chatRoomId, String chatId, boolean active, boolean completed,
+                                 ChatRoomStatus status, boolean expertBlocked, boolean contactShared,
+                                 Participant user, Participant expert, String adTitle) {
+
+        public boolean isParticipant(String userId) {
+            return participant(userId) != null;
+        }
+
+        public boolean isExpert(String userId) {
+            return expert != null && expert.id().equals(userId);
+        }
+
+        /**
+         * The room's user or expert with this id, or null.
+         */
+        public Participant participant(String userId) {
+            if (userId == null) {
+                return null;
+            }
+            if (user != null && user.id().equals(userId)) {
+                return user;
+            }
+            return isExpert(userId) ? expert : null;
+        }
+
+        public Participant recipientOf(String senderId) {
+            return isExpert(senderId) ? user : expert;
+        }
+    }
+
+    public record Participant(String id, String email, String name, String profileImage) {
+    }
+
+    private record CachedMembership(RoomMembership membership, long expiresAtMillis) {
+    }
+
+    public ChatRoomMembershipCache(ChatRoomRepository chatRoomRepository) {
+        this.chatRoomRepository = chatRoomRepository;
+    }
+
+    /**
+     * @throws EntityNotFoundException if the room does not exist
+     */
+    public RoomMembership get(String chatRoomId) {
+        long now = System.currentTimeMillis();
+        CachedMembership cached = cache.get(chatRoomId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.membership();
+        }
+
+        misses.increment();
+        long loadedAtGeneration = generation.get();
+        RoomMembership membership = chatRoomRepository.findMembershipById(chatRoomId)
+                .map(ChatRoomMembershipCache::toMembership)
+                .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
+        if (cache.size() >= maxEntries) {
+            cache.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+        }
+        // A room evicted while it was loading may have been read before the change committed
+        if (cache.size() < maxEntries && generation.get() == loadedAtGeneration) {
+            cache.put(chatRoomId, new CachedMembership(membership, now + ttlMillis));
+        }
+        return membership;
+    }
+
+    public void evict(String chatRoomId) {
+        generation.incrementAndGet();
+        cache.remove(chatRoomId);
+        evictions.increment();
+    }
+
+    public Map<String, Long> getCacheStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) cache.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        return stats;
+    }
+
+    private static RoomMembership toMembership(ChatRoomRepository.ChatRoomMembershipView view) {
+        Participant user = view.getUserId() == null ? null
+                : new Participant(view.getUserId(), view.getUserEmail(), view.getUserName(), view.getUserProfileImage());
+        Participant expert = view.getExpertId() == null ? null
+                : new Participant(view.getExpertId(), view.getExpertEmail(), view.getExpertName(),
+                        view.getExpertProfileImage());
+        return new RoomMembership(view.getId(), view.getChatId(),
+                Boolean.TRUE.equals(view.getActive()),
+                Boolean.TRUE.equals(view.getCompleted()),
+                view.getStatus(),
+                Boolean.TRUE.equals(view.getExpertBlocked()),
+                Boolean.TRUE.equals(view.getContactShared()),
+                user, expert, view.getAdTitle());
+    }
+}
@@ -3,7 +3,6 @@ package com.buildbetter.business.concretes;
 import com.buildbetter.business.requests.CreateChatMessageRequest;
 import com.buildbetter.core.utilities.detector.ContactInfoDetector;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
-import com.buildbetter.dataAccess.abstracts.ChatRoomRepository;
 import com.buildbetter.dataAccess.abstracts.ContactSharingRecordRepository;
 import com.buildbetter.dataAccess.abstracts.ExpertRepository;
 import com.buildbetter.entities.concretes.ChatRoom;
@@ -11,7 +10,6 @@ import com.buildbetter.entities.concretes.Expert;
 import com.buildbetter.entities.concretes.User;
 import com.buildbetter.enums.ChatRoomStatus;
 import com.buildbetter.enums.MessageType;
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -23,14 +21,18 @@ import java.time.LocalDateTime;
 @Slf4j
 @RequiredArgsConstructor
 public class ChatValidationManager {
-    private final ChatRoomRepository chatRoomRepository;
     private final ExpertRepository expertRepository;
     private final ContactSharingRecordRepository contactSharingRecordRepository;
 
-    public void validateChatMessageRequest(CreateChatMessageRequest request) {
+    /**
+     * Checks a message against the cached room membership; nothing is loaded. Messages that
+     * share contact information are only flagged here, ChatManager runs the full contact-sharing
+     * checks against the loaded room.
+     */
+    public void validateChatMessageRequest(CreateChatMessageRequest request, ChatRoomMembershipCache.RoomMembership membership) {
         validateBasicMessageRequirements(request);
-        ChatRoom chatRoom = validateChatRoomAccess(request);
-        validateMessageContent(request, chatRoom);
+        validateChatRoomAccess(request, membership);
+        validateMessageContent(request, membership);
     }
 
     public void validateContactSharing(ChatRoom chatRoom, User user, Expert expert) {
@@ -58,32 +60,25 @@ public class ChatValidationManager {
         }
     }
 
-    private ChatRoom validateChatRoomAccess(CreateChatMessageRequest request) {
-        ChatRoom chatRoom = chatRoomRepository.findById(request.getChatRoomId())
-                .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
-
-        if (chatRoom.getStatus() == ChatRoomStatus.COMPLETED || chatRoom.isCompleted()) {
+    private void validateChatRoomAccess(CreateChatMessageRequest request, ChatRoomMembershipCache.RoomMembership membership) {
+        if (membership.status() == ChatRoomStatus.COMPLETED || membership.completed()) {
             throw new BusinessException("Cannot send messages in a completed chat room");
         }
 
-        if (!chatRoom.isActive()) {
+        if (!membership.active()) {
             throw new IllegalStateException("Chat room is no longer active");
         }
 
-        boolean hasAccess = chatRoom.getUser().getId().equals(request.getSenderId()) ||
-                chatRoom.getExpert().getId().equals(request.getSenderId());
-        if (!hasAccess) {
+        if (!membership.isParticipant(request.getSenderId())) {
             throw new AccessDeniedException("Sender does not have access to this chat room");
         }
 
-        if (chatRoom.getExpert().getId().equals(request.getSenderId()) && chatRoom.isExpertBlocked()) {
+        if (membership.isExpert(request.getSenderId()) && membership.expertBlocked()) {
             throw new IllegalStateException("Expert account is blocked");
         }
-
-        return chatRoom;
     }
 
-    private void validateMessageContent(CreateChatMessageRequest request, ChatRoom chatRoom) {
+    private void validateMessageContent(CreateChatMessageRequest request, ChatRoomMembershipCache.RoomMembership membership) {
         if (request.getType() == null) {
             request.setType(MessageType.CHAT);
         }
@@ -93,11 +88,11 @@ public class ChatValidationManager {
         }
 
         // Handle contact information detection
-        if (!chatRoom.getExpert().getId().equals(request.getSenderId()) &&
+        if (!membership.isExpert(request.getSenderId()) &&
                 ContactInfoDetector.containsContactInformation(request.getContent())) {
-            validateContactSharing(chatRoom,
-                    chatRoom.getUser(),
-                    chatRoom.getExpert());
+            if (membership.contactShared()) {
+                throw new BusinessException("Contact information has already been shared in this chat room");
+            }
             request.setType(MessageType.CONTACT_INFO);
             request.setContactInfo(true);
         }
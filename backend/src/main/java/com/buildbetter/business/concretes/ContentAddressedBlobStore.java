@@ -0,0 +1,296 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.utilities.images.ImageVariant;
+import com.buildbetter.dataAccess.abstracts.StorageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stores uploaded bytes once per SHA-256 under {@code blobs/ab/cd/<sha256><ext>}, so identical
+ * images share one object and no directory holds more than a few hundred entries. Bytes are
+ * hashed into a local staging file first and then handed to the {@link ObjectStorageDriver}.
+ * <p>
+ * A blob is referenced by every {@code Storage} row with its {@code blobKey}; the reference
+ * count is the number of such rows, so it cannot drift from the rows themselves. When an image
+ * is deleted the blob is collected after commit if nothing references it any more. Blobs that
+ * were written by an upload whose transaction never committed are removed by a periodic sweep.
+ * Both skip blobs touched within the grace period, which covers an upload that has written or
+ * reused a blob but not committed its row yet, on this node or on another one sharing the backend.
+ */
+@Component
+@Slf4j
+public class ContentAddressedBlobStore {
+
+    private static final String BLOB_PREFIX = "blobs/";
+    private static final int LOCK_STRIPES = 64;
+    private static final int SWEEP_BATCH_SIZE = 500;
+
+    // <sha256>_<8 random chars><ext>; the random part keeps names unique per (user, name)
+    private static final Pattern STORAGE_NAME = Pattern.compile("^([0-9a-f]{64})_[0-9a-f]{8}(\\.[a-z0-9]{1,10})?$");
+    private static final Pattern EXTENSION = Pattern.compile("^\\.[a-z0-9]{1,10}$");
+
+    @Value("${saas.storage.blob-grace-period-ms:3600000}")
+    private long gracePeriodMs;
+
+    @Value("${saas.storage.blob-sweep-interval-ms:21600000}")
+    private long sweepIntervalMs;
+
+    private final ObjectStorageDriver storageDriver;
+    private final StorageRepository storageRepository;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+    private ScheduledExecutorService collector;
+
+    private final LongAdder storedBlobs = new LongAdder();
+    private final LongAdder deduplicatedUploads = new LongAdder();
+    private final LongAdder collectedBlobs = new LongAdder();
+    private volatile LocalDateTime lastSweepAt;
+
+    public record StoredBlob(String key, String objectKey, long size) {
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class BlobStoreStats {
+        private long storedBlobs;
+        private long deduplicatedUploads;
+        private long collectedBlobs;
+        private LocalDateTime lastSweepAt;
+    }
+
+    public ContentAddressedBlobStore(ObjectStorageDriver storageDriver, StorageRepository storageRepository,
+                                     ImageDerivativeGenerator imageDerivativeGenerator) {
+        this.storageDriver = storageDriver;
+        this.storageRepository = storageRepository;
+        this.imageDerivativeGenerator = imageDerivativeGenerator;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        collector = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "blob-collector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        collector.scheduleWithFixedDelay(this::sweepSafely, sweepIntervalMs, sweepIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        collector.shutdownNow();
+    }
+
+    /**
+     * The blob key of a content-addressed storage name, or null for a name stored before blobs.
+     */
+    public static String keyOf(String storageName) {
+        if (storageName == null) {
+            return null;
+        }
+        Matcher matcher = STORAGE_NAME.matcher(storageName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return matcher.group(1) + (matcher.group(2) != null ? matcher.group(2) : "");
+    }
+
+    /**
+     * A new, unique storage name pointing at {@code key}.
+     */
+    public static String storageNameFor(String key) {
+        String hash = key.substring(0, 64);
+        String extension = key.substring(64);
+        return hash + "_" + UUID.randomUUID().toString().substring(0, 8) + extension;
+    }
+
+    /**
+     * Lower-cased extension of an uploaded file name including the dot, or "" if it has none
+     * or an unusual one.
+     */
+    public static String extensionOf(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.')).toLowerCase();
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+
+    /**
+     * The object key a blob is stored under.
+     */
+    public static String objectKey(String key) {
+        return BLOB_PREFIX + key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key;
+    }
+
+    /**
+     * Streams {@code input} to a staging file while hashing it, then moves it to its content
+     * address. If the blob already exists the copy is dropped and the existing blob is touched,
+     * so a collection running concurrently leaves it in place.
+     */
+    public StoredBlob store(InputStream input, String extension, String contentType) throws IOException {
+        Path tempFile = storageDriver.createStagingFile();
+        try {
+            MessageDigest digest = sha256();
+            long size;
+            try (InputStream hashing = new DigestInputStream(input, digest)) {
+                size = Files.copy(hashing, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String key = HexFormat.of().formatHex(digest.digest()) + extension;
+            String objectKey = objectKey(key);
+
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                if (storageDriver.touch(objectKey)) {
+                    Files.delete(tempFile);
+                    deduplicatedUploads.increment();
+                    log.debug("Reused existing blob {}", key);
+                } else {
+                    storageDriver.moveIn(objectKey, tempFile, contentType);
+                    storedBlobs.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+            return new StoredBlob(key, objectKey, size);
+        } catch (IOException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes each blob no longer referenced by any storage row. Runs on the collector thread.
+     */
+    public void collect(Collection<String> keys) {
+        List<String> candidates = new ArrayList<>(new LinkedHashSet<>(keys));
+        collector.execute(() -> {
+            for (String key : candidates) {
+                try {
+                    if (storageRepository.countByBlobKey(key) == 0) {
+                        deleteIfIdle(key);
+                    }
+                } catch (Exception e) {
+                    log.warn("Could not collect blob {}: {}", key, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public BlobStoreStats getStats() {
+        return BlobStoreStats.builder()
+                .storedBlobs(storedBlobs.sum())
+                .deduplicatedUploads(deduplicatedUploads.sum())
+                .collectedBlobs(collectedBlobs.sum())
+                .lastSweepAt(lastSweepAt)
+                .build();
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+            lastSweepAt = LocalDateTime.now();
+        } catch (Exception e) {
+            log.error("Blob sweep failed", e);
+        }
+    }
+
+    // Removes idle blobs no row references, in batches so the check is one query per batch
+    private void sweep() throws IOException {
+        long cutoff = System.currentTimeMillis() - gracePeriodMs;
+        List<String> batch = new ArrayList<>(SWEEP_BATCH_SIZE);
+        storageDriver.list(BLOB_PREFIX, object -> {
+            String name = object.key().substring(object.key().lastIndexOf('/') + 1);
+            if (ImageVariant.isVariant(name) || object.lastModified() >= cutoff) {
+                return;
+            }
+            batch.add(name);
+            if (batch.size() == SWEEP_BATCH_SIZE) {
+                sweepBatch(batch);
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            sweepBatch(batch);
+        }
+    }
+
+    private void sweepBatch(List<String> keys) {
+        Set<String> referenced = new HashSet<>(storageRepository.findReferencedBlobKeys(keys));
+        for (String key : keys) {
+            if (!referenced.contains(key)) {
+                deleteIfIdle(key);
+            }
+        }
+    }
+
+    private void deleteIfIdle(String key) {
+        String objectKey = objectKey(key);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Optional<ObjectStorageDriver.StoredObject> blob = storageDriver.stat(objectKey);
+            if (blob.isEmpty() || blob.get().lastModified() >= System.currentTimeMillis() - gracePeriodMs) {
+                return;
+            }
+            storageDriver.delete(objectKey);
+            imageDerivativeGenerator.deleteDerivatives(objectKey);
+            collectedBlobs.increment();
+            log.info("Deleted unreferenced blob {}", key);
+        } catch (IOException e) {
+            log.warn("Could not delete blob {}: {}", key, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.abstracts.EntitlementService;
+import com.buildbetter.business.responses.OrganizationEntitlements;
+import com.buildbetter.dataAccess.abstracts.OrganizationRepository;
+import com.buildbetter.entities.concretes.SubscriptionPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caches resolved plan limits per organization so per-request quota checks do not query the
+ * Organization -> Subscription -> SubscriptionPlan chain every time. Entries expire after a TTL
+ * and are invalidated explicitly when a subscription's plan or a plan's limits change.
+ */
+@Service
+public class EntitlementManager implements EntitlementService {
+
+    @Value("${saas.entitlements.cache-ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${saas.entitlements.max-entries:100000}")
+    private int maxEntries;
+
+    private final OrganizationRepository organizationRepository;
+
+    private final ConcurrentHashMap<String, CachedEntitlements> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record CachedEntitlements(OrganizationEntitlements entitlements, long expiresAtMillis) {
+    }
+
+    public EntitlementManager(OrganizationRepository organizationRepository) {
+        this.organizationRepository = organizationRepository;
+    }
+
+    @Override
+    public OrganizationEntitlements getEntitlements(String organizationId) {
+        long now = System.currentTimeMillis();
+        CachedEntitlements cached = cache.get(organizationId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return cached.entitlements();
+        }
+
+        misses.increment();
+        OrganizationEntitlements entitlements = resolve(organizationId);
+        if (cache.size() >= maxEntries) {
+            cache.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+        }
+        if (cache.size() < maxEntries) {
+            cache.put(organizationId, new CachedEntitlements(entitlements, now + ttlMillis));
+        }
+        return entitlements;
+    }
+
+    @Override
+    public void invalidateOrganization(String organizationId) {
+        if (cache.remove(organizationId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    @Override
+    public void invalidatePlan(String planId) {
+        cache.entrySet().removeIf(entry -> {
+            boolean matches = planId.equals(entry.getValue().entitlements().getPlanId());
+            if (matches) {
+                invalidations.increment();
+            }
+            return matches;
+        });
+    }
+
+    @Override
+    public Map<String, Long> getCacheStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) cache.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private OrganizationEntitlements resolve(String organizationId) {
+        return organizationRepository.findPlanByOrganizationId(organizationId)
+                .map(plan -> fromPlan(organizationId, plan))
+                .orElseGet(() -> OrganizationEntitlements.builder()
+                        .organizationId(organizationId)
+                        .build());
+    }
+
+    private OrganizationEntitlements fromPlan(String organizationId, SubscriptionPlan plan) {
+        return OrganizationEntitlements.builder()
+                .organizationId(organizationId)
+                .planId(plan.getId())
+                .tier(plan.getTier())
+                .maxApiCallsPerHour(plan.getMaxApiCallsPerHour())
+                .maxAds(plan.getMaxAds())
+                .maxStorageMb(plan.getMaxStorageMb())
+                .maxUsers(plan.getMaxUsers())
+                .customBranding(plan.isCustomBranding())
+                .prioritySupport(plan.isPrioritySupport())
+                .apiAccess(plan.isApiAccess())
+                .advancedAnalytics(plan.isAdvancedAnalytics())
+                .whiteLabel(plan.isWhiteLabel())
+                .build();
+    }
+}
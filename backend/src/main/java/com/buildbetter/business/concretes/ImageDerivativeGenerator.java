@@ -0,0 +1,218 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.utilities.images.ImageResizer;
+import com.buildbetter.core.utilities.images.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders the {@link ImageVariant} files for uploaded images on a background thread, so the
+ * upload request returns as soon as the original is stored. Until a variant exists the image
+ * endpoint serves the original in its place. Variants are stored next to the original under the
+ * same key plus the variant suffix; originals on a remote backend are downloaded to a temp file
+ * for rendering.
+ */
+@Service
+@Slf4j
+public class ImageDerivativeGenerator {
+
+    @Value("${saas.images.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    private final ObjectStorageDriver storageDriver;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-derivatives");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile LocalDateTime lastGeneratedAt;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class DerivativeStats {
+        private int queued;
+        private long generated;
+        private long skipped;
+        private long failed;
+        private LocalDateTime lastGeneratedAt;
+    }
+
+    public ImageDerivativeGenerator(ObjectStorageDriver storageDriver) {
+        this.storageDriver = storageDriver;
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * @param originals object keys of the stored originals
+     */
+    public void generate(List<String> originals) {
+        for (String original : originals) {
+            queued.incrementAndGet();
+            worker.execute(() -> {
+                try {
+                    generateNow(original);
+                } finally {
+                    queued.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Queues every stored original, including the blobs, that is missing one of its variants,
+     * e.g. images uploaded before variants existed. One listing gives both the originals and
+     * the variants, so no per-file lookups are needed.
+     */
+    public void backfill() {
+        worker.execute(() -> {
+            Set<String> keys = new HashSet<>();
+            try {
+                storageDriver.list("", object -> keys.add(object.key()));
+            } catch (IOException e) {
+                log.warn("Could not scan {} storage for missing image variants: {}", storageDriver.getName(), e.getMessage());
+                return;
+            }
+            List<String> missing = new ArrayList<>();
+            for (String key : keys) {
+                if (ImageVariant.isVariant(key)) {
+                    continue;
+                }
+                for (ImageVariant variant : ImageVariant.values()) {
+                    if (!keys.contains(variant.fileName(key))) {
+                        missing.add(key);
+                        break;
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                generate(missing);
+                log.info("Queued variant generation for {} existing images", missing.size());
+            }
+        });
+    }
+
+    /**
+     * Runs on the worker so it is ordered after any generation still queued for the same file.
+     */
+    public void deleteDerivatives(String original) {
+        worker.execute(() -> {
+            for (ImageVariant variant : ImageVariant.values()) {
+                try {
+                    storageDriver.delete(variant.fileName(original));
+                } catch (IOException e) {
+                    log.warn("Could not delete {} variant of {}: {}", variant, original, e.getMessage());
+                }
+            }
+        });
+    }
+
+    public DerivativeStats getStats() {
+        return DerivativeStats.builder()
+                .queued(queued.get())
+                .generated(generated.sum())
+                .skipped(skipped.sum())
+                .failed(failed.sum())
+                .lastGeneratedAt(lastGeneratedAt)
+                .build();
+    }
+
+    private boolean hasAllVariants(String original) throws IOException {
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!storageDriver.exists(variant.fileName(original))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void generateNow(String original) {
+        Path download = null;
+        try {
+            if (!storageDriver.exists(original) || hasAllVariants(original)) {
+                // Deleted before the worker got to it, or a deduplicated blob rendered earlier
+                skipped.increment();
+                return;
+            }
+            Optional<Path> localFile = storageDriver.localPath(original);
+            Path source;
+            if (localFile.isPresent()) {
+                source = localFile.get();
+            } else {
+                download = Files.createTempFile("image-source-", ".part");
+                try (InputStream input = storageDriver.open(original)) {
+                    Files.copy(input, download, StandardCopyOption.REPLACE_EXISTING);
+                }
+                source = download;
+            }
+            int[] dimensions = ImageResizer.readDimensions(source);
+            if (dimensions == null || (long) dimensions[0] * dimensions[1] > maxSourcePixels) {
+                log.debug("Skipping variants for {}: unsupported format or too large", original);
+                skipped.increment();
+                return;
+            }
+            BufferedImage image = ImageResizer.read(source);
+            if (image == null) {
+                skipped.increment();
+                return;
+            }
+            String format = ImageVariant.formatOf(original);
+            String contentType = "png".equals(format) ? "image/png" : "image/jpeg";
+            for (ImageVariant variant : ImageVariant.values()) {
+                BufferedImage scaled = ImageResizer.fit(image, variant.getMaxDimension(), "png".equals(format));
+                Path stagingFile = storageDriver.createStagingFile();
+                try {
+                    ImageResizer.encode(scaled, format, stagingFile);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(stagingFile);
+                    throw e;
+                }
+                storageDriver.moveIn(variant.fileName(original), stagingFile, contentType);
+            }
+            generated.increment();
+            lastGeneratedAt = LocalDateTime.now();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Could not generate variants for {}: {}", original, e.getMessage());
+        } finally {
+            if (download != null) {
+                try {
+                    Files.deleteIfExists(download);
+                } catch (IOException e) {
+                    log.debug("Could not delete temp file {}", download);
+                }
+            }
+        }
+    }
+}
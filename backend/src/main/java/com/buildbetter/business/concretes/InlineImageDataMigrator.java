@@ -0,0 +1,158 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.utilities.images.ImageUtils;
+import com.buildbetter.dataAccess.abstracts.StorageImageDataRepository;
+import com.buildbetter.entities.concretes.StorageImageData;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves image bytes that older uploads kept in {@code storage.image_data} out to object
+ * storage, under the same object key the row's name already resolves to, and then clears the
+ * column. Runs once in the background after startup and pages through the table by id; only
+ * one row's bytes are held in memory at a time. Until a row is migrated
+ * {@link StorageManager#openImage} still reads its bytes from the column.
+ * <p>
+ * Re-running is safe: if the object already exists, the column is only cleared.
+ */
+@Service
+@Slf4j
+public class InlineImageDataMigrator {
+
+    @Value("${saas.storage.inline-data-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${saas.storage.inline-data-migration.batch-size:50}")
+    private int batchSize;
+
+    private final StorageImageDataRepository storageImageDataRepository;
+    private final ObjectStorageDriver storageDriver;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder alreadyStored = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder bytesMoved = new LongAdder();
+    private volatile boolean running;
+    private volatile LocalDateTime lastRunAt;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class InlineDataMigrationStats {
+        private boolean running;
+        private long migrated;
+        private long alreadyStored;
+        private long failed;
+        private long bytesMoved;
+        private LocalDateTime lastRunAt;
+    }
+
+    public InlineImageDataMigrator(StorageImageDataRepository storageImageDataRepository,
+                                   ObjectStorageDriver storageDriver,
+                                   ImageDerivativeGenerator imageDerivativeGenerator) {
+        this.storageImageDataRepository = storageImageDataRepository;
+        this.storageDriver = storageDriver;
+        this.imageDerivativeGenerator = imageDerivativeGenerator;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::migrateAll, "inline-image-migration");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void migrateAll() {
+        running = true;
+        try {
+            String afterId = "";
+            List<String> ids;
+            do {
+                ids = storageImageDataRepository.findIdsWithImageDataAfter(afterId, PageRequest.of(0, batchSize));
+                for (String id : ids) {
+                    migrate(id);
+                    afterId = id;
+                }
+            } while (ids.size() == batchSize);
+            if (migrated.sum() + alreadyStored.sum() + failed.sum() > 0) {
+                log.info("Inline image data migration finished: {}", getStats());
+            }
+        } catch (Exception e) {
+            log.error("Inline image data migration stopped", e);
+        } finally {
+            lastRunAt = LocalDateTime.now();
+            running = false;
+        }
+    }
+
+    public InlineDataMigrationStats getStats() {
+        return InlineDataMigrationStats.builder()
+                .running(running)
+                .migrated(migrated.sum())
+                .alreadyStored(alreadyStored.sum())
+                .failed(failed.sum())
+                .bytesMoved(bytesMoved.sum())
+                .lastRunAt(lastRunAt)
+                .build();
+    }
+
+    private void migrate(String id) {
+        Optional<StorageImageData> row = storageImageDataRepository.findById(id);
+        if (row.isEmpty() || row.get().getImageData() == null) {
+            return;
+        }
+        StorageImageData data = row.get();
+        String objectKey = data.getName() == null ? null : StorageManager.objectKeyOf(data.getName());
+        if (objectKey == null) {
+            // The name cannot be served from object storage; keep the bytes where they are
+            failed.increment();
+            log.warn("Inline image data of storage {} has no valid object key: {}", id, data.getName());
+            return;
+        }
+        try {
+            if (storageDriver.exists(objectKey)) {
+                alreadyStored.increment();
+            } else {
+                Path staging = storageDriver.createStagingFile();
+                try {
+                    try (InputStream input = ImageUtils.decompressingStream(new ByteArrayInputStream(data.getImageData()))) {
+                        Files.copy(input, staging, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                    long size = Files.size(staging);
+                    storageDriver.moveIn(objectKey, staging, data.getType());
+                    bytesMoved.add(size);
+                } finally {
+                    Files.deleteIfExists(staging);
+                }
+                migrated.increment();
+                imageDerivativeGenerator.generate(List.of(objectKey));
+            }
+            storageImageDataRepository.clearImageData(id);
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Could not move inline image data of storage {} to {}: {}", id, objectKey, e.getMessage());
+        }
+    }
+}
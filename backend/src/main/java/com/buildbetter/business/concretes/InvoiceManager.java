@@ -1,169 +1,88 @@
 package com.buildbetter.business.concretes;
 
-import com.lowagie.text.Document;
-import com.lowagie.text.Element;
-import com.lowagie.text.PageSize;
-import com.lowagie.text.Paragraph;
-import com.lowagie.text.pdf.PdfWriter;
 import com.buildbetter.business.abstracts.InvoiceService;
+import com.buildbetter.business.responses.GetInvoiceJobResponse;
+import com.buildbetter.core.utilities.events.AnalyticsRollupInvalidatedEvent;
+import com.buildbetter.core.utilities.events.InvoiceRenderRequestedEvent;
 import com.buildbetter.dataAccess.abstracts.ExpertRepository;
+import com.buildbetter.dataAccess.abstracts.InvoiceJobRepository;
 import com.buildbetter.dataAccess.abstracts.InvoiceRepository;
 import com.buildbetter.dataAccess.abstracts.UserRepository;
 import com.buildbetter.entities.concretes.Expert;
 import com.buildbetter.entities.concretes.Invoice;
+import com.buildbetter.entities.concretes.InvoiceJob;
 import com.buildbetter.entities.concretes.User;
+import com.buildbetter.enums.InvoiceJobStatus;
 import com.buildbetter.enums.PaymentType;
-import com.stripe.exception.StripeException;
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Lazy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 public class InvoiceManager implements InvoiceService {
 
-    @Value("${invoice.storage.path}")
-    private String invoiceStoragePath;
-
     private final InvoiceRepository invoiceRepository;
+    private final InvoiceJobRepository invoiceJobRepository;
     private final UserRepository userRepository;
     private final ExpertRepository expertRepository;
-    private final StripeManager stripeManager;
+    private final InvoiceRenderWorker invoiceRenderWorker;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public InvoiceManager(
             InvoiceRepository invoiceRepository,
+            InvoiceJobRepository invoiceJobRepository,
             UserRepository userRepository,
             ExpertRepository expertRepository,
-            @Lazy StripeManager stripeManager) {
+            InvoiceRenderWorker invoiceRenderWorker,
+            ApplicationEventPublisher eventPublisher) {
         this.invoiceRepository = invoiceRepository;
+        this.invoiceJobRepository = invoiceJobRepository;
         this.userRepository = userRepository;
         this.expertRepository = expertRepository;
-        this.stripeManager = stripeManager;
-    }
-
-    @PostConstruct
-    public void init() {
-        try {
-            createInvoiceDirectory();
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to create invoice directory", e);
-        }
-    }
-
-    private void createInvoiceDirectory() throws IOException {
-        // Varsayılan dizin
-        if (invoiceStoragePath == null || invoiceStoragePath.trim().isEmpty()) {
-            invoiceStoragePath = "invoices";
-        }
-
-        Path directory = getInvoiceDirectory();
-        if (!Files.exists(directory)) {
-            Files.createDirectories(directory);
-        }
-    }
-
-    private Path getInvoiceDirectory() {
-        // Proje kök dizinini al
-        String userDir = System.getProperty("user.dir");
-        return Paths.get(userDir, invoiceStoragePath);
-    }
-
-    private byte[] generateInvoicePDF(Invoice invoice) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        Document document = new Document(PageSize.A4);
-        PdfWriter.getInstance(document, out);
-
-        document.open();
-
-        // Logo ve başlık
-        Paragraph header = new Paragraph("RENOVATIPOINT");
-        header.setAlignment(Element.ALIGN_CENTER);
-        header.setSpacingAfter(20);
-        document.add(header);
-
-        // Fatura detayları
-        document.add(new Paragraph("Invoice Number: " + invoice.getInvoiceNumber()));
-        document.add(new Paragraph(
-                "Date: " + invoice.getDateIssued().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"))));
-
-        // Müşteri bilgileri
-        if (invoice.getUser() != null) {
-            document.add(new Paragraph("\nBill To:"));
-            document.add(new Paragraph(invoice.getUser().getName() + " " + invoice.getUser().getSurname()));
-            document.add(new Paragraph(invoice.getUser().getEmail()));
-        } else if (invoice.getExpert() != null) {
-            document.add(new Paragraph("\nBill To:"));
-            document.add(new Paragraph(invoice.getExpert().getName() + " " + invoice.getExpert().getSurname()));
-            document.add(new Paragraph(invoice.getExpert().getEmail()));
-            if (invoice.getExpert().getCompanyName() != null) {
-                document.add(new Paragraph("Company: " + invoice.getExpert().getCompanyName()));
-            }
-        }
-
-        // Tutar detayları
-        document.add(new Paragraph("\nAmount Details:"));
-        document.add(new Paragraph("Amount: €" + invoice.getAmount()));
-        document.add(new Paragraph("Status: " + (invoice.isPaid() ? "Paid" : "Pending")));
-
-        // Alt bilgi
-        Paragraph footer = new Paragraph("\nThank you for your business!");
-        footer.setAlignment(Element.ALIGN_CENTER);
-        document.add(footer);
-
-        document.close();
-        return out.toByteArray();
+        this.invoiceRenderWorker = invoiceRenderWorker;
+        this.eventPublisher = eventPublisher;
     }
 
+    // PDF ve Stripe makbuz URL'si InvoiceRenderWorker tarafından arka planda hazırlanır
     @Override
-    public Invoice generateInvoiceForUser(String userId, double amount, String paymentIntentId)
-            throws IOException, StripeException {
+    @Transactional
+    public Invoice generateInvoiceForUser(String userId, double amount, String paymentIntentId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         String invoiceNumber = "INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        LocalDateTime dateIssued = LocalDateTime.now();
 
-        // PDF oluştur ve kaydet
         Invoice invoice = new Invoice();
         invoice.setInvoiceNumber(invoiceNumber);
         invoice.setUser(user);
         invoice.setAmount(BigDecimal.valueOf(amount));
-        invoice.setDateIssued(dateIssued);
+        invoice.setDateIssued(LocalDateTime.now());
         invoice.setPaid(true);
         invoice.setPaymentMethodId(paymentIntentId);
 
-        // Stripe makbuz URL'sini al
-        String receiptUrl = stripeManager.retrievePaymentReceiptUrl(paymentIntentId);
-        invoice.setStripeReceiptUrl(receiptUrl);
-
-        // PDF dosyasını oluştur ve kaydet
-        byte[] pdfContent = generateInvoicePDF(invoice);
-        String fileName = invoiceNumber + ".pdf";
-        String filePath = saveInvoicePDF(pdfContent, fileName);
-        invoice.setFilePath(filePath);
-
-        return invoiceRepository.save(invoice);
+        return enqueueRender(invoice);
     }
 
     @Override
+    @Transactional
     public Invoice generateInvoiceForExpert(String expertId, double amount, String paymentIntentId,
-            PaymentType paymentType)
-            throws IOException, StripeException {
+            PaymentType paymentType) {
         if (expertId == null || paymentIntentId == null || paymentType == null) {
             throw new IllegalArgumentException("Expert ID, Payment Intent ID and Payment Type cannot be null");
         }
@@ -172,44 +91,33 @@ public class InvoiceManager implements InvoiceService {
                 .orElseThrow(() -> new EntityNotFoundException("Expert not found with ID: " + expertId));
 
         String invoiceNumber = "INV-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-        LocalDateTime dateIssued = LocalDateTime.now();
 
-        // PDF oluştur ve kaydet
         Invoice invoice = Invoice.builder()
                 .invoiceNumber(invoiceNumber)
                 .expert(expert)
                 .user(null) // Explicitly set user to null for expert invoices
                 .amount(BigDecimal.valueOf(amount))
-                .dateIssued(dateIssued)
+                .dateIssued(LocalDateTime.now())
                 .paid(true)
                 .paymentMethodId(paymentIntentId)
                 .paymentType(paymentType)
                 .build();
 
-        // Stripe makbuz URL'sini al
-        String receiptUrl = stripeManager.retrievePaymentReceiptUrl(paymentIntentId);
-        invoice.setStripeReceiptUrl(receiptUrl);
-
-        // PDF dosyasını oluştur ve kaydet
-        byte[] pdfContent = generateInvoicePDF(invoice);
-        String fileName = invoiceNumber + ".pdf";
-        String filePath = saveInvoicePDF(pdfContent, fileName);
-        invoice.setFilePath(filePath);
-
-        return invoiceRepository.save(invoice);
+        return enqueueRender(invoice);
     }
 
-    private String saveInvoicePDF(byte[] content, String fileName) throws IOException {
-        Path directory = getInvoiceDirectory();
-        if (!Files.exists(directory)) {
-            Files.createDirectories(directory);
-        }
-
-        Path filePath = directory.resolve(fileName);
-        Files.write(filePath, content);
-
-        // Göreceli yol yerine tam yolu döndür
-        return filePath.toAbsolutePath().toString();
+    // Fatura ve iş kaydı aynı işlemde kaydedilir; dosya yolu PDF yazılmadan önce bellidir
+    private Invoice enqueueRender(Invoice invoice) {
+        invoice.setFilePath(invoiceRenderWorker.invoicePath(invoice.getInvoiceNumber()).toString());
+        Invoice saved = invoiceRepository.save(invoice);
+        invoiceJobRepository.save(InvoiceJob.builder()
+                .invoice(saved)
+                .status(InvoiceJobStatus.PENDING)
+                .build());
+        eventPublisher.publishEvent(new InvoiceRenderRequestedEvent(this, saved.getId()));
+        eventPublisher.publishEvent(AnalyticsRollupInvalidatedEvent.forRevenueDays(this,
+                Set.of(saved.getDateIssued().toLocalDate())));
+        return saved;
     }
 
     @Override
@@ -219,18 +127,32 @@ public class InvoiceManager implements InvoiceService {
 
         Path path = Paths.get(invoice.getFilePath());
         if (!Files.exists(path)) {
-            // Eğer dosya yoksa yeniden oluştur
-            byte[] pdfContent = generateInvoicePDF(invoice);
-            String fileName = invoice.getInvoiceNumber() + ".pdf";
-            String filePath = saveInvoicePDF(pdfContent, fileName);
-            invoice.setFilePath(filePath);
-            invoiceRepository.save(invoice);
-            return pdfContent;
+            // Eğer dosya yoksa (henüz işlenmemiş ya da silinmiş) hemen oluştur
+            path = invoiceRenderWorker.renderNow(invoice);
+            if (!path.toString().equals(invoice.getFilePath())) {
+                invoice.setFilePath(path.toString());
+                invoiceRepository.save(invoice);
+            }
         }
 
         return Files.readAllBytes(path);
     }
 
+    @Override
+    public GetInvoiceJobResponse getRenderStatus(String invoiceId) {
+        InvoiceJob job = invoiceJobRepository.findByInvoiceId(invoiceId)
+                .orElseThrow(() -> new EntityNotFoundException("No render job for invoice: " + invoiceId));
+        return GetInvoiceJobResponse.builder()
+                .invoiceId(invoiceId)
+                .status(job.getStatus())
+                .attempts(job.getAttempts())
+                .nextAttemptAt(job.getNextAttemptAt())
+                .completedAt(job.getCompletedAt())
+                .lastError(job.getLastError())
+                .ready(job.getStatus() == InvoiceJobStatus.COMPLETED)
+                .build();
+    }
+
     @Override
     public List<Invoice> findByUserId(String userId) {
         return invoiceRepository.findByUserId(userId);
@@ -256,8 +178,20 @@ public class InvoiceManager implements InvoiceService {
         return invoiceRepository.findByStripeCustomerId(customerId);
     }
 
+    // Gelir özeti hem eski hem yeni fatura tarihinin günü için yeniden hesaplanır
     @Override
     public void save(Invoice invoice) {
-        invoiceRepository.save(invoice);
+        Set<LocalDate> revenueDays = new HashSet<>();
+        if (invoice.getId() != null) {
+            LocalDateTime previousDateIssued = invoiceRepository.findDateIssuedById(invoice.getId());
+            if (previousDateIssued != null) {
+                revenueDays.add(previousDateIssued.toLocalDate());
+            }
+        }
+        Invoice saved = invoiceRepository.save(invoice);
+        if (saved.getDateIssued() != null) {
+            revenueDays.add(saved.getDateIssued().toLocalDate());
+        }
+        eventPublisher.publishEvent(AnalyticsRollupInvalidatedEvent.forRevenueDays(this, revenueDays));
     }
 }
@@ -0,0 +1,333 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.InvoiceJobRepository;
+import com.buildbetter.dataAccess.abstracts.InvoiceRepository;
+import com.buildbetter.entities.concretes.Invoice;
+import com.buildbetter.entities.concretes.InvoiceJob;
+import com.buildbetter.enums.InvoiceJobStatus;
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.pdf.PdfWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders invoice PDFs from the {@code invoice_jobs} table on a small thread pool, off the
+ * payment request path. Jobs are claimed with a lease, so a render interrupted by a restart is
+ * picked up again, and failed renders are retried with exponential backoff. A PDF is written
+ * to a temp file in the invoice directory and moved into place, so readers never see a partial
+ * file. The Stripe receipt URL is fetched here as well.
+ */
+@Service
+@Slf4j
+public class InvoiceRenderWorker {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final String TEMP_PREFIX = ".invoice-";
+    private static final String TEMP_SUFFIX = ".pdf.part";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value("${invoice.storage.path}")
+    private String invoiceStoragePath;
+
+    @Value("${saas.invoices.render-threads:2}")
+    private int renderThreads;
+
+    @Value("${saas.invoices.poll-interval-ms:5000}")
+    private long pollIntervalMillis;
+
+    @Value("${saas.invoices.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${saas.invoices.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${saas.invoices.retry-base-seconds:30}")
+    private long retryBaseSeconds;
+
+    private final InvoiceJobRepository invoiceJobRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final StripeManager stripeManager;
+
+    private Path invoiceDirectory;
+    private ScheduledExecutorService poller;
+    private ExecutorService renderers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rendered = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile LocalDateTime lastRenderedAt;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class InvoiceRenderStats {
+        private long pending;
+        private int inFlight;
+        private long rendered;
+        private long retried;
+        private long failed;
+        private LocalDateTime lastRenderedAt;
+    }
+
+    public InvoiceRenderWorker(InvoiceJobRepository invoiceJobRepository, InvoiceRepository invoiceRepository,
+                               @Lazy StripeManager stripeManager) {
+        this.invoiceJobRepository = invoiceJobRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.stripeManager = stripeManager;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        // Varsayılan dizin, proje kök dizinine göre
+        if (invoiceStoragePath == null || invoiceStoragePath.trim().isEmpty()) {
+            invoiceStoragePath = "invoices";
+        }
+        invoiceDirectory = Paths.get(System.getProperty("user.dir"), invoiceStoragePath).toAbsolutePath();
+        Files.createDirectories(invoiceDirectory);
+        deleteLeftoverTempFiles();
+
+        int threads = Math.max(1, renderThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        renderers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "invoice-render-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invoice-render-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        // Interrupted renders keep their lease and are retried after it expires
+        renderers.shutdownNow();
+    }
+
+    /**
+     * Polls immediately instead of at the next interval, e.g. right after a job was committed.
+     */
+    public void wake() {
+        try {
+            poller.execute(this::pollSafely);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Where the PDF of the invoice with this number is, or will be, stored.
+     */
+    public Path invoicePath(String invoiceNumber) {
+        return invoiceDirectory.resolve(invoiceNumber + ".pdf");
+    }
+
+    /**
+     * Renders the PDF in the calling thread and moves it into place. Used when a download
+     * finds no file, e.g. after the invoice directory was lost.
+     */
+    public Path renderNow(Invoice invoice) throws IOException {
+        Path target = invoicePath(invoice.getInvoiceNumber());
+        Path temp = Files.createTempFile(invoiceDirectory, TEMP_PREFIX, TEMP_SUFFIX);
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writePdf(invoice, out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    public InvoiceRenderStats getStats() {
+        return InvoiceRenderStats.builder()
+                .pending(invoiceJobRepository.countPending())
+                .inFlight(inFlight.get())
+                .rendered(rendered.sum())
+                .retried(retried.sum())
+                .failed(failed.sum())
+                .lastRenderedAt(lastRenderedAt)
+                .build();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("Invoice render poll failed", e);
+        }
+    }
+
+    // Claims at most as many jobs as there are idle render threads
+    private void poll() {
+        int free = Math.max(1, renderThreads) - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> due = invoiceJobRepository.findDueJobIds(now, PageRequest.of(0, free));
+        for (String jobId : due) {
+            if (invoiceJobRepository.claim(jobId, now, now.plusSeconds(leaseSeconds)) != 1) {
+                continue;
+            }
+            inFlight.incrementAndGet();
+            try {
+                renderers.execute(() -> {
+                    try {
+                        process(jobId);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void process(String jobId) {
+        Optional<InvoiceJob> claimed = invoiceJobRepository.findById(jobId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        InvoiceJob job = claimed.get();
+        Invoice invoice = job.getInvoice();
+        try {
+            // A retry after a failed receipt lookup does not render the PDF again
+            if (!Files.exists(invoicePath(invoice.getInvoiceNumber()))) {
+                renderNow(invoice);
+            }
+            if (invoice.getStripeReceiptUrl() == null && invoice.getPaymentMethodId() != null) {
+                String receiptUrl = stripeManager.retrievePaymentReceiptUrl(invoice.getPaymentMethodId());
+                invoiceRepository.updateStripeReceiptUrl(invoice.getId(), receiptUrl);
+            }
+            job.setStatus(InvoiceJobStatus.COMPLETED);
+            job.setCompletedAt(LocalDateTime.now());
+            job.setLockedUntil(null);
+            job.setLastError(null);
+            invoiceJobRepository.save(job);
+            rendered.increment();
+            lastRenderedAt = job.getCompletedAt();
+        } catch (Exception e) {
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            job.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            job.setLockedUntil(null);
+            if (job.getAttempts() >= maxAttempts) {
+                job.setStatus(InvoiceJobStatus.FAILED);
+                failed.increment();
+                log.error("Invoice {} could not be rendered after {} attempts: {}",
+                        invoice.getInvoiceNumber(), job.getAttempts(), error);
+            } else {
+                long delay = retryBaseSeconds << Math.min(job.getAttempts() - 1, 10);
+                job.setStatus(InvoiceJobStatus.PENDING);
+                job.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofSeconds(delay)));
+                retried.increment();
+                log.warn("Invoice {} render attempt {} failed, retrying in {}s: {}",
+                        invoice.getInvoiceNumber(), job.getAttempts(), delay, error);
+            }
+            invoiceJobRepository.save(job);
+        }
+    }
+
+    private void writePdf(Invoice invoice, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            // Logo ve başlık
+            Paragraph header = new Paragraph("RENOVATIPOINT");
+            header.setAlignment(Element.ALIGN_CENTER);
+            header.setSpacingAfter(20);
+            document.add(header);
+
+            // Fatura detayları
+            document.add(new Paragraph("Invoice Number: " + invoice.getInvoiceNumber()));
+            document.add(new Paragraph("Date: " + invoice.getDateIssued().format(DATE_FORMAT)));
+
+            // Müşteri bilgileri
+            if (invoice.getUser() != null) {
+                document.add(new Paragraph("\nBill To:"));
+                document.add(new Paragraph(invoice.getUser().getName() + " " + invoice.getUser().getSurname()));
+                document.add(new Paragraph(invoice.getUser().getEmail()));
+            } else if (invoice.getExpert() != null) {
+                document.add(new Paragraph("\nBill To:"));
+                document.add(new Paragraph(invoice.getExpert().getName() + " " + invoice.getExpert().getSurname()));
+                document.add(new Paragraph(invoice.getExpert().getEmail()));
+                if (invoice.getExpert().getCompanyName() != null) {
+                    document.add(new Paragraph("Company: " + invoice.getExpert().getCompanyName()));
+                }
+            }
+
+            // Tutar detayları
+            document.add(new Paragraph("\nAmount Details:"));
+            document.add(new Paragraph("Amount: €" + invoice.getAmount()));
+            document.add(new Paragraph("Status: " + (invoice.isPaid() ? "Paid" : "Pending")));
+
+            // Alt bilgi
+            Paragraph footer = new Paragraph("\nThank you for your business!");
+            footer.setAlignment(Element.ALIGN_CENTER);
+            document.add(footer);
+        } catch (DocumentException e) {
+            throw new IOException("Could not render invoice " + invoice.getInvoiceNumber(), e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+    }
+
+    // Temp files of renders interrupted by a shutdown
+    private void deleteLeftoverTempFiles() {
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(invoiceDirectory, TEMP_PREFIX + "*" + TEMP_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up invoice temp files: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.responses.GetNotificationResponse;
+import com.buildbetter.entities.concretes.Notification;
+import com.buildbetter.enums.NotificationType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background fan-out for chat message notifications.
+ * Messages queued within one collapse window are grouped per recipient and chat room, so a burst
+ * of messages becomes a single "N new messages" notification. Each window is inserted with one
+ * JDBC batch in its own transaction and pushed over STOMP afterwards, outside of any request
+ * transaction. If the batch fails, its messages go back to the queue for the next window, up to
+ * a few attempts; whatever cannot be requeued is counted as dropped.
+ */
+@Service
+@Slf4j
+public class NotificationDispatcher {
+
+    private static final String INSERT_NOTIFICATION_SQL =
+            "INSERT INTO notifications (id, recipient_id, title, message, type, related_entity_id, created_at, is_read) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${saas.notifications.collapse-window-ms:3000}")
+    private long collapseWindowMillis;
+
+    @Value("${saas.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${saas.notifications.max-attempts:3}")
+    private int maxAttempts;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private LinkedBlockingQueue<PendingMessage> queue;
+    private ScheduledExecutorService worker;
+    private final LongAdder droppedNotifications = new LongAdder();
+    private final LongAdder collapsedMessages = new LongAdder();
+    private final LongAdder requeuedMessages = new LongAdder();
+
+    private record PendingMessage(String recipientId, String senderName, String chatRoomId, String adTitle,
+                                  int attempts) {
+    }
+
+    private record GroupKey(String recipientId, String chatRoomId) {
+    }
+
+    private record Outgoing(String recipientId, Notification notification) {
+    }
+
+    private static class Group {
+        private int count;
+        private String senderName;
+        private String adTitle;
+    }
+
+    public NotificationDispatcher(JdbcTemplate jdbcTemplate, SimpMessagingTemplate messagingTemplate,
+                                  TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+        worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        worker.scheduleWithFixedDelay(this::flushSafely, collapseWindowMillis, collapseWindowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                worker.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            worker.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+
+    public void enqueueNewMessage(String recipientId, String senderName, String chatRoomId, String adTitle) {
+        if (!queue.offer(new PendingMessage(recipientId, senderName, chatRoomId, adTitle, 0))) {
+            droppedNotifications.increment();
+            log.warn("Notification queue full, dropping new message notification for recipient {}", recipientId);
+        }
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", (long) queue.size());
+        stats.put("dropped", droppedNotifications.sum());
+        stats.put("collapsed", collapsedMessages.sum());
+        stats.put("requeued", requeuedMessages.sum());
+        return stats;
+    }
+
+    private synchronized void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Notification dispatch failed", e);
+        }
+    }
+
+    private void flush() {
+        List<PendingMessage> pending = new ArrayList<>();
+        queue.drainTo(pending);
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<GroupKey, Group> groups = new LinkedHashMap<>();
+        for (PendingMessage message : pending) {
+            Group group = groups.computeIfAbsent(new GroupKey(message.recipientId(), message.chatRoomId()), k -> new Group());
+            group.count++;
+            group.senderName = message.senderName();
+            group.adTitle = message.adTitle();
+        }
+        collapsedMessages.add(pending.size() - groups.size());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Outgoing> outgoing = new ArrayList<>(groups.size());
+        groups.forEach((key, group) -> {
+            outgoing.add(new Outgoing(key.recipientId(), Notification.builder()
+                    .id(UUID.randomUUID().toString())
+                    .title(group.count == 1 ? "New Message" : "New Messages")
+                    .message(group.count == 1
+                            ? String.format("New message from %s regarding ad: %s", group.senderName, group.adTitle)
+                            : String.format("%d new messages from %s regarding ad: %s", group.count, group.senderName, group.adTitle))
+                    .type(NotificationType.NEW_MESSAGE)
+                    .relatedEntityId(key.chatRoomId())
+                    .createdAt(now)
+                    .isRead(false)
+                    .build()));
+        });
+
+        try {
+            // All or nothing, so a requeued window is never inserted twice
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL,
+                    outgoing, outgoing.size(), (ps, item) -> {
+                        Notification notification = item.notification();
+                        ps.setString(1, notification.getId());
+                        ps.setString(2, item.recipientId());
+                        ps.setString(3, notification.getTitle());
+                        ps.setString(4, notification.getMessage());
+                        ps.setString(5, notification.getType().name());
+                        ps.setString(6, notification.getRelatedEntityId());
+                        ps.setTimestamp(7, Timestamp.valueOf(notification.getCreatedAt()));
+                        ps.setBoolean(8, false);
+                    }));
+        } catch (RuntimeException e) {
+            requeue(pending);
+            throw e;
+        }
+
+        for (Outgoing item : outgoing) {
+            messagingTemplate.convertAndSendToUser(
+                    item.recipientId(),
+                    "/queue/notifications",
+                    GetNotificationResponse.fromEntity(item.notification()));
+        }
+    }
+
+    private void requeue(List<PendingMessage> pending) {
+        int requeued = 0;
+        for (PendingMessage message : pending) {
+            PendingMessage retry = new PendingMessage(message.recipientId(), message.senderName(),
+                    message.chatRoomId(), message.adTitle(), message.attempts() + 1);
+            if (retry.attempts() < maxAttempts && queue.offer(retry)) {
+                requeued++;
+            } else {
+                droppedNotifications.increment();
+            }
+        }
+        requeuedMessages.add(requeued);
+        log.warn("Notification batch failed; requeued {} and dropped {} message notifications",
+                requeued, pending.size() - requeued);
+    }
+}
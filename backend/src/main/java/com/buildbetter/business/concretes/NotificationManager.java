@@ -1,6 +1,7 @@
 package com.buildbetter.business.concretes;
 
 import com.buildbetter.business.responses.GetNotificationResponse;
+import com.buildbetter.core.utilities.events.NewMessageNotificationEvent;
 import com.buildbetter.dataAccess.abstracts.ChatRoomRepository;
 import com.buildbetter.dataAccess.abstracts.NotificationRepository;
 import com.buildbetter.dataAccess.abstracts.UserRepository;
@@ -11,6 +12,7 @@ import com.buildbetter.enums.NotificationType;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -28,6 +30,7 @@ public class NotificationManager {
         private final UserRepository userRepository;
         private final SimpMessagingTemplate messagingTemplate;
         private final ChatRoomRepository chatRoomRepository;
+        private final ApplicationEventPublisher eventPublisher;
 
         @Transactional
         public void notifyRequestCreated(String userId, String expertName, String adTitle) {
@@ -78,35 +81,13 @@ public class NotificationManager {
                                 notificationDTO);
         }
 
-        @Transactional
-        public void notifyNewMessage(String recipientId, String senderId, String chatRoomId, String content) {
-                User recipient = userRepository.findById(recipientId)
-                                .orElseThrow(() -> new EntityNotFoundException("Recipient not found"));
-                User sender = userRepository.findById(senderId)
-                                .orElseThrow(() -> new EntityNotFoundException("Sender not found"));
-                ChatRoom chatRoom = chatRoomRepository.findById(chatRoomId)
-                                .orElseThrow(() -> new EntityNotFoundException("Chat room not found"));
-
-                // Create notification entity
-                Notification notification = Notification.builder()
-                                .recipient(recipient)
-                                .title("New Message")
-                                .message(String.format("New message from %s regarding ad: %s",
-                                                sender.getName(),
-                                                chatRoom.getAd().getTitle()))
-                                .type(NotificationType.NEW_MESSAGE)
-                                .relatedEntityId(chatRoomId)
-                                .isRead(false)
-                                .build();
-
-                notificationRepository.save(notification);
-
-                // Send real-time notification
-                GetNotificationResponse notificationResponse = GetNotificationResponse.fromEntity(notification);
-                messagingTemplate.convertAndSendToUser(
-                                recipientId,
-                                "/queue/notifications",
-                                notificationResponse);
+        /**
+         * Queues a new-message notification. It is persisted and pushed by NotificationDispatcher
+         * once the surrounding transaction commits.
+         */
+        public void notifyNewMessage(String recipientId, String senderName, String chatRoomId, String adTitle) {
+                eventPublisher.publishEvent(
+                                new NewMessageNotificationEvent(this, recipientId, senderName, chatRoomId, adTitle));
         }
 
         @Transactional
@@ -212,9 +193,7 @@ public class NotificationManager {
 
         @Transactional
         public void markAllAsRead(String userId) {
-                List<Notification> unreadNotifications = notificationRepository.findByRecipientIdAndIsReadFalse(userId);
-                unreadNotifications.forEach(notification -> notification.setRead(true));
-                notificationRepository.saveAll(unreadNotifications);
+                notificationRepository.markAllReadUpTo(userId, LocalDateTime.now());
         }
 
         public void createAndSendNotification(
@@ -0,0 +1,117 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.CustomerPaymentMethodRepository;
+import com.buildbetter.entities.concretes.CustomerPaymentMethod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local registry of the SEPA payment method to charge per Stripe customer, backed by the
+ * {@code customer_payment_methods} table with a short-lived in-memory cache in front of it. The
+ * TTL bounds how long another instance's change goes unnoticed here.
+ */
+@Component
+public class PaymentMethodRegistry {
+
+    @Value("${saas.payments.method-cache-ttl-ms:300000}")
+    private long ttlMillis;
+
+    @Value("${saas.payments.method-cache-max-entries:10000}")
+    private int maxEntries;
+
+    private final CustomerPaymentMethodRepository customerPaymentMethodRepository;
+    private final ConcurrentHashMap<String, CachedMethod> cache = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder registrations = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+
+    private record CachedMethod(String paymentMethodId, long expiresAtMillis) {
+    }
+
+    public PaymentMethodRegistry(CustomerPaymentMethodRepository customerPaymentMethodRepository) {
+        this.customerPaymentMethodRepository = customerPaymentMethodRepository;
+    }
+
+    /**
+     * The payment method registered for the customer, or empty if none is known locally.
+     */
+    public Optional<String> find(String customerId) {
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        long now = System.currentTimeMillis();
+        CachedMethod cached = cache.get(customerId);
+        if (cached != null && cached.expiresAtMillis() > now) {
+            hits.increment();
+            return Optional.of(cached.paymentMethodId());
+        }
+
+        misses.increment();
+        Optional<String> paymentMethodId = customerPaymentMethodRepository.findById(customerId)
+                .map(CustomerPaymentMethod::getPaymentMethodId);
+        paymentMethodId.ifPresent(id -> cache(customerId, id, now));
+        return paymentMethodId;
+    }
+
+    public void register(String customerId, String paymentMethodId) {
+        if (customerId == null || paymentMethodId == null) {
+            return;
+        }
+        customerPaymentMethodRepository.save(CustomerPaymentMethod.builder()
+                .stripeCustomerId(customerId)
+                .paymentMethodId(paymentMethodId)
+                .build());
+        cache(customerId, paymentMethodId, System.currentTimeMillis());
+        registrations.increment();
+    }
+
+    /**
+     * Forgets a payment method, e.g. after it was detached from its customer.
+     */
+    public void unregister(String paymentMethodId) {
+        if (paymentMethodId == null) {
+            return;
+        }
+        customerPaymentMethodRepository.deleteByPaymentMethodId(paymentMethodId);
+        cache.values().removeIf(cached -> cached.paymentMethodId().equals(paymentMethodId));
+        removals.increment();
+    }
+
+    /**
+     * Drops the customer's entry, so the next charge resolves the payment method from Stripe.
+     */
+    public void evict(String customerId) {
+        if (customerId == null) {
+            return;
+        }
+        customerPaymentMethodRepository.deleteById(customerId);
+        cache.remove(customerId);
+        removals.increment();
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("cached", (long) cache.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("registrations", registrations.sum());
+        stats.put("removals", removals.sum());
+        return stats;
+    }
+
+    private void cache(String customerId, String paymentMethodId, long now) {
+        if (cache.size() >= maxEntries) {
+            cache.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= now);
+        }
+        if (cache.size() < maxEntries || cache.containsKey(customerId)) {
+            cache.put(customerId, new CachedMethod(paymentMethodId, now + ttlMillis));
+        }
+    }
+}
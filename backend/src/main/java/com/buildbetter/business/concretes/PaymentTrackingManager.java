@@ -1,7 +1,10 @@
 package com.buildbetter.business.concretes;
 
+import com.buildbetter.core.utilities.events.PrincipalChangedEvent;
 import com.buildbetter.dataAccess.abstracts.ExpertRepository;
 import com.buildbetter.entities.concretes.Expert;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -10,13 +13,17 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 
 @Service
+@RequiredArgsConstructor
 public class PaymentTrackingManager {
 
-    private ExpertRepository expertRepository;
+    private final ExpertRepository expertRepository;
 
-    private JavaMailSender mailSender;
+    private final JavaMailSender mailSender;
+
+    private final StripeManager stripeManager;
+
+    private final ApplicationEventPublisher eventPublisher;
 
-    private StripeManager stripeManager;
     @Scheduled(cron = "0 0 1 * * ?")
     public void trackPayments(){
         List<Expert> expertWithPaymentIssues = expertRepository.findAllWithPaymentIssues();
@@ -40,6 +47,7 @@ public class PaymentTrackingManager {
         if (expert.getPaymentIssuesCount() >= 2){
             expert.setAccountBlocked(true);
             expertRepository.save(expert);
+            eventPublisher.publishEvent(new PrincipalChangedEvent(this, expert.getEmail()));
         }
     }
 }
@@ -6,6 +6,7 @@ import com.buildbetter.business.requests.UpdateServiceRequest;
 import com.buildbetter.business.responses.GetAllServicesResponse;
 import com.buildbetter.business.responses.GetServiceByIdResponse;
 import com.buildbetter.business.rules.ServiceBusinessRules;
+import com.buildbetter.core.utilities.events.CatalogTaxonomyChangedEvent;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.CategoryRepository;
 import com.buildbetter.dataAccess.abstracts.JobTitleRepository;
@@ -14,6 +15,7 @@ import com.buildbetter.entities.concretes.Category;
 import com.buildbetter.entities.concretes.JobTitle;
 import com.buildbetter.entities.concretes.ServiceEntity;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -32,14 +34,17 @@ public class ServiceManager implements IService {
 
     private final JobTitleRepository jobTitleRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     public ServiceManager(ModelMapperService modelMapperService, ServiceRepository serviceRepository,
             ServiceBusinessRules serviceBusinessRules, CategoryRepository categoryRepository,
-            JobTitleRepository jobTitleRepository) {
+            JobTitleRepository jobTitleRepository, ApplicationEventPublisher eventPublisher) {
         this.modelMapperService = modelMapperService;
         this.serviceRepository = serviceRepository;
         this.serviceBusinessRules = serviceBusinessRules;
         this.categoryRepository = categoryRepository;
         this.jobTitleRepository = jobTitleRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -78,17 +83,20 @@ public class ServiceManager implements IService {
         service.setJobTitle(jobTitle);
 
         this.serviceRepository.save(service);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
     }
 
     @Override
     public void update(UpdateServiceRequest updateServiceRequest) {
         ServiceEntity service = this.modelMapperService.forRequest().map(updateServiceRequest, ServiceEntity.class);
         this.serviceRepository.save(service);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
     }
 
     @Override
     public void delete(String id) {
         this.serviceRepository.deleteById(id);
+        eventPublisher.publishEvent(new CatalogTaxonomyChangedEvent(this));
 
     }
 
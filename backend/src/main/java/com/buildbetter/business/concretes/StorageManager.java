@@ -1,67 +1,162 @@
 package com.buildbetter.business.concretes;
 
 import com.buildbetter.business.abstracts.StorageService;
+import com.buildbetter.business.requests.CreateDirectUploadRequest;
+import com.buildbetter.business.responses.DirectDownloadResponse;
+import com.buildbetter.business.responses.DirectUploadResponse;
 import com.buildbetter.business.responses.GetAllImagesResponse;
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.utilities.events.ImagesStoredEvent;
+import com.buildbetter.core.utilities.events.StoredBlobReleasedEvent;
+import com.buildbetter.core.utilities.exceptions.BusinessException;
+import com.buildbetter.core.utilities.images.ImageFileServer;
+import com.buildbetter.core.utilities.images.ImageResizer;
 import com.buildbetter.core.utilities.images.ImageUtils;
+import com.buildbetter.core.utilities.images.ImageVariant;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.AdsRepository;
+import com.buildbetter.dataAccess.abstracts.PendingDirectUploadRepository;
+import com.buildbetter.dataAccess.abstracts.StorageImageDataRepository;
 import com.buildbetter.dataAccess.abstracts.StorageRepository;
 import com.buildbetter.dataAccess.abstracts.UserRepository;
 import com.buildbetter.entities.concretes.Ads;
+import com.buildbetter.entities.concretes.PendingDirectUpload;
 import com.buildbetter.entities.concretes.Storage;
+import com.buildbetter.entities.concretes.StorageImageData;
 import com.buildbetter.entities.concretes.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class StorageManager implements StorageService {
-    private static final String UPLOAD_DIR = "backend/src/main/resources/static/uploads";
-    private final Path rootLocation = Paths.get(UPLOAD_DIR);
+    private static final Pattern SHA256_HEX = Pattern.compile("^[0-9a-f]{64}$");
+    private static final Pattern BLOB_KEY = Pattern.compile("^[0-9a-f]{64}(\\.[a-z0-9]{1,10})?$");
+    private static final long REDIRECT_CACHE_MARGIN_SECONDS = 60;
+    // Raster types ImageIO can decode, with the extension their blobs are stored under
+    private static final Map<String, String> DIRECT_UPLOAD_EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif");
     private static final Logger logger = LoggerFactory.getLogger(StorageManager.class);
     private final StorageRepository storageRepository;
 
     private final ModelMapperService modelMapperService;
     private final AdsRepository adsRepository;
     private final UserRepository userRepository;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ContentAddressedBlobStore blobStore;
+    private final ObjectStorageDriver storageDriver;
+    private final StorageImageDataRepository storageImageDataRepository;
+    private final PendingDirectUploadRepository pendingDirectUploadRepository;
+
+    @Value("${saas.storage.upload-threads:4}")
+    private int uploadThreads;
+
+    @Value("${saas.storage.presign-ttl-seconds:900}")
+    private long presignTtlSeconds;
+
+    @Value("${saas.storage.direct-upload-claim-ttl-seconds:3600}")
+    private long directUploadClaimTtlSeconds;
+
+    @Value("${spring.servlet.multipart.max-file-size:1MB}")
+    private DataSize maxUploadSize;
+
+    @Value("${saas.images.max-source-pixels:50000000}")
+    private long maxSourcePixels;
+
+    private ExecutorService uploadWriters;
 
     @Autowired
     public StorageManager(StorageRepository storageRepository, ModelMapperService modelMapperService,
-            AdsRepository adsRepository, UserRepository userRepository) {
+            AdsRepository adsRepository, UserRepository userRepository,
+            ImageDerivativeGenerator imageDerivativeGenerator, ApplicationEventPublisher eventPublisher,
+            ContentAddressedBlobStore blobStore, ObjectStorageDriver storageDriver,
+            StorageImageDataRepository storageImageDataRepository,
+            PendingDirectUploadRepository pendingDirectUploadRepository) {
         this.storageRepository = storageRepository;
         this.modelMapperService = modelMapperService;
         this.adsRepository = adsRepository;
         this.userRepository = userRepository;
-        initializeStorageDirectory();
+        this.imageDerivativeGenerator = imageDerivativeGenerator;
+        this.eventPublisher = eventPublisher;
+        this.blobStore = blobStore;
+        this.storageDriver = storageDriver;
+        this.storageImageDataRepository = storageImageDataRepository;
+        this.pendingDirectUploadRepository = pendingDirectUploadRepository;
+    }
+
+    // Bu özellikten önce yüklenmiş resimler için eksik küçük boyutları üretir
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillImageVariants() {
+        imageDerivativeGenerator.backfill();
     }
-    private void initializeStorageDirectory() {
+
+    @PostConstruct
+    public void startUploadWriters() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        uploadWriters = Executors.newFixedThreadPool(Math.max(1, uploadThreads), runnable -> {
+            Thread thread = new Thread(runnable, "image-upload-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stopUploadWriters() {
+        uploadWriters.shutdown();
         try {
-            if (!Files.exists(rootLocation)) {
-                Files.createDirectories(rootLocation);
-                logger.info("Created storage directory: {}", rootLocation);
+            if (!uploadWriters.awaitTermination(30, TimeUnit.SECONDS)) {
+                uploadWriters.shutdownNow();
             }
-        } catch (IOException e) {
-            logger.error("Could not initialize storage directory: {}", rootLocation, e);
+        } catch (InterruptedException e) {
+            uploadWriters.shutdownNow();
+            Thread.currentThread().interrupt();
         }
     }
 
@@ -70,61 +165,124 @@ public class StorageManager implements StorageService {
     @Override
     public String storeFile(MultipartFile file) throws IOException {
         if (file.isEmpty()) throw new IOException("Cannot store empty file.");
-        String uniqueFilename = System.currentTimeMillis() + "_" + file.getOriginalFilename().replaceAll("\\s+", "_");
-        Path destinationFile = this.rootLocation.resolve(uniqueFilename).normalize();
-        if (!destinationFile.getParent().equals(this.rootLocation)) throw new IOException("Cannot store outside directory.");
-        try (var inputStream = file.getInputStream()) {
-            Files.copy(inputStream, destinationFile, StandardCopyOption.REPLACE_EXISTING);
-            logger.info("Stored file: {}", uniqueFilename);
-            return uniqueFilename;
-        } catch (IOException e) {
-            logger.error("Failed to store file {}: {}", uniqueFilename, e.getMessage());
-            throw new IOException("Failed to store file " + uniqueFilename, e);
-        }
+        return writeToDisk(file).name();
     }
 
-    // **ÖNEMLİ DEĞİŞİKLİK: List<Storage> döndürür**
+    // Dosyaları paralel olarak diske yazar; DB'ye dokunmaz, transaction dışında çağrılmalı
     @Override
-    @Transactional
-    public List<Storage> uploadImages(List<MultipartFile> files, User user, Ads ad) throws IOException {
-        List<Storage> savedStorages = new ArrayList<>();
-        if (files == null || files.isEmpty()) return savedStorages;
+    public List<StagedFile> stageFiles(List<MultipartFile> files) throws IOException {
+        if (files == null || files.isEmpty()) return new ArrayList<>();
 
+        List<Future<StagedFile>> writes = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            if (file.isEmpty()) continue;
-            String fileName = storeFile(file); // Fiziksel kaydetme
+            if (file == null || file.isEmpty()) continue;
+            writes.add(uploadWriters.submit(() -> writeToDisk(file)));
+        }
+
+        List<StagedFile> staged = new ArrayList<>(writes.size());
+        IOException failure = null;
+        for (Future<StagedFile> write : writes) {
+            try {
+                staged.add(write.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof IOException io ? io : new IOException("Failed to store file", e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writes.forEach(pending -> pending.cancel(true));
+                failure = new IOException("Interrupted while storing files", e);
+                break;
+            }
+        }
+        if (failure != null) {
+            // Yarım kalan yüklemede başarılı yazılan dosyaları da geri al
+            discardStagedFiles(staged);
+            throw failure;
+        }
+        return staged;
+    }
+
+    // Diske yazılmış dosyaların metadata'sını tek bir batch olarak kaydeder
+    @Override
+    @Transactional
+    public List<Storage> saveStagedImages(List<StagedFile> stagedFiles, User user, Ads ad) {
+        if (stagedFiles == null || stagedFiles.isEmpty()) return new ArrayList<>();
 
-            Storage storageData = Storage.builder()
-                    .name(fileName)
-                    .type(file.getContentType())
-                    .url(buildImageUrl(ad.getId(), fileName)) // URL oluştur
+        List<Storage> storages = new ArrayList<>(stagedFiles.size());
+        for (StagedFile staged : stagedFiles) {
+            storages.add(Storage.builder()
+                    .name(staged.name())
+                    .type(staged.contentType())
+                    .url(buildImageUrl(ad.getId(), staged.name())) // URL oluştur
+                    .blobKey(staged.blobKey())
                     .user(user) // İlişkili kullanıcı
                     .ads(ad)    // İlişkili ilan
-                    .build();
+                    .build());
+        }
+        List<Storage> savedStorages = storageRepository.saveAll(storages);
+        logger.info("Saved {} ad image metadata rows for ad {}", savedStorages.size(), ad.getId());
+        // Küçük boyutlar commit sonrası arka planda üretilir
+        eventPublisher.publishEvent(new ImagesStoredEvent(this, stagedFiles.stream()
+                .map(staged -> ContentAddressedBlobStore.objectKey(staged.blobKey()))
+                .toList()));
+        return savedStorages;
+    }
 
-            Storage savedStorage = storageRepository.save(storageData); // DB'ye kaydet
-            savedStorages.add(savedStorage); // Listeye ekle
-            logger.info("Saved ad image metadata for ad {} with storage ID {}", ad.getId(), savedStorage.getId());
+    // Metadata kaydı başarısız olursa çağrılır. Blob'lar başka kayıtlarla paylaşılabildiği için burada
+    // silinmez; hiçbir kayda bağlanmayanları bekleme süresi dolunca blob süpürücüsü kaldırır.
+    @Override
+    public void discardStagedFiles(List<StagedFile> stagedFiles) {
+        if (stagedFiles == null || stagedFiles.isEmpty()) return;
+        logger.info("Discarded {} staged files; unreferenced blobs will be swept", stagedFiles.size());
+    }
+
+    // **ÖNEMLİ DEĞİŞİKLİK: List<Storage> döndürür**
+    // Dosyalar önce diske yazılır, metadata en sonda tek seferde kaydedilir
+    @Override
+    public List<Storage> uploadImages(List<MultipartFile> files, User user, Ads ad) throws IOException {
+        List<StagedFile> stagedFiles = stageFiles(files);
+        try {
+            return saveStagedImages(stagedFiles, user, ad);
+        } catch (RuntimeException e) {
+            discardStagedFiles(stagedFiles);
+            throw e;
         }
-        return savedStorages; // Kaydedilen entity listesini döndür
     }
 
     // **ÖNEMLİ DEĞİŞİKLİK: Storage döndürür**
     @Override
-    @Transactional
     public Storage uploadImage(MultipartFile file, User user) throws IOException {
-        String fileName = storeFile(file);
+        if (file.isEmpty()) throw new IOException("Cannot store empty file.");
+        StagedFile staged = writeToDisk(file);
         Storage storageData = Storage.builder()
-                .name(fileName)
+                .name(staged.name())
                 .type(file.getContentType())
-                .url(buildImageUrl(null, fileName)) // Kullanıcı resmi için URL (adId=null)
+                .url(buildImageUrl(null, staged.name())) // Kullanıcı resmi için URL (adId=null)
                 .user(user)
+                .blobKey(staged.blobKey())
                 .build();
         Storage savedStorage = storageRepository.save(storageData);
         logger.info("Saved user profile image metadata for user {} with storage ID {}", user.getId(), savedStorage.getId());
+        eventPublisher.publishEvent(new ImagesStoredEvent(this, List.of(ContentAddressedBlobStore.objectKey(staged.blobKey()))));
         return savedStorage;
     }
 
+    // İçerik SHA-256 özetiyle adreslenen blob olarak yazılır; aynı içerik bir kez saklanır.
+    // Kayıt adı blob anahtarını taşır, böylece sunarken veritabanına gerek kalmaz.
+    private StagedFile writeToDisk(MultipartFile file) throws IOException {
+        String extension = ContentAddressedBlobStore.extensionOf(file.getOriginalFilename());
+        try (InputStream inputStream = file.getInputStream()) {
+            ContentAddressedBlobStore.StoredBlob blob = blobStore.store(inputStream, extension, file.getContentType());
+            String name = ContentAddressedBlobStore.storageNameFor(blob.key());
+            logger.info("Stored file: {} ({} bytes, blob {})", name, blob.size(), blob.key());
+            return new StagedFile(name, file.getContentType(), blob.size(), blob.key());
+        } catch (IOException e) {
+            logger.error("Failed to store file {}: {}", file.getOriginalFilename(), e.getMessage());
+            throw new IOException("Failed to store file " + file.getOriginalFilename(), e);
+        }
+    }
+
 
     // Sadece fiziksel dosyayı siler
     @Override
@@ -133,9 +291,20 @@ public class StorageManager implements StorageService {
             logger.warn("Attempted to delete image with null or blank filename.");
             return;
         }
+        String blobKey = ContentAddressedBlobStore.keyOf(fileName);
+        if (blobKey != null) {
+            // Blob paylaşılabilir; commit sonrası hiçbir kayıt referans vermiyorsa silinir
+            eventPublisher.publishEvent(new StoredBlobReleasedEvent(this, blobKey));
+            return;
+        }
+        String objectKey = objectKeyOf(fileName);
+        if (objectKey == null) {
+            logger.warn("Refusing to delete image with invalid filename: {}", fileName);
+            return;
+        }
         try {
-            Path filePath = rootLocation.resolve(fileName).normalize();
-            boolean deleted = Files.deleteIfExists(filePath);
+            boolean deleted = storageDriver.delete(objectKey);
+            imageDerivativeGenerator.deleteDerivatives(objectKey);
             if (deleted) logger.info("Deleted image file: {}", fileName);
             else logger.warn("Image file not found, could not delete: {}", fileName);
         } catch (IOException e) {
@@ -149,14 +318,19 @@ public class StorageManager implements StorageService {
     public Resource loadAsResource(String filename) throws MalformedURLException {
         if (filename == null || filename.isBlank()) return null;
         try {
-            Path file = rootLocation.resolve(filename).normalize();
-            Resource resource = new UrlResource(file.toUri());
-            if (resource.exists() && resource.isReadable()) {
-                return resource;
-            } else {
-                logger.warn("Resource does not exist or is not readable: {}", file.toString());
+            String objectKey = objectKeyOf(filename);
+            if (objectKey == null || !storageDriver.exists(objectKey)) {
+                logger.warn("Resource does not exist or is not readable: {}", filename);
                 return null;
             }
+            // Uzak depolamada dosya, süreli imzalı URL üzerinden okunur
+            Optional<Path> file = storageDriver.localPath(objectKey);
+            if (file.isPresent()) {
+                return new UrlResource(file.get().toUri());
+            }
+            Optional<ObjectStorageDriver.PresignedRequest> presigned =
+                    storageDriver.presignGet(objectKey, Duration.ofSeconds(presignTtlSeconds));
+            return presigned.isPresent() ? new UrlResource(presigned.get().uri()) : null;
         } catch (MalformedURLException e) {
             logger.error("MalformedURLException for file {}: {}", filename, e.getMessage());
             throw e;
@@ -166,47 +340,257 @@ public class StorageManager implements StorageService {
         }
     }
     @Override
-    @Transactional
     public byte[] downloadImage(String fileName) throws IOException {
-        Optional<Storage> dbImageData = storageRepository.findByName(fileName);
-        if (dbImageData != null) {
-            return ImageUtils.decompressImage(dbImageData.get().getImageData());
-        } else {
+        try (InputStream input = openImage(fileName)) {
+            return input.readAllBytes();
+        }
+    }
+
+    // Dosyayı akış olarak açar: önce depolamadaki nesne, henüz taşınmamış eski kayıtlarda
+    // veritabanındaki (sıkıştırılmış olabilir) veri. Çağıran akışı kapatmalıdır.
+    @Override
+    @Transactional(readOnly = true)
+    public InputStream openImage(String fileName) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
             throw new FileNotFoundException("File not found with name: " + fileName);
         }
+        String objectKey = objectKeyOf(fileName);
+        if (objectKey != null) {
+            try {
+                return storageDriver.open(objectKey);
+            } catch (NoSuchFileException e) {
+                // InlineImageDataMigrator bu kaydı henüz taşımamış olabilir
+            }
+        }
+        Optional<StorageImageData> inline = storageImageDataRepository.findFirstByNameAndImageDataIsNotNull(fileName);
+        if (inline.isPresent()) {
+            return ImageUtils.decompressingStream(new ByteArrayInputStream(inline.get().getImageData()));
+        }
+        throw new FileNotFoundException("File not found with name: " + fileName);
     }
 
     /*************************************
      * Storage Service Implementations
      *************************************/
-    // Serves an image file from the filesystem
+    // Serves an image file from storage. Used where the URL does not identify the content
+    // (e.g. a user's current profile image), so clients revalidate with ETag / Last-Modified.
+    // Spring answers If-None-Match and Range requests for Resource bodies itself.
+    // On a remote backend the client is redirected to a presigned URL instead.
     @Override
-    @Transactional(readOnly = true) // Read-only transaction for serving images
     public ResponseEntity<?> serveImage(String fileName) {
         if (fileName == null || fileName.isBlank()) {
             logger.warn("Attempted to serve image with null or blank filename.");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid filename");
         }
         try {
-            Resource resource = loadAsResource(fileName); // Load resource
-            if (resource == null || !resource.exists() || !resource.isReadable()) {
+            ServableImage image = resolveServableImage(fileName);
+            if (image == null) {
                 logger.warn("Image resource not found or not readable: {}", fileName);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Image not found");
             }
-            String contentType = determineContentType(fileName); // Determine content type
-            logger.debug("Serving image {} with content type {}", fileName, contentType);
+            Optional<Path> file = storageDriver.localPath(image.objectKey());
+            if (file.isEmpty()) {
+                ObjectStorageDriver.PresignedRequest presigned = presignGet(image.objectKey());
+                return ResponseEntity.status(HttpStatus.FOUND)
+                        .location(presigned.uri())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            logger.debug("Serving image {} with content type {}", fileName, image.contentType());
+            long lastModified = Files.getLastModifiedTime(file.get()).toMillis() / 1000 * 1000;
             return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .body(resource);
-        } catch (MalformedURLException e) {
-            logger.error("Malformed URL exception for file {}: {}", fileName, e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not determine file path");
+                    .contentType(MediaType.parseMediaType(image.contentType()))
+                    .eTag(ImageFileServer.etag(Files.size(file.get()), lastModified))
+                    .lastModified(lastModified)
+                    .cacheControl(CacheControl.noCache())
+                    .body(new FileSystemResource(file.get()));
         } catch (Exception e) {
             logger.error("Error serving image {}: {}", fileName, e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Error loading image");
         }
     }
 
+    // Dosya adları benzersiz olduğu ve üzerine yazılmadığı için tarayıcı ve CDN kalıcı olarak önbelleğe alabilir.
+    // Veritabanına gidilmez; gövde sendfile / transferTo ile yazılır.
+    // Uzak depolamada gövde JVM'den geçmez: istemci süreli imzalı URL'ye yönlendirilir.
+    @Override
+    public void serveImage(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid filename");
+            return;
+        }
+        ServableImage image = resolveServableImage(fileName);
+        if (image == null) {
+            logger.warn("Image resource not found or not readable: {}", fileName);
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "Image not found");
+            return;
+        }
+        Optional<Path> file = storageDriver.localPath(image.objectKey());
+        if (file.isEmpty()) {
+            ObjectStorageDriver.PresignedRequest presigned = presignGet(image.objectKey());
+            // Yönlendirme, imzalı URL geçerli olduğu sürece önbelleğe alınabilir
+            long maxAge = Math.max(0, (presigned.expiresAt() - System.currentTimeMillis()) / 1000
+                    - REDIRECT_CACHE_MARGIN_SECONDS);
+            response.setHeader("Cache-Control", image.fallback() ? ImageFileServer.REVALIDATE : "private, max-age=" + maxAge);
+            response.sendRedirect(presigned.uri().toString());
+            return;
+        }
+        // Yerine orijinal sunulan varyant daha sonra üretilecek, bu yüzden kalıcı önbelleğe alınmamalı
+        String cacheControl = image.fallback() ? ImageFileServer.REVALIDATE : ImageFileServer.IMMUTABLE;
+        ImageFileServer.serve(file.get(), image.contentType(), cacheControl, request, response);
+    }
+
+    // İstemcinin dosyayı doğrudan depolamadan indirebileceği süreli URL; yerel depolamada API adresi döner
+    @Override
+    public DirectDownloadResponse getDownloadUrl(String fileName) throws IOException {
+        ServableImage image = fileName == null || fileName.isBlank() ? null : resolveServableImage(fileName);
+        if (image == null) {
+            throw new FileNotFoundException("File not found with name: " + fileName);
+        }
+        Optional<ObjectStorageDriver.PresignedRequest> presigned =
+                storageDriver.presignGet(image.objectKey(), Duration.ofSeconds(presignTtlSeconds));
+        if (presigned.isPresent()) {
+            return new DirectDownloadResponse(presigned.get().uri().toString(), presigned.get().expiresAt(), true);
+        }
+        return new DirectDownloadResponse("/api/v1/storage/" + fileName, null, false);
+    }
+
+    // İstemci dosyayı SHA-256 özetiyle ve bildirdiği boyutla doğrudan depolamaya yükler; özet veya boyut
+    // uyuşmazsa depolama reddeder. Anahtar sadece bu kullanıcıya ve kısa bir süre için verilir.
+    // Yüklemeyi atlamak için hash'i bilmek yetmez; içerik bu kullanıcıda zaten kayıtlı olmalıdır.
+    @Override
+    public DirectUploadResponse createDirectUpload(CreateDirectUploadRequest request, String userEmail) throws IOException {
+        String sha256 = request.getSha256() == null ? "" : request.getSha256().toLowerCase();
+        if (!SHA256_HEX.matcher(sha256).matches()) {
+            throw new BusinessException("sha256 must be the hex SHA-256 of the file");
+        }
+        String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase();
+        String extension = DIRECT_UPLOAD_EXTENSIONS.get(contentType);
+        if (extension == null) {
+            throw new BusinessException("Only JPEG, PNG and GIF images can be uploaded directly");
+        }
+        if (request.getSize() <= 0 || request.getSize() > maxUploadSize.toBytes()) {
+            throw new BusinessException("size must be between 1 and " + maxUploadSize.toBytes() + " bytes");
+        }
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new BusinessException("User not found"));
+
+        String blobKey = sha256 + extension;
+        String objectKey = ContentAddressedBlobStore.objectKey(blobKey);
+        LocalDateTime now = LocalDateTime.now();
+        pendingDirectUploadRepository.deleteExpired(user.getId(), now);
+        pendingDirectUploadRepository.save(PendingDirectUpload.builder()
+                .blobKey(blobKey)
+                .userId(user.getId())
+                .size(request.getSize())
+                .contentType(contentType)
+                .expiresAt(now.plusSeconds(directUploadClaimTtlSeconds))
+                .build());
+        if (storageRepository.existsByBlobKeyAndUserId(blobKey, user.getId()) && storageDriver.touch(objectKey)) {
+            return DirectUploadResponse.builder().blobKey(blobKey).alreadyStored(true).build();
+        }
+        String sha256Base64 = Base64.getEncoder().encodeToString(HexFormat.of().parseHex(sha256));
+        ObjectStorageDriver.PresignedRequest presigned = storageDriver
+                .presignPut(objectKey, contentType, request.getSize(), sha256Base64, Duration.ofSeconds(presignTtlSeconds))
+                .orElseThrow(() -> new BusinessException(
+                        "Direct uploads are not available with the " + storageDriver.getName() + " storage backend"));
+        return DirectUploadResponse.builder()
+                .blobKey(blobKey)
+                .method(presigned.method())
+                .uploadUrl(presigned.uri().toString())
+                .headers(presigned.headers())
+                .expiresAt(presigned.expiresAt())
+                .alreadyStored(false)
+                .build();
+    }
+
+    // Doğrudan yüklenmiş blob'ları kaydedilmeye hazır dosyalara çevirir. Sadece bu kullanıcıya verilmiş
+    // anahtarlar kabul edilir; boyut, tür ve resim başlığı yükleme sınırlarına göre yeniden kontrol edilir.
+    // Blob dokunularak kayıt commit edilene kadar süpürücüden korunur.
+    @Override
+    public List<StagedFile> claimDirectUploads(List<String> blobKeys, String userEmail) throws IOException {
+        if (blobKeys == null || blobKeys.isEmpty()) return new ArrayList<>();
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new BusinessException("User not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<StagedFile> staged = new ArrayList<>(blobKeys.size());
+        for (String blobKey : blobKeys) {
+            if (blobKey == null || !BLOB_KEY.matcher(blobKey).matches()) {
+                throw new BusinessException("Invalid upload key: " + blobKey);
+            }
+            PendingDirectUpload pending = pendingDirectUploadRepository
+                    .findFirstByUserIdAndBlobKeyAndExpiresAtAfterOrderByExpiresAtDesc(user.getId(), blobKey, now)
+                    .orElseThrow(() -> new BusinessException("Upload not found: " + blobKey));
+            String objectKey = ContentAddressedBlobStore.objectKey(blobKey);
+            Optional<ObjectStorageDriver.StoredObject> object = storageDriver.stat(objectKey);
+            if (object.isEmpty()) {
+                throw new BusinessException("Upload not found: " + blobKey);
+            }
+            long size = object.get().size();
+            if (size != pending.getSize() || size > maxUploadSize.toBytes()) {
+                throw new BusinessException("Upload " + blobKey + " does not have the declared size");
+            }
+            String name = ContentAddressedBlobStore.storageNameFor(blobKey);
+            String contentType = object.get().contentType() != null ? object.get().contentType() : determineContentType(name);
+            if (!contentType.equals(pending.getContentType())) {
+                throw new BusinessException("Upload " + blobKey + " does not have the declared content type");
+            }
+            int[] dimensions;
+            try (InputStream content = storageDriver.open(objectKey)) {
+                dimensions = ImageResizer.readDimensions(content);
+            }
+            if (dimensions == null || (long) dimensions[0] * dimensions[1] > maxSourcePixels) {
+                throw new BusinessException("Upload " + blobKey + " is not a supported image or is too large");
+            }
+            if (!storageDriver.touch(objectKey)) {
+                throw new BusinessException("Upload not found: " + blobKey);
+            }
+            staged.add(new StagedFile(name, contentType, size, blobKey));
+        }
+        return staged;
+    }
+
+    private record ServableImage(String objectKey, String contentType, boolean fallback) {
+    }
+
+    // Varyantı orijinalin yanında arar; henüz üretilmediyse orijinaline düşer
+    private ServableImage resolveServableImage(String fileName) throws IOException {
+        ImageVariant variant = ImageVariant.variantOf(fileName);
+        String originalName = variant == null ? fileName : ImageVariant.originalOf(fileName);
+        String original = objectKeyOf(originalName);
+        if (original == null) {
+            return null;
+        }
+        if (variant != null) {
+            String variantKey = variant.fileName(original);
+            if (storageDriver.exists(variantKey)) {
+                return new ServableImage(variantKey, determineContentType(fileName), false);
+            }
+        }
+        if (storageDriver.exists(original)) {
+            return new ServableImage(original, determineContentType(originalName), variant != null);
+        }
+        return null;
+    }
+
+    private ObjectStorageDriver.PresignedRequest presignGet(String objectKey) throws IOException {
+        return storageDriver.presignGet(objectKey, Duration.ofSeconds(presignTtlSeconds))
+                .orElseThrow(() -> new IOException("Storage backend " + storageDriver.getName() + " cannot serve " + objectKey));
+    }
+
+    // Kayıt adını depolama anahtarına çevirir: içerik adresli adlar blob'a, eski adlar kök dizine
+    static String objectKeyOf(String fileName) {
+        String blobKey = ContentAddressedBlobStore.keyOf(fileName);
+        if (blobKey != null) {
+            return ContentAddressedBlobStore.objectKey(blobKey);
+        }
+        if (fileName.isBlank() || fileName.startsWith(".") || fileName.contains("/") || fileName.contains("\\")) {
+            return null;
+        }
+        return fileName;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<GetAllImagesResponse> getAll() {
@@ -0,0 +1,272 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.storage.ObjectStorageDriverFactory;
+import com.buildbetter.core.utilities.exceptions.BusinessException;
+import com.buildbetter.core.utilities.images.ImageVariant;
+import com.buildbetter.dataAccess.abstracts.StorageRepository;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copies the files of every {@code Storage} row, originals and variants, from one storage
+ * backend to another on a thread pool. Rows keep their names: object keys are the same on every
+ * backend, so once the copy is complete the application only needs {@code saas.storage.backend}
+ * switched to the target.
+ * <p>
+ * The copy is resumable: objects already on the target with the same size are skipped. With
+ * {@code deleteSource} each object is removed from the source once the target has it.
+ * Files no row references are not copied; on the old backend they are garbage anyway.
+ */
+@Service
+@Slf4j
+public class StorageMigrator {
+
+    private static final int PAGE_SIZE = 500;
+
+    public enum State { RUNNING, COMPLETED, COMPLETED_WITH_ERRORS, FAILED }
+
+    @Value("${saas.storage.migration-threads:8}")
+    private int defaultThreads;
+
+    private final ObjectStorageDriverFactory driverFactory;
+    private final StorageRepository storageRepository;
+    private final AtomicReference<Migration> current = new AtomicReference<>();
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class MigrationStatus {
+        private String source;
+        private String target;
+        private State state;
+        private int threads;
+        private boolean deleteSource;
+        private long rowsScanned;
+        private long objectsCopied;
+        private long objectsSkipped;
+        private long objectsMissing;
+        private long objectsFailed;
+        private long bytesCopied;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String error;
+    }
+
+    public StorageMigrator(ObjectStorageDriverFactory driverFactory, StorageRepository storageRepository) {
+        this.driverFactory = driverFactory;
+        this.storageRepository = storageRepository;
+    }
+
+    /**
+     * Starts a migration in the background and returns its initial status.
+     *
+     * @param threads parallel copies, or null for {@code saas.storage.migration-threads}
+     */
+    public MigrationStatus start(String source, String target, Integer threads, boolean deleteSource) {
+        ObjectStorageDriver from;
+        ObjectStorageDriver to;
+        try {
+            from = driverFactory.get(source);
+            to = driverFactory.get(target);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(e.getMessage());
+        }
+        if (from == to) {
+            throw new BusinessException("Source and target storage backends must differ");
+        }
+        int parallelism = Math.max(1, threads != null ? threads : defaultThreads);
+        Migration migration = new Migration(from, to, parallelism, deleteSource);
+        Migration running = current.get();
+        if (running != null && running.state == State.RUNNING || !current.compareAndSet(running, migration)) {
+            throw new BusinessException("A storage migration is already running");
+        }
+        Thread coordinator = new Thread(migration::run, "storage-migration");
+        coordinator.setDaemon(true);
+        coordinator.start();
+        log.info("Started storage migration from {} to {} with {} threads", from.getName(), to.getName(), parallelism);
+        return migration.status();
+    }
+
+    /**
+     * Status of the running or last finished migration, or null if none was started.
+     */
+    public MigrationStatus getStatus() {
+        Migration migration = current.get();
+        return migration == null ? null : migration.status();
+    }
+
+    private class Migration {
+        private final ObjectStorageDriver source;
+        private final ObjectStorageDriver target;
+        private final int threads;
+        private final boolean deleteSource;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        // Blobs are shared by rows with the same content; each is copied once per run
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+        private final LongAdder rowsScanned = new LongAdder();
+        private final LongAdder objectsCopied = new LongAdder();
+        private final LongAdder objectsSkipped = new LongAdder();
+        private final LongAdder objectsMissing = new LongAdder();
+        private final LongAdder objectsFailed = new LongAdder();
+        private final LongAdder bytesCopied = new LongAdder();
+        private volatile State state = State.RUNNING;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        Migration(ObjectStorageDriver source, ObjectStorageDriver target, int threads, boolean deleteSource) {
+            this.source = source;
+            this.target = target;
+            this.threads = threads;
+            this.deleteSource = deleteSource;
+        }
+
+        void run() {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ExecutorService copiers = Executors.newFixedThreadPool(threads, runnable -> {
+                Thread thread = new Thread(runnable, "storage-migration-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            // Bounds the queue to a few rows per thread instead of the whole table
+            Semaphore inFlight = new Semaphore(threads * 4);
+            try {
+                String afterId = "";
+                List<StorageRepository.StorageObjectView> page;
+                do {
+                    page = storageRepository.findObjectsAfter(afterId, PageRequest.of(0, PAGE_SIZE));
+                    for (StorageRepository.StorageObjectView row : page) {
+                        inFlight.acquire();
+                        copiers.execute(() -> {
+                            try {
+                                migrateRow(row);
+                            } finally {
+                                inFlight.release();
+                            }
+                        });
+                        afterId = row.getId();
+                    }
+                } while (page.size() == PAGE_SIZE);
+                copiers.shutdown();
+                while (!copiers.awaitTermination(1, TimeUnit.MINUTES)) {
+                    log.info("Storage migration still copying: {}", status());
+                }
+                state = objectsFailed.sum() > 0 ? State.COMPLETED_WITH_ERRORS : State.COMPLETED;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                }
+                copiers.shutdownNow();
+                error = e.getMessage();
+                state = State.FAILED;
+                log.error("Storage migration from {} to {} failed", source.getName(), target.getName(), e);
+            } finally {
+                finishedAt = LocalDateTime.now();
+            }
+            log.info("Storage migration from {} to {} finished: {}", source.getName(), target.getName(), status());
+        }
+
+        private void migrateRow(StorageRepository.StorageObjectView row) {
+            rowsScanned.increment();
+            String original = row.getName() == null ? null : StorageManager.objectKeyOf(row.getName());
+            if (original == null || !seen.add(original)) {
+                return;
+            }
+            if (!copy(original, row.getType(), true)) {
+                return;
+            }
+            String variantType = "png".equals(ImageVariant.formatOf(original)) ? "image/png" : "image/jpeg";
+            for (ImageVariant variant : ImageVariant.values()) {
+                copy(variant.fileName(original), variantType, false);
+            }
+        }
+
+        // Returns false if the object could not be copied or does not exist anywhere
+        private boolean copy(String key, String contentType, boolean required) {
+            try {
+                Optional<ObjectStorageDriver.StoredObject> object = source.stat(key);
+                Optional<ObjectStorageDriver.StoredObject> existing = target.stat(key);
+                if (object.isEmpty()) {
+                    // Variants may not have been generated yet; a missing original is worth reporting
+                    if (existing.isPresent()) {
+                        objectsSkipped.increment();
+                        return true;
+                    }
+                    if (required) {
+                        objectsMissing.increment();
+                        log.warn("Storage migration: {} is missing on {}", key, source.getName());
+                    }
+                    return false;
+                }
+                long size = object.get().size();
+                if (existing.isPresent() && existing.get().size() == size) {
+                    objectsSkipped.increment();
+                } else {
+                    String type = object.get().contentType() != null ? object.get().contentType() : contentType;
+                    try (InputStream input = source.open(key)) {
+                        target.put(key, input, size, type);
+                    }
+                    Optional<ObjectStorageDriver.StoredObject> copied = target.stat(key);
+                    if (copied.isEmpty() || copied.get().size() != size) {
+                        throw new IOException("Size mismatch after copying " + key);
+                    }
+                    objectsCopied.increment();
+                    bytesCopied.add(size);
+                }
+                if (deleteSource) {
+                    source.delete(key);
+                }
+                return true;
+            } catch (NoSuchFileException e) {
+                // Deleted between stat and open, e.g. by the blob collector
+                objectsMissing.increment();
+                return false;
+            } catch (Exception e) {
+                objectsFailed.increment();
+                log.warn("Storage migration: could not copy {} to {}: {}", key, target.getName(), e.getMessage());
+                return false;
+            }
+        }
+
+        MigrationStatus status() {
+            return MigrationStatus.builder()
+                    .source(source.getName())
+                    .target(target.getName())
+                    .state(state)
+                    .threads(threads)
+                    .deleteSource(deleteSource)
+                    .rowsScanned(rowsScanned.sum())
+                    .objectsCopied(objectsCopied.sum())
+                    .objectsSkipped(objectsSkipped.sum())
+                    .objectsMissing(objectsMissing.sum())
+                    .objectsFailed(objectsFailed.sum())
+                    .bytesCopied(bytesCopied.sum())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
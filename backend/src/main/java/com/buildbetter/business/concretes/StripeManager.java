@@ -10,8 +10,10 @@ import com.buildbetter.entities.concretes.Expert;
 import com.buildbetter.entities.concretes.Invoice;
 import com.buildbetter.entities.concretes.PaymentInfo;
 import com.stripe.Stripe;
+import com.stripe.exception.InvalidRequestException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.*;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.*;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
@@ -22,6 +24,8 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Slf4j
@@ -32,27 +36,37 @@ public class StripeManager implements StripeService {
         private final UserService userService;
         private final InvoiceService invoiceService;
         private final PaymentInfoRepository paymentInfoRepository;
+        private final PaymentMethodRegistry paymentMethodRegistry;
 
         @Value("${stripe.api-key}")
         private final String secretApiKey;
 
+        // Örneğin yerel bir Stripe stub sunucusu (stripe-mock) için; boşsa gerçek API kullanılır
+        @Value("${stripe.api-base:}")
+        private String apiBase;
+
         @Autowired
         public StripeManager(@Lazy InvoiceManager invoiceManager, @Lazy ChatManager chatManager,
                         @Value("${stripe.api-key}") String secretApiKey,
                         @Lazy InvoiceService invoiceService,
-                        @Lazy UserService userService, @Lazy PaymentInfoRepository paymentInfoRepository) {
+                        @Lazy UserService userService, @Lazy PaymentInfoRepository paymentInfoRepository,
+                        PaymentMethodRegistry paymentMethodRegistry) {
                 this.invoiceManager = invoiceManager;
                 this.chatManager = chatManager;
                 this.secretApiKey = secretApiKey;
                 this.invoiceService = invoiceService;
                 this.userService = userService;
                 this.paymentInfoRepository = paymentInfoRepository;
+                this.paymentMethodRegistry = paymentMethodRegistry;
                 Stripe.apiKey = secretApiKey;
         }
 
         @PostConstruct
         public void init() {
                 Stripe.apiKey = secretApiKey;
+                if (apiBase != null && !apiBase.isBlank()) {
+                        Stripe.overrideApiBase(apiBase);
+                }
         }
 
         @Override
@@ -138,9 +152,12 @@ public class StripeManager implements StripeService {
         @Override
         public void attachPaymentMethodToCustomer(String customerId, String paymentMethodId) throws StripeException {
                 PaymentMethod paymentMethod = PaymentMethod.retrieve(paymentMethodId);
-                paymentMethod.attach(PaymentMethodAttachParams.builder()
+                paymentMethod = paymentMethod.attach(PaymentMethodAttachParams.builder()
                                 .setCustomer(customerId)
                                 .build());
+                if ("sepa_debit".equals(paymentMethod.getType())) {
+                        paymentMethodRegistry.register(customerId, paymentMethod.getId());
+                }
         }
 
         @Override
@@ -205,28 +222,33 @@ public class StripeManager implements StripeService {
 
                 expert.setPaymentInfo(paymentInfo);
                 paymentInfoRepository.save(paymentInfo);
+                paymentMethodRegistry.register(expert.getStripeCustomerId(), request.getPaymentMethodId());
         }
 
         @Override
         public String createAndConfirmPayment(String customerId, BigDecimal amount, String currency, String description)
                         throws StripeException {
+                return createAndConfirmPayment(customerId, amount, currency, description, Map.of(),
+                                RequestOptions.getDefault());
+        }
+
+        // Oluşturma ve onay isteği, verilen idempotency key ile gönderilir; aynı key ile tekrar
+        // denemek müşteriyi ikinci kez ücretlendirmez
+        @Override
+        public String createAndConfirmPayment(String customerId, BigDecimal amount, String currency, String description,
+                        Map<String, String> metadata, RequestOptions requestOptions) throws StripeException {
+                RequestOptions readOptions = requestOptions.toBuilderFullCopy().clearIdempotencyKey().build();
                 try {
                         log.info("Creating and confirming payment for customer: {}, amount: {}, currency: {}",
                                         customerId, amount, currency);
 
-                        // Önce müşterinin default payment method'unu alalım
-                        PaymentMethodListParams listParams = PaymentMethodListParams.builder()
-                                        .setCustomer(customerId)
-                                        .setType(PaymentMethodListParams.Type.SEPA_DEBIT)
-                                        .build();
-
-                        PaymentMethodCollection paymentMethods = PaymentMethod.list(listParams);
-                        if (paymentMethods.getData().isEmpty()) {
-                                throw new BusinessException("No SEPA payment method found for customer");
+                        // Önce müşterinin default payment method'unu alalım; kayıtta yoksa Stripe'tan
+                        String paymentMethodId = paymentMethodRegistry.find(customerId).orElse(null);
+                        boolean fromRegistry = paymentMethodId != null;
+                        if (!fromRegistry) {
+                                paymentMethodId = listSepaPaymentMethod(customerId, readOptions);
                         }
 
-                        String paymentMethodId = paymentMethods.getData().get(0).getId();
-
                         // PaymentIntent'i oluşturalım - Düzeltilmiş amount dönüşümü
                         PaymentIntentCreateParams createParams = PaymentIntentCreateParams.builder()
                                         .setAmount(amount.longValue() * 100) // Düzeltildi: Euro'yu cent'e çevirme
@@ -234,6 +256,7 @@ public class StripeManager implements StripeService {
                                         .setCustomer(customerId)
                                         .setPaymentMethod(paymentMethodId)
                                         .setDescription(description)
+                                        .putAllMetadata(metadata)
                                         .setConfirm(true)
                                         .setOffSession(true)
                                         .addPaymentMethodType("sepa_debit")
@@ -258,7 +281,16 @@ public class StripeManager implements StripeService {
                                                                         .build())
                                         .build();
 
-                        PaymentIntent paymentIntent = PaymentIntent.create(createParams);
+                        PaymentIntent paymentIntent;
+                        try {
+                                paymentIntent = PaymentIntent.create(createParams, requestOptions);
+                        } catch (InvalidRequestException e) {
+                                // Kayıttaki payment method artık geçerli olmayabilir; bir sonraki deneme yeniden çözer
+                                if (fromRegistry) {
+                                        paymentMethodRegistry.evict(customerId);
+                                }
+                                throw e;
+                        }
                         log.info("Payment intent created with status: {}", paymentIntent.getStatus());
 
                         // PaymentIntent'i onaylayalım
@@ -266,7 +298,12 @@ public class StripeManager implements StripeService {
                                 PaymentIntentConfirmParams confirmParams = PaymentIntentConfirmParams.builder()
                                                 .setPaymentMethod(paymentMethodId)
                                                 .build();
-                                paymentIntent = paymentIntent.confirm(confirmParams);
+                                RequestOptions confirmOptions = requestOptions.getIdempotencyKey() == null
+                                                ? requestOptions
+                                                : requestOptions.toBuilderFullCopy()
+                                                                .setIdempotencyKey(requestOptions.getIdempotencyKey() + "-confirm")
+                                                                .build();
+                                paymentIntent = paymentIntent.confirm(confirmParams, confirmOptions);
                                 log.info("Payment intent confirmed with status: {}", paymentIntent.getStatus());
                         }
 
@@ -277,6 +314,55 @@ public class StripeManager implements StripeService {
                 }
         }
 
+        // Bir isteğin Stripe'a ulaşıp ulaşmadığı bilinmediğinde, oluşturulmuş PaymentIntent'i metadata ile bulur.
+        // Listeleme, aramanın aksine hemen tutarlıdır.
+        @Override
+        public Optional<PaymentIntent> findPaymentIntentByMetadata(String customerId, String key, String value,
+                        long createdAfterEpochSecond, RequestOptions requestOptions) throws StripeException {
+                PaymentIntentListParams listParams = PaymentIntentListParams.builder()
+                                .setCustomer(customerId)
+                                .setCreated(PaymentIntentListParams.Created.builder()
+                                                .setGte(createdAfterEpochSecond)
+                                                .build())
+                                .setLimit(100L)
+                                .build();
+                for (PaymentIntent paymentIntent : PaymentIntent.list(listParams, requestOptions).autoPagingIterable()) {
+                        if (paymentIntent.getMetadata() != null && value.equals(paymentIntent.getMetadata().get(key))) {
+                                return Optional.of(paymentIntent);
+                        }
+                }
+                return Optional.empty();
+        }
+
+        // Kaydı olmayan (eski) müşteriler için bir kez listelenir ve kaydedilir
+        private String listSepaPaymentMethod(String customerId, RequestOptions requestOptions) throws StripeException {
+                PaymentMethodListParams listParams = PaymentMethodListParams.builder()
+                                .setCustomer(customerId)
+                                .setType(PaymentMethodListParams.Type.SEPA_DEBIT)
+                                .build();
+
+                PaymentMethodCollection paymentMethods = PaymentMethod.list(listParams, requestOptions);
+                if (paymentMethods.getData().isEmpty()) {
+                        throw new BusinessException("No SEPA payment method found for customer");
+                }
+
+                String paymentMethodId = paymentMethods.getData().get(0).getId();
+                paymentMethodRegistry.register(customerId, paymentMethodId);
+                return paymentMethodId;
+        }
+
+        // payment_method.* webhook'ları ile yerel kaydı güncel tutar
+        public void handlePaymentMethodEvent(Event event) {
+                PaymentMethod paymentMethod = (PaymentMethod) event.getDataObjectDeserializer().getObject()
+                                .orElseThrow();
+
+                if ("payment_method.detached".equals(event.getType())) {
+                        paymentMethodRegistry.unregister(paymentMethod.getId());
+                } else if (paymentMethod.getCustomer() != null && "sepa_debit".equals(paymentMethod.getType())) {
+                        paymentMethodRegistry.register(paymentMethod.getCustomer(), paymentMethod.getId());
+                }
+        }
+
         public void handleSuccessfulPayment(Event event) {
                 PaymentIntent paymentIntent = (PaymentIntent) event.getDataObjectDeserializer().getObject()
                                 .orElseThrow();
@@ -327,9 +413,15 @@ public class StripeManager implements StripeService {
 
         @Override
         public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
+                return retrievePaymentIntent(paymentIntentId, RequestOptions.getDefault());
+        }
+
+        @Override
+        public PaymentIntent retrievePaymentIntent(String paymentIntentId, RequestOptions requestOptions)
+                        throws StripeException {
                 try {
                         log.info("Retrieving payment intent with ID: {}", paymentIntentId);
-                        PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId);
+                        PaymentIntent paymentIntent = PaymentIntent.retrieve(paymentIntentId, requestOptions);
                         log.info("Payment intent retrieved successfully. Status: {}", paymentIntent.getStatus());
                         return paymentIntent;
                 } catch (StripeException e) {
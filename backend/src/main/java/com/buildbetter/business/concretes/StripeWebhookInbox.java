@@ -0,0 +1,315 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.responses.GetWebhookEventResponse;
+import com.buildbetter.dataAccess.abstracts.StripeWebhookEventRepository;
+import com.buildbetter.entities.concretes.StripeWebhookEvent;
+import com.buildbetter.enums.WebhookEventStatus;
+import com.stripe.model.Event;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.PaymentMethod;
+import com.stripe.model.StripeObject;
+import com.stripe.net.ApiResource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable inbox for Stripe webhooks. The webhook endpoint only stores the verified event and
+ * answers, so Stripe never waits on invoice updates or confirmation emails. A small thread pool
+ * then works through the {@code stripe_webhook_events} table:
+ * <ul>
+ * <li>a replayed event id is dropped on insert,</li>
+ * <li>events of one customer are handled one at a time, oldest first,</li>
+ * <li>failures are retried with exponential backoff and end up as DEAD_LETTER after the last
+ * attempt, where an admin can inspect and requeue them.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class StripeWebhookInbox {
+
+    public static final Set<String> HANDLED_EVENT_TYPES = Set.of(
+            "payment_intent.succeeded",
+            "payment_intent.payment_failed",
+            "payment_method.attached",
+            "payment_method.updated",
+            "payment_method.automatically_updated",
+            "payment_method.detached");
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    @Value("${saas.webhooks.worker-threads:2}")
+    private int workerThreads;
+
+    @Value("${saas.webhooks.poll-interval-ms:5000}")
+    private long pollIntervalMillis;
+
+    @Value("${saas.webhooks.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${saas.webhooks.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${saas.webhooks.retry-base-seconds:15}")
+    private long retryBaseSeconds;
+
+    private final StripeWebhookEventRepository webhookEventRepository;
+    private final StripeManager stripeManager;
+
+    private ScheduledExecutorService poller;
+    private ExecutorService workers;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private volatile LocalDateTime lastProcessedAt;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class WebhookInboxStats {
+        private long pending;
+        private long deadLetters;
+        private int inFlight;
+        private long received;
+        private long duplicates;
+        private long processed;
+        private long retried;
+        private LocalDateTime lastProcessedAt;
+    }
+
+    public StripeWebhookInbox(StripeWebhookEventRepository webhookEventRepository, @Lazy StripeManager stripeManager) {
+        this.webhookEventRepository = webhookEventRepository;
+        this.stripeManager = stripeManager;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, workerThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "stripe-webhook-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stripe-webhook-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        poller.shutdownNow();
+        // Interrupted events keep their lease and are retried after it expires
+        workers.shutdownNow();
+    }
+
+    /**
+     * Stores a verified event for processing.
+     *
+     * @return false if the event was already received
+     */
+    public boolean receive(Event event, String payload) {
+        if (webhookEventRepository.existsById(event.getId())) {
+            duplicates.increment();
+            return false;
+        }
+        StripeWebhookEvent inboxEvent = StripeWebhookEvent.builder()
+                .id(event.getId())
+                .eventType(event.getType())
+                .orderingKey(orderingKeyOf(event))
+                .stripeCreated(event.getCreated() != null ? event.getCreated() : 0L)
+                .payload(payload)
+                .status(WebhookEventStatus.PENDING)
+                .build();
+        try {
+            webhookEventRepository.saveAndFlush(inboxEvent);
+        } catch (DataIntegrityViolationException e) {
+            // The same event arrived concurrently
+            duplicates.increment();
+            return false;
+        }
+        received.increment();
+        wake();
+        return true;
+    }
+
+    public List<GetWebhookEventResponse> getDeadLetters(int page, int size) {
+        Page<StripeWebhookEvent> deadLetters = webhookEventRepository.findByStatusOrderByReceivedAtDesc(
+                WebhookEventStatus.DEAD_LETTER, PageRequest.of(page, size));
+        return deadLetters.map(event -> GetWebhookEventResponse.builder()
+                .eventId(event.getId())
+                .eventType(event.getEventType())
+                .orderingKey(event.getOrderingKey())
+                .status(event.getStatus())
+                .attempts(event.getAttempts())
+                .lastError(event.getLastError())
+                .receivedAt(event.getReceivedAt())
+                .processedAt(event.getProcessedAt())
+                .build()).getContent();
+    }
+
+    /**
+     * Puts a dead-lettered event back in the queue with fresh attempts.
+     *
+     * @return false if the event is not dead-lettered
+     */
+    public boolean requeue(String eventId) {
+        boolean requeued = webhookEventRepository.requeueDeadLetter(eventId, LocalDateTime.now()) == 1;
+        if (requeued) {
+            wake();
+        }
+        return requeued;
+    }
+
+    /**
+     * Polls immediately instead of at the next interval, e.g. right after an event was stored.
+     */
+    public void wake() {
+        try {
+            poller.execute(this::pollSafely);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    public WebhookInboxStats getStats() {
+        return WebhookInboxStats.builder()
+                .pending(webhookEventRepository.countByStatus(WebhookEventStatus.PENDING))
+                .deadLetters(webhookEventRepository.countByStatus(WebhookEventStatus.DEAD_LETTER))
+                .inFlight(inFlight.get())
+                .received(received.sum())
+                .duplicates(duplicates.sum())
+                .processed(processed.sum())
+                .retried(retried.sum())
+                .lastProcessedAt(lastProcessedAt)
+                .build();
+    }
+
+    // Events without a customer are not ordered against anything
+    private static String orderingKeyOf(Event event) {
+        Optional<StripeObject> object = event.getDataObjectDeserializer().getObject();
+        if (object.isPresent() && object.get() instanceof PaymentIntent paymentIntent
+                && paymentIntent.getCustomer() != null) {
+            return paymentIntent.getCustomer();
+        }
+        if (object.isPresent() && object.get() instanceof PaymentMethod paymentMethod
+                && paymentMethod.getCustomer() != null) {
+            return paymentMethod.getCustomer();
+        }
+        return event.getId();
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            log.error("Stripe webhook poll failed", e);
+        }
+    }
+
+    // Claims at most as many events as there are idle worker threads
+    private void poll() {
+        int free = Math.max(1, workerThreads) - inFlight.get();
+        if (free <= 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<String> due = webhookEventRepository.findDueIds(now, PageRequest.of(0, free));
+        for (String eventId : due) {
+            if (webhookEventRepository.claim(eventId, now, now.plusSeconds(leaseSeconds)) != 1) {
+                continue;
+            }
+            inFlight.incrementAndGet();
+            try {
+                workers.execute(() -> {
+                    try {
+                        process(eventId);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                inFlight.decrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void process(String eventId) {
+        Optional<StripeWebhookEvent> claimed = webhookEventRepository.findById(eventId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+        StripeWebhookEvent inboxEvent = claimed.get();
+        try {
+            Event event = ApiResource.GSON.fromJson(inboxEvent.getPayload(), Event.class);
+            switch (inboxEvent.getEventType()) {
+                case "payment_intent.succeeded":
+                    stripeManager.handleSuccessfulPayment(event);
+                    break;
+                case "payment_intent.payment_failed":
+                    stripeManager.handleFailedPayment(event);
+                    break;
+                case "payment_method.attached":
+                case "payment_method.updated":
+                case "payment_method.automatically_updated":
+                case "payment_method.detached":
+                    stripeManager.handlePaymentMethodEvent(event);
+                    break;
+                default:
+                    log.warn("Stripe webhook event {} has unhandled type {}", eventId, inboxEvent.getEventType());
+            }
+            inboxEvent.setStatus(WebhookEventStatus.PROCESSED);
+            inboxEvent.setProcessedAt(LocalDateTime.now());
+            inboxEvent.setLockedUntil(null);
+            inboxEvent.setLastError(null);
+            webhookEventRepository.save(inboxEvent);
+            processed.increment();
+            lastProcessedAt = inboxEvent.getProcessedAt();
+        } catch (Exception e) {
+            String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            inboxEvent.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+            inboxEvent.setLockedUntil(null);
+            if (inboxEvent.getAttempts() >= maxAttempts) {
+                inboxEvent.setStatus(WebhookEventStatus.DEAD_LETTER);
+                log.error("Stripe webhook event {} dead-lettered after {} attempts: {}",
+                        eventId, inboxEvent.getAttempts(), error);
+            } else {
+                long delay = retryBaseSeconds << Math.min(inboxEvent.getAttempts() - 1, 10);
+                inboxEvent.setStatus(WebhookEventStatus.PENDING);
+                inboxEvent.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofSeconds(delay)));
+                retried.increment();
+                log.warn("Stripe webhook event {} attempt {} failed, retrying in {}s: {}",
+                        eventId, inboxEvent.getAttempts(), delay, error);
+            }
+            webhookEventRepository.save(inboxEvent);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.buildbetter.business.concretes;
 
 import com.buildbetter.business.abstracts.SubscriptionService;
+import com.buildbetter.core.utilities.events.AnalyticsRollupInvalidatedEvent;
+import com.buildbetter.core.utilities.events.SubscriptionPlanChangedEvent;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
 import com.buildbetter.dataAccess.abstracts.OrganizationRepository;
 import com.buildbetter.dataAccess.abstracts.SubscriptionPlanRepository;
@@ -11,6 +13,7 @@ import com.buildbetter.entities.concretes.SubscriptionPlan;
 import com.buildbetter.enums.BillingInterval;
 import com.buildbetter.enums.SubscriptionStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +28,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
     private final SubscriptionRepository subscriptionRepository;
     private final SubscriptionPlanRepository subscriptionPlanRepository;
     private final OrganizationRepository organizationRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -74,7 +78,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
         existingPlan.setUpdatedAt(LocalDateTime.now());
 
-        return subscriptionPlanRepository.save(existingPlan);
+        SubscriptionPlan savedPlan = subscriptionPlanRepository.save(existingPlan);
+        eventPublisher.publishEvent(SubscriptionPlanChangedEvent.forPlan(this, id));
+        return savedPlan;
     }
 
     @Override
@@ -106,7 +112,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
                 .updatedAt(LocalDateTime.now())
                 .build();
 
-        return subscriptionRepository.save(subscription);
+        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(SubscriptionPlanChangedEvent.forOrganization(this, organizationId));
+        return savedSubscription;
     }
 
     @Override
@@ -124,7 +132,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setPlan(newPlan);
         subscription.setUpdatedAt(LocalDateTime.now());
 
-        return subscriptionRepository.save(subscription);
+        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(SubscriptionPlanChangedEvent.forOrganization(this, organizationId));
+        return savedSubscription;
     }
 
     @Override
@@ -136,7 +146,9 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setPlan(newPlan);
         subscription.setUpdatedAt(LocalDateTime.now());
 
-        return subscriptionRepository.save(subscription);
+        Subscription savedSubscription = subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(SubscriptionPlanChangedEvent.forOrganization(this, organizationId));
+        return savedSubscription;
     }
 
     @Override
@@ -155,6 +167,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
 
         subscription.setUpdatedAt(LocalDateTime.now());
         subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(AnalyticsRollupInvalidatedEvent.forSubscriptions(this));
     }
 
     @Override
@@ -174,6 +187,7 @@ public class SubscriptionServiceImpl implements SubscriptionService {
         subscription.setUpdatedAt(LocalDateTime.now());
 
         subscriptionRepository.save(subscription);
+        eventPublisher.publishEvent(AnalyticsRollupInvalidatedEvent.forSubscriptions(this));
     }
 
     @Override
@@ -0,0 +1,256 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.UsageTrackingRepository;
+import com.buildbetter.entities.concretes.Organization;
+import com.buildbetter.entities.concretes.UsageTracking;
+import com.buildbetter.enums.UsageMetricType;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind stage for high frequency usage counters.
+ * Increments are aggregated in memory per (organization, metric) and periodically
+ * written to usage_tracking as one row per key and flush window.
+ */
+@Service
+@Slf4j
+public class UsageMeteringManager {
+
+    @Value("${saas.usage-metering.flush-interval-ms:5000}")
+    private long flushIntervalMs;
+
+    @Value("${saas.usage-metering.max-pending-batches:64}")
+    private int maxPendingBatches;
+
+    @Value("${saas.usage-metering.max-tracked-keys:50000}")
+    private int maxTrackedKeys;
+
+    private final UsageTrackingRepository usageTrackingRepository;
+    private final AnalyticsRollupManager analyticsRollupManager;
+    private final TransactionTemplate transactionTemplate;
+
+    // Marks a counter the flusher has taken out of the map; no increment is ever applied to it
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private final ConcurrentHashMap<MeterKey, AtomicLong> counters = new ConcurrentHashMap<>();
+    private ArrayBlockingQueue<PendingBatch> pendingBatches;
+    private ScheduledExecutorService flusher;
+    private volatile LocalDateTime windowStart = LocalDateTime.now();
+
+    private final LongAdder droppedIncrements = new LongAdder();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong lastFlushLagMs = new AtomicLong();
+    private final AtomicLong maxFlushLagMs = new AtomicLong();
+    private volatile LocalDateTime lastFlushAt;
+
+    private record MeterKey(String organizationId, UsageMetricType metricType) {
+    }
+
+    private record PendingBatch(LocalDateTime periodStart, LocalDateTime periodEnd, long capturedAtNanos,
+                                Map<MeterKey, Long> values) {
+        long total() {
+            return values.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class MeteringStats {
+        private long pendingKeys;
+        private long pendingBatches;
+        private long droppedIncrements;
+        private long flushedRows;
+        private long failedFlushes;
+        private long lastFlushLagMs;
+        private long maxFlushLagMs;
+        private LocalDateTime lastFlushAt;
+    }
+
+    public UsageMeteringManager(UsageTrackingRepository usageTrackingRepository,
+                                AnalyticsRollupManager analyticsRollupManager,
+                                TransactionTemplate transactionTemplate) {
+        this.usageTrackingRepository = usageTrackingRepository;
+        this.analyticsRollupManager = analyticsRollupManager;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    public void start() {
+        pendingBatches = new ArrayBlockingQueue<>(Math.max(1, maxPendingBatches));
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "usage-metering-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(10, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Final flush so increments collected since the last window are not lost on shutdown
+        flushSafely();
+    }
+
+    public void increment(String organizationId, UsageMetricType metricType) {
+        add(organizationId, metricType, 1L);
+    }
+
+    public void add(String organizationId, UsageMetricType metricType, long value) {
+        MeterKey key = new MeterKey(organizationId, metricType);
+        while (true) {
+            AtomicLong counter = counters.get(key);
+            if (counter == null) {
+                if (counters.size() >= maxTrackedKeys) {
+                    droppedIncrements.add(value);
+                    return;
+                }
+                counter = counters.computeIfAbsent(key, k -> new AtomicLong());
+            }
+            // Only fails if the flusher retired this counter in between; retry against the live one
+            if (counter.getAndUpdate(current -> current == RETIRED ? RETIRED : current + value) != RETIRED) {
+                return;
+            }
+            counters.remove(key, counter);
+        }
+    }
+
+    /**
+     * Increments recorded in memory but not yet written to the database.
+     */
+    public long getPendingUsage(String organizationId, UsageMetricType metricType) {
+        MeterKey key = new MeterKey(organizationId, metricType);
+        AtomicLong counter = counters.get(key);
+        long pending = counter != null ? Math.max(counter.get(), 0L) : 0L;
+        for (PendingBatch batch : pendingBatches) {
+            pending += batch.values().getOrDefault(key, 0L);
+        }
+        return pending;
+    }
+
+    public MeteringStats getStats() {
+        return MeteringStats.builder()
+                .pendingKeys(counters.size())
+                .pendingBatches(pendingBatches.size())
+                .droppedIncrements(droppedIncrements.sum())
+                .flushedRows(flushedRows.get())
+                .failedFlushes(failedFlushes.get())
+                .lastFlushLagMs(lastFlushLagMs.get())
+                .maxFlushLagMs(maxFlushLagMs.get())
+                .lastFlushAt(lastFlushAt)
+                .build();
+    }
+
+    private synchronized void flushSafely() {
+        try {
+            captureWindow();
+            drainPendingBatches();
+        } catch (Exception e) {
+            log.error("Usage metering flush failed", e);
+        }
+    }
+
+    private void captureWindow() {
+        LocalDateTime periodStart = windowStart;
+        LocalDateTime periodEnd = LocalDateTime.now();
+        windowStart = periodEnd;
+
+        Map<MeterKey, Long> values = new ConcurrentHashMap<>();
+        counters.forEach((key, counter) -> {
+            long value = counter.getAndSet(0L);
+            if (value != 0) {
+                values.put(key, value);
+            } else if (counter.compareAndSet(0L, RETIRED)) {
+                // Idle key: retire before removing so a concurrent add moves to a fresh counter
+                counters.remove(key, counter);
+            }
+        });
+        if (values.isEmpty()) {
+            return;
+        }
+
+        PendingBatch batch = new PendingBatch(periodStart, periodEnd, System.nanoTime(), values);
+        while (!pendingBatches.offer(batch)) {
+            PendingBatch oldest = pendingBatches.poll();
+            if (oldest != null) {
+                droppedIncrements.add(oldest.total());
+                log.warn("Usage metering queue full, dropped {} increments from window starting {}",
+                        oldest.total(), oldest.periodStart());
+            }
+        }
+    }
+
+    private void drainPendingBatches() {
+        PendingBatch batch;
+        while ((batch = pendingBatches.peek()) != null) {
+            try {
+                List<UsageTracking> rows = toRows(batch);
+                // Rows and daily rollup in one transaction, so a retried batch is not counted twice
+                transactionTemplate.executeWithoutResult(status -> {
+                    usageTrackingRepository.saveAll(rows);
+                    analyticsRollupManager.addUsage(rows);
+                });
+            } catch (Exception e) {
+                // Leave the batch queued and retry on the next tick
+                failedFlushes.incrementAndGet();
+                log.warn("Could not persist usage batch ({} rows), will retry: {}", batch.values().size(), e.getMessage());
+                return;
+            }
+            pendingBatches.remove(batch);
+            flushedRows.addAndGet(batch.values().size());
+
+            long lagMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.capturedAtNanos())
+                    + flushIntervalMs;
+            lastFlushLagMs.set(lagMs);
+            maxFlushLagMs.accumulateAndGet(lagMs, Math::max);
+            lastFlushAt = LocalDateTime.now();
+        }
+    }
+
+    private List<UsageTracking> toRows(PendingBatch batch) {
+        List<UsageTracking> rows = new ArrayList<>(batch.values().size());
+        batch.values().forEach((key, value) -> {
+            Organization organization = new Organization();
+            organization.setId(key.organizationId());
+
+            rows.add(UsageTracking.builder()
+                    .organization(organization)
+                    .metricType(key.metricType())
+                    .value(value)
+                    .timestamp(batch.periodEnd())
+                    .periodStart(batch.periodStart())
+                    .periodEnd(batch.periodEnd())
+                    .build());
+        });
+        return rows;
+    }
+}
@@ -8,10 +8,12 @@ import com.buildbetter.entities.concretes.UsageTracking;
 import com.buildbetter.enums.UsageMetricType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,8 +21,11 @@ import java.util.Map;
 public class UsageTrackingServiceImpl implements UsageTrackingService {
 
     private final UsageTrackingRepository usageTrackingRepository;
+    private final UsageMeteringManager usageMeteringManager;
+    private final AnalyticsRollupManager analyticsRollupManager;
 
     @Override
+    @Transactional
     public void trackUsage(String organizationId, UsageMetricType metricType, long value) {
         Organization organization = new Organization();
         organization.setId(organizationId);
@@ -33,9 +38,11 @@ public class UsageTrackingServiceImpl implements UsageTrackingService {
                 .build();
 
         usageTrackingRepository.save(tracking);
+        analyticsRollupManager.addUsage(List.of(tracking));
     }
 
     @Override
+    @Transactional
     public void trackUsage(String organizationId, String userId, UsageMetricType metricType, long value) {
         Organization organization = new Organization();
         organization.setId(organizationId);
@@ -52,17 +59,20 @@ public class UsageTrackingServiceImpl implements UsageTrackingService {
                 .build();
 
         usageTrackingRepository.save(tracking);
+        analyticsRollupManager.addUsage(List.of(tracking));
     }
 
     @Override
     public void incrementUsage(String organizationId, UsageMetricType metricType) {
-        trackUsage(organizationId, metricType, 1L);
+        // Buffered and written in bulk by UsageMeteringManager
+        usageMeteringManager.increment(organizationId, metricType);
     }
 
     @Override
     public long getCurrentUsage(String organizationId, UsageMetricType metricType) {
         LocalDateTime startOfMonth = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
-        return getUsageInPeriod(organizationId, metricType, startOfMonth, LocalDateTime.now());
+        return getUsageInPeriod(organizationId, metricType, startOfMonth, LocalDateTime.now())
+                + usageMeteringManager.getPendingUsage(organizationId, metricType);
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.buildbetter.business.requests.ChangePasswordRequest;
 import com.buildbetter.business.requests.UpdateUserRequest;
 import com.buildbetter.business.responses.*;
 import com.buildbetter.business.rules.UserBusinessRules;
+import com.buildbetter.core.utilities.events.PrincipalChangedEvent;
 import com.buildbetter.core.utilities.mappers.ModelMapperService;
 import com.buildbetter.dataAccess.abstracts.StorageRepository;
 import com.buildbetter.dataAccess.abstracts.UserRepository;
@@ -17,6 +18,7 @@ import com.buildbetter.security.token.TokenRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mail.SimpleMailMessage;
@@ -49,12 +51,14 @@ public class UserManager implements UserService {
     private final StorageManager storageManager;
     private final AdsManager adsManager;
     private final TokenRepository tokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     private JavaMailSender mailSender;
 
     public UserManager(ModelMapperService modelMapperService, UserRepository userRepository,
             UserBusinessRules userBusinessRules, StorageRepository storageRepository, PasswordEncoder passwordEncoder,
-            StorageManager storageManager, AdsManager adsManager, TokenRepository tokenRepository) {
+            StorageManager storageManager, AdsManager adsManager, TokenRepository tokenRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.modelMapperService = modelMapperService;
         this.userRepository = userRepository;
         this.storageRepository = storageRepository;
@@ -62,6 +66,7 @@ public class UserManager implements UserService {
         this.storageManager = storageManager;
         this.adsManager = adsManager;
         this.tokenRepository = tokenRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -192,6 +197,7 @@ public class UserManager implements UserService {
                     logger.info("Admin {} updating role for user {} to {}", currentPrincipalName, user.getId(),
                             updateUserRequest.getRole());
                     user.setRole(updateUserRequest.getRole());
+                    eventPublisher.publishEvent(new PrincipalChangedEvent(this, user.getEmail()));
                 } else {
                     logger.warn("User {} attempted to change role for user {} without ADMIN privileges.",
                             currentPrincipalName, user.getId());
@@ -263,9 +269,13 @@ public class UserManager implements UserService {
         }
     }
 
+    @Transactional
     public ResponseEntity<?> changePassword(ChangePasswordRequest request, Principal connectedUser) {
         UsernamePasswordAuthenticationToken authenticationToken = (UsernamePasswordAuthenticationToken) connectedUser;
-        User user = (User) authenticationToken.getPrincipal(); // Get User object
+        // Principal önbellekten gelen bir kopya; değiştirilecek kullanıcı veritabanından yeniden okunur
+        User principal = (User) authenticationToken.getPrincipal();
+        User user = userRepository.findById(principal.getId())
+                .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + principal.getId()));
 
         // Güvenlik loglaması
         logger.info("Password change initiated by user: {}", user.getEmail());
@@ -287,6 +297,7 @@ public class UserManager implements UserService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(this, user.getEmail()));
 
         logger.info("Password successfully changed for user: {}", user.getEmail());
         return ResponseEntity.ok("Password changed successfully"); // Body mesajı düzeltildi
@@ -0,0 +1,15 @@
+package com.buildbetter.business.requests;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class AttachDirectUploadsRequest {
+    // Blob keys returned by POST /api/v1/storage/direct-uploads
+    private List<String> blobKeys;
+}
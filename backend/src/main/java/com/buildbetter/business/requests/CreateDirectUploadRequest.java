@@ -0,0 +1,17 @@
+package com.buildbetter.business.requests;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class CreateDirectUploadRequest {
+    // Hex SHA-256 of the file, computed by the client
+    private String sha256;
+    private String fileName;
+    private String contentType;
+    // Exact size of the file in bytes; the storage backend rejects a body of any other size
+    private long size;
+}
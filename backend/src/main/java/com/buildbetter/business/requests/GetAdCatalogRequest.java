@@ -0,0 +1,29 @@
+package com.buildbetter.business.requests;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetAdCatalogRequest {
+    private String categoryId;
+    private String serviceId;
+    private Boolean active;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime releasedFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime releasedTo;
+
+    private int page = 0;
+    private int size = 20;
+
+    // "adReleaseDate,desc" style, like Spring's sort parameter
+    private String sort;
+}
@@ -0,0 +1,17 @@
+package com.buildbetter.business.requests;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+public class StartStorageMigrationRequest {
+    // Backend names: "filesystem" or "s3"
+    private String source;
+    private String target;
+    // Parallel copies; saas.storage.migration-threads when null
+    private Integer threads;
+    private boolean deleteSource;
+}
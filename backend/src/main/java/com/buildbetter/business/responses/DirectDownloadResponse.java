@@ -0,0 +1,13 @@
+package com.buildbetter.business.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class DirectDownloadResponse {
+    private String url;
+    private Long expiresAt;
+    // False when the URL points back at the API because the backend cannot presign
+    private boolean direct;
+}
@@ -0,0 +1,23 @@
+package com.buildbetter.business.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DirectUploadResponse {
+    private String blobKey;
+    // Nothing to upload when the same content is already stored
+    private boolean alreadyStored;
+    private String method;
+    private String uploadUrl;
+    // Headers the client must send with the upload, exactly as given
+    private Map<String, String> headers;
+    private Long expiresAt;
+}
@@ -14,6 +14,7 @@ public class GetAllAdsResponse {
     private String title;
     private String descriptions;
     private String imageUrl;
+    private String thumbnailUrl;
     private String adReleaseDate;
     private String categoryId;
     private String categoryName;
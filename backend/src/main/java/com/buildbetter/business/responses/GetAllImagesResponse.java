@@ -1,5 +1,6 @@
 package com.buildbetter.business.responses;
 
+import com.buildbetter.core.utilities.images.ImageVariant;
 import lombok.*;
 
 @Data
@@ -13,4 +14,11 @@ public class GetAllImagesResponse {
     private String name;
     private String type;
     private String url;
+    // Liste ve kart görünümleri için küçük boyutlar; üretilene kadar orijinal sunulur
+    private String thumbnailUrl;
+    private String mediumUrl;
+
+    public GetAllImagesResponse(String id, String name, String type, String url) {
+        this(id, name, type, url, ImageVariant.THUMBNAIL.url(url, name), ImageVariant.MEDIUM.url(url, name));
+    }
 }
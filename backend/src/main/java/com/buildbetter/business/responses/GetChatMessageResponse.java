@@ -1,6 +1,7 @@
 package com.buildbetter.business.responses;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.buildbetter.dataAccess.abstracts.ChatMessageRepository.RecentMessageView;
 import com.buildbetter.entities.concretes.ChatMessage;
 import com.buildbetter.entities.concretes.Expert;
 import com.buildbetter.enums.MessageType;
@@ -50,4 +51,22 @@ public class GetChatMessageResponse {
                 .paymentAmount(message.getPaymentAmount())
                 .build();
     }
+
+    public static GetChatMessageResponse fromView(RecentMessageView view) {
+        return GetChatMessageResponse.builder()
+                .id(view.getId())
+                .chatRoomId(view.getChatRoomChatId())
+                .content(view.getContent())
+                .senderId(view.getSenderId())
+                .senderName(view.getSenderName())
+                .senderRole(Boolean.TRUE.equals(view.getSentByExpert()) ? "EXPERT" : "USER")
+                .senderProfileImage(view.getSenderProfileImage())
+                .messageType(view.getMessageType())
+                .timestamp(view.getTimestamp())
+                .isRead(Boolean.TRUE.equals(view.getRead()))
+                .contactInfo(Boolean.TRUE.equals(view.getContactInfo()))
+                .paymentIntentId(view.getPaymentIntentId())
+                .paymentAmount(view.getPaymentAmount())
+                .build();
+    }
 }
@@ -0,0 +1,38 @@
+package com.buildbetter.business.responses;
+
+import com.buildbetter.entities.concretes.ChatMessage;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+/**
+ * One page of chat history, newest message first. There is no total count: clients keep
+ * scrolling with {@code before=nextCursor} (older) or {@code after=previousCursor} (newer).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetChatMessageSliceResponse {
+    private List<GetChatMessageResponse> messages;
+    private boolean hasMore;
+    private String nextCursor;
+    private String previousCursor;
+
+    public static GetChatMessageSliceResponse fromSlice(Slice<ChatMessage> slice) {
+        List<GetChatMessageResponse> messages = slice.getContent().stream()
+                .map(GetChatMessageResponse::fromEntity)
+                .toList();
+
+        return GetChatMessageSliceResponse.builder()
+                .messages(messages)
+                .hasMore(slice.hasNext())
+                .nextCursor(messages.isEmpty() ? null : messages.get(messages.size() - 1).getId())
+                .previousCursor(messages.isEmpty() ? null : messages.get(0).getId())
+                .build();
+    }
+}
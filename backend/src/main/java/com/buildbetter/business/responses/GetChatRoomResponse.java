@@ -1,5 +1,6 @@
 package com.buildbetter.business.responses;
 
+import com.buildbetter.dataAccess.abstracts.ChatRoomRepository.ChatRoomListView;
 import com.buildbetter.entities.concretes.ChatMessage;
 import com.buildbetter.entities.concretes.ChatRoom;
 import com.buildbetter.entities.concretes.JobTitle;
@@ -31,6 +32,7 @@ public class GetChatRoomResponse {
     private String lastActivity;
     private ChatRoomStatus status;
     private List<GetChatMessageResponse> recentMessages;
+    private long unreadCount;
 
     // Contact sharing information
     private boolean contactShared;
@@ -133,6 +135,52 @@ public class GetChatRoomResponse {
                 .build();
     }
 
+    // Built from the flat list projection; recent messages and unread count are fetched per batch of rooms
+    public static GetChatRoomResponse fromView(ChatRoomListView view, List<GetChatMessageResponse> recentMessages,
+                                               long unreadCount) {
+        return GetChatRoomResponse.builder()
+                .id(view.getId())
+                .chatId(view.getChatId())
+                .user(view.getUserId() != null ? UserInfo.builder()
+                        .id(view.getUserId())
+                        .name(view.getUserName())
+                        .email(view.getUserEmail())
+                        .profileImage(view.getUserProfileImage())
+                        .build() : null)
+                .expert(view.getExpertId() != null ? ExpertInfo.builder()
+                        .id(view.getExpertId())
+                        .name(view.getExpertName())
+                        .email(view.getExpertEmail())
+                        .companyName(view.getExpertCompanyName())
+                        .accountBlocked(Boolean.TRUE.equals(view.getExpertAccountBlocked()))
+                        .profileImage(view.getExpertProfileImage())
+                        .jobTitle(view.getExpertJobTitle())
+                        .build() : null)
+                .ad(view.getAdId() != null ? AdInfo.builder()
+                        .id(view.getAdId())
+                        .title(view.getAdTitle())
+                        .descriptions(view.getAdDescriptions())
+                        .imageUrl(view.getAdImageUrl())
+                        .category(view.getCategoryId() != null ?
+                                CategoryInfo.builder()
+                                        .id(view.getCategoryId())
+                                        .name(view.getCategoryName())
+                                        .build() : null)
+                        .build() : null)
+                .active(Boolean.TRUE.equals(view.getActive()))
+                .expertBlocked(Boolean.TRUE.equals(view.getExpertBlocked()))
+                .status(view.getStatus())
+                .lastActivity(formatDateTime(view.getLastActivity()))
+                .contactShared(Boolean.TRUE.equals(view.getContactShared()))
+                .contactSharedAt(formatDateTime(view.getContactSharedAt()))
+                .completed(Boolean.TRUE.equals(view.getCompleted()))
+                .completionPaymentProcessed(Boolean.TRUE.equals(view.getCompletionPaymentProcessed()))
+                .completedAt(formatDateTime(view.getCompletedAt()))
+                .recentMessages(recentMessages)
+                .unreadCount(unreadCount)
+                .build();
+    }
+
     private static String formatDateTime(LocalDateTime dateTime) {
         return dateTime != null ?
                 dateTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")) : null;
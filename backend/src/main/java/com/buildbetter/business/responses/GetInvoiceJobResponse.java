@@ -0,0 +1,24 @@
+package com.buildbetter.business.responses;
+
+import com.buildbetter.enums.InvoiceJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetInvoiceJobResponse {
+    private String invoiceId;
+    private InvoiceJobStatus status;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime completedAt;
+    private String lastError;
+    // True once the PDF can be downloaded
+    private boolean ready;
+}
@@ -0,0 +1,20 @@
+package com.buildbetter.business.responses;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class GetSearchResultResponse {
+    private String type;        // AD, CATEGORY or SERVICE
+    private String id;
+    private String title;
+    private String categoryName;
+    private String serviceName;
+    private String adReleaseDate;
+    private double score;
+}
@@ -0,0 +1,24 @@
+package com.buildbetter.business.responses;
+
+import com.buildbetter.enums.WebhookEventStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetWebhookEventResponse {
+    private String eventId;
+    private String eventType;
+    private String orderingKey;
+    private WebhookEventStatus status;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime receivedAt;
+    private LocalDateTime processedAt;
+}
@@ -0,0 +1,30 @@
+package com.buildbetter.business.responses;
+
+import com.buildbetter.enums.PlanTier;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Resolved plan limits and feature flags for one organization.
+ * Null limits mean the plan does not restrict that quota.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+public class OrganizationEntitlements {
+    private final String organizationId;
+    private final String planId;
+    private final PlanTier tier;
+
+    private final Integer maxApiCallsPerHour;
+    private final Integer maxAds;
+    private final Long maxStorageMb;
+    private final Integer maxUsers;
+
+    private final boolean customBranding;
+    private final boolean prioritySupport;
+    private final boolean apiAccess;
+    private final boolean advancedAnalytics;
+    private final boolean whiteLabel;
+}
@@ -0,0 +1,25 @@
+package com.buildbetter.core.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Enables JDBC statement batching so saveAll of UUID-keyed entities (e.g. image metadata)
+ * goes to the database as one batch instead of one round trip per row.
+ */
+@Configuration
+public class HibernateBatchingConfig implements HibernatePropertiesCustomizer {
+
+    @Value("${saas.jpa.batch-size:25}")
+    private int batchSize;
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, batchSize);
+        hibernateProperties.putIfAbsent(AvailableSettings.ORDER_INSERTS, true);
+    }
+}
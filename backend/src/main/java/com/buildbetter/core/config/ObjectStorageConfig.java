@@ -0,0 +1,52 @@
+package com.buildbetter.core.config;
+
+import com.buildbetter.core.storage.ObjectStorageDriver;
+import com.buildbetter.core.storage.ObjectStorageDriverFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class ObjectStorageConfig {
+
+    @Value("${saas.storage.backend:filesystem}")
+    private String backend;
+
+    @Value("${saas.storage.filesystem.root:backend/src/main/resources/static/uploads}")
+    private String filesystemRoot;
+
+    // Defaults match a local MinIO started with its default credentials
+    @Value("${saas.storage.s3.endpoint:http://localhost:9000}")
+    private String s3Endpoint;
+
+    @Value("${saas.storage.s3.region:us-east-1}")
+    private String s3Region;
+
+    @Value("${saas.storage.s3.bucket:buildbetter-uploads}")
+    private String s3Bucket;
+
+    @Value("${saas.storage.s3.access-key:minioadmin}")
+    private String s3AccessKey;
+
+    @Value("${saas.storage.s3.secret-key:minioadmin}")
+    private String s3SecretKey;
+
+    @Value("${saas.storage.s3.path-style:true}")
+    private boolean s3PathStyle;
+
+    @Value("${saas.storage.s3.timeout-ms:60000}")
+    private long s3TimeoutMillis;
+
+    @Bean
+    public ObjectStorageDriverFactory objectStorageDriverFactory() {
+        return new ObjectStorageDriverFactory(filesystemRoot, s3Endpoint, s3Region, s3Bucket,
+                s3AccessKey, s3SecretKey, s3PathStyle, Duration.ofMillis(s3TimeoutMillis));
+    }
+
+    @Bean
+    public ObjectStorageDriver objectStorageDriver(ObjectStorageDriverFactory objectStorageDriverFactory) {
+        return objectStorageDriverFactory.get(backend);
+    }
+}
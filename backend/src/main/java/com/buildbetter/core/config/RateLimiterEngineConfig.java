@@ -0,0 +1,46 @@
+package com.buildbetter.core.config;
+
+import com.buildbetter.core.ratelimit.InProcessRateLimiterStore;
+import com.buildbetter.core.ratelimit.RateLimiter;
+import com.buildbetter.core.ratelimit.RateLimiterStore;
+import com.buildbetter.core.ratelimit.SharedRateLimiterStore;
+import com.buildbetter.core.ratelimit.SlidingWindowLogRateLimiter;
+import com.buildbetter.core.ratelimit.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimiterEngineConfig {
+
+    @Value("${saas.rate-limit.algorithm:sliding-window}")
+    private String algorithm;
+
+    @Value("${saas.rate-limit.store:in-process}")
+    private String storeType;
+
+    @Value("${saas.rate-limit.shared-namespace:api-rate-limit}")
+    private String sharedNamespace;
+
+    @Value("${saas.rate-limit.idle-eviction-ms:7200000}")
+    private long idleEvictionMillis;
+
+    @Value("${saas.rate-limit.sweep-interval-ms:60000}")
+    private long sweepIntervalMillis;
+
+    @Bean
+    public RateLimiterStore rateLimiterStore() {
+        if ("shared".equalsIgnoreCase(storeType)) {
+            return new SharedRateLimiterStore(sharedNamespace, idleEvictionMillis);
+        }
+        return new InProcessRateLimiterStore();
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimiterStore rateLimiterStore) {
+        if ("token-bucket".equalsIgnoreCase(algorithm)) {
+            return new TokenBucketRateLimiter(rateLimiterStore, idleEvictionMillis, sweepIntervalMillis);
+        }
+        return new SlidingWindowLogRateLimiter(rateLimiterStore, idleEvictionMillis, sweepIntervalMillis);
+    }
+}
@@ -1,8 +1,9 @@
 package com.buildbetter.core.interceptors;
 
-import com.buildbetter.business.abstracts.OrganizationService;
+import com.buildbetter.business.abstracts.EntitlementService;
 import com.buildbetter.business.abstracts.UsageTrackingService;
-import com.buildbetter.entities.concretes.Organization;
+import com.buildbetter.core.ratelimit.RateLimitDecision;
+import com.buildbetter.core.ratelimit.RateLimiter;
 import com.buildbetter.entities.concretes.User;
 import com.buildbetter.enums.UsageMetricType;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,43 +15,21 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final UsageTrackingService usageTrackingService;
-    private final OrganizationService organizationService;
-
-    // In-memory rate limiting (for production, use Redis)
-    private final ConcurrentHashMap<String, RateLimitInfo> rateLimitMap = new ConcurrentHashMap<>();
-
-    private static class RateLimitInfo {
-        int count;
-        LocalDateTime windowStart;
-
-        RateLimitInfo() {
-            this.count = 1;
-            this.windowStart = LocalDateTime.now();
-        }
-
-        void increment() {
-            this.count++;
-        }
-
-        boolean isExpired(int windowMinutes) {
-            return ChronoUnit.MINUTES.between(windowStart, LocalDateTime.now()) >= windowMinutes;
-        }
+    private static final long WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
 
-        void reset() {
-            this.count = 1;
-            this.windowStart = LocalDateTime.now();
-        }
-    }
+    private final UsageTrackingService usageTrackingService;
+    private final EntitlementService entitlementService;
+    private final RateLimiter rateLimiter;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
@@ -73,23 +52,15 @@ public class RateLimitInterceptor implements HandlerInterceptor {
             usageTrackingService.incrementUsage(organizationId, UsageMetricType.API_CALLS);
 
             // Check rate limit
-            String rateLimitKey = organizationId + ":" + LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
-            RateLimitInfo info = rateLimitMap.computeIfAbsent(rateLimitKey, k -> new RateLimitInfo());
-
-            int windowMinutes = 60;
             int maxRequests = getMaxRequestsPerHour(organizationId);
+            RateLimitDecision decision = rateLimiter.tryAcquire(organizationId, maxRequests, WINDOW_MILLIS,
+                    System.currentTimeMillis());
 
-            if (info.isExpired(windowMinutes)) {
-                info.reset();
-            } else {
-                info.increment();
-            }
-
-            if (info.count > maxRequests) {
+            if (!decision.allowed()) {
                 response.setStatus(429); // Too Many Requests
                 response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequests));
                 response.setHeader("X-RateLimit-Remaining", "0");
-                response.setHeader("X-RateLimit-Reset", String.valueOf(info.windowStart.plus(windowMinutes, ChronoUnit.MINUTES)));
+                response.setHeader("X-RateLimit-Reset", formatReset(decision.resetAtMillis()));
                 response.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
                 log.warn("Rate limit exceeded for organization: {}", organizationId);
                 return false;
@@ -97,7 +68,7 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 
             // Add rate limit headers
             response.setHeader("X-RateLimit-Limit", String.valueOf(maxRequests));
-            response.setHeader("X-RateLimit-Remaining", String.valueOf(maxRequests - info.count));
+            response.setHeader("X-RateLimit-Remaining", String.valueOf(decision.remaining()));
         }
 
         return true;
@@ -105,17 +76,18 @@ public class RateLimitInterceptor implements HandlerInterceptor {
 
     private int getMaxRequestsPerHour(String organizationId) {
         try {
-            Organization organization = organizationService.getOrganizationById(organizationId);
-            if (organization.getSubscription() != null && organization.getSubscription().getPlan() != null) {
-                Integer limit = organization.getSubscription().getPlan().getMaxApiCallsPerHour();
-                return limit != null ? limit : 1000; // Default limit
-            }
+            Integer limit = entitlementService.getEntitlements(organizationId).getMaxApiCallsPerHour();
+            return limit != null ? limit : 1000; // Default limit
         } catch (Exception e) {
             log.error("Error fetching organization rate limit", e);
         }
         return 1000; // Default
     }
 
+    private String formatReset(long resetAtMillis) {
+        return String.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(resetAtMillis), ZoneId.systemDefault()));
+    }
+
     private boolean isPublicEndpoint(String path) {
         return path.startsWith("/api/v1/auth/") ||
                path.startsWith("/swagger-ui/") ||
@@ -0,0 +1,65 @@
+package com.buildbetter.core.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared optimistic update loop: read the state, compute the next one, CAS it in and retry on
+ * contention. Idle keys are swept from the store on the request path, at most once per sweep
+ * interval and by a single caller, so no background thread is required.
+ */
+@Slf4j
+public abstract class AbstractRateLimiter implements RateLimiter {
+
+    private final RateLimiterStore store;
+    private final long idleEvictionMillis;
+    private final long sweepIntervalMillis;
+    private final AtomicLong nextSweepAtMillis = new AtomicLong();
+
+    protected AbstractRateLimiter(RateLimiterStore store, long idleEvictionMillis, long sweepIntervalMillis) {
+        this.store = store;
+        this.idleEvictionMillis = idleEvictionMillis;
+        this.sweepIntervalMillis = sweepIntervalMillis;
+    }
+
+    protected record Step(LimiterState next, RateLimitDecision decision) {
+    }
+
+    /**
+     * Computes the decision for one request.
+     *
+     * @param current stored state, or null for a new key
+     * @return the decision plus the state to store, or a null state if nothing needs writing
+     */
+    protected abstract Step apply(LimiterState current, long limit, long windowMillis, long nowMillis);
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, long limit, long windowMillis, long nowMillis) {
+        evictIdleKeysIfDue(nowMillis);
+
+        while (true) {
+            LimiterState current = store.get(key);
+            Step step = apply(current, limit, windowMillis, nowMillis);
+            if (step.next() == null || store.compareAndSet(key, current, step.next())) {
+                return step.decision();
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    public int getTrackedKeys() {
+        return store.size();
+    }
+
+    private void evictIdleKeysIfDue(long nowMillis) {
+        long due = nextSweepAtMillis.get();
+        if (nowMillis < due || !nextSweepAtMillis.compareAndSet(due, nowMillis + sweepIntervalMillis)) {
+            return;
+        }
+        int evicted = store.evictIdle(nowMillis - idleEvictionMillis);
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit keys", evicted);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.buildbetter.core.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single node store. States are compared by identity, so a CAS only succeeds against the
+ * exact instance that was read.
+ */
+public class InProcessRateLimiterStore implements RateLimiterStore {
+
+    private final ConcurrentHashMap<String, LimiterState> states = new ConcurrentHashMap<>();
+
+    @Override
+    public LimiterState get(String key) {
+        return states.get(key);
+    }
+
+    @Override
+    public boolean compareAndSet(String key, LimiterState expected, LimiterState update) {
+        if (expected == null) {
+            return states.putIfAbsent(key, update) == null;
+        }
+        return states.replace(key, expected, update);
+    }
+
+    @Override
+    public int evictIdle(long idleBeforeMillis) {
+        int before = states.size();
+        states.entrySet().removeIf(entry -> entry.getValue().updatedAtMillis() < idleBeforeMillis);
+        return Math.max(0, before - states.size());
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+}
@@ -0,0 +1,31 @@
+package com.buildbetter.core.ratelimit;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable per-key limiter state. Limiters never mutate a state in place; they build a new
+ * one and swap it in with {@link RateLimiterStore#compareAndSet}, which keeps the per-key
+ * update path lock-free.
+ *
+ * @param updatedAtMillis last time the state was written, used for idle eviction
+ * @param values          algorithm specific slots (token counts, window buckets, ...)
+ */
+public record LimiterState(long updatedAtMillis, long[] values) {
+
+    public String encode() {
+        return updatedAtMillis + ":" + Arrays.stream(values)
+                .mapToObj(Long::toString)
+                .collect(Collectors.joining(","));
+    }
+
+    public static LimiterState decode(String encoded) {
+        int separator = encoded.indexOf(':');
+        long updatedAt = Long.parseLong(encoded.substring(0, separator));
+        String body = encoded.substring(separator + 1);
+        long[] values = body.isEmpty()
+                ? new long[0]
+                : Arrays.stream(body.split(",")).mapToLong(Long::parseLong).toArray();
+        return new LimiterState(updatedAt, values);
+    }
+}
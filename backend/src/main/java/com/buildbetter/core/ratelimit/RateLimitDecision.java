@@ -0,0 +1,12 @@
+package com.buildbetter.core.ratelimit;
+
+/**
+ * Outcome of a single rate limit check.
+ *
+ * @param allowed      whether the request may proceed
+ * @param limit        configured number of requests per window
+ * @param remaining    requests still available after this one
+ * @param resetAtMillis epoch millis at which the full quota is available again
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, long resetAtMillis) {
+}
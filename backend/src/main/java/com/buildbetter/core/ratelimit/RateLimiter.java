@@ -0,0 +1,17 @@
+package com.buildbetter.core.ratelimit;
+
+/**
+ * Rate limiting algorithm. Implementations keep all per-key state in a {@link RateLimiterStore}
+ * and must be safe to call from any number of request threads.
+ */
+public interface RateLimiter {
+
+    /**
+     * Consumes one permit for the key if the quota allows it.
+     *
+     * @param limit        permits per window
+     * @param windowMillis window length
+     * @param nowMillis    current time, read once by the caller
+     */
+    RateLimitDecision tryAcquire(String key, long limit, long windowMillis, long nowMillis);
+}
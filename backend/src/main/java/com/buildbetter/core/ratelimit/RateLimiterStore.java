@@ -0,0 +1,29 @@
+package com.buildbetter.core.ratelimit;
+
+/**
+ * Storage SPI for limiter state. Implementations only need atomic compare-and-set on a single
+ * key, which maps directly onto a ConcurrentHashMap in-process or onto WATCH/MULTI or a
+ * script in a shared key-value store.
+ */
+public interface RateLimiterStore {
+
+    /**
+     * @return the current state for the key, or null if none is stored
+     */
+    LimiterState get(String key);
+
+    /**
+     * Atomically replaces the state for the key if it still equals {@code expected}.
+     * A null {@code expected} means the key must be absent.
+     */
+    boolean compareAndSet(String key, LimiterState expected, LimiterState update);
+
+    /**
+     * Removes every key that has not been written since {@code idleBeforeMillis}.
+     *
+     * @return the number of evicted keys
+     */
+    int evictIdle(long idleBeforeMillis);
+
+    int size();
+}
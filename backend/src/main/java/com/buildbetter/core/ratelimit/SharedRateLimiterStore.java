@@ -0,0 +1,78 @@
+package com.buildbetter.core.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for a shared key-value store (Redis or similar) so several limiter nodes can
+ * enforce one quota. Values are kept in their encoded string form and compared by value, the
+ * same way a remote CAS would see them, and every key carries a TTL like a Redis EXPIRE.
+ * Instances created with the same namespace share state, which lets several nodes be simulated
+ * inside one JVM. Swapping this for a networked client only requires another
+ * {@link RateLimiterStore} implementation.
+ */
+public class SharedRateLimiterStore implements RateLimiterStore {
+
+    private static final ConcurrentHashMap<String, ConcurrentHashMap<String, Entry>> NAMESPACES =
+            new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final long ttlMillis;
+
+    private record Entry(String value, long expiresAtMillis) {
+    }
+
+    public SharedRateLimiterStore(String namespace, long ttlMillis) {
+        this.entries = NAMESPACES.computeIfAbsent(namespace, ns -> new ConcurrentHashMap<>());
+        this.ttlMillis = ttlMillis;
+    }
+
+    @Override
+    public LimiterState get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return LimiterState.decode(entry.value());
+    }
+
+    @Override
+    public boolean compareAndSet(String key, LimiterState expected, LimiterState update) {
+        Entry next = new Entry(update.encode(), update.updatedAtMillis() + ttlMillis);
+        if (expected == null) {
+            Entry current = entries.get(key);
+            if (current != null && current.expiresAtMillis() < System.currentTimeMillis()) {
+                return entries.replace(key, current, next);
+            }
+            return entries.putIfAbsent(key, next) == null;
+        }
+
+        String expectedValue = expected.encode();
+        boolean[] swapped = new boolean[1];
+        entries.computeIfPresent(key, (k, current) -> {
+            if (current.value().equals(expectedValue)) {
+                swapped[0] = true;
+                return next;
+            }
+            return current;
+        });
+        return swapped[0];
+    }
+
+    @Override
+    public int evictIdle(long idleBeforeMillis) {
+        long now = System.currentTimeMillis();
+        int before = entries.size();
+        entries.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() < now
+                || entry.getValue().expiresAtMillis() - ttlMillis < idleBeforeMillis);
+        return Math.max(0, before - entries.size());
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,58 @@
+package com.buildbetter.core.ratelimit;
+
+/**
+ * Sliding window that counts requests over the trailing window. Instead of one timestamp per
+ * request, the log is kept as a ring of {@value #SLOTS} sub-window counters, which bounds the
+ * state size regardless of the limit while keeping the window boundary accurate to
+ * {@code window / SLOTS}.
+ * <p>
+ * State layout: {@code [headSlot, count_0, ..., count_(SLOTS-1)]} where {@code headSlot} is the
+ * absolute index ({@code millis / slotMillis}) of the newest slot that has been written.
+ */
+public class SlidingWindowLogRateLimiter extends AbstractRateLimiter {
+
+    private static final int SLOTS = 60;
+
+    public SlidingWindowLogRateLimiter(RateLimiterStore store, long idleEvictionMillis, long sweepIntervalMillis) {
+        super(store, idleEvictionMillis, sweepIntervalMillis);
+    }
+
+    @Override
+    protected Step apply(LimiterState current, long limit, long windowMillis, long nowMillis) {
+        long slotMillis = Math.max(1L, windowMillis / SLOTS);
+        long nowSlot = nowMillis / slotMillis;
+
+        long[] values = new long[SLOTS + 1];
+        if (current != null && current.values().length == SLOTS + 1) {
+            long headSlot = current.values()[0];
+            long age = nowSlot - headSlot;
+            if (age < SLOTS) {
+                System.arraycopy(current.values(), 1, values, 1, SLOTS);
+                // Clear the slots that rolled out of the window since the last write
+                for (long slot = headSlot + 1; slot <= nowSlot; slot++) {
+                    values[1 + (int) (slot % SLOTS)] = 0L;
+                }
+            }
+        }
+        values[0] = nowSlot;
+
+        long total = 0L;
+        long oldestSlot = nowSlot;
+        for (long slot = nowSlot - SLOTS + 1; slot <= nowSlot; slot++) {
+            long count = values[1 + (int) (Math.floorMod(slot, SLOTS))];
+            if (count > 0 && slot < oldestSlot) {
+                oldestSlot = slot;
+            }
+            total += count;
+        }
+        long resetAt = (oldestSlot + SLOTS) * slotMillis;
+
+        if (total >= limit) {
+            return new Step(null, new RateLimitDecision(false, limit, 0L, resetAt));
+        }
+
+        values[1 + (int) (nowSlot % SLOTS)]++;
+        LimiterState next = new LimiterState(nowMillis, values);
+        return new Step(next, new RateLimitDecision(true, limit, limit - total - 1, resetAt));
+    }
+}
@@ -0,0 +1,39 @@
+package com.buildbetter.core.ratelimit;
+
+/**
+ * Token bucket holding up to {@code limit} tokens that refills continuously at
+ * {@code limit / window}. Tokens are stored in fixed point to avoid losing fractional refills.
+ * <p>
+ * State layout: {@code [scaledTokens, lastRefillMillis]}.
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter {
+
+    private static final long SCALE = 1_000L;
+
+    public TokenBucketRateLimiter(RateLimiterStore store, long idleEvictionMillis, long sweepIntervalMillis) {
+        super(store, idleEvictionMillis, sweepIntervalMillis);
+    }
+
+    @Override
+    protected Step apply(LimiterState current, long limit, long windowMillis, long nowMillis) {
+        long capacity = limit * SCALE;
+        long tokens = capacity;
+
+        if (current != null) {
+            long lastRefill = current.values()[1];
+            long elapsed = Math.max(0L, nowMillis - lastRefill);
+            long refill = elapsed >= windowMillis ? capacity : elapsed * capacity / windowMillis;
+            tokens = Math.min(capacity, current.values()[0] + refill);
+        }
+
+        if (tokens < SCALE) {
+            long resetAt = nowMillis + (capacity - tokens) * windowMillis / Math.max(1L, capacity);
+            return new Step(null, new RateLimitDecision(false, limit, 0L, resetAt));
+        }
+
+        tokens -= SCALE;
+        long resetAt = nowMillis + (capacity - tokens) * windowMillis / Math.max(1L, capacity);
+        LimiterState next = new LimiterState(nowMillis, new long[]{tokens, nowMillis});
+        return new Step(next, new RateLimitDecision(true, limit, tokens / SCALE, resetAt));
+    }
+}
@@ -0,0 +1,225 @@
+package com.buildbetter.core.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory inverted index with a sorted term dictionary, so a query term can be expanded to
+ * every indexed term it prefixes and to terms within a small edit distance. Documents must
+ * match every query term; scores are the summed field weights of the best match per query
+ * term, decayed by document age.
+ * <p>
+ * Updates replace a document's postings under a write lock; searches share a read lock.
+ */
+public class InvertedIndex {
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.75f;
+    private static final float FUZZY_MATCH = 0.5f;
+    private static final int MAX_EXPANSIONS = 64;
+
+    public record Document(String key, Map<String, Float> termWeights, long timestampMillis) {
+    }
+
+    public record Hit(String key, double score) {
+    }
+
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(document.key());
+            documents.put(document.key(), document);
+            for (String term : document.termWeights().keySet()) {
+                postings.computeIfAbsent(term, t -> new HashSet<>()).add(document.key());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeIf(Predicate<String> keyFilter) {
+        lock.writeLock().lock();
+        try {
+            for (String key : new ArrayList<>(documents.keySet())) {
+                if (keyFilter.test(key)) {
+                    removeInternal(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param halfLifeMillis age at which a document's score is 75% of a brand-new one's
+     */
+    public List<Hit> search(List<String> queryTerms, Predicate<String> keyFilter, int limit, long nowMillis,
+                            long halfLifeMillis) {
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<String, Double> termScores = scoreTerm(queryTerm, keyFilter);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(scores.size());
+            for (Map.Entry<String, Double> entry : scores.entrySet()) {
+                long age = Math.max(0, nowMillis - documents.get(entry.getKey()).timestampMillis());
+                double recency = 0.5 + 0.5 * Math.pow(0.5, (double) age / halfLifeMillis);
+                hits.add(new Hit(entry.getKey(), entry.getValue() * recency));
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best weight per document for one query term across its exact, prefix and fuzzy expansions
+    private Map<String, Double> scoreTerm(String queryTerm, Predicate<String> keyFilter) {
+        Map<String, Double> scores = new HashMap<>();
+        int expansions = 0;
+
+        for (Map.Entry<String, Set<String>> entry : postings.tailMap(queryTerm, true).entrySet()) {
+            String term = entry.getKey();
+            if (!term.startsWith(queryTerm) || expansions++ >= MAX_EXPANSIONS) {
+                break;
+            }
+            collect(scores, term, entry.getValue(), term.length() == queryTerm.length() ? EXACT_MATCH : PREFIX_MATCH,
+                    keyFilter);
+        }
+
+        int maxEdits = queryTerm.length() >= 8 ? 2 : queryTerm.length() >= 4 ? 1 : 0;
+        if (maxEdits > 0) {
+            // A typo in the first letter is not corrected; that keeps the scan to one slice of the dictionary
+            String first = queryTerm.substring(0, 1);
+            for (Map.Entry<String, Set<String>> entry : postings.subMap(first, true, first + Character.MAX_VALUE, false)
+                    .entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - queryTerm.length()) > maxEdits || term.startsWith(queryTerm)) {
+                    continue;
+                }
+                if (editDistance(queryTerm, term, maxEdits) <= maxEdits) {
+                    collect(scores, term, entry.getValue(), FUZZY_MATCH, keyFilter);
+                }
+            }
+        }
+        return scores;
+    }
+
+    private void collect(Map<String, Double> scores, String term, Set<String> keys, float matchWeight,
+                         Predicate<String> keyFilter) {
+        for (String key : keys) {
+            if (keyFilter != null && !keyFilter.test(key)) {
+                continue;
+            }
+            double score = matchWeight * documents.get(key).termWeights().get(term);
+            scores.merge(key, score, Math::max);
+        }
+    }
+
+    private void removeInternal(String key) {
+        Document previous = documents.remove(key);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.termWeights().keySet()) {
+            Set<String> keys = postings.get(term);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Optimal string alignment distance, abandoned as soon as every cell of a row exceeds
+     * {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int[] previousRow = new int[b.length() + 1];
+        int[] row = new int[b.length() + 1];
+        int[] beforePrevious = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previousRow[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            row[0] = i;
+            int rowMin = row[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(row[j - 1] + 1, previousRow[j] + 1), previousRow[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, beforePrevious[j - 2] + 1);
+                }
+                row[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = beforePrevious;
+            beforePrevious = previousRow;
+            previousRow = row;
+            row = recycled;
+        }
+        return previousRow[b.length()];
+    }
+}
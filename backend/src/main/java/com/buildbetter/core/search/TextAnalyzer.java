@@ -0,0 +1,91 @@
+package com.buildbetter.core.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns catalog text and search queries into index terms for the languages the frontend ships
+ * (en, de, nl, tr). Text is case folded with the Turkish dotted/dotless i handled explicitly,
+ * German sharp s is expanded and other diacritics are stripped, so "Çatı", "çati" and "CATI"
+ * all produce the same term. Stop words of all four languages are dropped, since an ad's
+ * language is not known up front.
+ */
+public final class TextAnalyzer {
+
+    private static final int MIN_TERM_LENGTH = 2;
+    private static final int MAX_TERM_LENGTH = 40;
+
+    // Lists overlap ("de", "en", "die"...), hence copyOf rather than Set.of
+    private static final Set<String> STOP_WORDS = Set.copyOf(List.of(
+            // en
+            "the", "and", "for", "with", "from", "that", "this", "are", "was", "you", "your", "our", "all", "any",
+            "can", "not", "but", "has", "have", "will", "into", "of", "to", "in", "on", "at", "by", "or", "an", "is",
+            "it", "be", "as",
+            // de
+            "der", "die", "das", "und", "oder", "mit", "fur", "von", "den", "dem", "des", "ein", "eine", "einer",
+            "eines", "einem", "einen", "ist", "sind", "auf", "aus", "bei", "zu", "zum", "zur", "im", "am", "an",
+            "nicht", "auch", "wir", "sie", "es", "ich", "du",
+            // nl
+            "de", "het", "een", "en", "van", "voor", "met", "op", "te", "aan", "bij", "uit", "naar", "dat", "die",
+            "wij", "ze", "zijn", "niet", "ook", "om", "als", "of",
+            // tr
+            "ve", "ile", "bir", "bu", "su", "icin", "da", "de", "ki", "mi", "mu", "ne", "gibi", "daha", "cok",
+            "olan", "olarak", "veya", "ya", "ama", "en"));
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int length = folded.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded, start, i);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    static String fold(String text) {
+        StringBuilder mapped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                // Locale.ROOT lower casing would turn "I" into "i" but leave Turkish "ı" and "İ" apart
+                case 'I', 'İ', 'ı' -> mapped.append('i');
+                case 'ß', 'ẞ' -> mapped.append("ss");
+                default -> mapped.append(Character.toLowerCase(c));
+            }
+        }
+        String decomposed = Normalizer.normalize(mapped, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString();
+    }
+
+    private static void addTerm(List<String> terms, String text, int start, int end) {
+        if (end - start < MIN_TERM_LENGTH) {
+            return;
+        }
+        String term = text.substring(start, Math.min(end, start + MAX_TERM_LENGTH));
+        if (!STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.buildbetter.core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keeps objects as files under a root directory, one file per key. Writes go to a staging file
+ * in the root and are moved into place atomically, so readers never see a partial file. Names
+ * starting with a dot are staging files and are never listed.
+ */
+public class FileSystemStorageDriver implements ObjectStorageDriver {
+
+    public static final String NAME = "filesystem";
+
+    private static final String STAGING_PREFIX = ".upload-";
+    private static final String STAGING_SUFFIX = ".part";
+
+    private final Path root;
+
+    public FileSystemStorageDriver(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+        // Staging files of uploads interrupted by a shutdown
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.root, STAGING_PREFIX + "*" + STAGING_SUFFIX)) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(resolve(key), BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) {
+                return Optional.empty();
+            }
+            return Optional.of(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        Path stagingFile = createStagingFile();
+        try {
+            Files.copy(content, stagingFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(stagingFile);
+            throw e;
+        }
+        moveIn(key, stagingFile, contentType);
+    }
+
+    @Override
+    public void moveIn(String key, Path stagingFile, String contentType) throws IOException {
+        try {
+            Path target = resolve(key);
+            Files.createDirectories(target.getParent());
+            Files.move(stagingFile, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(stagingFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile(root, STAGING_PREFIX, STAGING_SUFFIX);
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public boolean touch(String key) throws IOException {
+        try {
+            Files.setLastModifiedTime(resolve(key), FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void list(String prefix, Consumer<StoredObject> visitor) throws IOException {
+        // Only the directory the prefix points into needs to be walked
+        int slash = prefix.lastIndexOf('/');
+        Path start = slash < 0 ? root : resolve(prefix.substring(0, slash));
+        if (!Files.isDirectory(start)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(start)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith(".")) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    continue; // deleted while walking
+                }
+                if (!attributes.isRegularFile()) {
+                    continue;
+                }
+                String key = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                if (key.startsWith(prefix)) {
+                    visitor.accept(new StoredObject(key, attributes.size(), attributes.lastModifiedTime().toMillis(), null));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.of(resolve(key));
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignGet(String key, Duration ttl) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<PresignedRequest> presignPut(String key, String contentType, long size, String sha256Base64,
+                                                 Duration ttl) {
+        return Optional.empty();
+    }
+
+    private Path resolve(String key) {
+        if (key.isEmpty() || key.startsWith("/") || key.contains("\\")) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || file.equals(root)) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,102 @@
+package com.buildbetter.core.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Backend SPI for uploaded files. Keys are relative, slash-separated names such as
+ * {@code blobs/ab/cd/<sha256>.jpg}; they mean the same thing on every backend, so rows that
+ * reference them do not change when the files move to another backend.
+ * <p>
+ * Drivers only need whole-object put, get, stat, delete and prefix listing, which maps directly
+ * onto a directory tree or onto the S3 object API.
+ */
+public interface ObjectStorageDriver {
+
+    /**
+     * The backend name used in configuration, e.g. {@code filesystem} or {@code s3}.
+     */
+    String getName();
+
+    /**
+     * @return size, modification time and content type of the object, or empty if it does not
+     * exist. The content type is null where the backend does not record it.
+     */
+    Optional<StoredObject> stat(String key) throws IOException;
+
+    default boolean exists(String key) throws IOException {
+        return stat(key).isPresent();
+    }
+
+    /**
+     * Writes {@code size} bytes from {@code content}, replacing any object with the same key.
+     */
+    void put(String key, InputStream content, long size, String contentType) throws IOException;
+
+    /**
+     * Takes over a local file created by {@link #createStagingFile()}. The file is gone
+     * afterwards, whether the call succeeds or not.
+     */
+    void moveIn(String key, Path stagingFile, String contentType) throws IOException;
+
+    /**
+     * A local temp file that {@link #moveIn} can take over cheaply.
+     */
+    Path createStagingFile() throws IOException;
+
+    /**
+     * @throws java.nio.file.NoSuchFileException if the object does not exist
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * @return whether an object was deleted
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Sets the modification time of an existing object to now.
+     *
+     * @return false if the object does not exist
+     */
+    boolean touch(String key) throws IOException;
+
+    /**
+     * Calls {@code visitor} for every object whose key starts with {@code prefix}, skipping
+     * staging files. Order is unspecified.
+     */
+    void list(String prefix, Consumer<StoredObject> visitor) throws IOException;
+
+    /**
+     * The object as a local file, for zero-copy serving and image processing; empty for remote
+     * backends.
+     */
+    Optional<Path> localPath(String key);
+
+    /**
+     * A URL that lets a client download the object directly from the backend until it expires;
+     * empty if the backend cannot hand out such URLs.
+     */
+    Optional<PresignedRequest> presignGet(String key, Duration ttl);
+
+    /**
+     * A URL that lets a client upload the object directly to the backend. The client must send
+     * {@link PresignedRequest#headers()} with the request; a body that is not exactly
+     * {@code size} bytes or whose SHA-256 differs from {@code sha256Base64} is rejected by the
+     * backend.
+     */
+    Optional<PresignedRequest> presignPut(String key, String contentType, long size, String sha256Base64,
+                                          Duration ttl);
+
+    record StoredObject(String key, long size, long lastModified, String contentType) {
+    }
+
+    record PresignedRequest(String method, URI uri, Map<String, String> headers, long expiresAt) {
+    }
+}
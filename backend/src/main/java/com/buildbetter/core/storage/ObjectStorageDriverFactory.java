@@ -0,0 +1,62 @@
+package com.buildbetter.core.storage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds drivers by backend name from one set of settings, so the active backend and a
+ * migration source or target can be open at the same time. Each backend is built once.
+ */
+public class ObjectStorageDriverFactory {
+
+    private final String filesystemRoot;
+    private final String s3Endpoint;
+    private final String s3Region;
+    private final String s3Bucket;
+    private final String s3AccessKey;
+    private final String s3SecretKey;
+    private final boolean s3PathStyle;
+    private final Duration s3Timeout;
+
+    private final ConcurrentHashMap<String, ObjectStorageDriver> drivers = new ConcurrentHashMap<>();
+
+    public ObjectStorageDriverFactory(String filesystemRoot, String s3Endpoint, String s3Region, String s3Bucket,
+                                      String s3AccessKey, String s3SecretKey, boolean s3PathStyle,
+                                      Duration s3Timeout) {
+        this.filesystemRoot = filesystemRoot;
+        this.s3Endpoint = s3Endpoint;
+        this.s3Region = s3Region;
+        this.s3Bucket = s3Bucket;
+        this.s3AccessKey = s3AccessKey;
+        this.s3SecretKey = s3SecretKey;
+        this.s3PathStyle = s3PathStyle;
+        this.s3Timeout = s3Timeout;
+    }
+
+    /**
+     * @throws IllegalArgumentException for an unknown backend name
+     */
+    public ObjectStorageDriver get(String backend) {
+        String name = backend == null ? "" : backend.trim().toLowerCase();
+        return drivers.computeIfAbsent(name, this::create);
+    }
+
+    private ObjectStorageDriver create(String name) {
+        switch (name) {
+            case FileSystemStorageDriver.NAME:
+                try {
+                    return new FileSystemStorageDriver(Paths.get(filesystemRoot));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not initialize storage directory " + filesystemRoot, e);
+                }
+            case S3StorageDriver.NAME:
+                return new S3StorageDriver(s3Endpoint, s3Region, s3Bucket, s3AccessKey, s3SecretKey,
+                        s3PathStyle, s3Timeout);
+            default:
+                throw new IllegalArgumentException("Unknown storage backend: " + name);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.buildbetter.core.storage;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * AWS Signature Version 4 for the S3 API, both as an Authorization header and as presigned
+ * query parameters. Paths are expected already encoded the S3 way, i.e. every segment encoded
+ * once and slashes kept.
+ */
+public class S3RequestSigner {
+
+    public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+    public static final String EMPTY_PAYLOAD_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+    private static final String SERVICE = "s3";
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SCOPE_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd").withZone(ZoneOffset.UTC);
+
+    private final String accessKey;
+    private final String secretKey;
+    private final String region;
+
+    public S3RequestSigner(String accessKey, String secretKey, String region) {
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.region = region;
+    }
+
+    /**
+     * Adds {@code x-amz-date} and {@code x-amz-content-sha256} to {@code headers}, which must
+     * already hold {@code host}, and returns the Authorization header value. Header names must
+     * be lower case.
+     */
+    public String sign(String method, String path, Map<String, String> query, SortedMap<String, String> headers,
+                       String payloadHash, Instant time) {
+        headers.put("x-amz-date", AMZ_DATE.format(time));
+        headers.put("x-amz-content-sha256", payloadHash);
+        String signedHeaders = String.join(";", headers.keySet());
+        String signature = signature(method, path, query, headers, payloadHash, time);
+        return ALGORITHM + " Credential=" + accessKey + "/" + scope(time)
+                + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature;
+    }
+
+    /**
+     * Returns {@code query} plus the {@code X-Amz-*} parameters of a presigned URL valid for
+     * {@code expires} from {@code time}. The client has to send every header in {@code headers}
+     * with exactly these values.
+     */
+    public SortedMap<String, String> presign(String method, String path, Map<String, String> query,
+                                             SortedMap<String, String> headers, Instant time, Duration expires) {
+        SortedMap<String, String> signed = new TreeMap<>(query);
+        signed.put("X-Amz-Algorithm", ALGORITHM);
+        signed.put("X-Amz-Credential", accessKey + "/" + scope(time));
+        signed.put("X-Amz-Date", AMZ_DATE.format(time));
+        signed.put("X-Amz-Expires", Long.toString(expires.toSeconds()));
+        signed.put("X-Amz-SignedHeaders", String.join(";", headers.keySet()));
+        signed.put("X-Amz-Signature", signature(method, path, signed, headers, UNSIGNED_PAYLOAD, time));
+        return signed;
+    }
+
+    /**
+     * Percent-encodes everything but unreserved characters, as SigV4 requires; {@code '/'} is
+     * kept when encoding a path.
+     */
+    public static String encode(String value, boolean path) {
+        StringBuilder encoded = new StringBuilder(value.length() + 16);
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.' || c == '~' || (path && c == '/')) {
+                encoded.append(c);
+            } else {
+                encoded.append('%').append(Character.toUpperCase(Character.forDigit((c >> 4) & 0xf, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Encoded {@code name=value} pairs sorted by name, which is also a valid URL query string.
+     */
+    public static String canonicalQuery(Map<String, String> query) {
+        List<String> pairs = new ArrayList<>(query.size());
+        for (Map.Entry<String, String> parameter : query.entrySet()) {
+            pairs.add(encode(parameter.getKey(), false) + "=" + encode(parameter.getValue(), false));
+        }
+        pairs.sort(null);
+        return String.join("&", pairs);
+    }
+
+    public static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private String signature(String method, String path, Map<String, String> query,
+                             SortedMap<String, String> headers, String payloadHash, Instant time) {
+        StringBuilder canonicalHeaders = new StringBuilder();
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            canonicalHeaders.append(header.getKey()).append(':')
+                    .append(header.getValue().trim().replaceAll(" +", " ")).append('\n');
+        }
+        String canonicalRequest = method + "\n"
+                + path + "\n"
+                + canonicalQuery(query) + "\n"
+                + canonicalHeaders + "\n"
+                + String.join(";", headers.keySet()) + "\n"
+                + payloadHash;
+        String stringToSign = ALGORITHM + "\n"
+                + AMZ_DATE.format(time) + "\n"
+                + scope(time) + "\n"
+                + sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+
+        byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), SCOPE_DATE.format(time));
+        key = hmac(key, region);
+        key = hmac(key, SERVICE);
+        key = hmac(key, "aws4_request");
+        return HexFormat.of().formatHex(hmac(key, stringToSign));
+    }
+
+    private String scope(Instant time) {
+        return SCOPE_DATE.format(time) + "/" + region + "/" + SERVICE + "/aws4_request";
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
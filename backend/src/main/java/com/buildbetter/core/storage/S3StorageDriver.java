@@ -0,0 +1,341 @@
+package com.buildbetter.core.storage;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Talks to any service speaking the S3 REST API (AWS S3, MinIO, Ceph RGW, ...) with the JDK
+ * HTTP client and SigV4 signing. Path-style addressing, the default, is what a local MinIO
+ * expects; turn it off for virtual-hosted buckets on AWS.
+ * <p>
+ * Object keys map one to one onto S3 keys. Touching an object copies it onto itself, which is
+ * the only way S3 offers to move its Last-Modified forward.
+ */
+public class S3StorageDriver implements ObjectStorageDriver {
+
+    public static final String NAME = "s3";
+
+    private static final int MAX_ERROR_BODY = 512;
+
+    private final String scheme;
+    private final String host;
+    private final String basePath;
+    private final String bucket;
+    private final boolean pathStyle;
+    private final Duration timeout;
+    private final S3RequestSigner signer;
+    private final HttpClient httpClient;
+
+    public S3StorageDriver(String endpoint, String region, String bucket, String accessKey, String secretKey,
+                           boolean pathStyle, Duration timeout) {
+        URI uri = URI.create(endpoint);
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            throw new IllegalArgumentException("S3 endpoint must be an absolute URL: " + endpoint);
+        }
+        if (bucket == null || bucket.isBlank()) {
+            throw new IllegalArgumentException("S3 bucket is not configured");
+        }
+        int port = uri.getPort();
+        boolean defaultPort = port == -1 || ("https".equals(uri.getScheme()) && port == 443)
+                || ("http".equals(uri.getScheme()) && port == 80);
+        this.scheme = uri.getScheme();
+        this.bucket = bucket;
+        this.pathStyle = pathStyle;
+        // The Host header is part of the signature and must be what the client actually sends
+        String endpointHost = uri.getHost() + (defaultPort ? "" : ":" + port);
+        this.host = pathStyle ? endpointHost : bucket + "." + endpointHost;
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        this.basePath = path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+        this.timeout = timeout;
+        this.signer = new S3RequestSigner(accessKey, secretKey, region);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Optional<StoredObject> stat(String key) throws IOException {
+        HttpResponse<Void> response = send("HEAD", objectPath(key), Map.of(), new TreeMap<>(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("S3 HEAD " + key + " failed with status " + response.statusCode());
+        }
+        long size = response.headers().firstValueAsLong("Content-Length").orElse(0);
+        long lastModified = response.headers().firstValue("Last-Modified")
+                .map(value -> ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli())
+                .orElse(0L);
+        String contentType = response.headers().firstValue("Content-Type").orElse(null);
+        return Optional.of(new StoredObject(key, size, lastModified, contentType));
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) throws IOException {
+        HttpRequest.BodyPublisher body = size == 0 ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.fromPublisher(HttpRequest.BodyPublishers.ofInputStream(() -> content), size);
+        upload(key, body, contentType);
+    }
+
+    @Override
+    public void moveIn(String key, Path stagingFile, String contentType) throws IOException {
+        try {
+            upload(key, HttpRequest.BodyPublishers.ofFile(stagingFile), contentType);
+        } finally {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+
+    @Override
+    public Path createStagingFile() throws IOException {
+        return Files.createTempFile("s3-upload-", ".part");
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        HttpResponse<InputStream> response = send("GET", objectPath(key), Map.of(), new TreeMap<>(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.ofInputStream());
+        if (response.statusCode() == 200) {
+            return response.body();
+        }
+        String error = errorBody(response.body());
+        if (response.statusCode() == 404) {
+            throw new NoSuchFileException(key);
+        }
+        throw new IOException("S3 GET " + key + " failed with status " + response.statusCode() + ": " + error);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        // S3 answers 204 whether or not the key existed
+        if (!exists(key)) {
+            return false;
+        }
+        HttpResponse<String> response = send("DELETE", objectPath(key), Map.of(), new TreeMap<>(),
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 204 && response.statusCode() != 200) {
+            throw new IOException("S3 DELETE " + key + " failed with status " + response.statusCode()
+                    + ": " + truncate(response.body()));
+        }
+        return true;
+    }
+
+    @Override
+    public boolean touch(String key) throws IOException {
+        Optional<StoredObject> existing = stat(key);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("x-amz-copy-source", "/" + bucket + "/" + S3RequestSigner.encode(key, true));
+        headers.put("x-amz-metadata-directive", "REPLACE");
+        if (existing.get().contentType() != null) {
+            headers.put("content-type", existing.get().contentType());
+        }
+        HttpResponse<String> response = send("PUT", objectPath(key), Map.of(), headers,
+                HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                HttpResponse.BodyHandlers.ofString());
+        // A copy can fail after the 200 status line has been sent; the error is then in the body
+        if (response.statusCode() == 404) {
+            return false;
+        }
+        if (response.statusCode() != 200 || response.body().contains("<Error>")) {
+            throw new IOException("S3 copy of " + key + " failed with status " + response.statusCode()
+                    + ": " + truncate(response.body()));
+        }
+        return true;
+    }
+
+    @Override
+    public void list(String prefix, Consumer<StoredObject> visitor) throws IOException {
+        String continuationToken = null;
+        do {
+            Map<String, String> query = new TreeMap<>();
+            query.put("list-type", "2");
+            query.put("prefix", prefix);
+            if (continuationToken != null) {
+                query.put("continuation-token", continuationToken);
+            }
+            HttpResponse<byte[]> response = send("GET", bucketPath(), query, new TreeMap<>(),
+                    HttpRequest.BodyPublishers.noBody(), S3RequestSigner.EMPTY_PAYLOAD_SHA256,
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IOException("S3 list of " + prefix + " failed with status " + response.statusCode()
+                        + ": " + truncate(new String(response.body(), StandardCharsets.UTF_8)));
+            }
+            Element result = parseXml(response.body()).getDocumentElement();
+            NodeList contents = result.getElementsByTagName("Contents");
+            for (int i = 0; i < contents.getLength(); i++) {
+                Element object = (Element) contents.item(i);
+                visitor.accept(new StoredObject(
+                        childText(object, "Key"),
+                        Long.parseLong(childText(object, "Size")),
+                        Instant.parse(childText(object, "LastModified")).toEpochMilli(),
+                        null));
+            }
+            continuationToken = "true".equals(childText(result, "IsTruncated"))
+                    ? childText(result, "NextContinuationToken") : null;
+        } while (continuationToken != null);
+    }
+
+    @Override
+    public Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+
+    /**
+     * Signing time is rounded down to half the TTL, so repeated requests for the same object
+     * get the same URL for a while and browsers can cache the response under it.
+     */
+    @Override
+    public Optional<PresignedRequest> presignGet(String key, Duration ttl) {
+        long window = Math.max(1, ttl.toSeconds() / 2);
+        Instant signedAt = Instant.ofEpochSecond(Instant.now().getEpochSecond() / window * window);
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("host", host);
+        String path = objectPath(key);
+        SortedMap<String, String> query = signer.presign("GET", path, Map.of(), headers, signedAt, ttl);
+        return Optional.of(new PresignedRequest("GET", uri(path, query), Map.of(),
+                signedAt.plus(ttl).toEpochMilli()));
+    }
+
+    /**
+     * Content-Length is a signed header, so S3 rejects a body of any other size. Browsers set it
+     * from the body themselves.
+     */
+    @Override
+    public Optional<PresignedRequest> presignPut(String key, String contentType, long size, String sha256Base64,
+                                                 Duration ttl) {
+        Instant signedAt = Instant.now();
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("host", host);
+        headers.put("content-length", Long.toString(size));
+        headers.put("content-type", contentType);
+        headers.put("x-amz-checksum-sha256", sha256Base64);
+        String path = objectPath(key);
+        SortedMap<String, String> query = signer.presign("PUT", path, Map.of(), headers, signedAt, ttl);
+        Map<String, String> clientHeaders = new LinkedHashMap<>();
+        clientHeaders.put("Content-Length", Long.toString(size));
+        clientHeaders.put("Content-Type", contentType);
+        clientHeaders.put("x-amz-checksum-sha256", sha256Base64);
+        return Optional.of(new PresignedRequest("PUT", uri(path, query), clientHeaders,
+                signedAt.plus(ttl).toEpochMilli()));
+    }
+
+    private void upload(String key, HttpRequest.BodyPublisher body, String contentType) throws IOException {
+        TreeMap<String, String> headers = new TreeMap<>();
+        headers.put("content-type", contentType != null ? contentType : "application/octet-stream");
+        HttpResponse<String> response = send("PUT", objectPath(key), Map.of(), headers, body,
+                S3RequestSigner.UNSIGNED_PAYLOAD, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("S3 PUT " + key + " failed with status " + response.statusCode()
+                    + ": " + truncate(response.body()));
+        }
+    }
+
+    private <T> HttpResponse<T> send(String method, String path, Map<String, String> query,
+                                     TreeMap<String, String> headers, HttpRequest.BodyPublisher body,
+                                     String payloadHash, HttpResponse.BodyHandler<T> handler) throws IOException {
+        headers.put("host", host);
+        String authorization = signer.sign(method, path, query, headers, payloadHash, Instant.now());
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path, query))
+                .timeout(timeout)
+                .method(method, body)
+                .header("Authorization", authorization);
+        headers.forEach((name, value) -> {
+            if (!"host".equals(name)) { // set by the client from the URI
+                request.header(name, value);
+            }
+        });
+        try {
+            return httpClient.send(request.build(), handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during S3 " + method + " " + path);
+        }
+    }
+
+    private String bucketPath() {
+        return pathStyle ? basePath + "/" + bucket : basePath + "/";
+    }
+
+    private String objectPath(String key) {
+        if (key.isEmpty() || key.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        String encodedKey = S3RequestSigner.encode(key, true);
+        return pathStyle ? basePath + "/" + bucket + "/" + encodedKey : basePath + "/" + encodedKey;
+    }
+
+    private URI uri(String path, Map<String, String> query) {
+        String queryString = query.isEmpty() ? "" : "?" + S3RequestSigner.canonicalQuery(query);
+        return URI.create(scheme + "://" + host + path + queryString);
+    }
+
+    private static Document parseXml(byte[] xml) throws IOException {
+        try {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            return factory.newDocumentBuilder().parse(new ByteArrayInputStream(xml));
+        } catch (Exception e) {
+            throw new IOException("Could not parse S3 response", e);
+        }
+    }
+
+    private static String childText(Element parent, String name) {
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child instanceof Element element && name.equals(element.getTagName())) {
+                return element.getTextContent();
+            }
+        }
+        return null;
+    }
+
+    private static String errorBody(InputStream body) throws IOException {
+        try (InputStream in = body) {
+            return truncate(new String(in.readNBytes(MAX_ERROR_BODY), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String truncate(String body) {
+        return body.length() > MAX_ERROR_BODY ? body.substring(0, MAX_ERROR_BODY) : body;
+    }
+}
@@ -1,10 +1,395 @@
 package com.buildbetter.core.utilities.detector;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Detects e-mail addresses and phone numbers in chat messages, including common obfuscations
+ * such as "name at domain dot com", "name(at)domain(dot)com" and digits split by spaces or
+ * dashes.
+ * <p>
+ * A message is walked once. Phone numbers are recognised by a hand-written digit scanner;
+ * the precompiled e-mail patterns are only evaluated, anchored, at words that are followed by
+ * an "@" or an "at" separator, so ordinary text never reaches the regex engine.
+ */
 public class ContactInfoDetector {
-    private static final String EMAIL_REGEX ="\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b";
-    private static final String PHONE_REGEX = "\\b\\+?\\d{10,14}\\b";
 
-    public static boolean containsContactInformation(String content){
-        return content.matches(".*(" + EMAIL_REGEX + "|" + PHONE_REGEX + ").*");
+    public enum ContactType {
+        EMAIL,
+        OBFUSCATED_EMAIL,
+        PHONE
+    }
+
+    /**
+     * A detected span, {@code start} inclusive and {@code end} exclusive.
+     */
+    public record ContactMatch(ContactType type, int start, int end) {
+    }
+
+    private static final int MIN_PHONE_DIGITS = 10;
+    private static final int MAX_PHONE_DIGITS = 14;
+    // A number is read a date's width past the longest phone number, so a trailing date is seen whole
+    private static final int MAX_SCANNED_DIGITS = MAX_PHONE_DIGITS + 8;
+
+    private static final char NO_GAP = 0;
+    private static final char SPACE_GAP = ' ';
+    private static final char PAREN_GAP = '(';
+
+    // Possessive: the local part never needs to give characters back to the separator that follows
+    private static final String LOCAL_PART = "[A-Za-z0-9._%+-]++";
+    private static final String LABEL = "[A-Za-z0-9-]+";
+    private static final String TLD = "[A-Za-z]{2,}(?![A-Za-z0-9-])";
+
+    private static final String OBFUSCATED_AT = "(?:\\s*[(\\[{]\\s*(?i:at)\\s*[)\\]}]\\s*|\\s+(?i:at)\\s+|\\s*@\\s*)";
+    private static final String OBFUSCATED_DOT = "(?:\\s*[(\\[{]\\s*(?i:dot)\\s*[)\\]}]\\s*|\\s+(?i:dot)\\s+|\\.)";
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(
+            LOCAL_PART + "@[A-Za-z0-9.-]+\\." + TLD);
+    private static final Pattern OBFUSCATED_EMAIL_PATTERN = Pattern.compile(
+            LOCAL_PART + OBFUSCATED_AT + LABEL + "(?:" + OBFUSCATED_DOT + LABEL + ")*" + OBFUSCATED_DOT + TLD);
+
+    public static boolean containsContactInformation(String content) {
+        boolean[] found = {false};
+        scan(content, match -> found[0] = true, true);
+        return found[0];
+    }
+
+    /**
+     * Streams every match to the consumer in order of appearance without collecting them.
+     */
+    public static void scan(CharSequence content, Consumer<ContactMatch> consumer) {
+        scan(content, consumer, false);
+    }
+
+    public static List<ContactMatch> findContactInformation(CharSequence content) {
+        List<ContactMatch> matches = new ArrayList<>();
+        scan(content, matches::add);
+        return matches;
+    }
+
+    /**
+     * Replaces every detected span with the given replacement.
+     */
+    public static String redact(String content, String replacement) {
+        if (content == null) {
+            return null;
+        }
+        StringBuilder redacted = new StringBuilder(content.length());
+        int[] position = {0};
+        scan(content, match -> {
+            redacted.append(content, position[0], match.start()).append(replacement);
+            position[0] = match.end();
+        });
+        return redacted.append(content, position[0], content.length()).toString();
+    }
+
+    private static void scan(CharSequence content, Consumer<ContactMatch> consumer, boolean stopAtFirst) {
+        if (content == null) {
+            return;
+        }
+        int length = content.length();
+        Matcher emailMatcher = null;
+        Matcher obfuscatedMatcher = null;
+
+        int i = 0;
+        while (i < length) {
+            char c = content.charAt(i);
+            char previous = i > 0 ? content.charAt(i - 1) : ' ';
+
+            if (isLocalChar(c) && !isLocalChar(previous)) {
+                int wordEnd = i;
+                while (wordEnd < length && isLocalChar(content.charAt(wordEnd))) {
+                    wordEnd++;
+                }
+                if (hasAtSeparator(content, wordEnd)) {
+                    if (emailMatcher == null) {
+                        emailMatcher = EMAIL_PATTERN.matcher(content);
+                        obfuscatedMatcher = OBFUSCATED_EMAIL_PATTERN.matcher(content);
+                    }
+                    ContactMatch match = matchAt(emailMatcher, i, length, ContactType.EMAIL);
+                    if (match == null) {
+                        match = matchAt(obfuscatedMatcher, i, length, ContactType.OBFUSCATED_EMAIL);
+                    }
+                    if (match != null) {
+                        consumer.accept(match);
+                        if (stopAtFirst) {
+                            return;
+                        }
+                        i = match.end();
+                        continue;
+                    }
+                }
+            }
+
+            if ((Character.isDigit(c) || c == '+' || c == '(') && !continuesNumber(content, i)) {
+                int phoneEnd = scanPhone(content, i);
+                if (phoneEnd > 0) {
+                    consumer.accept(new ContactMatch(ContactType.PHONE, i, phoneEnd));
+                    if (stopAtFirst) {
+                        return;
+                    }
+                    i = phoneEnd;
+                    continue;
+                }
+            }
+            i++;
+        }
+    }
+
+    private static ContactMatch matchAt(Matcher matcher, int start, int length, ContactType type) {
+        matcher.region(start, length);
+        if (matcher.lookingAt()) {
+            return new ContactMatch(type, start, matcher.end());
+        }
+        return null;
+    }
+
+    /**
+     * Checks for "@", "(at)", "[at]", "{at}" or " at " right after a word.
+     */
+    private static boolean hasAtSeparator(CharSequence content, int position) {
+        int length = content.length();
+        int i = position;
+        while (i < length && Character.isWhitespace(content.charAt(i))) {
+            i++;
+        }
+        if (i >= length) {
+            return false;
+        }
+        char c = content.charAt(i);
+        if (c == '@') {
+            return true;
+        }
+        boolean bracketed = c == '(' || c == '[' || c == '{';
+        if (bracketed) {
+            i++;
+            while (i < length && Character.isWhitespace(content.charAt(i))) {
+                i++;
+            }
+        } else if (i == position) {
+            return false;
+        }
+        if (i + 2 > length
+                || Character.toLowerCase(content.charAt(i)) != 'a'
+                || Character.toLowerCase(content.charAt(i + 1)) != 't') {
+            return false;
+        }
+        i += 2;
+        if (bracketed) {
+            while (i < length && Character.isWhitespace(content.charAt(i))) {
+                i++;
+            }
+            return i < length && (content.charAt(i) == ')' || content.charAt(i) == ']' || content.charAt(i) == '}');
+        }
+        return i < length && Character.isWhitespace(content.charAt(i));
+    }
+
+    /**
+     * A scan never starts inside a number, e.g. at the "01" of "15.01.2024".
+     */
+    private static boolean continuesNumber(CharSequence content, int position) {
+        if (position == 0) {
+            return false;
+        }
+        char previous = content.charAt(position - 1);
+        if (Character.isDigit(previous) || previous == '+') {
+            return true;
+        }
+        return isPunctuationGap(previous) && position > 1 && Character.isDigit(content.charAt(position - 2));
+    }
+
+    /**
+     * Reads digit groups starting at {@code start} and returns the end of the longest prefix of
+     * 10 to 14 digits that is shaped like a phone number, or -1.
+     * <p>
+     * Groups are separated by exactly one gap: a single space, ".", "-" or "/", or one pair of
+     * parentheses around a group, e.g. "(0)6" or "(0612) 345678". A number must start with "+" or
+     * "0", or use a single separator style throughout. Dates (dd.mm.yyyy, yyyy-mm-dd) end the
+     * number, and amounts (1.500.000, 12345678.90, 1500000-2000000) are not phone numbers.
+     */
+    private static int scanPhone(CharSequence content, int start) {
+        int length = content.length();
+        int i = start;
+        boolean prefixed = content.charAt(i) == '+';
+        if (prefixed) {
+            i++;
+        }
+        boolean parenOpen = i < length && content.charAt(i) == '(';
+        boolean parenUsed = parenOpen;
+        if (parenOpen) {
+            i++;
+        }
+        if (i >= length || !Character.isDigit(content.charAt(i))) {
+            return -1;
+        }
+        prefixed |= content.charAt(i) == '0';
+
+        int[] groupStarts = new int[MAX_SCANNED_DIGITS];
+        int[] groupEnds = new int[MAX_SCANNED_DIGITS];
+        char[] gaps = new char[MAX_SCANNED_DIGITS];
+        boolean[] closed = new boolean[MAX_SCANNED_DIGITS];
+        int groups = 0;
+        int digits = 0;
+        char gap = NO_GAP;
+        while (true) {
+            int groupStart = i;
+            while (i < length && Character.isDigit(content.charAt(i))) {
+                i++;
+            }
+            digits += i - groupStart;
+            if (digits > MAX_SCANNED_DIGITS) {
+                break;
+            }
+            groupStarts[groups] = groupStart;
+            groupEnds[groups] = i;
+            gaps[groups] = gap;
+            closed[groups] = !parenOpen;
+            groups++;
+            if (groups >= 3 && isDate(content, groupStarts, groupEnds, gaps, groups - 3)) {
+                groups -= 3;
+                break;
+            }
+            if (i >= length) {
+                break;
+            }
+
+            char c = content.charAt(i);
+            int next = i + 1;
+            if (c == ')' && parenOpen) {
+                parenOpen = false;
+                if (next < length && isSpace(content.charAt(next))) {
+                    next++;
+                }
+                gap = PAREN_GAP;
+            } else if (isSpace(c) && next < length && content.charAt(next) == '(' && !parenUsed) {
+                parenOpen = parenUsed = true;
+                next++;
+                gap = PAREN_GAP;
+            } else if (c == '(' && !parenUsed) {
+                parenOpen = parenUsed = true;
+                gap = PAREN_GAP;
+            } else if (isSpace(c)) {
+                gap = SPACE_GAP;
+            } else if (isPunctuationGap(c)) {
+                gap = c;
+            } else {
+                break;
+            }
+            if (next >= length || !Character.isDigit(content.charAt(next))) {
+                break;
+            }
+            i = next;
+        }
+
+        int candidateDigits = 0;
+        int longest = 0;
+        for (int g = 0; g < groups; g++) {
+            candidateDigits += groupEnds[g] - groupStarts[g];
+            if (candidateDigits > MAX_PHONE_DIGITS) {
+                break;
+            }
+            longest = g + 1;
+        }
+        for (int end = longest; end > 0; end--) {
+            if (digitCount(groupStarts, groupEnds, end) < MIN_PHONE_DIGITS) {
+                break;
+            }
+            if (closed[end - 1] && (prefixed || (hasSingleGapStyle(gaps, end)
+                    && !isAmount(groupStarts, groupEnds, gaps, end)))) {
+                return groupEnds[end - 1];
+            }
+        }
+        return -1;
+    }
+
+    private static int digitCount(int[] groupStarts, int[] groupEnds, int groups) {
+        int digits = 0;
+        for (int g = 0; g < groups; g++) {
+            digits += groupEnds[g] - groupStarts[g];
+        }
+        return digits;
+    }
+
+    private static boolean hasSingleGapStyle(char[] gaps, int groups) {
+        char style = NO_GAP;
+        for (int g = 1; g < groups; g++) {
+            if (gaps[g] == PAREN_GAP) {
+                continue;
+            }
+            if (style != NO_GAP && gaps[g] != style) {
+                return false;
+            }
+            style = gaps[g];
+        }
+        return true;
+    }
+
+    /**
+     * dd.mm.yyyy or yyyy-mm-dd (also with "/" or "-" and "." respectively) at the given group.
+     */
+    private static boolean isDate(CharSequence content, int[] groupStarts, int[] groupEnds, char[] gaps, int first) {
+        char separator = gaps[first + 1];
+        if (!isPunctuationGap(separator) || gaps[first + 2] != separator) {
+            return false;
+        }
+        int firstLength = groupEnds[first] - groupStarts[first];
+        int middleLength = groupEnds[first + 1] - groupStarts[first + 1];
+        int lastLength = groupEnds[first + 2] - groupStarts[first + 2];
+        if (middleLength > 2 || !isBetween(content, groupStarts[first + 1], groupEnds[first + 1], 1, 12)) {
+            return false;
+        }
+        if (firstLength <= 2 && lastLength == 4) {
+            return isBetween(content, groupStarts[first], groupEnds[first], 1, 31);
+        }
+        if (firstLength == 4 && lastLength <= 2) {
+            return isBetween(content, groupStarts[first + 2], groupEnds[first + 2], 1, 31);
+        }
+        return false;
+    }
+
+    /**
+     * Thousands-grouped (1.500.000, 1 500 000), decimal (12345678.90) and range (1500000-2000000)
+     * amounts. Only asked for numbers without a "+" or "0" prefix.
+     */
+    private static boolean isAmount(int[] groupStarts, int[] groupEnds, char[] gaps, int groups) {
+        if (groups == 2) {
+            int firstLength = groupEnds[0] - groupStarts[0];
+            int secondLength = groupEnds[1] - groupStarts[1];
+            return (gaps[1] == '.' && secondLength <= 2)
+                    || ((gaps[1] == '-' || gaps[1] == '/') && firstLength == secondLength);
+        }
+        if (groups < 3 || (gaps[1] != '.' && gaps[1] != SPACE_GAP) || groupEnds[0] - groupStarts[0] > 3) {
+            return false;
+        }
+        for (int g = 1; g < groups; g++) {
+            if (gaps[g] != gaps[1] || groupEnds[g] - groupStarts[g] != 3) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isBetween(CharSequence content, int start, int end, int min, int max) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + Character.digit(content.charAt(i), 10);
+        }
+        return value >= min && value <= max;
+    }
+
+    private static boolean isLocalChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\u00A0';
+    }
+
+    private static boolean isPunctuationGap(char c) {
+        return c == '.' || c == '-' || c == '/';
     }
 }
@@ -0,0 +1,27 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by AdsManager and the admin paths in AdminManager whenever an ad, or the images
+ * attached to it, is created, changed or removed. Listeners run after commit so they observe
+ * the new state.
+ */
+@Getter
+public class AdChangedEvent extends ApplicationEvent {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final String adId;
+    private final ChangeType changeType;
+
+    public AdChangedEvent(Object source, String adId, ChangeType changeType) {
+        super(source);
+        this.adId = adId;
+        this.changeType = changeType;
+    }
+}
@@ -0,0 +1,31 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Published when invoices or subscriptions were written, so the analytics rollups derived from
+ * them are rebuilt. Revenue is invalidated per issue date of the touched invoices.
+ */
+@Getter
+public class AnalyticsRollupInvalidatedEvent extends ApplicationEvent {
+    private final Set<LocalDate> revenueDays;
+    private final boolean subscriptions;
+
+    private AnalyticsRollupInvalidatedEvent(Object source, Set<LocalDate> revenueDays, boolean subscriptions) {
+        super(source);
+        this.revenueDays = revenueDays;
+        this.subscriptions = subscriptions;
+    }
+
+    public static AnalyticsRollupInvalidatedEvent forRevenueDays(Object source, Set<LocalDate> days) {
+        return new AnalyticsRollupInvalidatedEvent(source, days, false);
+    }
+
+    public static AnalyticsRollupInvalidatedEvent forSubscriptions(Object source) {
+        return new AnalyticsRollupInvalidatedEvent(source, Set.of(), true);
+    }
+}
@@ -0,0 +1,13 @@
+package com.buildbetter.core.utilities.events;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a category or service is created, renamed or removed. Ads carry their
+ * category and service names in the search index, so these are re-read as a whole.
+ */
+public class CatalogTaxonomyChangedEvent extends ApplicationEvent {
+    public CatalogTaxonomyChangedEvent(Object source) {
+        super(source);
+    }
+}
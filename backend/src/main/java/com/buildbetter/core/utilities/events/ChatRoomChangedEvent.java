@@ -0,0 +1,18 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by ChatManager when a room's participants, status or contact-sharing state
+ * changes, so cached room memberships are dropped after commit.
+ */
+@Getter
+public class ChatRoomChangedEvent extends ApplicationEvent {
+    private final String chatRoomId;
+
+    public ChatRoomChangedEvent(Object source, String chatRoomId) {
+        super(source);
+        this.chatRoomId = chatRoomId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+@Getter
+public class ImagesStoredEvent extends ApplicationEvent {
+    // Object keys of the stored originals
+    private final List<String> objectKeys;
+
+    public ImagesStoredEvent(Object source, List<String> objectKeys) {
+        super(source);
+        this.objectKeys = objectKeys;
+    }
+}
@@ -0,0 +1,14 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class InvoiceRenderRequestedEvent extends ApplicationEvent {
+    private final String invoiceId;
+
+    public InvoiceRenderRequestedEvent(Object source, String invoiceId) {
+        super(source);
+        this.invoiceId = invoiceId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Carries everything needed to notify the recipient of a chat message, already denormalized so
+ * the dispatcher never has to reload the users or the chat room.
+ */
+@Getter
+public class NewMessageNotificationEvent extends ApplicationEvent {
+    private final String recipientId;
+    private final String senderName;
+    private final String chatRoomId;
+    private final String adTitle;
+
+    public NewMessageNotificationEvent(Object source, String recipientId, String senderName,
+                                       String chatRoomId, String adTitle) {
+        super(source);
+        this.recipientId = recipientId;
+        this.senderName = senderName;
+        this.chatRoomId = chatRoomId;
+        this.adTitle = adTitle;
+    }
+}
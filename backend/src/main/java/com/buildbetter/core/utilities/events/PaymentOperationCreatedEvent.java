@@ -0,0 +1,14 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class PaymentOperationCreatedEvent extends ApplicationEvent {
+    private final String operationId;
+
+    public PaymentOperationCreatedEvent(Object source, String operationId) {
+        super(source);
+        this.operationId = operationId;
+    }
+}
@@ -0,0 +1,18 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published whenever something the JWT filter authenticates with changes for an account: its
+ * password, role or blocked flag, or the account itself being deleted.
+ */
+@Getter
+public class PrincipalChangedEvent extends ApplicationEvent {
+    private final String email;
+
+    public PrincipalChangedEvent(Object source, String email) {
+        super(source);
+        this.email = email;
+    }
+}
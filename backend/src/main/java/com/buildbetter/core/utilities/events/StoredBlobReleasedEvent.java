@@ -0,0 +1,14 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class StoredBlobReleasedEvent extends ApplicationEvent {
+    private final String blobKey;
+
+    public StoredBlobReleasedEvent(Object source, String blobKey) {
+        super(source);
+        this.blobKey = blobKey;
+    }
+}
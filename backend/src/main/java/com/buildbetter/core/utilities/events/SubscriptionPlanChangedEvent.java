@@ -0,0 +1,28 @@
+package com.buildbetter.core.utilities.events;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when the plan behind an organization changes, or when a plan's limits are edited.
+ * Exactly one of organizationId and planId is set.
+ */
+@Getter
+public class SubscriptionPlanChangedEvent extends ApplicationEvent {
+    private final String organizationId;
+    private final String planId;
+
+    private SubscriptionPlanChangedEvent(Object source, String organizationId, String planId) {
+        super(source);
+        this.organizationId = organizationId;
+        this.planId = planId;
+    }
+
+    public static SubscriptionPlanChangedEvent forOrganization(Object source, String organizationId) {
+        return new SubscriptionPlanChangedEvent(source, organizationId, null);
+    }
+
+    public static SubscriptionPlanChangedEvent forPlan(Object source, String planId) {
+        return new SubscriptionPlanChangedEvent(source, null, planId);
+    }
+}
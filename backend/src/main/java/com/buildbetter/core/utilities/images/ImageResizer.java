@@ -0,0 +1,125 @@
+package com.buildbetter.core.utilities.images;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+public class ImageResizer {
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /**
+     * Reads only the header and returns {width, height}, or null if no ImageIO reader
+     * understands the file.
+     */
+    public static int[] readDimensions(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            return readDimensions(input);
+        }
+    }
+
+    /**
+     * Same as {@link #readDimensions(Path)} for a stream, e.g. a remote object; only the header
+     * is read from it.
+     */
+    public static int[] readDimensions(InputStream source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            return readDimensions(input);
+        }
+    }
+
+    private static int[] readDimensions(ImageInputStream input) throws IOException {
+        if (input == null) {
+            return null;
+        }
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        if (!readers.hasNext()) {
+            return null;
+        }
+        ImageReader reader = readers.next();
+        try {
+            reader.setInput(input, true, true);
+            return new int[]{reader.getWidth(0), reader.getHeight(0)};
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    public static BufferedImage read(Path source) throws IOException {
+        return ImageIO.read(source.toFile());
+    }
+
+    /**
+     * Scales the image so its longer side is at most {@code maxDimension}. Large reductions are
+     * done in halving steps, which keeps bilinear filtering from dropping detail.
+     */
+    public static BufferedImage fit(BufferedImage source, int maxDimension, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                if (!keepAlpha) {
+                    // JPEG has no alpha channel; transparent areas become white instead of black
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    /**
+     * Encodes into {@code target}, typically a staging file that is moved into place afterwards.
+     */
+    public static void encode(BufferedImage image, String format, Path target) throws IOException {
+        if ("jpg".equals(format)) {
+            writeJpeg(image, target);
+        } else if (!ImageIO.write(image, format, target.toFile())) {
+            throw new IOException("No image writer for format " + format);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
@@ -1,47 +1,161 @@
 package com.buildbetter.core.utilities.images;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
 
+/**
+ * Streaming zlib codec for image bytes kept in the database. JPEG, PNG, GIF and WebP data is
+ * already compressed and is stored as is; other formats are deflated. Reading tells the two
+ * apart by the first two bytes, which is unambiguous because a zlib stream starts with a header
+ * none of those formats can start with. Data written by earlier versions, always deflated,
+ * reads the same way.
+ * <p>
+ * Deflaters and inflaters hold native zlib memory, so they are pooled and reset between uses,
+ * and ended when the pool is full instead of waiting for the finalizer.
+ */
 public class ImageUtils {
 
-    public static byte[] compressImage(byte[] data){
-        Deflater deflater = new Deflater();
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int HEADER_SIZE = 4;
+    private static final int POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
 
-        deflater.setLevel(Deflater.BEST_COMPRESSION);
-        deflater.setInput(data);
-        deflater.finish();
+    private static final ArrayBlockingQueue<Deflater> DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+    private static final ArrayBlockingQueue<Inflater> INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-
-        byte[] tmp = new byte[4*1024];
-        while (!deflater.finished()){
-            int size = deflater.deflate(tmp);
-            outputStream.write(tmp, 0, size);
+    /**
+     * Copies {@code source} to {@code target}, deflating it unless it is an already-compressed
+     * image format. Neither stream is closed.
+     */
+    public static void compress(InputStream source, OutputStream target) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(source, HEADER_SIZE);
+        byte[] header = input.readNBytes(HEADER_SIZE);
+        input.unread(header);
+        if (isCompressedImage(header, header.length)) {
+            input.transferTo(target);
+            return;
         }
+        Deflater deflater = borrowDeflater();
         try {
-            outputStream.close();
-        }catch (Exception ignored){
-
+            // finish() rather than close(): the caller owns target, the pool owns the deflater
+            DeflaterOutputStream deflating = new DeflaterOutputStream(target, deflater, BUFFER_SIZE);
+            input.transferTo(deflating);
+            deflating.finish();
+        } finally {
+            release(deflater);
         }
-        return outputStream.toByteArray();
     }
 
-    public static byte[] decompressImage(byte[] data) {
-        Inflater inflater = new Inflater();
-        inflater.setInput(data);
+    /**
+     * Wraps stored bytes in a stream that yields the original image. Closing the returned stream
+     * closes {@code stored} and returns the inflater to the pool.
+     */
+    public static InputStream decompressingStream(InputStream stored) throws IOException {
+        PushbackInputStream input = new PushbackInputStream(stored, 2);
+        byte[] header = input.readNBytes(2);
+        input.unread(header);
+        if (!isZlibHeader(header, header.length)) {
+            return input;
+        }
+        Inflater inflater = borrowInflater();
+        return new InflaterInputStream(input, inflater, BUFFER_SIZE) {
+            private boolean released;
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] tmp = new byte[4*1024];
-        try {
-            while (!inflater.finished()){
-                int count = inflater.inflate(tmp);
-                outputStream.write(tmp, 0, count);
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    if (!released) {
+                        released = true;
+                        release(inflater);
+                    }
+                }
             }
-        }catch (Exception ignored){
+        };
+    }
 
+    public static byte[] compressImage(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, data.length / 2));
+        try {
+            compress(new ByteArrayInputStream(data), outputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // in-memory streams do not fail
         }
         return outputStream.toByteArray();
     }
+
+    /**
+     * @throws IOException if the data is deflated but corrupt
+     */
+    public static byte[] decompressImage(byte[] data) throws IOException {
+        if (data == null) {
+            return null;
+        }
+        try (InputStream input = decompressingStream(new ByteArrayInputStream(data))) {
+            return input.readAllBytes();
+        }
+    }
+
+    /**
+     * Whether the header belongs to a format that deflating would not shrink.
+     */
+    public static boolean isCompressedImage(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xff) == 0xFF && (header[1] & 0xff) == 0xD8 && (header[2] & 0xff) == 0xFF) {
+            return true; // JPEG
+        }
+        if (length >= 4 && (header[0] & 0xff) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return true;
+        }
+        if (length >= 4 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return true;
+        }
+        return length >= 4 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'; // WebP
+    }
+
+    // CMF says deflate with a window of at most 32K, and CMF/FLG together are a multiple of 31
+    private static boolean isZlibHeader(byte[] header, int length) {
+        if (length < 2) {
+            return false;
+        }
+        int cmf = header[0] & 0xff;
+        int flg = header[1] & 0xff;
+        return (cmf & 0x0f) == 8 && (cmf >> 4) <= 7 && ((cmf << 8) | flg) % 31 == 0;
+    }
+
+    private static Deflater borrowDeflater() {
+        Deflater deflater = DEFLATERS.poll();
+        return deflater != null ? deflater : new Deflater(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private static Inflater borrowInflater() {
+        Inflater inflater = INFLATERS.poll();
+        return inflater != null ? inflater : new Inflater();
+    }
+
+    private static void release(Deflater deflater) {
+        deflater.reset();
+        if (!DEFLATERS.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private static void release(Inflater inflater) {
+        inflater.reset();
+        if (!INFLATERS.offer(inflater)) {
+            inflater.end();
+        }
+    }
 }
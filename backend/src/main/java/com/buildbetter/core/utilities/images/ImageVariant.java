@@ -0,0 +1,73 @@
+package com.buildbetter.core.utilities.images;
+
+/**
+ * Downscaled renditions generated next to every uploaded image. A variant's file name is
+ * derived from the original's, e.g. {@code 1700_ab12cd34_kitchen.jpg.thumb.jpg}, so its URL
+ * can be computed without looking at the disk.
+ * <p>
+ * PNG and GIF sources are rendered as PNG to keep transparency, everything else as JPEG.
+ */
+public enum ImageVariant {
+    THUMBNAIL("thumb", 320),
+    MEDIUM("medium", 1024);
+
+    private final String suffix;
+    private final int maxDimension;
+
+    ImageVariant(String suffix, int maxDimension) {
+        this.suffix = suffix;
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    public String fileName(String originalName) {
+        return originalName + "." + suffix + "." + formatOf(originalName);
+    }
+
+    /**
+     * The variant URL for an original served at {@code originalUrl}, or null when the URL does
+     * not end with the original's file name.
+     */
+    public String url(String originalUrl, String originalName) {
+        if (originalUrl == null || originalName == null || !originalUrl.endsWith(originalName)) {
+            return null;
+        }
+        return originalUrl.substring(0, originalUrl.length() - originalName.length()) + fileName(originalName);
+    }
+
+    /**
+     * Image format name understood by ImageIO, also used as the variant's extension.
+     */
+    public static String formatOf(String originalName) {
+        String lower = originalName.toLowerCase();
+        return lower.endsWith(".png") || lower.endsWith(".gif") ? "png" : "jpg";
+    }
+
+    /**
+     * Returns the original file name if {@code fileName} names a variant, otherwise null.
+     */
+    public static String originalOf(String fileName) {
+        ImageVariant variant = variantOf(fileName);
+        return variant == null ? null : fileName.substring(0, fileName.lastIndexOf("." + variant.suffix + "."));
+    }
+
+    /**
+     * Returns the variant {@code fileName} names, or null for an original.
+     */
+    public static ImageVariant variantOf(String fileName) {
+        for (ImageVariant variant : values()) {
+            int index = fileName.lastIndexOf("." + variant.suffix + ".");
+            if (index > 0 && variant.fileName(fileName.substring(0, index)).equals(fileName)) {
+                return variant;
+            }
+        }
+        return null;
+    }
+
+    public static boolean isVariant(String fileName) {
+        return originalOf(fileName) != null;
+    }
+}
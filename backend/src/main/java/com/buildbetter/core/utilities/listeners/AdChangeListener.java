@@ -0,0 +1,33 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.abstracts.AdSearchService;
+import com.buildbetter.business.concretes.AdCatalogCache;
+import com.buildbetter.core.utilities.events.AdChangedEvent;
+import com.buildbetter.core.utilities.events.CatalogTaxonomyChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AdChangeListener {
+    private final AdCatalogCache adCatalogCache;
+    private final AdSearchService adSearchService;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAdChange(AdChangedEvent event) {
+        adCatalogCache.invalidateAll();
+        if (event.getChangeType() == AdChangedEvent.ChangeType.DELETED) {
+            adSearchService.removeAd(event.getAdId());
+        } else {
+            adSearchService.reindexAd(event.getAdId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleCatalogTaxonomyChange(CatalogTaxonomyChangedEvent event) {
+        adCatalogCache.invalidateAll();
+        adSearchService.rebuild();
+    }
+}
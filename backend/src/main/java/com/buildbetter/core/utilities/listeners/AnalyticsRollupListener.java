@@ -0,0 +1,29 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.AnalyticsRollupManager;
+import com.buildbetter.core.utilities.events.AnalyticsRollupInvalidatedEvent;
+import com.buildbetter.core.utilities.events.SubscriptionPlanChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class AnalyticsRollupListener {
+    private final AnalyticsRollupManager analyticsRollupManager;
+
+    // After commit, so the rebuild reads the written rows
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleRollupInvalidated(AnalyticsRollupInvalidatedEvent event) {
+        analyticsRollupManager.markRevenueDirty(event.getRevenueDays());
+        if (event.isSubscriptions()) {
+            analyticsRollupManager.markSubscriptionsDirty();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleSubscriptionPlanChange(SubscriptionPlanChangedEvent event) {
+        analyticsRollupManager.markSubscriptionsDirty();
+    }
+}
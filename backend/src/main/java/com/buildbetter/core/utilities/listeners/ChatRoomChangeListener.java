@@ -0,0 +1,19 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.ChatRoomMembershipCache;
+import com.buildbetter.core.utilities.events.ChatRoomChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ChatRoomChangeListener {
+    private final ChatRoomMembershipCache chatRoomMembershipCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleChatRoomChange(ChatRoomChangedEvent event) {
+        chatRoomMembershipCache.evict(event.getChatRoomId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.ImageDerivativeGenerator;
+import com.buildbetter.core.utilities.events.ImagesStoredEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class ImageDerivativeListener {
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+
+    // After commit, so files discarded by a rolled back upload are never rendered
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleImagesStored(ImagesStoredEvent event) {
+        imageDerivativeGenerator.generate(event.getObjectKeys());
+    }
+}
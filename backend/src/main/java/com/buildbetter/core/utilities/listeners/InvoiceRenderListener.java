@@ -0,0 +1,20 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.InvoiceRenderWorker;
+import com.buildbetter.core.utilities.events.InvoiceRenderRequestedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class InvoiceRenderListener {
+    private final InvoiceRenderWorker invoiceRenderWorker;
+
+    // The job row is only visible to the worker once the transaction has committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleInvoiceRenderRequested(InvoiceRenderRequestedEvent event) {
+        invoiceRenderWorker.wake();
+    }
+}
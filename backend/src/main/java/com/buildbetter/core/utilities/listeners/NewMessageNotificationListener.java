@@ -0,0 +1,24 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.NotificationDispatcher;
+import com.buildbetter.core.utilities.events.NewMessageNotificationEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class NewMessageNotificationListener {
+    private final NotificationDispatcher notificationDispatcher;
+
+    // Only queue notifications for messages that were actually committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleNewMessage(NewMessageNotificationEvent event) {
+        notificationDispatcher.enqueueNewMessage(
+                event.getRecipientId(),
+                event.getSenderName(),
+                event.getChatRoomId(),
+                event.getAdTitle());
+    }
+}
@@ -0,0 +1,20 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.ChatPaymentSaga;
+import com.buildbetter.core.utilities.events.PaymentOperationCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class PaymentOperationListener {
+    private final ChatPaymentSaga chatPaymentSaga;
+
+    // Stripe is only called once the operation row is committed, never inside the transaction
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handlePaymentOperationCreated(PaymentOperationCreatedEvent event) {
+        chatPaymentSaga.submit(event.getOperationId());
+    }
+}
@@ -0,0 +1,20 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.core.utilities.events.PrincipalChangedEvent;
+import com.buildbetter.security.jwt.UserDetailsCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class PrincipalChangeListener {
+    private final UserDetailsCache userDetailsCache;
+
+    // After commit, so a concurrent request cannot re-cache the old principal before the change is visible
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handlePrincipalChange(PrincipalChangedEvent event) {
+        userDetailsCache.evict(event.getEmail());
+    }
+}
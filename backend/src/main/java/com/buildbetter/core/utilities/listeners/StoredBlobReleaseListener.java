@@ -0,0 +1,22 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.concretes.ContentAddressedBlobStore;
+import com.buildbetter.core.utilities.events.StoredBlobReleasedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class StoredBlobReleaseListener {
+    private final ContentAddressedBlobStore blobStore;
+
+    // After commit, so the deleted storage rows are no longer counted as references
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleStoredBlobReleased(StoredBlobReleasedEvent event) {
+        blobStore.collect(List.of(event.getBlobKey()));
+    }
+}
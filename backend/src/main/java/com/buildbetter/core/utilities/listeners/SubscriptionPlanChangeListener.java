@@ -0,0 +1,25 @@
+package com.buildbetter.core.utilities.listeners;
+
+import com.buildbetter.business.abstracts.EntitlementService;
+import com.buildbetter.core.utilities.events.SubscriptionPlanChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class SubscriptionPlanChangeListener {
+    private final EntitlementService entitlementService;
+
+    // After commit, so a concurrent lookup cannot re-cache the old plan before the change is visible
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleSubscriptionPlanChange(SubscriptionPlanChangedEvent event) {
+        if (event.getOrganizationId() != null) {
+            entitlementService.invalidateOrganization(event.getOrganizationId());
+        }
+        if (event.getPlanId() != null) {
+            entitlementService.invalidatePlan(event.getPlanId());
+        }
+    }
+}
@@ -1,28 +1,99 @@
 package com.buildbetter.core.utilities.mappers;
 
-import lombok.AllArgsConstructor;
+import com.buildbetter.business.requests.*;
+import com.buildbetter.business.responses.*;
+import com.buildbetter.core.utilities.images.ImageVariant;
+import com.buildbetter.entities.concretes.*;
+import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.stereotype.Service;
 
+import java.util.Date;
+
+/**
+ * Holds one mapper per matching strategy. Both are configured once and their TypeMaps are
+ * built at startup, so no request pays for ModelMapper's reflective property matching and
+ * callers never change a configuration another thread is mapping with.
+ */
 @Service
-@AllArgsConstructor
+@Slf4j
 public class ModelMapperManager implements ModelMapperService{
 
-    private ModelMapper modelMapper;
+    private final ModelMapper responseMapper;
+    private final ModelMapper requestMapper;
+
+    public ModelMapperManager() {
+        this.responseMapper = createResponseMapper();
+        this.requestMapper = createRequestMapper();
+        log.info("Model mappers ready with {} response and {} request type maps",
+                responseMapper.getTypeMaps().size(), requestMapper.getTypeMaps().size());
+    }
+
     @Override
     public ModelMapper forResponse() {
-        this.modelMapper.getConfiguration()
-                .setAmbiguityIgnored(true)
-                .setMatchingStrategy(MatchingStrategies.LOOSE);
-        return this.modelMapper;
+        return this.responseMapper;
     }
 
     @Override
     public ModelMapper forRequest() {
-        this.modelMapper.getConfiguration()
+        return this.requestMapper;
+    }
+
+    private static ModelMapper createResponseMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setAmbiguityIgnored(true)
+                .setMatchingStrategy(MatchingStrategies.LOOSE);
+
+        mapper.createTypeMap(User.class, GetUsersResponse.class);
+        mapper.createTypeMap(Expert.class, GetUsersResponse.class);
+        // PaymentInfo.createdAt is a LocalDateTime and ambiguous with Expert.createdAt; it was never mapped
+        mapper.createTypeMap(Expert.class, GetExpertResponse.class)
+                .addMappings(m -> m.skip((dest, value) -> dest.getPaymentInfo().setCreatedAt((Date) value)));
+        mapper.createTypeMap(User.class, User.class);
+        mapper.createTypeMap(Expert.class, User.class);
+        mapper.createTypeMap(Expert.class, Expert.class);
+        mapper.createTypeMap(ServiceEntity.class, GetAllServicesResponse.class);
+        mapper.createTypeMap(ServiceEntity.class, GetServiceByIdResponse.class);
+        // Variant URLs are derived from the original's URL rather than stored
+        mapper.createTypeMap(Storage.class, GetAllImagesResponse.class)
+                .addMappings(m -> {
+                    m.skip(GetAllImagesResponse::setThumbnailUrl);
+                    m.skip(GetAllImagesResponse::setMediumUrl);
+                })
+                .setPostConverter(context -> {
+                    GetAllImagesResponse image = context.getDestination();
+                    image.setThumbnailUrl(ImageVariant.THUMBNAIL.url(image.getUrl(), image.getName()));
+                    image.setMediumUrl(ImageVariant.MEDIUM.url(image.getUrl(), image.getName()));
+                    return image;
+                });
+        mapper.createTypeMap(Ads.class, GetAllAdsResponse.class)
+                .addMappings(m -> m.skip(GetAllAdsResponse::setThumbnailUrl));
+        mapper.createTypeMap(Request.class, GetRequestsResponse.class);
+        mapper.createTypeMap(JobTitle.class, GetAllJobTitlesResponse.class);
+        mapper.createTypeMap(Category.class, GetAllCategoriesResponse.class);
+        mapper.createTypeMap(Category.class, GetCategoriesByIdResponse.class);
+
+        // Fails startup if a response DTO gains a property nothing maps to
+        mapper.validate();
+        return mapper;
+    }
+
+    private static ModelMapper createRequestMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
                 .setAmbiguityIgnored(true)
                 .setMatchingStrategy(MatchingStrategies.STANDARD);
-        return this.modelMapper;
+
+        // Entities keep fields no request carries, so these maps are registered but not validated
+        mapper.createTypeMap(CreateServiceRequest.class, ServiceEntity.class);
+        mapper.createTypeMap(UpdateServiceRequest.class, ServiceEntity.class);
+        mapper.createTypeMap(CreateAdsRequest.class, Ads.class);
+        mapper.createTypeMap(CreateJobTitleRequest.class, JobTitle.class);
+        mapper.createTypeMap(UpdateJobTitleRequest.class, JobTitle.class);
+        mapper.createTypeMap(CreateCategoryRequest.class, Category.class);
+        mapper.createTypeMap(UpdateCategoryRequest.class, Category.class);
+        return mapper;
     }
 }
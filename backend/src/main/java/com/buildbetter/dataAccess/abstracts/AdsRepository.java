@@ -1,12 +1,76 @@
 package com.buildbetter.dataAccess.abstracts;
 
 import com.buildbetter.entities.concretes.Ads;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface AdsRepository extends JpaRepository<Ads, String> {
+
+    interface AdCatalogView {
+        String getId();
+        String getTitle();
+        String getDescriptions();
+        LocalDateTime getAdReleaseDate();
+        String getCategoryId();
+        String getCategoryName();
+        String getServiceId();
+        String getServiceName();
+        String getUserId();
+        String getUserName();
+        String getUserSurname();
+    }
+
+    // Catalog page with its associations joined in; null filters are ignored
+    @Query(value = "SELECT a.id AS id, a.title AS title, a.descriptions AS descriptions, " +
+            "a.adReleaseDate AS adReleaseDate, c.id AS categoryId, c.name AS categoryName, " +
+            "s.id AS serviceId, s.name AS serviceName, u.id AS userId, u.name AS userName, u.surname AS userSurname " +
+            "FROM Ads a LEFT JOIN a.category c LEFT JOIN a.service s LEFT JOIN a.user u " +
+            "WHERE (:categoryId IS NULL OR c.id = :categoryId) AND (:serviceId IS NULL OR s.id = :serviceId) " +
+            "AND (:active IS NULL OR a.isActive = :active) " +
+            "AND (:releasedFrom IS NULL OR a.adReleaseDate >= :releasedFrom) " +
+            "AND (:releasedTo IS NULL OR a.adReleaseDate < :releasedTo)",
+            countQuery = "SELECT COUNT(a) FROM Ads a " +
+                    "WHERE (:categoryId IS NULL OR a.category.id = :categoryId) " +
+                    "AND (:serviceId IS NULL OR a.service.id = :serviceId) " +
+                    "AND (:active IS NULL OR a.isActive = :active) " +
+                    "AND (:releasedFrom IS NULL OR a.adReleaseDate >= :releasedFrom) " +
+                    "AND (:releasedTo IS NULL OR a.adReleaseDate < :releasedTo)")
+    Page<AdCatalogView> findCatalog(String categoryId, String serviceId, Boolean active, LocalDateTime releasedFrom,
+                                    LocalDateTime releasedTo, Pageable pageable);
+
     List<Ads> findByUserId(String userId);
+
+    @Query("SELECT a.id FROM Ads a WHERE a.user.id = :userId")
+    List<String> findIdsByUserId(String userId);
+    interface AdSearchView {
+        String getId();
+        String getTitle();
+        String getDescriptions();
+        LocalDateTime getAdReleaseDate();
+        String getCategoryName();
+        String getServiceName();
+    }
+
+    String AD_SEARCH_SELECT = "SELECT a.id AS id, a.title AS title, a.descriptions AS descriptions, " +
+            "a.adReleaseDate AS adReleaseDate, c.name AS categoryName, s.name AS serviceName " +
+            "FROM Ads a LEFT JOIN a.category c LEFT JOIN a.service s WHERE a.isActive = true";
+
+    @Query(AD_SEARCH_SELECT)
+    List<AdSearchView> findActiveSearchViews();
+
+    @Query(AD_SEARCH_SELECT + " AND a.id = :id")
+    Optional<AdSearchView> findActiveSearchViewById(String id);
+
+    @Query("SELECT a.id FROM Ads a WHERE a.id IN :ids AND a.isActive = true")
+    List<String> findActiveIds(Collection<String> ids);
+
     boolean existsByTitle(String title);
     boolean isActive(boolean isActive);
 
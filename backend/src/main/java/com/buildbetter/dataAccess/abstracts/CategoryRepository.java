@@ -2,11 +2,21 @@ package com.buildbetter.dataAccess.abstracts;
 
 import com.buildbetter.entities.concretes.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, String> {
 
+    interface CategoryNameView {
+        String getId();
+        String getName();
+    }
+
+    @Query("SELECT c.id AS id, c.name AS name FROM Category c")
+    List<CategoryNameView> findAllNames();
+
 
 
     boolean existsByName(String categoryName);
@@ -6,12 +6,38 @@ import com.buildbetter.enums.MessageType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, String> {
+
+    interface RecentMessageView {
+        String getId();
+        String getChatRoomId();
+        String getChatRoomChatId();
+        String getContent();
+        String getSenderId();
+        String getSenderName();
+        String getSenderProfileImage();
+        Boolean getSentByExpert();
+        MessageType getMessageType();
+        LocalDateTime getTimestamp();
+        Boolean getRead();
+        Boolean getContactInfo();
+        String getPaymentIntentId();
+        BigDecimal getPaymentAmount();
+    }
+
+    interface RoomCount {
+        String getChatRoomId();
+        long getCount();
+    }
     Page<ChatMessage> findByChatRoomId(String chatRoomId, Pageable pageable);
 
     List<ChatMessage> findByChatRoomAndSenderIdAndIsReadFalse(ChatRoom chatRoom, String id);
@@ -25,4 +51,61 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, String
 
     Optional<ChatMessage> findFirstByChatRoomIdAndMessageTypeOrderByTimestampDesc(String chatRoomId,
             MessageType messageType);
+
+    Optional<ChatMessage> findFirstByChatRoomIdOrderByTimestampDescIdDesc(String chatRoomId);
+
+    // Keyset pagination over (chat_room_id, timestamp, id); page cost does not depend on scroll depth
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId " +
+            "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessage> findLatestInRoom(String chatRoomId, Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId " +
+            "AND (m.timestamp < :timestamp OR (m.timestamp = :timestamp AND m.id < :id)) " +
+            "ORDER BY m.timestamp DESC, m.id DESC")
+    List<ChatMessage> findInRoomBefore(String chatRoomId, LocalDateTime timestamp, String id, Pageable pageable);
+
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender WHERE m.chatRoom.id = :chatRoomId " +
+            "AND (m.timestamp > :timestamp OR (m.timestamp = :timestamp AND m.id > :id)) " +
+            "ORDER BY m.timestamp ASC, m.id ASC")
+    List<ChatMessage> findInRoomAfter(String chatRoomId, LocalDateTime timestamp, String id, Pageable pageable);
+
+    @Query(value = "SELECT ranked.id FROM (SELECT m.id AS id, ROW_NUMBER() OVER " +
+            "(PARTITION BY m.chat_room_id ORDER BY m.timestamp DESC, m.id DESC) AS position " +
+            "FROM chat_messages m WHERE m.chat_room_id IN (:chatRoomIds)) ranked WHERE ranked.position <= :perRoom",
+            nativeQuery = true)
+    List<String> findRecentIdsPerRoom(Collection<String> chatRoomIds, int perRoom);
+
+    @Query("SELECT m.id AS id, r.id AS chatRoomId, r.chatId AS chatRoomChatId, m.content AS content, " +
+            "s.id AS senderId, s.name AS senderName, s.profileImage AS senderProfileImage, " +
+            "CASE WHEN TYPE(s) = Expert THEN true ELSE false END AS sentByExpert, m.messageType AS messageType, " +
+            "m.timestamp AS timestamp, m.isRead AS read, m.contactInfo AS contactInfo, " +
+            "m.paymentIntentId AS paymentIntentId, m.paymentAmount AS paymentAmount " +
+            "FROM ChatMessage m JOIN m.chatRoom r JOIN m.sender s WHERE m.id IN :ids " +
+            "ORDER BY m.timestamp DESC, m.id DESC")
+    List<RecentMessageView> findRecentMessageViews(Collection<String> ids);
+
+    // Same rule as a single room: past the reader's cursor if one exists, otherwise the unread flags
+    @Query("SELECT m.chatRoom.id AS chatRoomId, COUNT(m) AS count FROM ChatMessage m " +
+            "LEFT JOIN ChatReadCursor c ON c.chatRoom.id = m.chatRoom.id AND c.user.id = :readerId " +
+            "WHERE m.chatRoom.id IN :chatRoomIds AND m.sender.id <> :readerId " +
+            "AND ((c.id IS NULL AND m.isRead = false) OR (c.id IS NOT NULL AND m.timestamp > c.lastReadAt)) " +
+            "GROUP BY m.chatRoom.id")
+    List<RoomCount> countUnreadReceivedPerRoom(Collection<String> chatRoomIds, String readerId);
+
+    @Query("SELECT m.timestamp FROM ChatMessage m WHERE m.id = :id AND m.chatRoom.id = :chatRoomId")
+    Optional<LocalDateTime> findTimestampInRoom(String id, String chatRoomId);
+
+    // Set-based read receipt: one UPDATE instead of loading and saving every unread message
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ChatMessage m SET m.isRead = true WHERE m.chatRoom.id = :chatRoomId " +
+            "AND m.sender.id <> :readerId AND m.isRead = false AND m.timestamp <= :readUpTo")
+    int markReadUpTo(String chatRoomId, String readerId, LocalDateTime readUpTo);
+
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.chatRoom.id = :chatRoomId " +
+            "AND m.sender.id <> :readerId AND m.timestamp > :lastReadAt")
+    long countReceivedAfter(String chatRoomId, String readerId, LocalDateTime lastReadAt);
+
+    @Query("SELECT COUNT(m) FROM ChatMessage m WHERE m.chatRoom.id = :chatRoomId " +
+            "AND m.sender.id <> :readerId AND m.isRead = false")
+    long countUnreadReceived(String chatRoomId, String readerId);
 }
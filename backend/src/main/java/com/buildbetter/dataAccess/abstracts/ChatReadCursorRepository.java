@@ -0,0 +1,24 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.ChatReadCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface ChatReadCursorRepository extends JpaRepository<ChatReadCursor, String> {
+    Optional<ChatReadCursor> findByChatRoomIdAndUserId(String chatRoomId, String userId);
+
+    // Creates the cursor or moves it forward in one statement, so concurrent first reads by the same
+    // user (e.g. two tabs) cannot both insert; an older mark never moves it back
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_cursors (id, chat_room_id, user_id, last_read_at, last_read_message_id) " +
+            "VALUES (:id, :chatRoomId, :userId, :lastReadAt, :lastReadMessageId) " +
+            "ON CONFLICT (chat_room_id, user_id) DO UPDATE " +
+            "SET last_read_at = EXCLUDED.last_read_at, last_read_message_id = EXCLUDED.last_read_message_id " +
+            "WHERE chat_read_cursors.last_read_at < EXCLUDED.last_read_at",
+            nativeQuery = true)
+    int advance(String id, String chatRoomId, String userId, LocalDateTime lastReadAt, String lastReadMessageId);
+}
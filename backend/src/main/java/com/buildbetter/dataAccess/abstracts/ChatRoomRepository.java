@@ -4,13 +4,103 @@ import com.buildbetter.entities.concretes.ChatRoom;
 import com.buildbetter.entities.concretes.Request;
 import com.buildbetter.enums.ChatRoomStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, String> {
 
+    /**
+     * Flat read model for the room list; avoids hydrating the eager user, expert, ad and
+     * request graphs of every room.
+     */
+    interface ChatRoomListView {
+        String getId();
+        String getChatId();
+        Boolean getActive();
+        Boolean getExpertBlocked();
+        ChatRoomStatus getStatus();
+        LocalDateTime getLastActivity();
+        Boolean getContactShared();
+        LocalDateTime getContactSharedAt();
+        Boolean getCompleted();
+        Boolean getCompletionPaymentProcessed();
+        LocalDateTime getCompletedAt();
+        String getUserId();
+        String getUserName();
+        String getUserEmail();
+        String getUserProfileImage();
+        String getExpertId();
+        String getExpertName();
+        String getExpertEmail();
+        String getExpertCompanyName();
+        Boolean getExpertAccountBlocked();
+        String getExpertProfileImage();
+        String getExpertJobTitle();
+        String getAdId();
+        String getAdTitle();
+        String getAdDescriptions();
+        String getAdImageUrl();
+        String getCategoryId();
+        String getCategoryName();
+    }
+
+    String CHAT_ROOM_LIST_SELECT = "SELECT r.id AS id, r.chatId AS chatId, r.active AS active, " +
+            "r.expertBlocked AS expertBlocked, r.status AS status, r.lastActivity AS lastActivity, " +
+            "r.contactShared AS contactShared, r.contactSharedAt AS contactSharedAt, r.completed AS completed, " +
+            "r.completionPaymentProcessed AS completionPaymentProcessed, r.completedAt AS completedAt, " +
+            "u.id AS userId, u.name AS userName, u.email AS userEmail, u.profileImage AS userProfileImage, " +
+            "e.id AS expertId, e.name AS expertName, e.email AS expertEmail, e.companyName AS expertCompanyName, " +
+            "e.accountBlocked AS expertAccountBlocked, e.profileImage AS expertProfileImage, " +
+            "jt.name AS expertJobTitle, a.id AS adId, a.title AS adTitle, a.descriptions AS adDescriptions, " +
+            "a.imageUrl AS adImageUrl, c.id AS categoryId, c.name AS categoryName " +
+            "FROM ChatRoom r LEFT JOIN r.user u LEFT JOIN r.expert e LEFT JOIN e.jobTitle jt " +
+            "LEFT JOIN r.ad a LEFT JOIN a.category c ";
+
+    @Query(CHAT_ROOM_LIST_SELECT + "WHERE u.id = :userId ORDER BY r.lastActivity DESC")
+    List<ChatRoomListView> findListViewsByUserId(String userId);
+
+    @Query(CHAT_ROOM_LIST_SELECT + "WHERE e.id = :expertId ORDER BY r.lastActivity DESC")
+    List<ChatRoomListView> findListViewsByExpertId(String expertId);
+
+    /**
+     * Who may post in a room and what a message needs about them; one row, no entity graphs.
+     */
+    interface ChatRoomMembershipView {
+        String getId();
+        String getChatId();
+        Boolean getActive();
+        Boolean getCompleted();
+        ChatRoomStatus getStatus();
+        Boolean getExpertBlocked();
+        Boolean getContactShared();
+        String getUserId();
+        String getUserEmail();
+        String getUserName();
+        String getUserProfileImage();
+        String getExpertId();
+        String getExpertEmail();
+        String getExpertName();
+        String getExpertProfileImage();
+        String getAdTitle();
+    }
+
+    @Query("SELECT r.id AS id, r.chatId AS chatId, r.active AS active, r.completed AS completed, " +
+            "r.status AS status, r.expertBlocked AS expertBlocked, r.contactShared AS contactShared, " +
+            "u.id AS userId, u.email AS userEmail, u.name AS userName, u.profileImage AS userProfileImage, " +
+            "e.id AS expertId, e.email AS expertEmail, e.name AS expertName, e.profileImage AS expertProfileImage, " +
+            "a.title AS adTitle " +
+            "FROM ChatRoom r LEFT JOIN r.user u LEFT JOIN r.expert e LEFT JOIN r.ad a WHERE r.id = :chatRoomId")
+    Optional<ChatRoomMembershipView> findMembershipById(String chatRoomId);
+
+    // Single-column update instead of loading and saving the whole room per message
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.lastActivity = :lastActivity WHERE r.id = :chatRoomId")
+    int touchLastActivity(String chatRoomId, LocalDateTime lastActivity);
+
     Optional<ChatRoom> findByRequestId(String requestId);
 
     Optional<ChatRoom> findByRequest(Request request);
@@ -0,0 +1,17 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.CustomerPaymentMethod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CustomerPaymentMethodRepository extends JpaRepository<CustomerPaymentMethod, String> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CustomerPaymentMethod m WHERE m.paymentMethodId = :paymentMethodId")
+    int deleteByPaymentMethodId(String paymentMethodId);
+}
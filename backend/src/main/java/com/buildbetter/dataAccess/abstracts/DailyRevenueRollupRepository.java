@@ -0,0 +1,21 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.DailyRevenueRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Repository
+public interface DailyRevenueRollupRepository extends JpaRepository<DailyRevenueRollup, LocalDate> {
+
+    @Query("SELECT COALESCE(SUM(r.paidAmount), 0) FROM DailyRevenueRollup r")
+    BigDecimal sumPaidAmount();
+
+    @Modifying
+    @Query("DELETE FROM DailyRevenueRollup r WHERE r.day >= :from AND r.day < :to")
+    int deleteDays(LocalDate from, LocalDate to);
+}
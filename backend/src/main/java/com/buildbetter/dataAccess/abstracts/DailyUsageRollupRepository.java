@@ -0,0 +1,38 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.DailyUsageRollup;
+import com.buildbetter.enums.UsageMetricType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface DailyUsageRollupRepository extends JpaRepository<DailyUsageRollup, String> {
+
+    interface MetricTotalView {
+        UsageMetricType getMetricType();
+
+        Long getTotal();
+    }
+
+    @Query("SELECT r.metricType AS metricType, SUM(r.total) AS total FROM DailyUsageRollup r " +
+            "WHERE r.day >= :since GROUP BY r.metricType")
+    List<MetricTotalView> sumByMetricSince(LocalDate since);
+
+    // Atomic, so concurrent flushes from several instances add up instead of overwriting each other
+    @Modifying
+    @Query(value = "INSERT INTO daily_usage_rollups (id, day, metric_type, total, updated_at) " +
+            "VALUES (:id, :day, :metricType, :delta, :now) ON CONFLICT (id) DO UPDATE " +
+            "SET total = daily_usage_rollups.total + EXCLUDED.total, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int addToTotal(String id, LocalDate day, String metricType, long delta, LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM DailyUsageRollup r WHERE r.day >= :from AND r.day < :to")
+    int deleteDays(LocalDate from, LocalDate to);
+}
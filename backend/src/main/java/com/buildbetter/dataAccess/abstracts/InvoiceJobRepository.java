@@ -0,0 +1,34 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.InvoiceJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InvoiceJobRepository extends JpaRepository<InvoiceJob, String> {
+    Optional<InvoiceJob> findByInvoiceId(String invoiceId);
+
+    // Due jobs, plus running ones whose worker let the lease expire
+    @Query("SELECT j.id FROM InvoiceJob j WHERE (j.status = 'PENDING' AND j.nextAttemptAt <= :now) " +
+            "OR (j.status = 'RUNNING' AND j.lockedUntil < :now) ORDER BY j.nextAttemptAt")
+    List<String> findDueJobIds(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(j) FROM InvoiceJob j WHERE j.status = 'PENDING'")
+    long countPending();
+
+    // Conditional update, so of several pollers exactly one gets 1 back
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceJob j SET j.status = 'RUNNING', j.lockedUntil = :leaseUntil, j.attempts = j.attempts + 1 " +
+            "WHERE j.id = :id AND ((j.status = 'PENDING' AND j.nextAttemptAt <= :now) " +
+            "OR (j.status = 'RUNNING' AND j.lockedUntil < :now))")
+    int claim(String id, LocalDateTime now, LocalDateTime leaseUntil);
+}
@@ -2,11 +2,17 @@ package com.buildbetter.dataAccess.abstracts;
 
 import com.buildbetter.entities.concretes.Invoice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+
 @Repository
 public interface InvoiceRepository extends JpaRepository<Invoice, String> {
     List<Invoice> findByUserId(String userId);
@@ -20,5 +26,30 @@ public interface InvoiceRepository extends JpaRepository<Invoice, String> {
     @Query("SELECT i FROM Invoice i WHERE i.expert.paymentInfo.stripeCustomerId = :stripeCustomerId")
     Invoice findByStripeCustomerId(@Param("stripeCustomerId") String stripeCustomerId);
 
+    // Touches only the receipt column, so it cannot overwrite a concurrent payment update
+    @Transactional
+    @Modifying
+    @Query("UPDATE Invoice i SET i.stripeReceiptUrl = :receiptUrl WHERE i.id = :id")
+    int updateStripeReceiptUrl(String id, String receiptUrl);
+
+    interface DailyRevenueView {
+        LocalDate getDay();
+
+        Long getInvoiceCount();
+
+        Long getPaidCount();
+
+        BigDecimal getPaidAmount();
+    }
+
+    @Query("SELECT CAST(i.dateIssued AS LocalDate) AS day, COUNT(i) AS invoiceCount, " +
+            "SUM(CASE WHEN i.paid = true THEN 1 ELSE 0 END) AS paidCount, " +
+            "SUM(CASE WHEN i.paid = true THEN i.amount ELSE 0 END) AS paidAmount " +
+            "FROM Invoice i WHERE i.dateIssued >= :start AND i.dateIssued < :end " +
+            "GROUP BY CAST(i.dateIssued AS LocalDate)")
+    List<DailyRevenueView> sumRevenueByDay(LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT i.dateIssued FROM Invoice i WHERE i.id = :id")
+    LocalDateTime findDateIssuedById(String id);
 
 }
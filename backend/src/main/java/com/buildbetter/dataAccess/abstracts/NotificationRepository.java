@@ -2,10 +2,18 @@ package com.buildbetter.dataAccess.abstracts;
 
 import com.buildbetter.entities.concretes.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, String> {
     List<Notification> findByRecipientIdAndIsReadFalseOrderByCreatedAtDesc(String recipientId);
     List<Notification> findByRecipientIdAndIsReadFalse(String recipientId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.recipient.id = :recipientId " +
+            "AND n.isRead = false AND n.createdAt <= :readUpTo")
+    int markAllReadUpTo(String recipientId, LocalDateTime readUpTo);
 }
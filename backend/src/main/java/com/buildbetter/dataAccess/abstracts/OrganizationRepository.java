@@ -1,10 +1,12 @@
 package com.buildbetter.dataAccess.abstracts;
 
 import com.buildbetter.entities.concretes.Organization;
+import com.buildbetter.entities.concretes.SubscriptionPlan;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +20,11 @@ public interface OrganizationRepository extends JpaRepository<Organization, Stri
     @Query("SELECT o FROM Organization o WHERE o.subscription.id = :subscriptionId")
     Optional<Organization> findBySubscriptionId(String subscriptionId);
 
+    @Query("SELECT s.plan FROM Organization o JOIN o.subscription s WHERE o.id = :organizationId")
+    Optional<SubscriptionPlan> findPlanByOrganizationId(String organizationId);
+
     @Query("SELECT COUNT(o) FROM Organization o WHERE o.isActive = true")
     long countActiveOrganizations();
+
+    long countByCreatedAtAfter(LocalDateTime since);
 }
@@ -0,0 +1,37 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.PaymentOperation;
+import com.buildbetter.enums.OperationType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentOperationRepository extends JpaRepository<PaymentOperation, String> {
+
+    @Query("SELECT o FROM PaymentOperation o WHERE o.chatRoom.id = :chatRoomId AND o.operationType = :operationType " +
+            "AND o.status IN ('PENDING', 'PROCESSING')")
+    List<PaymentOperation> findActive(String chatRoomId, OperationType operationType);
+
+    // Due operations, plus processing ones whose worker let the lease expire
+    @Query("SELECT o.id FROM PaymentOperation o WHERE o.status IN ('PENDING', 'PROCESSING') " +
+            "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt")
+    List<String> findDueIds(LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT COUNT(o) FROM PaymentOperation o WHERE o.status IN ('PENDING', 'PROCESSING')")
+    long countActive();
+
+    // Conditional update, so of several workers exactly one gets 1 back
+    @Transactional
+    @Modifying
+    @Query("UPDATE PaymentOperation o SET o.status = 'PROCESSING', o.nextAttemptAt = :leaseUntil, " +
+            "o.attempts = o.attempts + 1 WHERE o.id = :id AND o.status IN ('PENDING', 'PROCESSING') " +
+            "AND o.nextAttemptAt <= :now")
+    int claim(String id, LocalDateTime now, LocalDateTime leaseUntil);
+}
@@ -0,0 +1,23 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.PendingDirectUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface PendingDirectUploadRepository extends JpaRepository<PendingDirectUpload, String> {
+
+    Optional<PendingDirectUpload> findFirstByUserIdAndBlobKeyAndExpiresAtAfterOrderByExpiresAtDesc(
+            String userId, String blobKey, LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PendingDirectUpload u WHERE u.userId = :userId AND u.expiresAt < :now")
+    int deleteExpired(String userId, LocalDateTime now);
+}
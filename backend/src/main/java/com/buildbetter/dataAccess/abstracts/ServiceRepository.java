@@ -3,11 +3,21 @@ package com.buildbetter.dataAccess.abstracts;
 import com.buildbetter.entities.concretes.ServiceEntity;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface ServiceRepository extends JpaRepository<ServiceEntity, String> {
 
+    interface ServiceNameView {
+        String getId();
+        String getName();
+        String getCategoryName();
+    }
+
+    @Query("SELECT s.id AS id, s.name AS name, c.name AS categoryName FROM ServiceEntity s LEFT JOIN s.category c")
+    List<ServiceNameView> findAllNames();
+
     boolean existsByName(String serviceName);
 
     // Kategori ID'ye göre servisleri getir
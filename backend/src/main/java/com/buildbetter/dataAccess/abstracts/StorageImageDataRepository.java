@@ -0,0 +1,28 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.StorageImageData;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StorageImageDataRepository extends JpaRepository<StorageImageData, String> {
+
+    // Keyset page of rows that still carry inline bytes; selects only the ids
+    @Query("SELECT d.id FROM StorageImageData d WHERE d.id > :afterId AND d.imageData IS NOT NULL ORDER BY d.id")
+    List<String> findIdsWithImageDataAfter(String afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(d) FROM StorageImageData d WHERE d.imageData IS NOT NULL")
+    long countWithImageData();
+
+    Optional<StorageImageData> findFirstByNameAndImageDataIsNotNull(String name);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StorageImageData d SET d.imageData = NULL WHERE d.id = :id")
+    int clearImageData(String id);
+}
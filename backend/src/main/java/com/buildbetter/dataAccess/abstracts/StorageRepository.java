@@ -3,15 +3,48 @@ package com.buildbetter.dataAccess.abstracts;
 import com.buildbetter.entities.concretes.Storage;
 import com.buildbetter.entities.concretes.User;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface StorageRepository extends JpaRepository<Storage, String> {
 
+    interface StorageSummaryView {
+        String getId();
+        String getName();
+        String getType();
+        String getUrl();
+        String getAdId();
+    }
+
+    // Image metadata for a batch of ads; never selects the image bytes
+    @Query("SELECT s.id AS id, s.name AS name, s.type AS type, s.url AS url, s.ads.id AS adId " +
+            "FROM Storage s WHERE s.ads.id IN :adIds ORDER BY s.id")
+    List<StorageSummaryView> findSummariesByAdIds(Collection<String> adIds);
+
+    interface StorageObjectView {
+        String getId();
+        String getName();
+        String getType();
+    }
+
+    // Keyset page of the fields needed to find a row's files, for walking the whole table
+    @Query("SELECT s.id AS id, s.name AS name, s.type AS type FROM Storage s WHERE s.id > :afterId ORDER BY s.id")
+    List<StorageObjectView> findObjectsAfter(String afterId, Pageable pageable);
+
     Optional<Storage> findByName(String name);
 
+    long countByBlobKey(String blobKey);
+
+    boolean existsByBlobKeyAndUserId(String blobKey, String userId);
+
+    @Query("SELECT DISTINCT s.blobKey FROM Storage s WHERE s.blobKey IN :blobKeys")
+    List<String> findReferencedBlobKeys(Collection<String> blobKeys);
+
     List<Storage> findByUserAndName(User user, String name);
 
     @NotNull
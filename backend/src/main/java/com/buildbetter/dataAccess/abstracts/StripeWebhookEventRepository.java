@@ -0,0 +1,46 @@
+package com.buildbetter.dataAccess.abstracts;
+
+import com.buildbetter.entities.concretes.StripeWebhookEvent;
+import com.buildbetter.enums.WebhookEventStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // Due events, plus processing ones whose worker let the lease expire. An event is only due
+    // when no older event of the same customer is still waiting or running.
+    @Query("SELECT e.id FROM StripeWebhookEvent e WHERE ((e.status = 'PENDING' AND e.nextAttemptAt <= :now) " +
+            "OR (e.status = 'PROCESSING' AND e.lockedUntil < :now)) " +
+            "AND NOT EXISTS (SELECT p.id FROM StripeWebhookEvent p WHERE p.orderingKey = e.orderingKey " +
+            "AND p.status IN ('PENDING', 'PROCESSING') AND (p.stripeCreated < e.stripeCreated " +
+            "OR (p.stripeCreated = e.stripeCreated AND p.receivedAt < e.receivedAt))) " +
+            "ORDER BY e.stripeCreated, e.receivedAt")
+    List<String> findDueIds(LocalDateTime now, Pageable pageable);
+
+    long countByStatus(WebhookEventStatus status);
+
+    Page<StripeWebhookEvent> findByStatusOrderByReceivedAtDesc(WebhookEventStatus status, Pageable pageable);
+
+    // Conditional update, so of several pollers exactly one gets 1 back
+    @Transactional
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.status = 'PROCESSING', e.lockedUntil = :leaseUntil, " +
+            "e.attempts = e.attempts + 1 WHERE e.id = :id AND ((e.status = 'PENDING' AND e.nextAttemptAt <= :now) " +
+            "OR (e.status = 'PROCESSING' AND e.lockedUntil < :now))")
+    int claim(String id, LocalDateTime now, LocalDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now, " +
+            "e.lastError = null WHERE e.id = :id AND e.status = 'DEAD_LETTER'")
+    int requeueDeadLetter(String id, LocalDateTime now);
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -25,4 +26,19 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Stri
 
     @Query("SELECT COUNT(s) FROM Subscription s WHERE s.status IN ('ACTIVE', 'TRIALING')")
     long countActiveSubscriptions();
+
+    interface StatusPlanSummaryView {
+        SubscriptionStatus getStatus();
+
+        String getPlanName();
+
+        Long getSubscriptionCount();
+
+        BigDecimal getAmountTotal();
+    }
+
+    @Query("SELECT s.status AS status, p.name AS planName, COUNT(s) AS subscriptionCount, " +
+            "COALESCE(SUM(s.amount), 0) AS amountTotal FROM Subscription s LEFT JOIN s.plan p " +
+            "GROUP BY s.status, p.name")
+    List<StatusPlanSummaryView> summarizeByStatusAndPlan();
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -20,4 +21,17 @@ public interface UsageTrackingRepository extends JpaRepository<UsageTracking, St
 
     @Query("SELECT ut FROM UsageTracking ut WHERE ut.organization.id = :organizationId AND ut.periodStart = :periodStart AND ut.periodEnd = :periodEnd")
     List<UsageTracking> findByOrganizationAndPeriod(String organizationId, LocalDateTime periodStart, LocalDateTime periodEnd);
+
+    interface DailyUsageView {
+        LocalDate getDay();
+
+        UsageMetricType getMetricType();
+
+        Long getTotal();
+    }
+
+    @Query("SELECT CAST(ut.timestamp AS LocalDate) AS day, ut.metricType AS metricType, SUM(ut.value) AS total " +
+            "FROM UsageTracking ut WHERE ut.timestamp >= :start AND ut.timestamp < :end " +
+            "GROUP BY CAST(ut.timestamp AS LocalDate), ut.metricType")
+    List<DailyUsageView> sumUsageByDay(LocalDateTime start, LocalDateTime end);
 }
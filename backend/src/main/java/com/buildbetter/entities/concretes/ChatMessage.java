@@ -10,7 +10,9 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 @Entity
-@Table(name = "chat_messages")
+@Table(name = "chat_messages", indexes = {
+        @Index(name = "idx_chat_messages_room_timestamp_id", columnList = "chat_room_id, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
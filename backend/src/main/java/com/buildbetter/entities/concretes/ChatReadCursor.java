@@ -0,0 +1,41 @@
+package com.buildbetter.entities.concretes;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per room and reader high-water mark: every message from the other participants with a
+ * timestamp up to {@code lastReadAt} has been read by {@code user}.
+ */
+@Entity
+@Table(name = "chat_read_cursors", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_chat_read_cursor_room_user", columnNames = {"chat_room_id", "user_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatReadCursor {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "chat_room_id", nullable = false)
+    private ChatRoom chatRoom;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(name = "last_read_at", nullable = false)
+    private LocalDateTime lastReadAt;
+
+    @Column(name = "last_read_message_id")
+    private String lastReadMessageId;
+}
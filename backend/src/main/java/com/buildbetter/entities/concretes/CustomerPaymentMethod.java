@@ -0,0 +1,38 @@
+package com.buildbetter.entities.concretes;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * The SEPA payment method charged for a Stripe customer, so an off-session charge does not
+ * have to list the customer's payment methods first. Kept up to date when a method is
+ * attached or saved and by {@code payment_method.*} webhooks.
+ */
+@Entity
+@Table(name = "customer_payment_methods", indexes = {
+    @Index(name = "idx_customer_payment_method_pm", columnList = "payment_method_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerPaymentMethod {
+    @Id
+    @Column(name = "stripe_customer_id")
+    private String stripeCustomerId;
+
+    @Column(name = "payment_method_id", nullable = false)
+    private String paymentMethodId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
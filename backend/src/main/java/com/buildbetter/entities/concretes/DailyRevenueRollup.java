@@ -0,0 +1,37 @@
+package com.buildbetter.entities.concretes;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Invoice totals of one day, by the invoices' issue date. Rebuilt from the invoices of that day
+ * whenever one of them is written.
+ */
+@Entity
+@Table(name = "daily_revenue_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyRevenueRollup {
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "invoice_count", nullable = false)
+    private Long invoiceCount;
+
+    @Column(name = "paid_count", nullable = false)
+    private Long paidCount;
+
+    @Column(name = "paid_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,44 @@
+package com.buildbetter.entities.concretes;
+
+import com.buildbetter.enums.UsageMetricType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Sum of one usage metric over all organizations for one day. Incremented in the same
+ * transaction that writes the usage rows.
+ */
+@Entity
+@Table(name = "daily_usage_rollups", indexes = {
+    @Index(name = "idx_daily_usage_rollup_day", columnList = "day")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyUsageRollup {
+    // yyyy-MM-dd:METRIC_TYPE, so an increment can upsert on the primary key
+    @Id
+    private String id;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "metric_type", nullable = false)
+    private UsageMetricType metricType;
+
+    @Column(name = "total", nullable = false)
+    private Long total;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public static String idOf(LocalDate day, UsageMetricType metricType) {
+        return day + ":" + metricType.name();
+    }
+}
@@ -0,0 +1,41 @@
+package com.buildbetter.entities.concretes;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A blob key handed out by {@code POST /api/v1/storage/direct-uploads}. Only the user it was
+ * issued to can attach the blob, and only until it expires; the declared size and content type
+ * are checked again against the stored object when it is claimed.
+ */
+@Entity
+@Table(name = "pending_direct_uploads", indexes = {
+    @Index(name = "idx_pending_direct_upload_user_blob", columnList = "user_id, blob_key")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingDirectUpload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "blob_key", nullable = false)
+    private String blobKey;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private long size;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
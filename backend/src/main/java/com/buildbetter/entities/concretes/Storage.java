@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Data
-@Table(name = "storage", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "name"})})
+@Table(name = "storage", uniqueConstraints = {@UniqueConstraint(columnNames = {"user_id", "name"})},
+        indexes = {@Index(name = "idx_storage_blob_key", columnList = "blob_key")})
 @Entity
 @Builder
 @Getter
@@ -20,12 +21,12 @@ public class Storage {
 
     private String type;
 
-    @Lob
-    @Column(name = "image_data", columnDefinition = "BYTEA")
-    private byte[] imageData;
-
     private String url;
 
+    // Content-addressed file shared by every row with the same bytes; null for files stored before blobs
+    @Column(name = "blob_key")
+    private String blobKey;
+
     @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
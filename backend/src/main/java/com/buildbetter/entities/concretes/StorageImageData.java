@@ -0,0 +1,32 @@
+package com.buildbetter.entities.concretes;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Image bytes that older uploads kept inline in the {@code storage} table. Mapped separately
+ * from {@link Storage} so that loading or listing storages never selects them; new uploads
+ * leave the column empty and {@code InlineImageDataMigrator} moves the remaining bytes out to
+ * object storage.
+ */
+@Data
+@Table(name = "storage")
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class StorageImageData {
+    @Id
+    private String id;
+
+    @Column(insertable = false, updatable = false)
+    private String name;
+
+    @Column(insertable = false, updatable = false)
+    private String type;
+
+    @Lob
+    @Column(name = "image_data", columnDefinition = "BYTEA")
+    private byte[] imageData;
+}
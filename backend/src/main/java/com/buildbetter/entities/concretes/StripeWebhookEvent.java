@@ -0,0 +1,89 @@
+package com.buildbetter.entities.concretes;
+
+import com.buildbetter.enums.WebhookEventStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Inbox entry for a Stripe webhook event, keyed by the Stripe event id so a replayed delivery
+ * is recognised and dropped. Events with the same ordering key, the Stripe customer, are
+ * processed one at a time in the order Stripe created them.
+ */
+@Entity
+@Table(name = "stripe_webhook_events", indexes = {
+    @Index(name = "idx_webhook_event_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_webhook_event_ordering_key", columnList = "ordering_key, stripe_created")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StripeWebhookEvent implements Persistable<String> {
+    // The Stripe event id (evt_...)
+    @Id
+    private String id;
+
+    @Column(name = "event_type", nullable = false)
+    private String eventType;
+
+    @Column(name = "ordering_key", nullable = false)
+    private String orderingKey;
+
+    // Epoch seconds at which Stripe created the event
+    @Column(name = "stripe_created", nullable = false)
+    private Long stripeCreated;
+
+    @Column(name = "payload", columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private WebhookEventStatus status;
+
+    @Builder.Default
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "received_at", nullable = false, updatable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // The id is assigned, so saving must insert rather than merge; a replay then fails on the key
+    @Transient
+    @Builder.Default
+    private boolean newEvent = true;
+
+    @Override
+    public boolean isNew() {
+        return newEvent;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        receivedAt = LocalDateTime.now();
+        if (nextAttemptAt == null) {
+            nextAttemptAt = receivedAt;
+        }
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newEvent = false;
+    }
+}
@@ -0,0 +1,42 @@
+package com.buildbetter.entities.concretes;
+
+import com.buildbetter.enums.SubscriptionStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Number and summed amount of subscriptions per status and plan. The table has one row per
+ * combination in use and is rebuilt whenever a subscription changes.
+ */
+@Entity
+@Table(name = "subscription_rollups")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private SubscriptionStatus status;
+
+    // Null for subscriptions without a plan
+    @Column(name = "plan_name")
+    private String planName;
+
+    @Column(name = "subscription_count", nullable = false)
+    private Long subscriptionCount;
+
+    @Column(name = "amount_total", nullable = false, precision = 19, scale = 2)
+    private BigDecimal amountTotal;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+}
@@ -0,0 +1,8 @@
+package com.buildbetter.enums;
+
+public enum InvoiceJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
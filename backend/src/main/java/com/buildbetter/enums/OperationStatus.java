@@ -5,6 +5,7 @@ import lombok.Getter;
 @Getter
 public enum OperationStatus {
     PENDING,
+    PROCESSING,
     COMPLETED,
     FAILED
 }
@@ -0,0 +1,8 @@
+package com.buildbetter.enums;
+
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSING,
+    PROCESSED,
+    DEAD_LETTER
+}
@@ -13,8 +13,10 @@ import com.buildbetter.dataAccess.abstracts.UserRepository;
 import com.buildbetter.entities.concretes.*;
 import com.buildbetter.enums.Status;
 import com.buildbetter.security.jwt.JwtService;
+import com.buildbetter.security.jwt.UserDetailsCache;
 import com.buildbetter.security.token.*;
 import com.stripe.exception.StripeException;
+import io.jsonwebtoken.Claims;
 import com.stripe.model.SetupIntent;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -46,6 +48,8 @@ public class AuthenticationService {
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final StripeManager stripeManager;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final UserDetailsCache userDetailsCache;
 
     private final static Logger logger = LoggerFactory.getLogger(AuthenticationService.class);
 
@@ -222,6 +226,7 @@ public class AuthenticationService {
     }
 
     private void revokeAllUserTokens(User user) {
+        userDetailsCache.evict(user.getEmail());
         var validConsumerTokens = tokenRepository.findAllValidTokenByUser(user.getId());
         if (validConsumerTokens.isEmpty())
             return;
@@ -230,6 +235,13 @@ public class AuthenticationService {
             token.setRevoked(true);
         });
         tokenRepository.saveAll(validConsumerTokens);
+
+        validConsumerTokens.forEach(token -> {
+            Claims claims = jwtService.parseValidClaims(token.getToken());
+            if (claims != null) {
+                tokenRevocationRegistry.revoke(token.getToken(), claims.getExpiration().getTime());
+            }
+        });
     }
 
     public void refreshToken(
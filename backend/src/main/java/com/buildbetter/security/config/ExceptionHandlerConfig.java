@@ -4,8 +4,6 @@ import com.buildbetter.core.utilities.exceptions.BusinessException;
 import com.buildbetter.core.utilities.exceptions.ProblemDetails;
 import com.buildbetter.core.utilities.exceptions.ValidationProblemDetails;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.FieldError;
@@ -40,8 +38,4 @@ public class ExceptionHandlerConfig {
 
         return validationProblemDetails;
     }
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
 }
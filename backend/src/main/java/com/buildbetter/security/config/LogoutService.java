@@ -1,6 +1,10 @@
 package com.buildbetter.security.config;
 
+import com.buildbetter.security.jwt.JwtService;
+import com.buildbetter.security.jwt.UserDetailsCache;
 import com.buildbetter.security.token.TokenRepository;
+import com.buildbetter.security.token.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +17,9 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class LogoutService implements LogoutHandler {
     private final TokenRepository tokenRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final UserDetailsCache userDetailsCache;
+    private final JwtService jwtService;
 
     @Override
     public void logout(HttpServletRequest request, HttpServletResponse response, Authentication authentication) {
@@ -27,6 +34,12 @@ public class LogoutService implements LogoutHandler {
             storedToken.setExpired(true);
             storedToken.setRevoked(true);
             tokenRepository.save(storedToken);
+
+            Claims claims = jwtService.parseValidClaims(jwt);
+            if (claims != null) {
+                tokenRevocationRegistry.revoke(jwt, claims.getExpiration().getTime());
+                userDetailsCache.evict(claims.getSubject());
+            }
             SecurityContextHolder.clearContext();
         }
     }
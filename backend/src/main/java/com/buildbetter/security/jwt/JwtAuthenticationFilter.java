@@ -1,6 +1,8 @@
 package com.buildbetter.security.jwt;
 
 import com.buildbetter.security.token.TokenRepository;
+import com.buildbetter.security.token.TokenRevocationRegistry;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +11,6 @@ import lombok.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -20,13 +21,16 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userService;
+    private final UserDetailsCache userDetailsCache;
     private final TokenRepository tokenRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userService, TokenRepository tokenRepository) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsCache userDetailsCache,
+                                   TokenRepository tokenRepository, TokenRevocationRegistry tokenRevocationRegistry) {
         this.jwtService = jwtService;
-        this.userService = userService;
+        this.userDetailsCache = userDetailsCache;
         this.tokenRepository = tokenRepository;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
     }
 
     @Override
@@ -52,13 +56,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userService.loadUserByUsername(userEmail);
-            var isTokenValid = tokenRepository.findByToken(jwt)
-                    .map(t -> !t.isExpired() && !t.isRevoked())
-                    .orElse(false);
-            if (jwtService.isTokenValid(jwt, userDetails) && isTokenValid) {
+
+        // Signature and expiry are verified once here; an invalid token leaves the request unauthenticated
+        Claims claims = jwtService.parseValidClaims(jwt);
+        userEmail = claims != null ? claims.getSubject() : null;
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationRegistry.isRevoked(jwt)) {
+            long now = System.currentTimeMillis();
+            UserDetails userDetails = userDetailsCache.loadUserByUsername(userEmail, now);
+            if (userEmail.equals(userDetails.getUsername()) && isTokenActive(jwt, claims, now)) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -73,6 +79,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isTokenActive(String jwt, Claims claims, long now) {
+        if (tokenRevocationRegistry.isVerified(jwt, now)) {
+            return true;
+        }
+        long expiresAt = claims.getExpiration().getTime();
+        var storedToken = tokenRepository.findByToken(jwt);
+        boolean active = storedToken
+                .map(t -> !t.isExpired() && !t.isRevoked())
+                .orElse(false);
+        if (active) {
+            tokenRevocationRegistry.markVerified(jwt, expiresAt, now);
+        } else if (storedToken.isPresent()) {
+            tokenRevocationRegistry.revoke(jwt, expiresAt);
+        }
+        return active;
+    }
+
     private boolean isWebSocketHandshake(HttpServletRequest request){
         return "WebSocket".equalsIgnoreCase(request.getHeader("Upgrade")) ||
                 request.getServletPath().contains("/ws");
@@ -0,0 +1,88 @@
+package com.buildbetter.security.jwt;
+
+import com.buildbetter.entities.concretes.Organization;
+import com.buildbetter.entities.concretes.Role;
+import com.buildbetter.entities.concretes.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Short-lived cache of principals loaded by the JWT filter, keyed by username (email).
+ * Only an immutable snapshot of the account is kept and every lookup returns a new detached User
+ * built from it, so requests never share a principal and nothing cached is ever saved back.
+ * Entries are evicted on logout and on PrincipalChangedEvent (password, role, blocked flag, delete).
+ */
+@Component
+public class UserDetailsCache {
+
+    @Value("${spring.security.jwt.user-cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${spring.security.jwt.user-cache-max-entries:10000}")
+    private int maxEntries;
+
+    private final UserDetailsService userDetailsService;
+    private final ConcurrentHashMap<String, CachedUser> users = new ConcurrentHashMap<>();
+    // Bumped by every evict; a load that overlapped one may have read the old row, so it is not kept
+    private final AtomicLong evictions = new AtomicLong();
+
+    private record CachedUser(String id, String email, String passwordHash, Role role, boolean accountBlocked,
+                              String organizationId, long expiresAtMillis) {
+
+        static CachedUser of(User user, long expiresAtMillis) {
+            return new CachedUser(user.getId(), user.getEmail(), user.getPassword(), user.getRole(),
+                    user.isAccountBlocked(),
+                    user.getOrganization() != null ? user.getOrganization().getId() : null,
+                    expiresAtMillis);
+        }
+
+        User toPrincipal() {
+            return User.builder()
+                    .id(id)
+                    .email(email)
+                    .password(passwordHash)
+                    .role(role)
+                    .accountBlocked(accountBlocked)
+                    .organization(organizationId != null ? Organization.builder().id(organizationId).build() : null)
+                    .build();
+        }
+    }
+
+    public UserDetailsCache(UserDetailsService userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    public UserDetails loadUserByUsername(String username, long nowMillis) {
+        CachedUser cached = users.get(username);
+        if (cached != null && cached.expiresAtMillis() > nowMillis) {
+            return cached.toPrincipal();
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if (!(userDetails instanceof User user)) {
+            return userDetails;
+        }
+        CachedUser loaded = CachedUser.of(user, nowMillis + ttlMillis);
+        if (users.size() >= maxEntries) {
+            users.entrySet().removeIf(entry -> entry.getValue().expiresAtMillis() <= nowMillis);
+        }
+        if (users.size() < maxEntries) {
+            users.put(username, loaded);
+            if (evictions.get() != evictionsBeforeLoad) {
+                users.remove(username, loaded);
+            }
+        }
+        return loaded.toPrincipal();
+    }
+
+    public void evict(String username) {
+        evictions.incrementAndGet();
+        users.remove(username);
+    }
+}
@@ -0,0 +1,67 @@
+package com.buildbetter.security.token;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of token state so authenticated requests can skip the token table.
+ * <p>
+ * Tokens confirmed active in the database are remembered for a short TTL; tokens revoked on
+ * this node (logout, re-login, refresh) are remembered until their JWT expiry, after which
+ * the signature check rejects them anyway. The database stays authoritative: unknown tokens
+ * are always checked there, and revocations made on another node are picked up once the
+ * verified entry expires.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    @Value("${spring.security.jwt.verified-cache-ttl-ms:60000}")
+    private long verifiedTtlMillis;
+
+    @Value("${spring.security.jwt.token-cache-max-entries:100000}")
+    private int maxEntries;
+
+    private final ConcurrentHashMap<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Long> verifiedUntil = new ConcurrentHashMap<>();
+
+    public boolean isRevoked(String token) {
+        return revokedUntil.containsKey(token);
+    }
+
+    public boolean isVerified(String token, long nowMillis) {
+        Long until = verifiedUntil.get(token);
+        return until != null && until > nowMillis;
+    }
+
+    public void markVerified(String token, long jwtExpiresAtMillis, long nowMillis) {
+        if (verifiedUntil.size() >= maxEntries) {
+            verifiedUntil.entrySet().removeIf(entry -> entry.getValue() <= nowMillis);
+            if (verifiedUntil.size() >= maxEntries) {
+                return;
+            }
+        }
+        verifiedUntil.put(token, Math.min(jwtExpiresAtMillis, nowMillis + verifiedTtlMillis));
+    }
+
+    public void revoke(String token, long jwtExpiresAtMillis) {
+        verifiedUntil.remove(token);
+        long now = System.currentTimeMillis();
+        if (jwtExpiresAtMillis <= now) {
+            return;
+        }
+        if (revokedUntil.size() >= maxEntries) {
+            revokedUntil.entrySet().removeIf(entry -> entry.getValue() <= now);
+            if (revokedUntil.size() >= maxEntries) {
+                // Cannot remember more revocations: stop trusting the verified cache instead
+                log.warn("Token revocation registry full, falling back to database checks");
+                verifiedUntil.clear();
+                return;
+            }
+        }
+        revokedUntil.put(token, jwtExpiresAtMillis);
+    }
+}
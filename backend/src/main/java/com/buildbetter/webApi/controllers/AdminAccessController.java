@@ -1,9 +1,11 @@
 package com.buildbetter.webApi.controllers;
 
+import com.buildbetter.core.utilities.events.PrincipalChangedEvent;
 import com.buildbetter.dataAccess.abstracts.UserRepository;
 import com.buildbetter.entities.concretes.Role;
 import com.buildbetter.entities.concretes.User;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -14,10 +16,12 @@ import org.springframework.web.bind.annotation.*;
 public class AdminAccessController {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AdminAccessController(UserRepository userRepository) {
+    public AdminAccessController(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @PostMapping("/promote/{email}")
@@ -28,6 +32,7 @@ public class AdminAccessController {
 
         user.setRole(Role.ADMIN);
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(this, user.getEmail()));
 
         return ResponseEntity.ok("User promoted to ADMIN role successfully");
     }
@@ -45,6 +50,7 @@ public class AdminAccessController {
 
         user.setRole(Role.USER);
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(this, user.getEmail()));
 
         return ResponseEntity.ok("User demoted from ADMIN role successfully");
     }
@@ -1,6 +1,7 @@
 package com.buildbetter.webApi.controllers;
 
 import com.buildbetter.business.abstracts.AdminService;
+import com.buildbetter.business.requests.StartStorageMigrationRequest;
 import com.buildbetter.business.responses.admin.DashboardStatsResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -76,6 +77,17 @@ public class AdminController {
         return adminService.viewStorage(fileName);
     }
 
+    // Dosyaları depolama arka uçları arasında arka planda taşır
+    @PostMapping("/storages/migrations")
+    public ResponseEntity<?> startStorageMigration(@RequestBody StartStorageMigrationRequest request) {
+        return ResponseEntity.ok(adminService.startStorageMigration(request));
+    }
+
+    @GetMapping("/storages/migrations/current")
+    public ResponseEntity<?> getStorageMigrationStatus() {
+        return ResponseEntity.ok(adminService.getStorageMigrationStatus());
+    }
+
     // Yardımcı sınıf
     public static class UpdateAdStatusRequest {
         private boolean isActive;
@@ -1,19 +1,29 @@
 package com.buildbetter.webApi.controllers;
 
+import com.buildbetter.business.abstracts.AdSearchService;
 import com.buildbetter.business.abstracts.AdsService;
 import com.buildbetter.business.concretes.StorageManager;
+import com.buildbetter.business.requests.AttachDirectUploadsRequest;
 import com.buildbetter.business.requests.CreateAdsRequest;
+import com.buildbetter.business.requests.GetAdCatalogRequest;
 import com.buildbetter.business.requests.UpdateAdsRequest;
 import com.buildbetter.business.responses.GetAllAdsResponse;
+import com.buildbetter.business.responses.GetSearchResultResponse;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -24,6 +34,7 @@ public class AdsController {
     private static final Logger logger = LoggerFactory.getLogger(AdsController.class);
 
     private final AdsService adsService;
+    private final AdSearchService adSearchService;
     private final StorageManager storageManager; // Sadece resim sunmak için
 
     // --- GET Endpoints ---
@@ -35,6 +46,21 @@ public class AdsController {
         return ResponseEntity.ok(ads);
     }
 
+    // Sayfalı ve filtrelenebilir katalog (kategori, servis, aktiflik, yayın tarihi aralığı)
+    @GetMapping("/catalog")
+    public ResponseEntity<Page<GetAllAdsResponse>> getCatalog(@ModelAttribute GetAdCatalogRequest request) {
+        logger.debug("Request received for ad catalog: {}", request);
+        return ResponseEntity.ok(adsService.getCatalog(request));
+    }
+
+    // İlan, kategori ve servislerde tam metin arama (önek ve yazım hatası toleranslı)
+    @GetMapping("/search")
+    public ResponseEntity<List<GetSearchResultResponse>> search(@RequestParam("q") String query,
+                                                                @RequestParam(required = false) String type,
+                                                                @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(adSearchService.search(query, type, limit));
+    }
+
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<GetAllAdsResponse>> getUserAds(@PathVariable String userId) {
         // Yetkilendirme (Authorization) kontrolü servis katmanında yapılmalı
@@ -69,13 +95,12 @@ public class AdsController {
     }
 
     // Resim sunma endpoint'i
-    @GetMapping("/{id}/images/{imageName}")
-    public ResponseEntity<?> serveImage(@PathVariable String id, @PathVariable String imageName) {
-        // Bu endpoint doğrudan StorageManager/Service'e delege edilebilir
-        // veya güvenlik amacıyla önce ilan var mı diye bakılabilir.
+    // ETag, If-None-Match / If-Modified-Since ve Range destekler; veritabanına gitmez
+    @GetMapping("/{id}/images/{imageName:.+}")
+    public void serveImage(@PathVariable String id, @PathVariable String imageName,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
         logger.debug("Request received to serve image {} for ad ID: {}", imageName, id);
-        // if (!adsService.existsById(id)) { return ResponseEntity.notFound().build(); } // Opsiyonel kontrol
-        return storageManager.serveImage(imageName); // StorageManager halleder
+        storageManager.serveImage(imageName, request, response); // StorageManager halleder
     }
 
     // --- POST / PUT / DELETE Endpoints ---
@@ -99,6 +124,16 @@ public class AdsController {
         return adsService.update(updateAdsRequest); // Servis ResponseEntity döndürmeli
     }
 
+    // İstemcinin /api/v1/storage/direct-uploads ile doğrudan depolamaya yüklediği resimleri ilana bağlar
+    @PostMapping("/{id}/images/direct")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<String>> attachDirectUploads(@PathVariable String id,
+                                                            @RequestBody AttachDirectUploadsRequest request,
+                                                            Principal principal) throws IOException {
+        logger.info("Request received to attach direct uploads to ad ID: {}", id);
+        return ResponseEntity.ok(adsService.attachDirectUploads(id, request, principal.getName()));
+    }
+
     // Belirli bir resmi silmek için endpoint
     @DeleteMapping("/images/{imageId}")
     @PreAuthorize("isAuthenticated()")
@@ -2,7 +2,6 @@ package com.buildbetter.webApi.controllers;
 
 import com.buildbetter.business.abstracts.UserService;
 import com.buildbetter.business.concretes.ChatManager;
-import com.buildbetter.business.concretes.ChatValidationManager;
 import com.buildbetter.business.requests.CreateChatMessageRequest;
 import com.buildbetter.business.responses.*;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
@@ -12,6 +11,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,7 +25,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/chat")
@@ -35,7 +34,6 @@ public class ChatController {
     private final ChatManager chatService;
     private final SimpMessagingTemplate messagingTemplate;
     private final UserService userService;
-    private final ChatValidationManager chatValidationManager;
 
     @MessageMapping("/chat")
     @SendToUser("/queue/messages")
@@ -43,28 +41,18 @@ public class ChatController {
             CreateChatMessageRequest messageRequest,
             Authentication authentication) {
         try {
-            // Get user from authentication
-            String userEmail = authentication.getName();
-            User user = userService.getByEmail(userEmail);
+            log.debug("Received message from user {}: {}", authentication.getName(), messageRequest);
 
-            log.debug("Received message from user {}: {}", userEmail, messageRequest);
-
-            // Verify the sender is authorized
-            validateSender(messageRequest, user);
-            chatValidationManager.validateChatMessageRequest(messageRequest);
-
-            ChatMessage message = chatService.sendMessage(
-                    messageRequest.getSenderId(),
-                    messageRequest.getChatRoomId(),
-                    messageRequest.getContent(),
-                    messageRequest.isContactInfo());
-
-            GetChatMessageResponse response = GetChatMessageResponse.fromEntity(message);
+            // Sender, room access and content are checked against the cached room membership
+            ChatManager.SentChatMessage sent = chatService.ingestMessage(messageRequest, authentication.getName());
 
             // Send to recipient
-            notifyRecipient(message, messageRequest.getSenderId(), response);
+            messagingTemplate.convertAndSendToUser(
+                    sent.recipientId(),
+                    "/queue/messages",
+                    sent.response());
 
-            return response;
+            return sent.response();
         } catch (Exception e) {
             log.error("Error processing chat message", e);
             throw new BusinessException("Failed to process message: " + e.getMessage());
@@ -82,19 +70,7 @@ public class ChatController {
     public ResponseEntity<List<GetChatRoomResponse>> getChatRooms(Principal principal) {
         try {
             User user = userService.getByEmail(principal.getName());
-            List<ChatRoom> chatRooms;
-
-            if (user instanceof Expert) {
-                chatRooms = chatService.getExpertChatRooms(user.getId());
-            } else {
-                chatRooms = chatService.getUserChatRooms(user.getId());
-            }
-
-            List<GetChatRoomResponse> response = chatRooms.stream()
-                    .map(GetChatRoomResponse::fromEntity)
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(chatService.getChatRoomSummaries(user));
         } catch (Exception e) {
             log.error("Error fetching chat rooms", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -137,6 +113,28 @@ public class ChatController {
         }
     }
 
+    @GetMapping("/rooms/{chatRoomId}/messages/history")
+    public ResponseEntity<GetChatMessageSliceResponse> getChatHistory(
+            @PathVariable String chatRoomId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size,
+            Principal principal) {
+        try {
+            Slice<ChatMessage> messages = chatService.getChatHistory(chatRoomId, principal.getName(), before, after, size);
+            return ResponseEntity.ok(GetChatMessageSliceResponse.fromSlice(messages));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (BusinessException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error fetching chat history", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PostMapping("/rooms/{chatRoomId}/messages/read")
     public ResponseEntity<Void> markMessagesAsRead(
             @PathVariable String chatRoomId,
@@ -215,21 +213,4 @@ public class ChatController {
                     .body(new ErrorResponse("Failed to share contact information: " + e.getMessage()));
         }
     }
-    private void validateSender(CreateChatMessageRequest messageRequest, User user) {
-        if (!"SYSTEM".equals(messageRequest.getSenderId()) &&
-                !messageRequest.getSenderId().equals(user.getId())) {
-            throw new AccessDeniedException("Unauthorized message sender");
-        }
-    }
-
-    private void notifyRecipient(ChatMessage message, String senderId, GetChatMessageResponse response) {
-        String recipientId = message.getChatRoom().getUser().getId().equals(senderId)
-                ? message.getChatRoom().getExpert().getId()
-                : message.getChatRoom().getUser().getId();
-
-        messagingTemplate.convertAndSendToUser(
-                recipientId,
-                "/queue/messages",
-                response);
-    }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package com.buildbetter.webApi.controllers;
 import com.buildbetter.business.abstracts.ExpertService;
 import com.buildbetter.business.abstracts.UserService;
 import com.buildbetter.business.concretes.ExpertManager;
+import com.buildbetter.business.concretes.PaymentMethodRegistry;
 import com.buildbetter.business.concretes.StripeManager;
 import com.buildbetter.business.requests.SepaPaymentRequest;
 import com.buildbetter.business.requests.UpdateExpertRequest;
@@ -49,9 +50,12 @@ public class ExpertController {
 
     private final PaymentInfoRepository paymentInfoRepository;
 
+    private final PaymentMethodRegistry paymentMethodRegistry;
+
     public ExpertController(ExpertService expertService, ExpertRepository expertRepository,
             UserRepository userRepository, ExpertManager expertManager, UserService userService, JwtService jwtService,
-            StripeManager stripeManager, PaymentInfoRepository paymentInfoRepository) {
+            StripeManager stripeManager, PaymentInfoRepository paymentInfoRepository,
+            PaymentMethodRegistry paymentMethodRegistry) {
         this.expertService = expertService;
         this.expertRepository = expertRepository;
         this.userRepository = userRepository;
@@ -60,6 +64,7 @@ public class ExpertController {
         this.jwtService = jwtService;
         this.stripeManager = stripeManager;
         this.paymentInfoRepository = paymentInfoRepository;
+        this.paymentMethodRegistry = paymentMethodRegistry;
     }
 
     @GetMapping("/{expertId}/payment-info")
@@ -156,6 +161,7 @@ public class ExpertController {
             PaymentMethodCollection existingMethods = PaymentMethod.list(listParams);
             for (PaymentMethod method : existingMethods.getData()) {
                 method.detach();
+                paymentMethodRegistry.unregister(method.getId());
             }
 
             // Create SEPA Payment Method
@@ -191,6 +197,7 @@ public class ExpertController {
             expert.setPaymentInfo(paymentInfo);
             paymentInfoRepository.save(paymentInfo);
             expertRepository.save(expert);
+            paymentMethodRegistry.register(expert.getStripeCustomerId(), paymentMethod.getId());
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
@@ -286,6 +293,7 @@ public class ExpertController {
                 try {
                     PaymentMethod paymentMethod = PaymentMethod.retrieve(paymentInfo.getPaymentMethodId());
                     paymentMethod.detach();
+                    paymentMethodRegistry.unregister(paymentMethod.getId());
                 } catch (StripeException e) {
                     log.error("Error detaching payment method from Stripe: {}", e.getMessage());
                 }
@@ -1,5 +1,20 @@
 package com.buildbetter.webApi.controllers;
 
+import com.buildbetter.business.abstracts.AdSearchService;
+import com.buildbetter.business.abstracts.EntitlementService;
+import com.buildbetter.business.concretes.AdCatalogCache;
+import com.buildbetter.business.concretes.AnalyticsRollupManager;
+import com.buildbetter.business.concretes.ChatManager;
+import com.buildbetter.business.concretes.ChatPaymentSaga;
+import com.buildbetter.business.concretes.ContentAddressedBlobStore;
+import com.buildbetter.business.concretes.ImageDerivativeGenerator;
+import com.buildbetter.business.concretes.InlineImageDataMigrator;
+import com.buildbetter.business.concretes.InvoiceRenderWorker;
+import com.buildbetter.business.concretes.NotificationDispatcher;
+import com.buildbetter.business.concretes.PaymentMethodRegistry;
+import com.buildbetter.business.concretes.StripeWebhookInbox;
+import com.buildbetter.business.concretes.UsageMeteringManager;
+import com.buildbetter.core.storage.ObjectStorageDriver;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
@@ -26,6 +41,21 @@ import java.util.Map;
 public class HealthController {
 
     private final DataSource dataSource;
+    private final UsageMeteringManager usageMeteringManager;
+    private final EntitlementService entitlementService;
+    private final NotificationDispatcher notificationDispatcher;
+    private final AdCatalogCache adCatalogCache;
+    private final AdSearchService adSearchService;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+    private final InlineImageDataMigrator inlineImageDataMigrator;
+    private final InvoiceRenderWorker invoiceRenderWorker;
+    private final ChatManager chatManager;
+    private final ChatPaymentSaga chatPaymentSaga;
+    private final StripeWebhookInbox stripeWebhookInbox;
+    private final PaymentMethodRegistry paymentMethodRegistry;
+    private final AnalyticsRollupManager analyticsRollupManager;
+    private final ContentAddressedBlobStore blobStore;
+    private final ObjectStorageDriver storageDriver;
 
     @Data
     @Builder
@@ -70,6 +100,23 @@ public class HealthController {
                 "javaVersion", System.getProperty("java.version")
         ));
 
+        // Write-behind usage metering
+        details.put("usageMetering", usageMeteringManager.getStats());
+        details.put("entitlementCache", entitlementService.getCacheStats());
+        details.put("notificationDispatch", notificationDispatcher.getStats());
+        details.put("adCatalogCache", adCatalogCache.getCacheStats());
+        details.put("adSearchIndex", adSearchService.getStats());
+        details.put("imageDerivatives", imageDerivativeGenerator.getStats());
+        details.put("blobStore", blobStore.getStats());
+        details.put("inlineImageMigration", inlineImageDataMigrator.getStats());
+        details.put("invoiceRendering", invoiceRenderWorker.getStats());
+        details.put("chatIngest", chatManager.getIngestStats());
+        details.put("paymentSaga", chatPaymentSaga.getStats());
+        details.put("stripeWebhooks", stripeWebhookInbox.getStats());
+        details.put("paymentMethodRegistry", paymentMethodRegistry.getStats());
+        details.put("analyticsRollups", analyticsRollupManager.getStats());
+        details.put("storageBackend", storageDriver.getName());
+
         String overallStatus = components.values().stream()
                 .allMatch(s -> s.equals("UP")) ? "UP" : "DEGRADED";
 
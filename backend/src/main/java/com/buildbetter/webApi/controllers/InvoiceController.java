@@ -3,7 +3,6 @@ package com.buildbetter.webApi.controllers;
 import com.buildbetter.business.abstracts.InvoiceService;
 import com.buildbetter.entities.concretes.Invoice;
 import com.buildbetter.enums.PaymentType;
-import com.stripe.exception.StripeException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -74,6 +73,16 @@ public class InvoiceController {
         }
     }
 
+    // PDF'in arka planda hazırlanma durumu; ready=true olduğunda indirilebilir
+    @GetMapping("/{invoiceId}/status")
+    public ResponseEntity<?> getInvoiceRenderStatus(@PathVariable String invoiceId) {
+        try {
+            return ResponseEntity.ok(invoiceService.getRenderStatus(invoiceId));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @GetMapping("/receipt/{invoiceId}")
     public ResponseEntity<?> getInvoiceReceiptUrl(@PathVariable String invoiceId) {
         try {
@@ -103,9 +112,6 @@ public class InvoiceController {
             return ResponseEntity.ok(invoice);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
-        } catch (IOException | StripeException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error generating invoice: " + e.getMessage());
         }
     }
 
@@ -132,9 +138,6 @@ public class InvoiceController {
             return ResponseEntity.ok(invoice);
         } catch (EntityNotFoundException e) {
             return ResponseEntity.notFound().build();
-        } catch (IOException | StripeException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error generating invoice: " + e.getMessage());
         }
     }
 }
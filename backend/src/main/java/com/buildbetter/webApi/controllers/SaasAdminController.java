@@ -3,9 +3,11 @@ package com.buildbetter.webApi.controllers;
 import com.buildbetter.business.abstracts.OrganizationService;
 import com.buildbetter.business.abstracts.SubscriptionService;
 import com.buildbetter.business.abstracts.UsageTrackingService;
+import com.buildbetter.business.concretes.AnalyticsRollupManager;
+import com.buildbetter.business.concretes.StripeWebhookInbox;
+import com.buildbetter.business.responses.GetWebhookEventResponse;
 import com.buildbetter.dataAccess.abstracts.*;
 import com.buildbetter.enums.SubscriptionStatus;
-import com.buildbetter.enums.UsageMetricType;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.AllArgsConstructor;
@@ -17,6 +19,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
@@ -30,12 +33,11 @@ import java.util.Map;
 public class SaasAdminController {
 
     private final OrganizationRepository organizationRepository;
-    private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
     private final AdsRepository adsRepository;
-    private final InvoiceRepository invoiceRepository;
     private final AuditLogRepository auditLogRepository;
-    private final UsageTrackingRepository usageTrackingRepository;
+    private final StripeWebhookInbox stripeWebhookInbox;
+    private final AnalyticsRollupManager analyticsRollupManager;
 
     @Data
     @Builder
@@ -73,11 +75,13 @@ public class SaasAdminController {
         long activeOrgs = organizationRepository.countActiveOrganizations();
         long totalUsers = userRepository.count();
         long totalAds = adsRepository.count();
-        long activeSubscriptions = subscriptionRepository.countActiveSubscriptions();
 
         // Get subscription counts by status
-        long trialingSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.TRIALING).size();
-        long canceledSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.CANCELED).size();
+        Map<SubscriptionStatus, Long> subscriptionsByStatus = analyticsRollupManager.getSubscriptionsByStatus();
+        long activeSubscriptions = subscriptionsByStatus.get(SubscriptionStatus.ACTIVE)
+                + subscriptionsByStatus.get(SubscriptionStatus.TRIALING);
+        long trialingSubscriptions = subscriptionsByStatus.get(SubscriptionStatus.TRIALING);
+        long canceledSubscriptions = subscriptionsByStatus.get(SubscriptionStatus.CANCELED);
 
         // Calculate revenue
         BigDecimal totalRevenue = calculateTotalRevenue();
@@ -113,7 +117,7 @@ public class SaasAdminController {
         metrics.put("totalRevenue", calculateTotalRevenue());
         metrics.put("monthlyRecurringRevenue", calculateMRR());
         metrics.put("averageRevenuePerUser", calculateARPU());
-        metrics.put("churnRate", calculateChurnRate());
+        metrics.put("churnRate", calculateChurnRate(analyticsRollupManager.getSubscriptionsByStatus()));
         return ResponseEntity.ok(metrics);
     }
 
@@ -132,10 +136,12 @@ public class SaasAdminController {
     @Operation(summary = "Get subscription analytics")
     public ResponseEntity<Map<String, Object>> getSubscriptionAnalytics() {
         Map<String, Object> analytics = new HashMap<>();
-        analytics.put("activeSubscriptions", subscriptionRepository.countActiveSubscriptions());
-        analytics.put("subscriptionsByStatus", getSubscriptionsByStatus());
+        Map<SubscriptionStatus, Long> subscriptionsByStatus = analyticsRollupManager.getSubscriptionsByStatus();
+        analytics.put("activeSubscriptions", subscriptionsByStatus.get(SubscriptionStatus.ACTIVE)
+                + subscriptionsByStatus.get(SubscriptionStatus.TRIALING));
+        analytics.put("subscriptionsByStatus", getSubscriptionsByStatus(subscriptionsByStatus));
         analytics.put("subscriptionsByPlan", getSubscriptionsByPlan());
-        analytics.put("conversionRate", calculateTrialConversionRate());
+        analytics.put("conversionRate", calculateTrialConversionRate(subscriptionsByStatus));
         return ResponseEntity.ok(analytics);
     }
 
@@ -145,20 +151,32 @@ public class SaasAdminController {
         return ResponseEntity.ok(getUsageMetricsSummary());
     }
 
-    // Helper methods
+    @GetMapping("/webhooks/dead-letters")
+    @Operation(summary = "List Stripe webhook events that failed all processing attempts")
+    public ResponseEntity<List<GetWebhookEventResponse>> getWebhookDeadLetters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(stripeWebhookInbox.getDeadLetters(page, Math.min(size, 200)));
+    }
+
+    @PostMapping("/webhooks/dead-letters/{eventId}/retry")
+    @Operation(summary = "Requeue a dead-lettered Stripe webhook event")
+    public ResponseEntity<Map<String, Object>> retryWebhookDeadLetter(@PathVariable String eventId) {
+        if (!stripeWebhookInbox.requeue(eventId)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("eventId", eventId, "requeued", true));
+    }
+
+    // Helper methods; revenue, subscription and usage figures come from the analytics rollups
     private BigDecimal calculateTotalRevenue() {
         // Sum all paid invoices
-        return invoiceRepository.findAll().stream()
-                .filter(invoice -> invoice.isPaid())
-                .map(invoice -> invoice.getAmount())
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return analyticsRollupManager.getTotalRevenue();
     }
 
     private BigDecimal calculateMRR() {
         // Calculate Monthly Recurring Revenue from active subscriptions
-        return subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE).stream()
-                .map(sub -> sub.getAmount() != null ? sub.getAmount() : BigDecimal.ZERO)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return analyticsRollupManager.getMonthlyRecurringRevenue();
     }
 
     private BigDecimal calculateARPU() {
@@ -167,59 +185,38 @@ public class SaasAdminController {
         return calculateMRR().divide(BigDecimal.valueOf(activeUsers), 2, BigDecimal.ROUND_HALF_UP);
     }
 
-    private double calculateChurnRate() {
-        long totalSubscriptions = subscriptionRepository.count();
-        long canceledSubscriptions = subscriptionRepository.findByStatus(SubscriptionStatus.CANCELED).size();
+    private double calculateChurnRate(Map<SubscriptionStatus, Long> subscriptionsByStatus) {
+        long totalSubscriptions = subscriptionsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        long canceledSubscriptions = subscriptionsByStatus.get(SubscriptionStatus.CANCELED);
         if (totalSubscriptions == 0) return 0.0;
         return (double) canceledSubscriptions / totalSubscriptions * 100;
     }
 
-    private double calculateTrialConversionRate() {
-        long totalTrials = subscriptionRepository.findByStatus(SubscriptionStatus.TRIALING).size();
-        long convertedTrials = subscriptionRepository.findByStatus(SubscriptionStatus.ACTIVE).size();
+    private double calculateTrialConversionRate(Map<SubscriptionStatus, Long> subscriptionsByStatus) {
+        long totalTrials = subscriptionsByStatus.get(SubscriptionStatus.TRIALING);
+        long convertedTrials = subscriptionsByStatus.get(SubscriptionStatus.ACTIVE);
         if (totalTrials == 0) return 0.0;
         return (double) convertedTrials / (totalTrials + convertedTrials) * 100;
     }
 
     private Map<String, Long> getUsageMetricsSummary() {
-        Map<String, Long> metrics = new HashMap<>();
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-
-        for (UsageMetricType metricType : UsageMetricType.values()) {
-            List<UsageTracking> tracking = usageTrackingRepository.findByTimestampBetween(
-                    startOfMonth, LocalDateTime.now());
-            long sum = tracking.stream()
-                    .filter(t -> t.getMetricType() == metricType)
-                    .mapToLong(UsageTracking::getValue)
-                    .sum();
-            metrics.put(metricType.name(), sum);
-        }
-        return metrics;
+        LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
+        return analyticsRollupManager.getUsageSince(startOfMonth);
     }
 
     private Map<String, Long> getSubscriptionsByPlan() {
-        Map<String, Long> distribution = new HashMap<>();
-        subscriptionRepository.findAll().forEach(sub -> {
-            String planName = sub.getPlan() != null ? sub.getPlan().getName() : "No Plan";
-            distribution.put(planName, distribution.getOrDefault(planName, 0L) + 1);
-        });
-        return distribution;
+        return analyticsRollupManager.getSubscriptionsByPlan();
     }
 
-    private Map<String, Long> getSubscriptionsByStatus() {
+    private Map<String, Long> getSubscriptionsByStatus(Map<SubscriptionStatus, Long> subscriptionsByStatus) {
         Map<String, Long> distribution = new HashMap<>();
-        for (SubscriptionStatus status : SubscriptionStatus.values()) {
-            long count = subscriptionRepository.findByStatus(status).size();
-            distribution.put(status.name(), count);
-        }
+        subscriptionsByStatus.forEach((status, count) -> distribution.put(status.name(), count));
         return distribution;
     }
 
     private long getOrganizationsCreatedThisMonth() {
         LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0);
-        return organizationRepository.findAll().stream()
-                .filter(org -> org.getCreatedAt().isAfter(startOfMonth))
-                .count();
+        return organizationRepository.countByCreatedAtAfter(startOfMonth);
     }
 
     private double calculateAverageUsersPerOrg() {
@@ -1,25 +1,25 @@
 package com.buildbetter.webApi.controllers;
 
 import com.buildbetter.business.concretes.StorageManager;
+import com.buildbetter.business.requests.CreateDirectUploadRequest;
+import com.buildbetter.business.responses.DirectDownloadResponse;
+import com.buildbetter.business.responses.DirectUploadResponse;
 import com.buildbetter.business.responses.GetAllImagesResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.net.MalformedURLException;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.IOException;
+import java.security.Principal;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/storage")
 @CrossOrigin
 public class StorageController {
-    private final Path uploadPath = Paths.get("src/main/resources/static/uploads");
     private final StorageManager fileStorageService;
 
     @Autowired
@@ -33,23 +33,23 @@ public class StorageController {
         return ResponseEntity.ok(images);
     }
 
+    // Presigned upload URL; the bytes go from the client to the storage backend without passing the API
+    @PostMapping("/direct-uploads")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<DirectUploadResponse> createDirectUpload(@RequestBody CreateDirectUploadRequest request,
+                                                                   Principal principal) throws IOException {
+        return ResponseEntity.ok(fileStorageService.createDirectUpload(request, principal.getName()));
+    }
+
+    @GetMapping("/{fileName:.+}/download-url")
+    public ResponseEntity<DirectDownloadResponse> getDownloadUrl(@PathVariable String fileName) throws IOException {
+        return ResponseEntity.ok(fileStorageService.getDownloadUrl(fileName));
+    }
+
+    // Same handling as the ad image endpoint: validators, conditional GET, ranges and zero-copy body
     @GetMapping(value = "/{fileName:.+}")
-    public ResponseEntity<Resource> getImage(@PathVariable String fileName) {
-        try {
-            Path file = uploadPath.resolve(fileName);
-            Resource resource = new UrlResource(file.toUri());
-
-            if (resource.exists() || resource.isReadable()) {
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_JPEG)
-                        .header(HttpHeaders.CONTENT_DISPOSITION,
-                                "inline; fileName=\"" + resource.getFilename() + "\"")
-                        .body(resource);
-            } else {
-                return ResponseEntity.notFound().build();
-            }
-        } catch (MalformedURLException e) {
-            return ResponseEntity.notFound().build();
-        }
+    public void getImage(@PathVariable String fileName, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        fileStorageService.serveImage(fileName, request, response);
     }
 }
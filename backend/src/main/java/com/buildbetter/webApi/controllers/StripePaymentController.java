@@ -1,6 +1,7 @@
 package com.buildbetter.webApi.controllers;
 
 import com.buildbetter.business.concretes.StripeManager;
+import com.buildbetter.business.concretes.StripeWebhookInbox;
 import com.buildbetter.core.utilities.exceptions.BusinessException;
 import com.buildbetter.dataAccess.abstracts.ExpertRepository;
 import com.buildbetter.entities.concretes.Expert;
@@ -31,6 +32,7 @@ public class StripePaymentController {
 
     private final StripeManager stripeManager;
     private final ExpertRepository expertRepository;
+    private final StripeWebhookInbox stripeWebhookInbox;
 
     private final String stripeWebhookSecret;
 
@@ -38,9 +40,11 @@ public class StripePaymentController {
     public StripePaymentController(
             StripeManager stripeManager,
             ExpertRepository expertRepository,
+            StripeWebhookInbox stripeWebhookInbox,
             @Value("${stripe.webhook-secret}") String stripeWebhookSecret) {
         this.stripeManager = stripeManager;
         this.expertRepository = expertRepository;
+        this.stripeWebhookInbox = stripeWebhookInbox;
         this.stripeWebhookSecret = stripeWebhookSecret;
     }
 
@@ -84,19 +88,15 @@ public class StripePaymentController {
             // Construct and verify the event using the Stripe webhook secret
             Event event = Webhook.constructEvent(payload, sigHeader, stripeWebhookSecret);
 
-            // Handle different event types
-            switch (event.getType()) {
-                case "payment_intent.succeeded":
-                    stripeManager.handleSuccessfulPayment(event);
-                    break;
-                case "payment_intent.payment_failed":
-                    stripeManager.handleFailedPayment(event);
-                    break;
-                default:
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unhandled event type");
+            if (!StripeWebhookInbox.HANDLED_EVENT_TYPES.contains(event.getType())) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unhandled event type");
             }
 
-            return ResponseEntity.ok("Webhook received and processed.");
+            // Stored and acknowledged here, processed by the inbox workers
+            if (!stripeWebhookInbox.receive(event, payload)) {
+                return ResponseEntity.ok("Duplicate webhook event ignored.");
+            }
+            return ResponseEntity.ok("Webhook received.");
         } catch (SignatureVerificationException e) {
             // Return error if the signature is invalid
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid signature: " + e.getMessage());
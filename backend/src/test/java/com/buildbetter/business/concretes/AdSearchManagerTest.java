@@ -0,0 +1,116 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.responses.GetSearchResultResponse;
+import com.buildbetter.dataAccess.abstracts.AdsRepository;
+import com.buildbetter.dataAccess.abstracts.CategoryRepository;
+import com.buildbetter.dataAccess.abstracts.ServiceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdSearchManagerTest {
+
+    private final Set<String> inactiveAdIds = new HashSet<>();
+    private AdsRepository adsRepository;
+    private AdSearchManager manager;
+
+    @BeforeEach
+    void setUp() {
+        adsRepository = mock(AdsRepository.class);
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        ServiceRepository serviceRepository = mock(ServiceRepository.class);
+        when(categoryRepository.findAllNames()).thenReturn(List.of());
+        when(serviceRepository.findAllNames()).thenReturn(List.of());
+        when(adsRepository.findActiveIds(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream().filter(id -> !inactiveAdIds.contains(id)).toList());
+
+        // Ad 1 is the newest and ranks first
+        List<AdsRepository.AdSearchView> ads = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            ads.add(adView(Integer.toString(i), LocalDateTime.now().minusDays(i)));
+        }
+        when(adsRepository.findActiveSearchViews()).thenReturn(ads);
+
+        manager = new AdSearchManager(adsRepository, categoryRepository, serviceRepository);
+        ReflectionTestUtils.setField(manager, "recencyHalfLifeDays", 30L);
+        ReflectionTestUtils.setField(manager, "maxResults", 50);
+        manager.rebuild();
+        awaitIndexReady();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.stop();
+    }
+
+    @Test
+    void staleTopHitsAreReplacedByTheNextOnes() {
+        inactiveAdIds.addAll(List.of("1", "2", "3"));
+
+        List<GetSearchResultResponse> results = manager.search("roof repair", "ad", 3);
+
+        assertEquals(List.of("4", "5", "6"), ids(results));
+        assertEquals(3L, manager.getStats().get("staleHits"));
+    }
+
+    @Test
+    void refillsAcrossRoundsWhenMostHitsAreStale() {
+        inactiveAdIds.addAll(List.of("1", "2", "3", "4", "5", "6", "7"));
+
+        assertEquals(List.of("8", "9"), ids(manager.search("roof", null, 2)));
+    }
+
+    @Test
+    void returnsWhatIsLeftWhenTheIndexRunsOut() {
+        inactiveAdIds.addAll(List.of("2", "4", "6", "8", "10"));
+
+        assertEquals(List.of("1", "3", "5", "7", "9"), ids(manager.search("roof", "ad", 8)));
+    }
+
+    @Test
+    void freshIndexNeedsNoRefill() {
+        List<GetSearchResultResponse> results = manager.search("roof", "ad", 4);
+
+        assertEquals(List.of("1", "2", "3", "4"), ids(results));
+        assertEquals(0L, manager.getStats().get("staleHits"));
+    }
+
+    private void awaitIndexReady() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!Boolean.TRUE.equals(manager.getStats().get("ready"))) {
+            assertTrue(System.nanoTime() < deadline, "search index was not built");
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+    }
+
+    private static AdsRepository.AdSearchView adView(String id, LocalDateTime releasedAt) {
+        AdsRepository.AdSearchView view = mock(AdsRepository.AdSearchView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getTitle()).thenReturn("Roof repair " + id);
+        when(view.getDescriptions()).thenReturn("Leaking roof needs new tiles");
+        when(view.getAdReleaseDate()).thenReturn(releasedAt);
+        when(view.getCategoryName()).thenReturn("Roofing");
+        when(view.getServiceName()).thenReturn("Repair");
+        return view;
+    }
+
+    private static List<String> ids(List<GetSearchResultResponse> results) {
+        return results.stream().map(GetSearchResultResponse::getId).toList();
+    }
+}
@@ -0,0 +1,218 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.business.requests.CreateChatMessageRequest;
+import com.buildbetter.business.responses.GetChatRoomResponse;
+import com.buildbetter.dataAccess.abstracts.*;
+import com.buildbetter.entities.concretes.*;
+import com.buildbetter.enums.ChatRoomStatus;
+import com.buildbetter.enums.MessageType;
+import com.stripe.exception.StripeException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pins the number of JDBC statements the chat hot paths cost: the room list regardless of how many
+ * rooms there are, and an inbound message once its room membership is cached.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ChatManagerStatementCountTest {
+
+    private static final int MESSAGES_PER_ROOM = 12;
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+    @Autowired
+    private ChatMessageRepository chatMessageRepository;
+    @Autowired
+    private ContactSharingRecordRepository contactSharingRecordRepository;
+    @Autowired
+    private ChatReadCursorRepository chatReadCursorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ExpertRepository expertRepository;
+
+    private ChatRoomMembershipCache membershipCache;
+    private ChatManager chatManager;
+    private Statistics statistics;
+    private Category category;
+    private JobTitle jobTitle;
+    private int sequence;
+
+    @BeforeEach
+    void setUp() {
+        membershipCache = new ChatRoomMembershipCache(chatRoomRepository);
+        ReflectionTestUtils.setField(membershipCache, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(membershipCache, "maxEntries", 100);
+
+        chatManager = new ChatManager(chatRoomRepository, chatMessageRepository, contactSharingRecordRepository,
+                chatReadCursorRepository, userRepository, expertRepository, mock(NotificationManager.class),
+                mock(ChatPaymentSaga.class), mock(InvoiceManager.class), membershipCache,
+                new ChatValidationManager(expertRepository, contactSharingRecordRepository),
+                mock(ApplicationEventPublisher.class));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        category = entityManager.persist(Category.builder().name("Plumbing").isActive(true).build());
+        jobTitle = new JobTitle();
+        jobTitle.setName("Plumber");
+        jobTitle.setCategory(category);
+        entityManager.persist(jobTitle);
+    }
+
+    @Test
+    void roomListCostsFourStatementsForOneRoom() {
+        User user = persistUser();
+        Expert expert = persistExpert();
+        persistRoomWithMessages(user, expert);
+
+        assertEquals(4, countRoomListStatements(user, 1));
+    }
+
+    @Test
+    void roomListCostsFourStatementsForManyRooms() {
+        User user = persistUser();
+        for (int i = 0; i < 6; i++) {
+            persistRoomWithMessages(user, persistExpert());
+        }
+
+        assertEquals(4, countRoomListStatements(user, 6));
+    }
+
+    @Test
+    void expertRoomListCostsFourStatements() {
+        Expert expert = persistExpert();
+        for (int i = 0; i < 3; i++) {
+            persistRoomWithMessages(persistUser(), expert);
+        }
+
+        assertEquals(4, countRoomListStatements(expert, 3));
+    }
+
+    @Test
+    void ingestCostsOneInsertAndOneUpdatePerMessage() throws StripeException {
+        User user = persistUser();
+        Expert expert = persistExpert();
+        ChatRoom room = persistRoomWithMessages(user, expert);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Cold membership cache: one extra SELECT for the membership projection
+        assertEquals(3, countIngestStatements(room, user));
+
+        for (int i = 0; i < 5; i++) {
+            User sender = i % 2 == 0 ? expert : user;
+            assertEquals(2, countIngestStatements(room, sender));
+            assertEquals(1, statistics.getEntityInsertCount());
+            assertEquals(0, statistics.getEntityLoadCount());
+        }
+        assertEquals(MESSAGES_PER_ROOM + 6, chatMessageRepository.count());
+    }
+
+    private long countIngestStatements(ChatRoom room, User sender) throws StripeException {
+        statistics.clear();
+
+        ChatManager.SentChatMessage sent = chatManager.ingestMessage(CreateChatMessageRequest.builder()
+                .chatRoomId(room.getId())
+                .senderId(sender.getId())
+                .content("see you tomorrow")
+                .build(), sender.getEmail());
+        entityManager.flush();
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(sender.getId(), sent.response().getSenderId());
+        return statements;
+    }
+
+    private long countRoomListStatements(User participant, int expectedRooms) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<GetChatRoomResponse> rooms = chatManager.getChatRoomSummaries(participant);
+
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(expectedRooms, rooms.size());
+        for (GetChatRoomResponse room : rooms) {
+            assertEquals(10, room.getRecentMessages().size());
+            assertEquals(MESSAGES_PER_ROOM / 2, room.getUnreadCount());
+        }
+        return statements;
+    }
+
+    private User persistUser() {
+        int n = ++sequence;
+        return entityManager.persist(User.builder()
+                .name("User " + n)
+                .email("user" + n + "@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+    }
+
+    private Expert persistExpert() {
+        int n = ++sequence;
+        Expert expert = new Expert();
+        expert.setName("Expert " + n);
+        expert.setEmail("expert" + n + "@example.com");
+        expert.setPassword("secret");
+        expert.setRole(Role.EXPERT);
+        expert.setCompanyName("Company " + n);
+        expert.setJobTitle(jobTitle);
+        return entityManager.persist(expert);
+    }
+
+    private ChatRoom persistRoomWithMessages(User user, Expert expert) {
+        Ads ad = new Ads();
+        ad.setTitle("Fix the sink " + sequence);
+        ad.setDescriptions("Kitchen sink is leaking");
+        ad.setCategory(category);
+        ad.setUser(user);
+        entityManager.persist(ad);
+
+        ChatRoom room = new ChatRoom();
+        room.setChatId(user.getId() + "_" + expert.getId());
+        room.setUser(user);
+        room.setExpert(expert);
+        room.setAd(ad);
+        room.setActive(true);
+        room.setStatus(ChatRoomStatus.ACTIVE);
+        room.setLastActivity(LocalDateTime.now());
+        entityManager.persist(room);
+
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        for (int i = 0; i < MESSAGES_PER_ROOM; i++) {
+            entityManager.persist(ChatMessage.builder()
+                    .chatRoom(room)
+                    .sender(i % 2 == 0 ? user : expert)
+                    .content("message " + i)
+                    .messageType(MessageType.CHAT)
+                    .timestamp(start.plusMinutes(i))
+                    .isRead(false)
+                    .contactInfo(false)
+                    .build());
+        }
+        return room;
+    }
+}
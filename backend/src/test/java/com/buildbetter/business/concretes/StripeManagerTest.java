@@ -0,0 +1,123 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.CustomerPaymentMethodRepository;
+import com.buildbetter.entities.concretes.CustomerPaymentMethod;
+import com.stripe.Stripe;
+import com.stripe.exception.StripeException;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Off-session charges against a stub Stripe API (stripe.api-base), checking which calls a charge
+ * makes depending on whether the payment method is already registered locally.
+ */
+class StripeManagerTest {
+
+    private static final String CUSTOMER_ID = "cus_test";
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> paymentIntentBodies = Collections.synchronizedList(new ArrayList<>());
+    private HttpServer stripeStub;
+    private CustomerPaymentMethodRepository customerPaymentMethodRepository;
+    private PaymentMethodRegistry paymentMethodRegistry;
+    private StripeManager stripeManager;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stripeStub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stripeStub.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requests.add(exchange.getRequestMethod() + " " + path);
+            String body;
+            if (path.equals("/v1/payment_methods")) {
+                body = "{\"object\":\"list\",\"url\":\"/v1/payment_methods\",\"has_more\":false,"
+                        + "\"data\":[{\"id\":\"pm_listed\",\"object\":\"payment_method\",\"type\":\"sepa_debit\"}]}";
+            } else {
+                try (InputStream in = exchange.getRequestBody()) {
+                    paymentIntentBodies.add(URLDecoder.decode(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                            StandardCharsets.UTF_8));
+                }
+                body = "{\"id\":\"pi_test\",\"object\":\"payment_intent\",\"status\":\"processing\"}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+            exchange.close();
+        });
+        stripeStub.start();
+
+        customerPaymentMethodRepository = mock(CustomerPaymentMethodRepository.class);
+        when(customerPaymentMethodRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(customerPaymentMethodRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        paymentMethodRegistry = new PaymentMethodRegistry(customerPaymentMethodRepository);
+        ReflectionTestUtils.setField(paymentMethodRegistry, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(paymentMethodRegistry, "maxEntries", 100);
+
+        stripeManager = new StripeManager(null, null, "sk_test_stub", null, null, null, paymentMethodRegistry);
+        ReflectionTestUtils.setField(stripeManager, "apiBase", "http://127.0.0.1:" + stripeStub.getAddress().getPort());
+        stripeManager.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stripeStub.stop(0);
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        Stripe.apiKey = null;
+    }
+
+    @Test
+    void registryHitOnlyCreatesThePaymentIntent() throws StripeException {
+        paymentMethodRegistry.register(CUSTOMER_ID, "pm_registered");
+
+        String paymentIntentId = charge();
+
+        assertEquals("pi_test", paymentIntentId);
+        assertEquals(List.of("POST /v1/payment_intents"), requests);
+        assertTrue(paymentIntentBodies.get(0).contains("payment_method=pm_registered"), paymentIntentBodies.get(0));
+    }
+
+    @Test
+    void registryMissListsOnceAndRegistersTheResult() throws StripeException {
+        charge();
+
+        assertEquals(List.of("GET /v1/payment_methods", "POST /v1/payment_intents"), requests);
+        assertTrue(paymentIntentBodies.get(0).contains("payment_method=pm_listed"), paymentIntentBodies.get(0));
+        verify(customerPaymentMethodRepository).save(argThat((CustomerPaymentMethod saved) ->
+                CUSTOMER_ID.equals(saved.getStripeCustomerId()) && "pm_listed".equals(saved.getPaymentMethodId())));
+
+        requests.clear();
+        charge();
+
+        assertEquals(List.of("POST /v1/payment_intents"), requests);
+        verify(customerPaymentMethodRepository, times(1)).save(any());
+    }
+
+    private String charge() throws StripeException {
+        return stripeManager.createAndConfirmPayment(CUSTOMER_ID, new BigDecimal("25.00"), "EUR", "Contact sharing");
+    }
+}
@@ -0,0 +1,111 @@
+package com.buildbetter.business.concretes;
+
+import com.buildbetter.dataAccess.abstracts.UsageTrackingRepository;
+import com.buildbetter.entities.concretes.UsageTracking;
+import com.buildbetter.enums.UsageMetricType;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class UsageMeteringManagerTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 200_000;
+
+    @Test
+    void flushedTotalIsExactWhileWritersRace() throws Exception {
+        AtomicLong persisted = new AtomicLong();
+        UsageMeteringManager manager = newManager(persisted, 1L);
+        manager.start();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Two writers per key, so keys see both contention and idle gaps
+            String organizationId = "org-" + (t % (THREADS / 2));
+            Thread writer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                    manager.increment(organizationId, UsageMetricType.API_CALLS);
+                    // Pause now and then so the flusher can retire idle keys while writers come back
+                    if (i % 20_000 == 0) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(3));
+                    }
+                }
+            });
+            writer.start();
+            writers.add(writer);
+        }
+        start.countDown();
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        manager.stop();
+
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, persisted.get());
+        assertEquals(0L, manager.getStats().getDroppedIncrements());
+        assertEquals(0L, manager.getStats().getPendingBatches());
+    }
+
+    @Test
+    void incrementAfterIdleKeyIsRetiredIsKept() {
+        AtomicLong persisted = new AtomicLong();
+        UsageMeteringManager manager = newManager(persisted, 60_000L);
+        manager.start();
+
+        manager.add("org-1", UsageMetricType.API_CALLS, 3);
+        ReflectionTestUtils.invokeMethod(manager, "flushSafely");
+        // Second flush finds the counter at zero and retires it
+        ReflectionTestUtils.invokeMethod(manager, "flushSafely");
+        assertEquals(0L, manager.getStats().getPendingKeys());
+
+        manager.add("org-1", UsageMetricType.API_CALLS, 4);
+        assertEquals(4L, manager.getPendingUsage("org-1", UsageMetricType.API_CALLS));
+        manager.stop();
+
+        assertEquals(7L, persisted.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UsageMeteringManager newManager(AtomicLong persisted, long flushIntervalMs) {
+        UsageTrackingRepository repository = mock(UsageTrackingRepository.class);
+        doAnswer(invocation -> {
+            Iterable<UsageTracking> rows = invocation.getArgument(0);
+            rows.forEach(row -> persisted.addAndGet(row.getValue()));
+            return List.of();
+        }).when(repository).saveAll(anyIterable());
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        UsageMeteringManager manager = new UsageMeteringManager(repository,
+                mock(AnalyticsRollupManager.class), transactionTemplate);
+        ReflectionTestUtils.setField(manager, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(manager, "maxPendingBatches", 1_000_000);
+        ReflectionTestUtils.setField(manager, "maxTrackedKeys", 1_000);
+        return manager;
+    }
+}
@@ -0,0 +1,154 @@
+package com.buildbetter.core.search;
+
+import com.buildbetter.core.search.InvertedIndex.Document;
+import com.buildbetter.core.search.InvertedIndex.Hit;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvertedIndexTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final long HALF_LIFE = TimeUnit.DAYS.toMillis(30);
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void editDistanceCountsTranspositionAsOneEdit() {
+        assertEquals(0, InvertedIndex.editDistance("plumber", "plumber", 2));
+        assertEquals(1, InvertedIndex.editDistance("plumber", "plumbre", 2));
+        assertEquals(1, InvertedIndex.editDistance("kitchen", "kitchn", 2));
+        assertEquals(2, InvertedIndex.editDistance("kitchen", "ktchn", 2));
+    }
+
+    @Test
+    void editDistanceIsOptimalStringAlignmentNotDamerauLevenshtein() {
+        // Full Damerau-Levenshtein gives 2 (ca -> ac -> abc); OSA may not edit a transposed pair again
+        assertEquals(3, InvertedIndex.editDistance("ca", "abc", 5));
+    }
+
+    @Test
+    void editDistanceStopsAtCutoff() {
+        assertEquals(2, InvertedIndex.editDistance("abcdef", "uvwxyz", 1));
+        assertEquals(3, InvertedIndex.editDistance("plumber", "painter", 2));
+    }
+
+    @Test
+    void fuzzyMatchesWithinAllowedEditsForQueryLength() {
+        put("kitchen", "kitchen");
+        put("plumber", "plumber");
+
+        assertEquals(List.of("kitchen"), keys(search("kitchn")));
+        // Five letters allow one edit; "ktchn" is two away
+        assertTrue(search("ktchn").isEmpty());
+        // Three letters allow none
+        assertEquals(List.of("kitchen"), keys(search("kit")));
+        assertTrue(search("kxt").isEmpty());
+        // A typo in the first letter is not corrected
+        assertTrue(search("xlumber").isEmpty());
+        assertEquals(List.of("plumber"), keys(search("plumbre")));
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsFuzzy() {
+        put("fuzzy", "plumbre");
+        put("prefix", "plumbers");
+        put("exact", "plumber");
+
+        List<Hit> hits = search("plumber");
+
+        assertEquals(List.of("exact", "prefix", "fuzzy"), keys(hits));
+        assertEquals(1.0, hits.get(0).score(), 1e-6);
+        assertEquals(0.75, hits.get(1).score(), 1e-6);
+        assertEquals(0.5, hits.get(2).score(), 1e-6);
+    }
+
+    @Test
+    void prefixExpansionIsCappedAtSixtyFourTerms() {
+        for (int i = 0; i < 70; i++) {
+            String term = String.format("pipe%03d", i);
+            put(term, term);
+        }
+
+        List<Hit> hits = index.search(List.of("pipe"), null, 100, NOW, HALF_LIFE);
+
+        assertEquals(64, hits.size());
+        assertTrue(hits.stream().allMatch(hit -> hit.key().compareTo("pipe064") < 0));
+        // A longer query term reaches the terms the cap cut off
+        assertEquals("pipe065", search("pipe065").get(0).key());
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        put("sink", "kitchen", "sink");
+        put("tiles", "kitchen", "tiles");
+
+        assertEquals(List.of("sink"), keys(index.search(List.of("kitchen", "sink"), null, 10, NOW, HALF_LIFE)));
+        assertTrue(index.search(List.of("sink", "tiles"), null, 10, NOW, HALF_LIFE).isEmpty());
+    }
+
+    @Test
+    void keyFilterAndLimitApply() {
+        put("AD:1", "roof");
+        put("AD:2", "roof");
+        put("CATEGORY:1", "roof");
+
+        assertEquals(List.of("CATEGORY:1"),
+                keys(index.search(List.of("roof"), key -> key.startsWith("CATEGORY:"), 10, NOW, HALF_LIFE)));
+        assertEquals(2, index.search(List.of("roof"), null, 2, NOW, HALF_LIFE).size());
+    }
+
+    @Test
+    void olderDocumentsRankLower() {
+        index.put(new Document("old", Map.of("roof", 1.0f), NOW - HALF_LIFE));
+        index.put(new Document("new", Map.of("roof", 1.0f), NOW));
+
+        List<Hit> hits = search("roof");
+
+        assertEquals(List.of("new", "old"), keys(hits));
+        assertEquals(0.75, hits.get(1).score(), 1e-6);
+    }
+
+    @Test
+    void analyzedTurkishTextMatchesAnyCasing() {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        TextAnalyzer.analyze("Çatı tamiri İzmir").forEach(term -> weights.put(term, 1.0f));
+        index.put(new Document("roof", weights, NOW));
+
+        assertEquals(List.of("roof"), keys(index.search(TextAnalyzer.analyze("CATI IZMIR"), null, 10, NOW, HALF_LIFE)));
+    }
+
+    @Test
+    void removedDocumentsAreNotFound() {
+        put("a", "roof", "gutter");
+        put("b", "roof");
+
+        index.remove("a");
+
+        assertEquals(List.of("b"), keys(search("roof")));
+        assertTrue(search("gutter").isEmpty());
+        assertEquals(1, index.termCount());
+    }
+
+    private void put(String key, String... terms) {
+        Map<String, Float> weights = new LinkedHashMap<>();
+        for (String term : terms) {
+            weights.put(term, 1.0f);
+        }
+        index.put(new Document(key, weights, NOW));
+    }
+
+    private List<Hit> search(String term) {
+        return index.search(List.of(term), null, 100, NOW, HALF_LIFE);
+    }
+
+    private static List<String> keys(List<Hit> hits) {
+        return hits.stream().map(Hit::key).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.buildbetter.core.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextAnalyzerTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Çatı", "çati", "CATI", "ÇATI", "çatı"})
+    void foldsTurkishDottedAndDotlessI(String text) {
+        assertEquals(List.of("cati"), TextAnalyzer.analyze(text));
+    }
+
+    @Test
+    void foldsTurkishCapitalDottedI() {
+        assertEquals(List.of("istanbul", "isparta", "ilik"), TextAnalyzer.analyze("İstanbul ISPARTA ılık"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"Straße", "STRASSE", "strasse", "STRAẞE"})
+    void expandsSharpS(String text) {
+        assertEquals(List.of("strasse"), TextAnalyzer.analyze(text));
+    }
+
+    @Test
+    void stripsOtherDiacritics() {
+        assertEquals(List.of("muller", "koln", "garcon", "sogutucu"),
+                TextAnalyzer.analyze("Müller, Köln; garçon/SOĞUTUCU"));
+    }
+
+    @Test
+    void dropsStopWordsOfEveryLanguage() {
+        assertEquals(List.of("kitchen", "bad", "badkamer", "banyo"),
+                TextAnalyzer.analyze("The kitchen und das Bad, de badkamer ve bir banyo"));
+    }
+
+    @Test
+    void dropsSingleCharactersAndTruncatesLongTerms() {
+        List<String> terms = TextAnalyzer.analyze("a 5 " + "x".repeat(60) + " 24h");
+
+        assertEquals(List.of("x".repeat(40), "24h"), terms);
+    }
+
+    @Test
+    void emptyAndNullTextHaveNoTerms() {
+        assertTrue(TextAnalyzer.analyze(null).isEmpty());
+        assertTrue(TextAnalyzer.analyze("").isEmpty());
+        assertTrue(TextAnalyzer.analyze(" - / ").isEmpty());
+    }
+}
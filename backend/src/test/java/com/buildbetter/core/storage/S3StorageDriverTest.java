@@ -0,0 +1,286 @@
+package com.buildbetter.core.storage;
+
+import com.buildbetter.core.storage.ObjectStorageDriver.StoredObject;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the driver against a small in-memory, path-style S3 stub that re-signs every request and
+ * rejects it with 403 unless the signature matches.
+ */
+class S3StorageDriverTest {
+
+    private static final String BUCKET = "uploads";
+    private static final String ACCESS_KEY = "test-access";
+    private static final String SECRET_KEY = "test-secret";
+    private static final String REGION = "eu-central-1";
+    private static final int PAGE_SIZE = 2;
+    private static final DateTimeFormatter AMZ_DATE =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private record StubObject(byte[] data, String contentType, long lastModified) {
+    }
+
+    private final Map<String, StubObject> objects = new ConcurrentSkipListMap<>();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<Map<String, String>> headersSeen = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger badSignatures = new AtomicInteger();
+    // Logical clock in whole seconds, since Last-Modified has second resolution
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2024-03-01T10:00:00Z").toEpochMilli());
+    private final S3RequestSigner signer = new S3RequestSigner(ACCESS_KEY, SECRET_KEY, REGION);
+    private HttpServer s3Stub;
+    private S3StorageDriver driver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        s3Stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        s3Stub.createContext("/", this::handle);
+        s3Stub.start();
+        driver = new S3StorageDriver("http://127.0.0.1:" + s3Stub.getAddress().getPort(), REGION, BUCKET,
+                ACCESS_KEY, SECRET_KEY, true, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3Stub.stop(0);
+        assertEquals(0, badSignatures.get(), "requests with a bad signature");
+    }
+
+    @Test
+    void statOfMissingObjectIsEmpty() throws IOException {
+        assertEquals(Optional.empty(), driver.stat("avatars/none.png"));
+        assertEquals(List.of("HEAD /uploads/avatars/none.png"), requests);
+    }
+
+    @Test
+    void statReadsSizeTypeAndLastModified() throws IOException {
+        objects.put("avatars/1.png", new StubObject(new byte[1234], "image/png", clock.get()));
+
+        StoredObject stored = driver.stat("avatars/1.png").orElseThrow();
+
+        assertEquals("avatars/1.png", stored.key());
+        assertEquals(1234, stored.size());
+        assertEquals("image/png", stored.contentType());
+        assertEquals(clock.get(), stored.lastModified());
+    }
+
+    @Test
+    void putStreamsUnsignedPayloadUnderEncodedKey() throws IOException {
+        byte[] content = "invoice body".getBytes(StandardCharsets.UTF_8);
+
+        driver.put("invoices/2024 03+final.pdf", new ByteArrayInputStream(content), content.length, "application/pdf");
+
+        assertEquals(List.of("PUT /uploads/invoices/2024%2003%2Bfinal.pdf"), requests);
+        assertEquals(S3RequestSigner.UNSIGNED_PAYLOAD, headersSeen.get(0).get("x-amz-content-sha256"));
+        StubObject stored = objects.get("invoices/2024 03+final.pdf");
+        assertArrayEquals(content, stored.data());
+        assertEquals("application/pdf", stored.contentType());
+
+        driver.put("raw/blob", new ByteArrayInputStream(content), content.length, null);
+        assertEquals("application/octet-stream", objects.get("raw/blob").contentType());
+    }
+
+    @Test
+    void touchCopiesObjectOntoItself() throws IOException {
+        byte[] content = {1, 2, 3};
+        long createdAt = clock.get();
+        objects.put("ads/a b.jpg", new StubObject(content, "image/jpeg", createdAt));
+        clock.addAndGet(60_000);
+
+        assertTrue(driver.touch("ads/a b.jpg"));
+
+        assertEquals(List.of("HEAD /uploads/ads/a%20b.jpg", "PUT /uploads/ads/a%20b.jpg"), requests);
+        Map<String, String> copy = headersSeen.get(1);
+        assertEquals("/uploads/ads/a%20b.jpg", copy.get("x-amz-copy-source"));
+        assertEquals("REPLACE", copy.get("x-amz-metadata-directive"));
+        assertEquals("image/jpeg", copy.get("content-type"));
+        StubObject touched = objects.get("ads/a b.jpg");
+        assertArrayEquals(content, touched.data());
+        assertEquals("image/jpeg", touched.contentType());
+        assertEquals(createdAt + 60_000, touched.lastModified());
+        assertEquals(createdAt + 60_000, driver.stat("ads/a b.jpg").orElseThrow().lastModified());
+    }
+
+    @Test
+    void touchOfMissingObjectDoesNotCopy() throws IOException {
+        assertFalse(driver.touch("ads/gone.jpg"));
+        assertEquals(List.of("HEAD /uploads/ads/gone.jpg"), requests);
+    }
+
+    @Test
+    void listFollowsContinuationTokensWithinPrefix() throws IOException {
+        for (String key : List.of("chat/1", "chat/2", "chat/3", "chat/4", "chat/5", "invoices/1")) {
+            objects.put(key, new StubObject(key.getBytes(StandardCharsets.UTF_8), null, clock.get()));
+        }
+
+        List<StoredObject> listed = new ArrayList<>();
+        driver.list("chat/", listed::add);
+
+        assertEquals(List.of("chat/1", "chat/2", "chat/3", "chat/4", "chat/5"),
+                listed.stream().map(StoredObject::key).toList());
+        assertEquals(6, listed.get(0).size());
+        assertEquals(clock.get(), listed.get(0).lastModified());
+        assertEquals(List.of(
+                "GET /uploads?list-type=2&prefix=chat/",
+                "GET /uploads?continuation-token=chat/2&list-type=2&prefix=chat/",
+                "GET /uploads?continuation-token=chat/4&list-type=2&prefix=chat/"), requests);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String rawPath = exchange.getRequestURI().getRawPath();
+            requests.add(exchange.getRequestMethod() + " " + rawPath + (query.isEmpty() ? "" : "?" + joinQuery(query)));
+            Map<String, String> headers = new TreeMap<>();
+            exchange.getRequestHeaders().forEach((name, values) -> headers.put(name.toLowerCase(), values.get(0)));
+            headersSeen.add(headers);
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            if (!signatureMatches(exchange, rawPath, query, headers)) {
+                badSignatures.incrementAndGet();
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+
+            String path = URLDecoder.decode(rawPath.replace("+", "%2B"), StandardCharsets.UTF_8);
+            String key = path.length() > BUCKET.length() + 2 ? path.substring(BUCKET.length() + 2) : "";
+            switch (exchange.getRequestMethod()) {
+                case "HEAD" -> head(exchange, key);
+                case "PUT" -> put(exchange, key, headers, body);
+                case "GET" -> list(exchange, query);
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private void head(HttpExchange exchange, String key) throws IOException {
+        StubObject object = objects.get(key);
+        if (object == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", object.contentType());
+        exchange.getResponseHeaders().set("Content-Length", Integer.toString(object.data().length));
+        exchange.getResponseHeaders().set("Last-Modified", DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(Instant.ofEpochMilli(object.lastModified()).atZone(ZoneOffset.UTC)));
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void put(HttpExchange exchange, String key, Map<String, String> headers, byte[] body) throws IOException {
+        String copySource = headers.get("x-amz-copy-source");
+        if (copySource == null) {
+            objects.put(key, new StubObject(body, headers.get("content-type"), clock.get()));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        StubObject source = objects.get(key);
+        if (source == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        objects.put(key, new StubObject(source.data(), headers.get("content-type"), clock.get()));
+        respond(exchange, "<CopyObjectResult><LastModified>" + Instant.ofEpochMilli(clock.get())
+                + "</LastModified></CopyObjectResult>");
+    }
+
+    private void list(HttpExchange exchange, Map<String, String> query) throws IOException {
+        String prefix = query.getOrDefault("prefix", "");
+        String after = query.get("continuation-token");
+        StringBuilder xml = new StringBuilder("<ListBucketResult xmlns=\"http://s3.amazonaws.com/doc/2006-03-01/\">");
+        int count = 0;
+        String last = null;
+        boolean truncated = false;
+        for (Map.Entry<String, StubObject> entry : objects.entrySet()) {
+            String key = entry.getKey();
+            if (!key.startsWith(prefix) || (after != null && key.compareTo(after) <= 0)) {
+                continue;
+            }
+            if (count == PAGE_SIZE) {
+                truncated = true;
+                break;
+            }
+            xml.append("<Contents><Key>").append(key).append("</Key><LastModified>")
+                    .append(Instant.ofEpochMilli(entry.getValue().lastModified())).append("</LastModified><Size>")
+                    .append(entry.getValue().data().length).append("</Size></Contents>");
+            count++;
+            last = key;
+        }
+        xml.append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(last).append("</NextContinuationToken>");
+        }
+        respond(exchange, xml.append("</ListBucketResult>").toString());
+    }
+
+    private boolean signatureMatches(HttpExchange exchange, String rawPath, Map<String, String> query,
+                                     Map<String, String> headers) {
+        String authorization = headers.get("authorization");
+        if (authorization == null) {
+            return false;
+        }
+        String signedHeaders = authorization.replaceAll(".*SignedHeaders=([^,]+),.*", "$1");
+        TreeMap<String, String> signed = new TreeMap<>();
+        for (String name : signedHeaders.split(";")) {
+            // sign() adds these two itself
+            if (!name.equals("x-amz-date") && !name.equals("x-amz-content-sha256")) {
+                signed.put(name, headers.get(name));
+            }
+        }
+        Instant signedAt = Instant.from(AMZ_DATE.parse(headers.get("x-amz-date")));
+        return signer.sign(exchange.getRequestMethod(), rawPath, query, signed, headers.get("x-amz-content-sha256"),
+                signedAt).equals(authorization);
+    }
+
+    private static void respond(HttpExchange exchange, String xml) throws IOException {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new TreeMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            query.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static String joinQuery(Map<String, String> query) {
+        StringBuilder joined = new StringBuilder();
+        query.forEach((name, value) -> joined.append(joined.length() == 0 ? "" : "&").append(name).append('=').append(value));
+        return joined.toString();
+    }
+}
@@ -0,0 +1,89 @@
+package com.buildbetter.core.utilities.detector;
+
+import com.buildbetter.core.utilities.detector.ContactInfoDetector.ContactMatch;
+import com.buildbetter.core.utilities.detector.ContactInfoDetector.ContactType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContactInfoDetectorTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "call 0612345678",
+            "call +31 6 12 34 56 78 now",
+            "06-12 34 56 78",
+            "+90 532 123 45 67",
+            "0532.123.45.67",
+            "0090 532 123 4567",
+            "(0532) 123 45 67",
+            "+31 (0)6 12345678",
+            "612-345-6789",
+            "my number is 05321234567.",
+            "on 15.01.2024 call 0612345678"
+    })
+    void detectsPhoneNumbers(String message) {
+        assertTrue(ContactInfoDetector.containsContactInformation(message), message);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "15.01.2024 - 20.01.2024",
+            "15.01.2024-20.01.2024",
+            "01.01.2024-02.01.2024",
+            "2024-01-15 / 2024-02-15",
+            "from 2024-01-15 to 2024-02-15",
+            "1.500.000 - 2.000.000",
+            "1.500.000-2.000.000",
+            "budget 1.500.000.000 TL",
+            "1 500 000 000 TL",
+            "12345678.90 TL",
+            "1500000-2000000",
+            "price is 1200 euros",
+            "order 12345",
+            "meet at 10.30 ok"
+    })
+    void ignoresDatesAndAmounts(String message) {
+        assertFalse(ContactInfoDetector.containsContactInformation(message), message);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "mail me john.doe@gmail.com ok",
+            "john at gmail dot com",
+            "john (at) gmail (dot) com",
+            "john[at]gmail[dot]co.uk",
+            "line1\nmy mail is a@b.com\nbye"
+    })
+    void detectsEmailAddresses(String message) {
+        assertTrue(ContactInfoDetector.containsContactInformation(message), message);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "see you at home tomorrow",
+            "I'm at work. Dot com bubble"
+    })
+    void ignoresOrdinaryText(String message) {
+        assertFalse(ContactInfoDetector.containsContactInformation(message), message);
+    }
+
+    @Test
+    void phoneMatchStopsBeforeTrailingDate() {
+        String message = "0612345678 15.01.2024";
+        List<ContactMatch> matches = ContactInfoDetector.findContactInformation(message);
+        assertEquals(List.of(new ContactMatch(ContactType.PHONE, 0, 10)), matches);
+    }
+
+    @Test
+    void redactsEveryMatch() {
+        String redacted = ContactInfoDetector.redact("call 0612345678 or a@b.com on 15.01.2024", "***");
+        assertEquals("call *** or *** on 15.01.2024", redacted);
+    }
+}